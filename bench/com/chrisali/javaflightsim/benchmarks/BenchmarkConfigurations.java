@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Creates the configurations shared by all benchmarks; each benchmark is run for both shipped aircraft, Navion and TwinNavion
+ * 
+ * @author Christopher Ali
+ *
+ */
+final class BenchmarkConfigurations {
+	
+	private BenchmarkConfigurations() {}
+	
+	/**
+	 * @param aircraftName
+	 * @return configuration read from SimConfig with aircraftName selected and all simulation options removed
+	 */
+	static SimulationConfiguration create(String aircraftName) {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.setSelectedAircraft(aircraftName);
+		configuration.getSimulationOptions().clear();
+		
+		return configuration;
+	}
+}
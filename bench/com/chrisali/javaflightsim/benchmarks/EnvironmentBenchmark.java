@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.enviroment.AtmosphereModel;
+import com.chrisali.javaflightsim.simulation.enviroment.Environment;
+import com.chrisali.javaflightsim.simulation.enviroment.EnvironmentParameters;
+import com.chrisali.javaflightsim.simulation.enviroment.EnvironmentState;
+
+/**
+ * Benchmarks {@link Environment#getAndUpdateEnvironmentParams}, sweeping altitude through the troposphere and stratosphere.
+ * The tabulated {@link AtmosphereModel} is compared against direct evaluation of the standard atmosphere equations.
+ * The environment model does not depend on the aircraft, so unlike other benchmarks this one has no aircraft parameter
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnvironmentBenchmark {
+	
+	private static final int SAMPLES = 64;
+	
+	private Environment environment;
+	
+	private double[][] positions = new double[SAMPLES][];
+	private double[] environmentParameters = new double[EnvironmentParameters.values().length];
+	private EnvironmentState environmentState = new EnvironmentState();
+	private int sample = 0;
+	
+	@Setup
+	public void setup() {
+		environment = new Environment();
+		environment.setWindSpeed(15);
+		environment.setWindDir(270);
+		
+		for (int i = 0; i < SAMPLES; i++)
+			positions[i] = new double[] {0, 0, 60000.0 * i / SAMPLES};
+	}
+	
+	@Benchmark
+	public double[] getAndUpdateEnvironmentParams() {
+		sample = (sample + 1) & (SAMPLES - 1);
+		
+		return environment.getAndUpdateEnvironmentParams(positions[sample], environmentParameters);
+	}
+	
+	@Benchmark
+	public Map<EnvironmentParameters, Double> getAndUpdateEnvironmentParamsMap() {
+		sample = (sample + 1) & (SAMPLES - 1);
+		
+		return environment.getAndUpdateEnvironmentParams(positions[sample]);
+	}
+	
+	@Benchmark
+	public EnvironmentState getAndUpdateEnvironmentParamsState() {
+		sample = (sample + 1) & (SAMPLES - 1);
+		
+		return environment.getAndUpdateEnvironmentParams(positions[sample], environmentState);
+	}
+	
+	@Benchmark
+	public EnvironmentState calculateAnalytic() {
+		sample = (sample + 1) & (SAMPLES - 1);
+		
+		return AtmosphereModel.calculateAnalytic(positions[sample][2], 0.0, environmentState);
+	}
+}
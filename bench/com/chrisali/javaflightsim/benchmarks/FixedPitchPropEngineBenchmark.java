@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.enviroment.Environment;
+import com.chrisali.javaflightsim.simulation.enviroment.EnvironmentParameters;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.propulsion.Engine;
+import com.chrisali.javaflightsim.simulation.propulsion.FixedPitchPropEngine;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Benchmarks {@link FixedPitchPropEngine#updateEngineState} for every engine of the aircraft in cruise at 5000 ft, using 
+ * both the array overload used by the integration and the EnumMap overload 
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FixedPitchPropEngineBenchmark {
+	
+	@Param({"Navion", "TwinNavion"})
+	public String aircraftName;
+	
+	private Engine[] engines;
+	
+	private double[] windParameters = {210.0, 0.0, 0.05};
+	private double[] environmentParameters;
+	private Map<EnvironmentParameters, Double> environmentParametersMap;
+	private Map<FlightControl, Double> controls;
+	
+	@Setup
+	public void setup() {
+		Set<Engine> engineSet = FileUtilities.readAircraftConfiguration(aircraftName).getEngines();
+		engines = engineSet.toArray(new Engine[engineSet.size()]);
+		controls = BenchmarkConfigurations.create(aircraftName).getInitialControls();
+		
+		Environment environment = new Environment();
+		environmentParameters = environment.getAndUpdateEnvironmentParams(new double[] {0, 0, 5000}, 
+																		   new double[EnvironmentParameters.values().length]);
+		environmentParametersMap = environment.getAndUpdateEnvironmentParams(new double[] {0, 0, 5000});
+	}
+	
+	@Benchmark
+	public void updateEngineState(Blackhole blackhole) {
+		for (Engine engine : engines) {
+			engine.updateEngineState(controls, environmentParameters, windParameters);
+			blackhole.consume(engine.getEngineThrust());
+		}
+	}
+	
+	@Benchmark
+	public void updateEngineStateMap(Blackhole blackhole) {
+		for (Engine engine : engines) {
+			engine.updateEngineState(controls, environmentParametersMap, windParameters);
+			blackhole.consume(engine.getEngineThrust());
+		}
+	}
+}
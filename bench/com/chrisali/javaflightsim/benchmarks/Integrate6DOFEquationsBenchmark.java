@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.setup.Options;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+
+/**
+ * Benchmarks a single step of {@link Integrate6DOFEquations}, both with output logging ({@link Integrate6DOFEquations#step()}) 
+ * and without ({@link Integrate6DOFEquations#integrateStep()}). {@link Options#UNLIMITED_FLIGHT} is enabled so that the log is 
+ * capped at 100 seconds of flight as in a pilot in the loop simulation; the simulation is restarted every iteration
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Integrate6DOFEquationsBenchmark {
+	
+	@Param({"Navion", "TwinNavion"})
+	public String aircraftName;
+	
+	private Integrate6DOFEquations simulation;
+	
+	@Setup(Level.Iteration)
+	public void setup() {
+		SimulationConfiguration configuration = BenchmarkConfigurations.create(aircraftName);
+		configuration.getSimulationOptions().add(Options.UNLIMITED_FLIGHT);
+		
+		simulation = new Integrate6DOFEquations(new FlightControlsState(configuration), configuration);
+	}
+	
+	@Benchmark
+	public void step() {
+		simulation.step();
+	}
+	
+	@Benchmark
+	public void integrateStep() {
+		simulation.integrateStep();
+	}
+}
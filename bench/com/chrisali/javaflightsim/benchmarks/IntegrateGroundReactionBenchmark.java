@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
+import com.chrisali.javaflightsim.simulation.integration.IntegrateGroundReaction;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Benchmarks {@link IntegrateGroundReaction#integrateStep(double)} while the aircraft rolls along the ground with all 
+ * three landing gear in contact, so that tire forces and strut dynamics are calculated on every step
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntegrateGroundReactionBenchmark {
+	
+	private static final double TERRAIN_HEIGHT = 0.0;
+	
+	@Param({"Navion", "TwinNavion"})
+	public String aircraftName;
+	
+	private IntegrateGroundReaction groundReaction;
+	
+	@Setup
+	public void setup() {
+		SimulationConfiguration configuration = BenchmarkConfigurations.create(aircraftName);
+		Aircraft aircraft = FileUtilities.readAircraftConfiguration(aircraftName);
+		
+		double[] linearVelocities  = {30.0, 0.0, 0.0};
+		double[] NEDPosition       = {0.0, 0.0, TERRAIN_HEIGHT - 2.0}; // struts fully compressed
+		double[] eulerAngles       = {0.0, 0.0, 0.0};
+		double[] angularRates      = {0.0, 0.0, 0.0};
+		double[] windParameters    = {30.0, 0.0, 0.0};
+		double[] sixDOFDerivatives = new double[14];
+		double[] integratorConfig  = {0.0, 1.0/120.0, Double.POSITIVE_INFINITY};
+		
+		groundReaction = new IntegrateGroundReaction(linearVelocities, NEDPosition, eulerAngles, angularRates, windParameters,
+													 sixDOFDerivatives, integratorConfig, aircraft, configuration.getInitialControls());
+	}
+	
+	@Benchmark
+	public double[] integrateStep() {
+		groundReaction.integrateStep(TERRAIN_HEIGHT);
+		
+		return groundReaction.getTotalGroundForces();
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.aircraft.LookupTable;
+import com.chrisali.javaflightsim.simulation.aircraft.StabilityDerivatives;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Benchmarks interpolation of the CL_ALPHA {@link LookupTable} with {@link LookupTable#interpolate(double, double)} and
+ * {@link LookupTable#evaluate(double, double)}, sweeping angle of attack and flap deflection so that every call 
+ * lands in a different interval of the table
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupTableBenchmark {
+	
+	private static final int SAMPLES = 64;
+	
+	@Param({"Navion", "TwinNavion"})
+	public String aircraftName;
+	
+	private LookupTable table;
+	
+	private double[] angles = new double[SAMPLES];
+	private double[] flaps  = new double[SAMPLES];
+	private int sample = 0;
+	
+	@Setup
+	public void setup() {
+		table = FileUtilities.readAircraftConfiguration(aircraftName).getStabilityDerivative(StabilityDerivatives.CL_ALPHA);
+		
+		for (int i = 0; i < SAMPLES; i++) {
+			angles[i] = -0.15 + 0.3 * i / SAMPLES;
+			flaps[i]  = 0.5 * ((i * 7) % SAMPLES) / SAMPLES;
+		}
+	}
+	
+	@Benchmark
+	public Double interpolate() {
+		sample = (sample + 1) & (SAMPLES - 1);
+		
+		return table.interpolate(angles[sample], flaps[sample]);
+	}
+	
+	@Benchmark
+	public double evaluate() {
+		sample = (sample + 1) & (SAMPLES - 1);
+		
+		return table.evaluate(angles[sample], flaps[sample]);
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.SimulationContext;
+import com.chrisali.javaflightsim.simulation.aircraft.AircraftRepository;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+
+/**
+ * Benchmarks the time from creating a {@link SimulationContext} to completing the first integration step, which is what 
+ * a simulation pays between being started and running. The cold benchmark clears {@link AircraftRepository} first, so 
+ * that the aircraft's file is parsed and its splines built as part of the measurement; the warm benchmark uses an aircraft 
+ * already loaded by {@link AircraftRepository#warmUp(String...)}
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StartupBenchmark {
+	
+	@Param({"Navion", "TwinNavion"})
+	public String aircraftName;
+	
+	private SimulationConfiguration configuration;
+	
+	@Setup
+	public void setup() {
+		configuration = BenchmarkConfigurations.create(aircraftName);
+		AircraftRepository.getShared().warmUp(aircraftName);
+	}
+	
+	@Benchmark
+	public Integrate6DOFEquations firstStepCold() {
+		AircraftRepository.getShared().clear();
+		
+		return firstStep();
+	}
+	
+	@Benchmark
+	public Integrate6DOFEquations firstStepWarm() {
+		AircraftRepository.getShared().warmUp(aircraftName);
+		
+		return firstStep();
+	}
+	
+	private Integrate6DOFEquations firstStep() {
+		Integrate6DOFEquations simulation = new Integrate6DOFEquations(new FlightControlsState(configuration), 
+																	   new SimulationContext(configuration));
+		simulation.integrateStep();
+		
+		return simulation;
+	}
+}
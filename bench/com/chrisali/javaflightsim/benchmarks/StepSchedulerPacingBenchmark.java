@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.StepScheduler;
+
+/**
+ * Measures how closely {@link StepScheduler} paces a real time run to wall clock time. Each run steps 100 ticks whose frames 
+ * take a varying part of the time step, so the last tick should start 99 time steps after the first (495 ms at 200 Hz); a 
+ * run taking longer than that has drifted from wall clock time, which {@link StepScheduler#getDriftNanos()} also reports 
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class StepSchedulerPacingBenchmark {
+	
+	private static final int TICKS = 100;
+	
+	@Param({"120", "200"})
+	public double baseRateHz;
+	
+	@Benchmark
+	public StepScheduler pacedRun() {
+		AtomicInteger timeMS = new AtomicInteger(0);
+		StepScheduler scheduler = new StepScheduler(baseRateHz, timeMS);
+		scheduler.setRealTime(true);
+		
+		long tickNanos = (long) (1e9 / baseRateHz);
+		scheduler.add(() -> busyWait(scheduler.getTicks() % 3 * tickNanos / 5));
+		
+		while (scheduler.getTicks() < TICKS)
+			scheduler.tick();
+		
+		return scheduler;
+	}
+	
+	private static void busyWait(long nanos) {
+		long end = System.nanoTime() + nanos;
+		while (System.nanoTime() < end);
+	}
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.HeadlessSimulationRunner;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.telemetry.TelemetryDestination;
+import com.chrisali.javaflightsim.simulation.telemetry.TelemetryPublisher;
+import com.chrisali.javaflightsim.simulation.telemetry.TelemetryReceiver;
+
+/**
+ * Benchmarks steps of {@link Integrate6DOFEquations} and {@link FlightData} per second with and without a {@link TelemetryPublisher} 
+ * publishing to receivers on the loopback interface, one every step with simulation outputs and one at 60 Hz without, so 
+ * that the difference between the two is the time telemetry adds to the simulation thread. The rates at which packets are 
+ * sent to and dropped by the destinations are reported as the {@link Packets} counters, to compare against the target of 
+ * several thousand packets per second to the every step destination. Run with -prof gc to see that sending allocates nothing
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TelemetryPublisherBenchmark {
+	
+	@Param({"Navion", "TwinNavion"})
+	public String aircraftName;
+	
+	@Param({"false", "true"})
+	public boolean publishing;
+	
+	private Integrate6DOFEquations simulation;
+	private FlightData flightData;
+	
+	private TelemetryReceiver fullReceiver;
+	private TelemetryReceiver slowReceiver;
+	private TelemetryPublisher publisher;
+	
+	private TelemetryDestination full;
+	private TelemetryDestination slow;
+	
+	@Setup
+	public void setup() throws IOException {
+		SimulationConfiguration configuration = BenchmarkConfigurations.create(aircraftName);
+		
+		simulation = new HeadlessSimulationRunner(configuration, null).getSimulation();
+		flightData = new FlightData(simulation);
+		
+		if (publishing) {
+			fullReceiver = new TelemetryReceiver(0);
+			slowReceiver = new TelemetryReceiver(0);
+			new Thread(fullReceiver).start();
+			new Thread(slowReceiver).start();
+			
+			publisher = new TelemetryPublisher(flightData);
+			full = publisher.addDestination(loopback(fullReceiver), 0, true);
+			slow = publisher.addDestination(loopback(slowReceiver), 60, false);
+		}
+	}
+	
+	@Benchmark
+	public void step(Packets packets) {
+		simulation.step();
+		flightData.step();
+		
+		if (publishing)
+			packets.update(this);
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		if (!publishing)
+			return;
+		
+		publisher.close();
+		fullReceiver.close();
+		slowReceiver.close();
+	}
+	
+	private static InetSocketAddress loopback(TelemetryReceiver receiver) throws IOException {
+		return new InetSocketAddress("127.0.0.1", receiver.getLocalAddress().getPort());
+	}
+	
+	/**
+	 * Packets sent to and dropped by the destinations during each iteration, reported by JMH as rates 
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Packets {
+		public long fullSent;
+		public long slowSent;
+		public long dropped;
+		
+		private long fullSentStart;
+		private long slowSentStart;
+		private long droppedStart;
+		
+		@Setup(Level.Iteration)
+		public void reset(TelemetryPublisherBenchmark benchmark) {
+			fullSent = slowSent = dropped = 0;
+			
+			if (!benchmark.publishing)
+				return;
+			
+			fullSentStart = benchmark.full.getSentPackets();
+			slowSentStart = benchmark.slow.getSentPackets();
+			droppedStart  = getDropped(benchmark);
+		}
+		
+		private void update(TelemetryPublisherBenchmark benchmark) {
+			fullSent = benchmark.full.getSentPackets() - fullSentStart;
+			slowSent = benchmark.slow.getSentPackets() - slowSentStart;
+			dropped  = getDropped(benchmark) - droppedStart;
+		}
+		
+		private static long getDropped(TelemetryPublisherBenchmark benchmark) {
+			return benchmark.full.getDroppedPackets() + benchmark.slow.getDroppedPackets();
+		}
+	}
+}
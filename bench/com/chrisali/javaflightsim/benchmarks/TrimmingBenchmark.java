@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chrisali.javaflightsim.simulation.aircraft.AircraftRepository;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.setup.Trimming;
+
+/**
+ * Benchmarks {@link Trimming#trimSim(SimulationConfiguration, boolean)} in test mode, so that no configuration files are 
+ * written. The trim takes its aircraft from {@link AircraftRepository#getShared()}, so the warm benchmark measures trimming 
+ * alone; the cold benchmark clears the repository first, so that reading the aircraft's file and building its splines is 
+ * part of the measurement as well
+ * 
+ * @author Christopher Ali
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrimmingBenchmark {
+	
+	@Param({"Navion", "TwinNavion"})
+	public String aircraftName;
+	
+	private SimulationConfiguration configuration;
+	
+	@Setup
+	public void setup() {
+		configuration = BenchmarkConfigurations.create(aircraftName);
+		AircraftRepository.getShared().warmUp(aircraftName);
+	}
+	
+	@Benchmark
+	public SimulationConfiguration trimSimCold() {
+		AircraftRepository.getShared().clear();
+		
+		return trimSim();
+	}
+	
+	@Benchmark
+	public SimulationConfiguration trimSimWarm() {
+		AircraftRepository.getShared().warmUp(aircraftName);
+		
+		return trimSim();
+	}
+	
+	private SimulationConfiguration trimSim() {
+		Trimming.trimSim(configuration, true);
+		
+		return configuration;
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.initializer.HeadlessSimulationController;
+import com.chrisali.javaflightsim.simulation.HeadlessSimulationRunner;
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Runner class to run Java Flight Simulator in Analysis Mode without any display, as fast as possible, using a 
+ * {@link HeadlessSimulationController} so that no Swing, AWT or LWJGL classes are loaded. Reads SimulationConfiguration.json,
+ * AnalysisControls.json and TrimCache.json from the config directory given, trims the aircraft (unless <code>--no-trim</code> 
+ * is given), runs the analysis and saves the simulation's output to the file given; output is saved as CSV if the file ends 
+ * in .csv, or as a binary flight recording otherwise. Aircraft are read from the Aircraft directory relative to the working 
+ * directory. Nothing in the config directory is modified
+ * 
+ * <p>Prints the time taken by each phase of the run, and from the start of the JVM to the output being saved, which usually 
+ * dominates the time of a short analysis</p>
+ * 
+ * <p>Usage: <code>RunHeadlessAnalysis [--no-trim] &lt;configDirectory&gt; &lt;outputFile&gt;</code></p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class RunHeadlessAnalysis {
+	private static final Logger logger = LogManager.getLogger(RunHeadlessAnalysis.class);
+	
+	private static final double NANO_TO_SEC = 1e-9;
+	private static final double MILLI_TO_SEC = 1e-3;
+	
+	public static void main(String[] args) {
+		boolean noTrim = args.length == 3 && "--no-trim".equals(args[0]);
+		
+		if (args.length != 2 && !noTrim) {
+			System.err.println("Usage: RunHeadlessAnalysis [--no-trim] <configDirectory> <outputFile>");
+			System.exit(1);
+		}
+		
+		String configDirectory = args[args.length - 2];
+		File outputFile = new File(args[args.length - 1]);
+		
+		long start = System.nanoTime();
+		
+		logger.debug("Reading configuration from: " + configDirectory + "...");
+		
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration(configDirectory);
+		AnalysisControls analysisControls = FileUtilities.readAnalysisControls(configDirectory);
+		
+		if (configuration == null) {
+			logger.error("Could not read a simulation configuration from: " + configDirectory);
+			System.exit(1);
+		}
+		
+		double readTime = (System.nanoTime() - start) * NANO_TO_SEC;
+		
+		HeadlessSimulationController controller = new HeadlessSimulationController(configuration, analysisControls);
+		controller.setTrim(!noTrim);
+		controller.setTrimCache(FileUtilities.readTrimCache(configDirectory));
+		controller.startSimulation();
+		
+		long saveStart = System.nanoTime();
+		
+		try {
+			controller.saveOutput(outputFile);
+		} catch (IOException e) {
+			logger.error("Could not save simulation output to: " + outputFile, e);
+			System.exit(1);
+		}
+		
+		double saveTime = (System.nanoTime() - saveStart) * NANO_TO_SEC;
+		
+		// Time from the JVM being launched, including its startup and class loading before main
+		double resultTime = (System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime()) * MILLI_TO_SEC;
+		
+		HeadlessSimulationRunner runner = controller.getRunner();
+		
+		System.out.println(String.format("Simulated %.2f sec in %.3f sec (%.1f sim sec/wall sec)", 
+										 runner.getSimulationTime(), runner.getWallTime(), runner.getRealTimeFactor()));
+		System.out.println(String.format("Read config %.3f sec, load and trim %.3f sec, run %.3f sec, save %.3f sec; result %.3f sec after JVM start", 
+										 readTime, controller.getSetupTime(), runner.getWallTime(), saveTime, resultTime));
+	}
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.HeadlessSimulationRunner;
+import com.chrisali.javaflightsim.simulation.recording.InputRecorder;
+import com.chrisali.javaflightsim.simulation.recording.InputReplay;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Runner class to regenerate a flight from an input recording made by {@link InputRecorder}, without any display, as fast 
+ * as possible. Reads the input recording given as the first argument and saves the regenerated simulation output to the file 
+ * given as the second argument; output is saved as CSV if the file ends in .csv, or as a binary flight recording otherwise. 
+ * Aircraft are read from the Aircraft directory relative to the working directory
+ * 
+ * <p>Usage: <code>RunHeadlessReplay &lt;inputRecording&gt; &lt;outputFile&gt;</code></p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class RunHeadlessReplay {
+	private static final Logger logger = LogManager.getLogger(RunHeadlessReplay.class);
+	
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.err.println("Usage: RunHeadlessReplay <inputRecording> <outputFile>");
+			System.exit(1);
+		}
+		
+		HeadlessSimulationRunner runner;
+		
+		try (InputReplay inputReplay = new InputReplay(new File(args[0]))) {
+			runner = new HeadlessSimulationRunner(inputReplay);
+			runner.run();
+		} catch (IOException e) {
+			logger.error("Could not read input recording: " + args[0], e);
+			System.exit(1);
+			return;
+		}
+		
+		try {
+			File outputFile = new File(args[1]);
+			
+			if ("csv".equalsIgnoreCase(FileUtilities.getFileExtension(outputFile.getName())))
+				FileUtilities.saveToCSVFile(outputFile, runner.getSimulation().getLogsOut());
+			else
+				FileUtilities.saveFlightRecording(outputFile, runner.getSimulation().getLogsOut(), runner.getConfiguration());
+		} catch (IOException e) {
+			logger.error("Could not save simulation output to: " + args[1], e);
+			System.exit(1);
+		}
+		
+		System.out.println(String.format("Replayed %.2f sec in %.3f sec (%.1f sim sec/wall sec)", 
+										 runner.getSimulationTime(), runner.getWallTime(), runner.getRealTimeFactor()));
+	}
+}
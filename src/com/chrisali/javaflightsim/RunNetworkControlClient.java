@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.inputdevices.NetworkControlDevice;
+import com.chrisali.javaflightsim.simulation.inputdevices.NetworkControlFrame;
+
+/**
+ * Runner class that sends {@link NetworkControlFrame}s to a {@link NetworkControlDevice}, sweeping the aileron and elevator back and 
+ * forth at full throttle. Useful to check network controls on loopback before connecting external software to them
+ * 
+ * <p>Usage: <code>RunNetworkControlClient &lt;host&gt; &lt;port&gt; [rate (Hz)] [duration (sec)]</code></p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class RunNetworkControlClient {
+	
+	private static final double DEFAULT_RATE_HZ = 60.0;
+	private static final double DEFAULT_DURATION_SEC = 30.0;
+	
+	// Period (sec) of the control sweeps
+	private static final double SWEEP_PERIOD_SEC = 4.0;
+	
+	// Fraction of full deflection swept through
+	private static final double SWEEP_AMPLITUDE = 0.25;
+	
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 2) {
+			System.err.println("Usage: RunNetworkControlClient <host> <port> [rate (Hz)] [duration (sec)]");
+			System.exit(1);
+		}
+		
+		InetSocketAddress address = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+		double rateHz = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_RATE_HZ;
+		double durationSec = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_DURATION_SEC;
+		
+		long periodNanos = (long) (1e9 / rateHz);
+		
+		// Not connected, so that frames are still sent while nothing is listening, such as before the simulation starts 
+		try (DatagramChannel channel = DatagramChannel.open()) {
+			System.out.println(String.format("Sending network controls to %s at %.0f Hz for %.1f sec", address, rateHz, durationSec));
+			
+			NetworkControlFrame frame = new NetworkControlFrame();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(NetworkControlFrame.BYTES);
+			
+			long startNanos = System.nanoTime();
+			long sequence = 0;
+			double time = 0;
+			
+			while (time < durationSec) {
+				double sweep = SWEEP_AMPLITUDE * Math.sin(2 * Math.PI * time / SWEEP_PERIOD_SEC);
+				
+				frame.setAxis(FlightControl.AILERON, (float) sweep);
+				frame.setAxis(FlightControl.ELEVATOR, (float) (sweep / 2));
+				frame.setAxis(FlightControl.THROTTLE_1, -1.0f); // Full throttle, as a joystick throttle lever pushed forward
+				
+				frame.encode(buffer, ++sequence);
+				channel.send(buffer, address);
+				
+				if (sequence % (long) Math.max(rateHz, 1) == 0)
+					System.out.println(String.format("%d frames sent, aileron %.2f", sequence, sweep));
+				
+				// Pace to the start time rather than the previous frame, so that the rate does not drift 
+				long nextNanos = startNanos + sequence * periodNanos;
+				long sleepNanos = nextNanos - System.nanoTime();
+				if (sleepNanos > 0)
+					Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+				
+				time = (System.nanoTime() - startNanos) * 1e-9;
+			}
+			
+			System.out.println(sequence + " frames sent");
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim;
+
+import java.io.IOException;
+
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
+import com.chrisali.javaflightsim.simulation.telemetry.TelemetryPacket;
+import com.chrisali.javaflightsim.simulation.telemetry.TelemetryPublisher;
+import com.chrisali.javaflightsim.simulation.telemetry.TelemetryReceiver;
+
+/**
+ * Runner class to receive telemetry sent by a {@link TelemetryPublisher} on the port given as the first argument, printing the 
+ * packet rate, packets lost and the latest flight data received once a second until stopped. Useful to check a telemetry feed on 
+ * loopback before connecting an external display to it
+ * 
+ * <p>Usage: <code>RunTelemetryReceiver &lt;port&gt;</code></p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class RunTelemetryReceiver {
+	
+	private static final long PRINT_PERIOD_MS = 1000;
+	
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length != 1) {
+			System.err.println("Usage: RunTelemetryReceiver <port>");
+			System.exit(1);
+		}
+		
+		try (TelemetryReceiver receiver = new TelemetryReceiver(Integer.parseInt(args[0]))) {
+			Thread receiverThread = new Thread(receiver, "Telemetry Receiver");
+			receiverThread.setDaemon(true);
+			receiverThread.start();
+			
+			System.out.println("Receiving telemetry on " + receiver.getLocalAddress());
+			
+			TelemetryPacket packet = new TelemetryPacket();
+			long lastReceived = 0;
+			
+			while (receiverThread.isAlive()) {
+				Thread.sleep(PRINT_PERIOD_MS);
+				
+				long received = receiver.getReceivedPackets();
+				StringBuilder sb = new StringBuilder(String.format("%d packets/sec; %s", received - lastReceived, receiver));
+				lastReceived = received;
+				
+				if (receiver.getLatestPacket(packet)) {
+					sb.append(String.format("%n  #%d t=%.2f sec, latency %d ms:", packet.getSequence(), packet.getTime(), 
+											System.currentTimeMillis() - packet.getSendTimeMillis()));
+					
+					for (FlightDataType type : FlightDataType.values())
+						sb.append(String.format(" %s=%.2f", type.name(), packet.get(type)));
+				}
+				
+				System.out.println(sb);
+			}
+		}
+	}
+}
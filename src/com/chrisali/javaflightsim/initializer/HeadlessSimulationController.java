@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.initializer;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.interfaces.SimulationController;
+import com.chrisali.javaflightsim.simulation.HeadlessSimulationRunner;
+import com.chrisali.javaflightsim.simulation.aircraft.AircraftRepository;
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.setup.TrimCache;
+import com.chrisali.javaflightsim.simulation.setup.Trimming;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Controls an Analysis Mode simulation without any display, for batch and CI use. Unlike {@link LWJGLSwingSimulationController}, 
+ * it creates no menus, plots, console or out the window display, and runs the simulation in a {@link HeadlessSimulationRunner}, so 
+ * no Swing, AWT or LWJGL classes are loaded and no display is needed. The simulation is run on the thread calling 
+ * {@link #startSimulation()}, which returns once it has finished
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class HeadlessSimulationController implements SimulationController {
+	
+	//Logging
+	private static final Logger logger = LogManager.getLogger(HeadlessSimulationController.class);
+	
+	private static final double NANO_TO_SEC = 1e-9;
+	
+	// Configuration
+	private SimulationConfiguration configuration;
+	private AnalysisControls analysisControls;
+	private TrimCache trimCache;
+	private boolean trim = true;
+	
+	// Simulation
+	private HeadlessSimulationRunner runner;
+	
+	private double setupTime = 0;
+	
+	/**
+	 * @param configuration configuration to run; its initial conditions and controls are updated in memory when trimmed, but 
+	 * never saved
+	 * @param analysisControls control inputs to inject during the run; may be null to hold controls at their trim values
+	 */
+	public HeadlessSimulationController(SimulationConfiguration configuration, AnalysisControls analysisControls) {
+		this.configuration = configuration;
+		this.analysisControls = analysisControls;
+	}
+	
+	//============================== Configuration =========================================================
+	
+	/**
+	 * @return instance of configuraion
+	 */
+	@Override
+	public SimulationConfiguration getConfiguration() { return configuration; }
+	
+	/**
+	 * @param trim if true (default), the aircraft is trimmed for the configuration's initial conditions before running; otherwise 
+	 * the initial conditions and controls are used as they are
+	 */
+	public void setTrim(boolean trim) { this.trim = trim; }
+	
+	/**
+	 * @param trimCache cache of trim solutions to look up before trimming; may be null. The cache is never saved
+	 */
+	public void setTrimCache(TrimCache trimCache) { this.trimCache = trimCache; }
+	
+	//=============================== Simulation ===========================================================
+	
+	/**
+	 * Loads the selected aircraft, trims it if enabled, and runs the simulation to its end time, returning once it has finished
+	 */
+	@Override
+	public void startSimulation() {
+		logger.debug("Starting headless simulation...");
+		
+		long start = System.nanoTime();
+		
+		AircraftRepository.getShared().warmUp(configuration.getSelectedAircraft());
+		
+		if (trim) {
+			logger.debug("Trimming aircraft...");
+			Trimming.trimSim(configuration, true, trimCache);
+		}
+		
+		logger.debug("Initializing headless simulation runner...");
+		runner = new HeadlessSimulationRunner(configuration, analysisControls);
+		
+		setupTime = (System.nanoTime() - start) * NANO_TO_SEC;
+		
+		runner.run();
+	}
+	
+	/**
+	 * Stops the simulation, if running, at the end of its current step
+	 */
+	@Override
+	public void stopSimulation() {
+		logger.debug("Stopping simulation...");
+		
+		if (runner != null)
+			runner.stop();
+	}
+	
+	/**
+	 * Saves the output of the simulation to file; as CSV if its name ends in .csv, or as a binary flight recording otherwise
+	 * 
+	 * @param file
+	 * @throws IOException if the output could not be saved
+	 * @throws IllegalStateException if no simulation has been run
+	 */
+	public void saveOutput(File file) throws IOException {
+		FlightLog logsOut = getLogsOut();
+		
+		if (logsOut == null)
+			throw new IllegalStateException("No simulation has been run");
+		
+		if ("csv".equalsIgnoreCase(FileUtilities.getFileExtension(file.getName())))
+			FileUtilities.saveToCSVFile(file, logsOut);
+		else
+			FileUtilities.saveFlightRecording(file, logsOut, configuration);
+	}
+	
+	/**
+	 * @return columnar log of simulation output data, or null if no simulation has been run
+	 */
+	public FlightLog getLogsOut() {
+		return runner != null ? runner.getSimulation().getLogsOut() : null;
+	}
+	
+	/**
+	 * @return runner of the last simulation started, or null if none has been
+	 */
+	public HeadlessSimulationRunner getRunner() { return runner; }
+	
+	/**
+	 * @return wall clock time (sec) taken to load and trim the aircraft and initialize the last simulation started
+	 */
+	public double getSetupTime() { return setupTime; }
+	
+	//=============================== Plotting =============================================================
+	
+	/**
+	 * Plots cannot be shown without a display; save the output with {@link #saveOutput(File)} and plot it elsewhere instead
+	 */
+	@Override
+	public void plotSimulation() {
+		logger.debug("Plotting is not available in a headless simulation");
+	}
+	
+	@Override
+	public boolean isPlotWindowVisible() { return false; }
+	
+	//=============================== Console =============================================================
+	
+	/**
+	 * The raw data console cannot be shown without a display
+	 */
+	@Override
+	public void initializeConsole() {
+		logger.debug("The flight data console is not available in a headless simulation");
+	}
+}
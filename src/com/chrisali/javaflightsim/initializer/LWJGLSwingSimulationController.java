@@ -21,8 +21,6 @@ package com.chrisali.javaflightsim.initializer;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,6 +28,8 @@ import org.apache.logging.log4j.Logger;
 import com.chrisali.javaflightsim.interfaces.SimulationController;
 import com.chrisali.javaflightsim.lwjgl.LWJGLWorld;
 import com.chrisali.javaflightsim.simulation.SimulationRunner;
+import com.chrisali.javaflightsim.simulation.aircraft.AircraftRepository;
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
 import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
 import com.chrisali.javaflightsim.simulation.integration.SimOuts;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
@@ -104,8 +104,11 @@ public class LWJGLSwingSimulationController implements SimulationController {
 			
 		logger.debug("Starting simulation...");
 		
+		// Load the aircraft and build its lookup table splines before trimming and starting the runner thread
+		AircraftRepository.getShared().warmUp(configuration.getSelectedAircraft());
+		
 		logger.debug("Trimming aircraft...");
-		Trimming.trimSim(configuration, false);
+		Trimming.trimSim(configuration, false, FileUtilities.readTrimCache());
 		
 		logger.debug("Initializing simulation runner...");
 		runner = new SimulationRunner(this);
@@ -130,10 +133,10 @@ public class LWJGLSwingSimulationController implements SimulationController {
 	}
 	
 	/**
-	 * @return ArrayList of simulation output data 
+	 * @return columnar log of simulation output data 
 	 * @see SimOuts
 	 */
-	public List<Map<SimOuts, Double>> getLogsOut() {
+	public FlightLog getLogsOut() {
 		return (runner != null && runner.isRunning()) ? runner.getSimulation().getLogsOut() : null;
 	}
 	
@@ -204,18 +207,26 @@ public class LWJGLSwingSimulationController implements SimulationController {
 	}
 	
 	/**
-	 * Saves the raw data in the console window to a .csv file 
+	 * Saves the raw data in the console window to a binary flight recording, which can be reopened in the plot window
 	 * 
 	 * @param file
-	 * @throws IOException
+	 * @throws IOException if the recording could not be written
 	 */
 	public void saveConsoleOutput(File file) throws IOException {
 		logger.debug("Saving console output to: " + file.getAbsolutePath());
 		
-		try {			
-			FileUtilities.saveToCSVFile(file, runner.getSimulation().getLogsOut());
-		} catch (Exception e) {
-			logger.error("An error occurred while saving console output!", e);
-		}
+		FileUtilities.saveFlightRecording(file, runner.getSimulation().getLogsOut(), configuration);
+	}
+	
+	/**
+	 * Exports the raw data in the console window to a .csv file 
+	 * 
+	 * @param file
+	 * @throws IOException if the file could not be written
+	 */
+	public void exportConsoleOutput(File file) throws IOException {
+		logger.debug("Exporting console output to: " + file.getAbsolutePath());
+		
+		FileUtilities.saveToCSVFile(file, runner.getSimulation().getLogsOut());
 	}
 }
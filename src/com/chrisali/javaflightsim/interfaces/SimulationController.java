@@ -1,5 +1,6 @@
 package com.chrisali.javaflightsim.interfaces;
 
+import com.chrisali.javaflightsim.initializer.HeadlessSimulationController;
 import com.chrisali.javaflightsim.initializer.LWJGLSwingSimulationController;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
 
@@ -9,6 +10,7 @@ import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
  * of this interface to as needed.
  * 
  * @see LWJGLSwingSimulationController
+ * @see HeadlessSimulationController
  * @author Chris Ali
  *
  */
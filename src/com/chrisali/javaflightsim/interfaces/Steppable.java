@@ -19,11 +19,12 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.interfaces;
 
+import com.chrisali.javaflightsim.simulation.StepScheduler;
 import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
 
 /**
  * To replace threading, this interface allows objects run at various rates slower than {@link Integrate6DOFEquations} 
- * master rate by step updating in a master loop only when the current time meets a certain window 
+ * master rate by step updating in a master loop, scheduled by {@link StepScheduler}, at the rate each object declares 
  * 
  * @author Christopher
  *
@@ -36,11 +37,18 @@ public interface Steppable {
 	public void step();
 	
 	/**
-	 * To emulate running synchronously at a different rate, define a modulus value here so that this object only updates every x 
-	 * times the simulation steps
+	 * To run synchronously at a rate slower than the simulation, define the rate here; {@link StepScheduler} rounds it to 
+	 * a whole number of simulation steps between updates of this object
+	 * 
+	 * @return rate in Hz this object step updates at; if not positive, it updates every time the simulation steps
+	 */
+	public default double getStepRateHz() { return 0; }
+	
+	/**
+	 * Lets the implementing object skip a step that it is scheduled for depending on the current time
 	 * 
 	 * @param simTimeMS simulation time in milliseconds
 	 * @return if the implementing object can step update at this point in time
 	 */
-	public boolean canStepNow(int simTimeMS);
+	public default boolean canStepNow(int simTimeMS) { return true; }
 }
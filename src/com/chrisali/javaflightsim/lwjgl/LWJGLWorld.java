@@ -41,14 +41,17 @@ import com.chrisali.javaflightsim.lwjgl.entities.Camera;
 import com.chrisali.javaflightsim.lwjgl.entities.EntityCollections;
 import com.chrisali.javaflightsim.lwjgl.entities.Light;
 import com.chrisali.javaflightsim.lwjgl.entities.Ownship;
+import com.chrisali.javaflightsim.lwjgl.events.AssetLoadListener;
 import com.chrisali.javaflightsim.lwjgl.events.WindowClosedListener;
 import com.chrisali.javaflightsim.lwjgl.interfaces.gauges.InstrumentPanel;
 import com.chrisali.javaflightsim.lwjgl.interfaces.text.FontType;
 import com.chrisali.javaflightsim.lwjgl.interfaces.text.SimulationTexts;
 import com.chrisali.javaflightsim.lwjgl.interfaces.text.TextMaster;
 import com.chrisali.javaflightsim.lwjgl.interfaces.ui.InterfaceTexture;
+import com.chrisali.javaflightsim.lwjgl.loader.Asset;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetLoader;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetTiming;
 import com.chrisali.javaflightsim.lwjgl.loader.Loader;
-import com.chrisali.javaflightsim.lwjgl.loader.OBJLoader;
 import com.chrisali.javaflightsim.lwjgl.models.TexturedModel;
 import com.chrisali.javaflightsim.lwjgl.particles.Cloud;
 import com.chrisali.javaflightsim.lwjgl.particles.ParticleMaster;
@@ -58,27 +61,31 @@ import com.chrisali.javaflightsim.lwjgl.renderengine.InterfaceRenderer;
 import com.chrisali.javaflightsim.lwjgl.renderengine.MasterRenderer;
 import com.chrisali.javaflightsim.lwjgl.terrain.Terrain;
 import com.chrisali.javaflightsim.lwjgl.terrain.TerrainCollection;
-import com.chrisali.javaflightsim.lwjgl.textures.ModelTexture;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWDirectories;
 import com.chrisali.javaflightsim.simulation.SimulationRunner;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
-import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataListener;
-import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
+import com.chrisali.javaflightsim.simulation.datatransfer.TripleBuffer;
 import com.chrisali.javaflightsim.simulation.setup.CameraMode;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
 import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
 
 /**
  * Out the window display for Java Flight Sim. It utilizes LWJGL to create a 3D world in OpenGL. 
- * This runs in a simulation runner thread that receives data from {@link FlightData} via {@link FlightDataListener} 
+ * This runs in the simulation runner thread at its own frame rate, separate from the simulation's thread. Each frame it takes 
+ * the latest flight data published by {@link FlightData}, and draws ownship part way between the two latest frames
+ * of data so that it moves smoothly whatever the rates of the simulation and display
  * 
  * @author Christopher Ali
  *
  */
-public class LWJGLWorld implements FlightDataListener, OTWWorld {
+public class LWJGLWorld implements OTWWorld {
 	
 	private static final Logger logger = LogManager.getLogger(LWJGLWorld.class);
 	
+	// Rate (Hz) the out the window display is rendered at
+	private static final double STEP_RATE_HZ = 60.0;
+	
 	private Loader loader;
 	private MasterRenderer masterRenderer;
 	
@@ -94,6 +101,12 @@ public class LWJGLWorld implements FlightDataListener, OTWWorld {
 	private Ownship ownship;
 	private Camera camera;
 	
+	// Flight data published by the simulation thread, and the latest two frames taken from it for interpolation
+	private TripleBuffer<FlightDataFrame> flightDataBuffer;
+	private FlightDataFrame previousFrame = new FlightDataFrame();
+	private FlightDataFrame currentFrame = new FlightDataFrame();
+	private FlightDataFrame renderFrame = new FlightDataFrame();
+	
 	// Interface
 	private SimulationTexts simTexts;
 	private Map<String, List<InterfaceTexture>> interfaceTextures;
@@ -104,6 +117,7 @@ public class LWJGLWorld implements FlightDataListener, OTWWorld {
 	
 	// Event Listeners
 	private List<WindowClosedListener> windowClosedListeners = new ArrayList<>();
+	private List<AssetLoadListener> assetLoadListeners = new ArrayList<>();
 			
 	/**
 	 * Sets up OTW display with {@link SimulationConfiguration} provided by {@link SimulationController} 
@@ -115,16 +129,17 @@ public class LWJGLWorld implements FlightDataListener, OTWWorld {
 	}	
 	
 	@Override
-	public boolean canStepNow(int simTimeMS) {
-		return simTimeMS % 1 == 0;
-	}
+	public double getStepRateHz() { return STEP_RATE_HZ; }
 
 	/**
-	 * Main game loop of the LWJGL process, whose stepping is controlled by the {@link SimulationRunner} object's thread
+	 * Main game loop of the LWJGL process, whose stepping is controlled by the {@link SimulationRunner} object's thread and 
+	 * limited to the frame rate of {@link DisplayManager}
 	 */
 	@Override
 	public void step() {
 		try {
+			updateFlightData();
+			
 			ParticleMaster.update(camera);
 			
 			masterRenderer.renderWholeScene(entities, terrainCollection.getTerrainTree(), 
@@ -188,7 +203,7 @@ public class LWJGLWorld implements FlightDataListener, OTWWorld {
 	private void startUp() {
 		logger.debug("Starting up LWJGL display...");
 		DisplayManager.createDisplay();
-		DisplayManager.setFrameRateLimit(configuration.getSimulationRateHz());
+		DisplayManager.setFrameRateLimit((int) STEP_RATE_HZ);
 		DisplayManager.setHeight(configuration.getDisplayConfiguration().getDisplayHeight());
 		DisplayManager.setWidth(configuration.getDisplayConfiguration().getDisplayWidth());
 		DisplayManager.setAaSamples(configuration.getDisplayConfiguration().isUseAntiAliasing() ? 2 : 0);
@@ -217,7 +232,9 @@ public class LWJGLWorld implements FlightDataListener, OTWWorld {
 	}
 	
 	/**
-	 * Initializes and generates all assets needed to render lights, entities, particles terrain and text
+	 * Initializes and generates all assets needed to render lights, entities, particles terrain and text. All files are
+	 * first queued with an {@link AssetLoader} so that they are decoded on its worker threads while this thread uploads
+	 * them to OpenGL and OpenAL, after which the world's objects are assembled from them
 	 */
 	private void loadAssets() {
 		
@@ -228,62 +245,83 @@ public class LWJGLWorld implements FlightDataListener, OTWWorld {
 		lights = new ArrayList<>();
 		lights.add(new Light(new Vector3f(20000, 40000, 20000), new Vector3f(0.95f, 0.95f, 0.95f)));
 		
-		//================================= Entities ==========================================================
-		
-		logger.debug("Generating collections of entities...");
-		
-		entities = new EntityCollections(lights, loader);
-		
-		//================================= Ownship ===========================================================
-		
-		logger.debug("Creating ownship...");
-		
-		TexturedModel airplane =  new TexturedModel(OBJLoader.loadObjModel("airplane", OTWDirectories.ENTITIES.toString(), loader), 
-			    								new ModelTexture(loader.loadTexture("airplane", OTWDirectories.ENTITIES.toString())));
-
-		ownship = new Ownship(airplane, configuration.getInitialConditions(), 1.25f);
-		ownship.setRender(configuration.getCameraConfiguration().getMode() == CameraMode.CHASE);
-		entities.addToStaticEntities(ownship);
-		
-		logger.debug("Setting up camera...");
-		
-		camera = new Camera(ownship);
+		try (AssetLoader assets = new AssetLoader(AssetLoader.getDefaultWorkerThreads(), this::assetLoaded)) {
+			
+			logger.debug("Loading assets using " + assets.getWorkerThreads() + " worker thread(s)...");
+			
+			//================================= Entities ==========================================================
+			
+			entities = new EntityCollections(lights, loader, assets);
+			
+			Asset<TexturedModel> airplane = loader.loadTexturedModel(assets, "airplane", OTWDirectories.ENTITIES.toString());
+			
+			//================================= Terrain ==========================================================
+			
+			terrainCollection = new TerrainCollection(10, loader, assets);
+			
+			//=============================== Particles ==========================================================
+			
+			Asset<Integer> clouds = loader.loadTexture(assets, "clouds", OTWDirectories.PARTICLES.toString());
+			
+			//=============================== Interface ==========================================================
+			
+			Asset<Integer> font = loader.loadTexture(assets, "ubuntu", OTWDirectories.FONTS.toString());
+			
+			// Instrument Panel and Gauges
+			interfaceTextures = new HashMap<String, List<InterfaceTexture>>();
+			panel = FileUtilities.readInstrumentPanelConfiguration(configuration.getSelectedAircraft());
+			interfaceTextures.put(InstrumentPanel.class.getSimpleName(), panel.loadAndGetTextures(loader, assets, configuration.getSelectedAircraft()));
+			
+			//==================================== Audio =========================================================
+			
+			SoundCollection.loadSounds(assets);
+			
+			assets.awaitAll();
+			
+			//================================= Ownship ===========================================================
+			
+			assets.assemble("ownship", () -> {
+				logger.debug("Creating ownship...");
 				
-		//================================= Terrain ==========================================================
-		
-		logger.debug("Generating terrain...");
-		
-		terrainCollection = new TerrainCollection(10, loader, ownship);
-		entities.setTerrainTree(terrainCollection.getTerrainTree());
-		
-		//=============================== Particles ==========================================================
-		
-		logger.debug("Generating clouds...");
-		
-		ParticleTexture clouds = new ParticleTexture(loader.loadTexture("clouds", OTWDirectories.PARTICLES.toString()), 4, true);
-		
-		// Generates clouds at random positions along terrain map
-		Random random = new Random();
-		for (int i = -1000; i < 1000; i++)
-			new Cloud(clouds, new Vector3f(random.nextInt(800*10), 300, i*10), new Vector3f(0, 0, 0), 0, 200);
-		
-		//=============================== Interface ==========================================================
-		
-		logger.debug("Generating on-screen text and panel...");
-		
-		// On-screen text
-		simTexts = new SimulationTexts(new FontType(loader, "ubuntu"));
-		
-		// Instrument Panel and Gauges
-		interfaceTextures = new HashMap<String, List<InterfaceTexture>>();
-		panel = FileUtilities.readInstrumentPanelConfiguration(configuration.getSelectedAircraft());
-		interfaceTextures.put(InstrumentPanel.class.getSimpleName(), panel.loadAndGetTextures(loader, configuration.getSelectedAircraft()));
-
-		//==================================== Audio =========================================================
-		
-		logger.debug("Generating sound collection...");
-		
-		soundCollection = new SoundCollection(configuration);
+				ownship = new Ownship(airplane.get(), configuration.getInitialConditions(), 1.25f);
+				ownship.setRender(configuration.getCameraConfiguration().getMode() == CameraMode.CHASE);
+				entities.addToStaticEntities(ownship);
+				
+				logger.debug("Setting up camera...");
+				
+				camera = new Camera(ownship);
+			});
+			
+			assets.assemble("terrain", () -> {
+				logger.debug("Generating terrain...");
+				
+				terrainCollection.createTerrains(ownship);
+				entities.setTerrainTree(terrainCollection.getTerrainTree());
+			});
+			
+			assets.assemble("clouds", () -> {
+				logger.debug("Generating clouds...");
+				
+				ParticleTexture cloudTexture = new ParticleTexture(clouds.get(), 4, true);
+				
+				// Generates clouds at random positions along terrain map
+				Random random = new Random();
+				for (int i = -1000; i < 1000; i++)
+					new Cloud(cloudTexture, new Vector3f(random.nextInt(800*10), 300, i*10), new Vector3f(0, 0, 0), 0, 200);
+			});
+			
+			assets.assemble("on-screen text", () -> {
+				logger.debug("Generating on-screen text...");
+				
+				simTexts = new SimulationTexts(new FontType(font.get(), "ubuntu"));
+			});
+			
+			assets.assemble("sound collection", () -> {
+				logger.debug("Generating sound collection...");
+				
+				soundCollection = new SoundCollection(configuration);
+			});
+		}
 	}
 	
 	@Override
@@ -301,28 +339,70 @@ public class LWJGLWorld implements FlightDataListener, OTWWorld {
 		return (currentTerrain == null) ? 0.0f : currentTerrain.getTerrainHeight(position.x, position.z);
 	}
 
-	@Override
-	public void onFlightDataReceived(FlightData flightData) {
-		Map<FlightDataType, Double> receivedFlightData = flightData.getFlightData();
-		
-		if (!receivedFlightData.containsValue(null) && receivedFlightData != null) {
-			// Update sound gains/volumes with flight data
-			soundCollection.update(receivedFlightData);
-			
-			// Ownship movement; let camera track ownhip 1-1 for now
-			ownship.move(receivedFlightData);
-			camera.move(configuration);
+	/**
+	 * @param flightDataBuffer buffer of flight data frames published by the simulation, read only by this display's thread
+	 */
+	public void setFlightDataBuffer(TripleBuffer<FlightDataFrame> flightDataBuffer) { this.flightDataBuffer = flightDataBuffer; }
 
-			// Record flight data into text string to display on OTW screen 
-			simTexts.update(receivedFlightData, configuration, camera, ownship);
-			
-			// Instrument Panel
-			panel.update(receivedFlightData);
+	/**
+	 * Takes the latest frame of flight data published by the simulation, if any, and updates ownship, camera, sounds, text and 
+	 * panel with data interpolated between the two latest frames at the time this frame is drawn
+	 */
+	private void updateFlightData() {
+		if (flightDataBuffer == null)
+			return;
+		
+		if (flightDataBuffer.update()) {
+			FlightDataFrame frame = previousFrame;
+			previousFrame = currentFrame;
+			currentFrame = frame;
+			currentFrame.copy(flightDataBuffer.getReadBuffer());
+		}
+		
+		if (!currentFrame.hasData())
+			return;
+		
+		renderFrame.interpolate(previousFrame, currentFrame, currentFrame.getInterpolationAlpha(previousFrame, System.nanoTime()));
+		
+		// Update sound gains/volumes with flight data
+		soundCollection.update(renderFrame);
+		
+		// Ownship movement; terrain height is read from its position by the simulation thread 
+		synchronized (this) {
+			ownship.move(renderFrame);
 		}
+		
+		// Let camera track ownhip 1-1 for now
+		camera.move(configuration);
+
+		// Record flight data into text string to display on OTW screen 
+		simTexts.update(renderFrame, configuration, camera, ownship);
+		
+		// Instrument Panel
+		panel.update(renderFrame);
 	}
 	
 	// =============================== Events =====================================
 	
+	/**
+	 * Adds a listener that is notified on the display's thread as each asset is loaded when the display starts up
+	 * 
+	 * @param listener
+	 */
+	public void addAssetLoadListener(AssetLoadListener listener) {
+		if (assetLoadListeners != null) {
+			logger.debug("Adding asset load listener: " + listener.getClass());
+			assetLoadListeners.add(listener);
+		}
+	}
+	
+	private void assetLoaded(AssetTiming timing, int loadedAssets, int totalAssets) {
+		logger.debug("Loaded " + timing + " (" + loadedAssets + "/" + totalAssets + ")");
+		
+		for (AssetLoadListener listener : assetLoadListeners)
+			listener.onAssetLoaded(timing, loadedAssets, totalAssets);
+	}
+	
 	public void addWindowClosedListener(WindowClosedListener listener) {
 		if (windowClosedListeners != null) {
 			logger.debug("Adding window closed listener: " + listener.getClass());
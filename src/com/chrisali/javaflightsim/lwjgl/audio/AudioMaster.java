@@ -23,8 +23,11 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,6 +37,8 @@ import org.lwjgl.openal.AL10;
 import org.lwjgl.util.WaveData;
 import org.lwjgl.util.vector.Vector3f;
 
+import com.chrisali.javaflightsim.lwjgl.loader.Asset;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetLoader;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWDirectories;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWFiles;
 
@@ -43,6 +48,9 @@ public class AudioMaster {
 	
 	private static List<Integer> buffers = new ArrayList<Integer>();
 	
+	// Buffers of each sound file loaded so far, shared by every source that plays it
+	private static Map<String, Integer> soundBuffers = new HashMap<>();
+	
 	public static void init() {
 		try {AL.create();} 
 		catch (LWJGLException e) {logger.error("Unable to initialize OpenAL!", e);}
@@ -53,25 +61,79 @@ public class AudioMaster {
 		AL10.alListener3f(AL10.AL_VELOCITY, velocity.x, velocity.y, velocity.z);
 	}
 	
+	/**
+	 * Loads a sound file into an OpenAL buffer, or returns the buffer it was already loaded into
+	 * 
+	 * @param directory
+	 * @param fileName
+	 * @return buffer ID
+	 */
 	public static int loadSound(String directory, String fileName) {
-		int buffer = AL10.alGenBuffers();
-		buffers.add(buffer);
-				
+		Integer buffer = soundBuffers.get(directory + File.separator + fileName);
+		if (buffer != null)
+			return buffer;
+		
 		try {
-			String path = OTWDirectories.RESOURCES.toString() + File.separator + directory + File.separator + fileName + OTWFiles.SOUND_EXT.toString();
-			WaveData waveFile = WaveData.create(new BufferedInputStream(new FileInputStream(path)));
-			AL10.alBufferData(buffer, waveFile.format, waveFile.data, waveFile.samplerate);
-			waveFile.dispose();
-		} catch (IOException | NullPointerException e) {
+			return uploadSound(directory, fileName, decodeSound(directory, fileName));
+		} catch (IOException e) {
 			logger.error("Could not load sound: " + fileName + OTWFiles.SOUND_EXT.toString() + "!", e);
 		}
 		
+		return AL10.AL_NONE;
+	}
+	
+	/**
+	 * Queues a sound file with an {@link AssetLoader}, which decodes it on a worker thread and then loads it into
+	 * an OpenAL buffer on the context thread; {@link AudioMaster#loadSound(String, String)} then reuses this buffer
+	 * 
+	 * @param assets
+	 * @param directory
+	 * @param fileName
+	 * @return handle to the buffer ID
+	 */
+	public static Asset<Integer> loadSound(AssetLoader assets, String directory, String fileName) {
+		return assets.load(fileName + OTWFiles.SOUND_EXT.toString(), () -> decodeSound(directory, fileName), 
+						   waveFile -> uploadSound(directory, fileName, waveFile));
+	}
+	
+	/**
+	 * Decodes a sound file without touching OpenAL, so that it can be run on any thread
+	 * 
+	 * @param directory
+	 * @param fileName
+	 * @return decoded sound
+	 * @throws IOException if the file could not be read or is not a supported wave file
+	 */
+	public static WaveData decodeSound(String directory, String fileName) throws IOException {
+		String path = OTWDirectories.RESOURCES.toString() + File.separator + directory + File.separator + fileName + OTWFiles.SOUND_EXT.toString();
+		
+		try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+			WaveData waveFile = WaveData.create(in);
+			
+			if (waveFile == null)
+				throw new IOException("Unsupported wave file: " + path);
+			
+			return waveFile;
+		}
+	}
+	
+	private static int uploadSound(String directory, String fileName, WaveData waveFile) {
+		int buffer = AL10.alGenBuffers();
+		buffers.add(buffer);
+		soundBuffers.put(directory + File.separator + fileName, buffer);
+		
+		AL10.alBufferData(buffer, waveFile.format, waveFile.data, waveFile.samplerate);
+		waveFile.dispose();
+		
 		return buffer;
 	}
 
 	public static void cleanUp() {
 		for (int buffer : buffers) {AL10.alDeleteBuffers(buffer);}
 		
+		buffers.clear();
+		soundBuffers.clear();
+		
 		AL.destroy();
 	}
 }
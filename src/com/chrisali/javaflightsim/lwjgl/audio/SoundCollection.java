@@ -28,14 +28,15 @@ import org.apache.logging.log4j.Logger;
 import org.lwjgl.util.vector.Vector3f;
 
 import com.chrisali.javaflightsim.lwjgl.LWJGLWorld;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetLoader;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWDirectories;
 import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
+import com.chrisali.javaflightsim.simulation.aircraft.AircraftRepository;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
-import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataListener;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
 import com.chrisali.javaflightsim.simulation.propulsion.Engine;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
-import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
 
 /**
  * Class that contains a repository of sounds to be played by triggering certain events, such
@@ -48,6 +49,10 @@ public class SoundCollection {
 	
 	//Logging
 	private static final Logger logger = LogManager.getLogger(SoundCollection.class);
+	
+	// Sound files in ./Resources/Audio used by this class
+	private static final String[] SOUND_FILES = {"engineLow", "engineMed", "engineHigh", "engineMax", 
+												 "flap", "gear", "stall", "gyroLoop", "wind"};
 		
 	/**
 	 * Inner enums used to identify {@link SoundSource} objects in the soundSources
@@ -81,7 +86,7 @@ public class SoundCollection {
 	}
 	
 	/**
-	 * Inner Enum used with the soundValues EnumMap, which is used to store values from {@link FlightData}
+	 * Inner Enum used to index the soundValues array, which is used to store values from {@link FlightData}
 	 * to be used with setting sound properties
 	 * 
 	 * @author Christopher Ali
@@ -109,13 +114,24 @@ public class SoundCollection {
 	
 	private Map<SoundEvent, SoundSource> soundSources; 
 		
-	private Map<SoundCategory, Double> soundValues;
+	private double[] soundValues;
 	
 	/**
 	 * Used to record soundValues data to PREV_STEP_* enums to stop sounds looping if a control stops moving
 	 */
 	private boolean recordToPreviousStep = true; 
 	
+	/**
+	 * Queues every sound file used by this class with an {@link AssetLoader} so that they are decoded on its 
+	 * worker threads before this class is constructed; each {@link SoundSource} then reuses the loaded buffers
+	 * 
+	 * @param assets
+	 */
+	public static void loadSounds(AssetLoader assets) {
+		for (String fileName : SOUND_FILES)
+			AudioMaster.loadSound(assets, OTWDirectories.AUDIO.toString(), fileName);
+	}
+	
 	/**
 	 *	Fills soundSources EnumMap with {@link SoundSource} objects, which are references to audio
 	 *  files in .Resources/Audio, and sets their initial properties. Uses {@link SimulationConfiguration}
@@ -128,14 +144,14 @@ public class SoundCollection {
 		
 		logger.debug("Initializing Sound Collections...");
 		
-		aircraft = FileUtilities.readAircraftConfiguration(configuration.getSelectedAircraft());
+		aircraft = AircraftRepository.getShared().get(configuration.getSelectedAircraft());
 		
 		engineVolume = configuration.getAudioConfiguration().getEngineVolume();
 		systemsVolume = configuration.getAudioConfiguration().getSystemsVolume();
 		environmentVolume = configuration.getAudioConfiguration().getEnvironmentVolume();
 		
 		soundSources = new EnumMap<>(SoundEvent.class);
-		soundValues = new EnumMap<>(SoundCategory.class);
+		soundValues = new double[SoundCategory.values().length];
 		
 		//================================ Engine =========================================
 		
@@ -206,27 +222,27 @@ public class SoundCollection {
 	
 	/**
 	 * Wrapper method to call setRPM(), setControl(), setWind() and setStallHorn() at once;
-	 * uses an EnumMap of {@link SoundCategory} enums to set the double values retrieved by 
-	 * {@link FlightDataListener} in {@link LWJGLWorld}.
+	 * copies the values of the interpolated {@link FlightDataFrame} rendered by {@link LWJGLWorld}
+	 * into the soundValues array, indexed by {@link SoundCategory}
 	 * 
-	 * @param soundValues
+	 * @param flightData
 	 */
-	public void update(Map<FlightDataType, Double> flightData) {
+	public void update(FlightDataFrame flightData) {
 		// Set values for each sound in the simulation that depends on flight data
-		soundValues.put(SoundCategory.RPM_1, flightData.get(FlightDataType.RPM_1));
-		soundValues.put(SoundCategory.RPM_2, flightData.get(FlightDataType.RPM_2));
-		soundValues.put(SoundCategory.RPM_3, flightData.get(FlightDataType.RPM_3));
-		soundValues.put(SoundCategory.RPM_4, flightData.get(FlightDataType.RPM_4));
-		soundValues.put(SoundCategory.WIND, flightData.get(FlightDataType.TAS));
-		soundValues.put(SoundCategory.FLAPS, flightData.get(FlightDataType.FLAPS));
-		soundValues.put(SoundCategory.GEAR, flightData.get(FlightDataType.GEAR));
-		soundValues.put(SoundCategory.STALL_HORN, flightData.get(FlightDataType.AOA));
+		soundValues[SoundCategory.RPM_1.ordinal()] = flightData.get(FlightDataType.RPM_1);
+		soundValues[SoundCategory.RPM_2.ordinal()] = flightData.get(FlightDataType.RPM_2);
+		soundValues[SoundCategory.RPM_3.ordinal()] = flightData.get(FlightDataType.RPM_3);
+		soundValues[SoundCategory.RPM_4.ordinal()] = flightData.get(FlightDataType.RPM_4);
+		soundValues[SoundCategory.WIND.ordinal()] = flightData.get(FlightDataType.TAS);
+		soundValues[SoundCategory.FLAPS.ordinal()] = flightData.get(FlightDataType.FLAPS);
+		soundValues[SoundCategory.GEAR.ordinal()] = flightData.get(FlightDataType.GEAR);
+		soundValues[SoundCategory.STALL_HORN.ordinal()] = flightData.get(FlightDataType.AOA);
 					
 		// Record value every other step to ensure a difference between previous and current values; used to 
 		// trigger flaps and gear sounds
 		if (recordToPreviousStep) { 
-			soundValues.put(SoundCategory.PREV_STEP_FLAPS, flightData.get(FlightDataType.FLAPS));
-			soundValues.put(SoundCategory.PREV_STEP_GEAR, flightData.get(FlightDataType.GEAR));
+			soundValues[SoundCategory.PREV_STEP_FLAPS.ordinal()] = flightData.get(FlightDataType.FLAPS);
+			soundValues[SoundCategory.PREV_STEP_GEAR.ordinal()] = flightData.get(FlightDataType.GEAR);
 		} recordToPreviousStep ^= true; 
 
 		// Update gain/pitch of each sound
@@ -244,7 +260,7 @@ public class SoundCollection {
 	 * @param threshold
 	 */
 	public void setStallHorn(double threshold) {
-		double alpha = soundValues.get(SoundCategory.STALL_HORN);
+		double alpha = soundValues[SoundCategory.STALL_HORN.ordinal()];
 		
 		if ((alpha > threshold) && !(soundSources.get(SoundEvent.STALL).isPlaying()))
 			soundSources.get(SoundEvent.STALL).play();
@@ -263,12 +279,12 @@ public class SoundCollection {
 		
 		switch(event) {
 		case FLAPS:
-			currentControlValue = soundValues.get(SoundCategory.FLAPS);
-			previousControlValue = soundValues.get(SoundCategory.PREV_STEP_FLAPS);
+			currentControlValue = soundValues[SoundCategory.FLAPS.ordinal()];
+			previousControlValue = soundValues[SoundCategory.PREV_STEP_FLAPS.ordinal()];
 			break;
 		case GEAR:
-			currentControlValue = soundValues.get(SoundCategory.GEAR);
-			previousControlValue = soundValues.get(SoundCategory.PREV_STEP_GEAR);
+			currentControlValue = soundValues[SoundCategory.GEAR.ordinal()];
+			previousControlValue = soundValues[SoundCategory.PREV_STEP_GEAR.ordinal()];
 			break;
 		default:
 			break;
@@ -284,7 +300,7 @@ public class SoundCollection {
 	 * Sets volume of wind as a function of true airspeed (kts)
 	 */
 	public void setWind() {
-		double trueAirspeed = soundValues.get(SoundCategory.WIND);
+		double trueAirspeed = soundValues[SoundCategory.WIND.ordinal()];
 		
 		float gainWind = (float) ((trueAirspeed >  50 && trueAirspeed < 300) ? ((2.0-0.5)*(trueAirspeed-50))/(300-50) + 0.5 : 0);
 		soundSources.get(SoundEvent.WIND).setVolume(gainWind*=environmentVolume);
@@ -310,7 +326,7 @@ public class SoundCollection {
 			
 			SoundCategory rpmEnum = Enum.valueOf(SoundCategory.class, "RPM_" + engineNumber);
 			
-			RPM = soundValues.get(rpmEnum);
+			RPM = soundValues[rpmEnum.ordinal()];
 			
 			gainLow  = (float) ((RPM >  300 && RPM < 1800) ? Math.cos((RPM-600)/500) : 0);
 			pitchLow = (float) ((RPM >  300 && RPM < 1800) ? ((1.5-0.75)*(RPM-300))/(1800-300) + 0.75 : 0);
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.lwjgl.entities;
+
+import org.lwjgl.util.vector.Vector3f;
+
+import com.chrisali.javaflightsim.lwjgl.entities.EntityCollections.AutogenModel;
+
+/**
+ * Position, rotation and scale of an autogen {@link Entity}, worked out by 
+ * {@link EntityCollections#placeRandomTrees(java.util.List, float[][], float, float)} before the entity's
+ * model has been loaded
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class AutogenPlacement {
+	
+	private final AutogenModel model;
+	private final Vector3f position;
+	private final float rotY;
+	private final float scale;
+	
+	public AutogenPlacement(AutogenModel model, Vector3f position, float rotY, float scale) {
+		this.model = model;
+		this.position = position;
+		this.rotY = rotY;
+		this.scale = scale;
+	}
+
+	public AutogenModel getModel() { return model; }
+
+	public Vector3f getPosition() { return position; }
+
+	public float getRotY() { return rotY; }
+
+	public float getScale() { return scale; }
+}
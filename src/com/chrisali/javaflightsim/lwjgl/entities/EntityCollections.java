@@ -32,10 +32,14 @@ import javax.imageio.ImageIO;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.lwjgl.util.vector.Vector2f;
 import org.lwjgl.util.vector.Vector3f;
 
+import com.chrisali.javaflightsim.lwjgl.loader.Asset;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetLoader;
 import com.chrisali.javaflightsim.lwjgl.loader.Loader;
 import com.chrisali.javaflightsim.lwjgl.loader.OBJLoader;
+import com.chrisali.javaflightsim.lwjgl.models.RawModel;
 import com.chrisali.javaflightsim.lwjgl.models.TexturedModel;
 import com.chrisali.javaflightsim.lwjgl.terrain.Terrain;
 import com.chrisali.javaflightsim.lwjgl.textures.ModelTexture;
@@ -72,18 +76,28 @@ public class EntityCollections {
 	// Lit
 	private static TexturedModel lamp;
 	
+	/**
+	 * Models that can be placed by an autogen image
+	 */
+	public enum AutogenModel {
+		PINE_FOREST,
+		OAK_FOREST,
+		PLANATUS_FOREST;
+	}
+	
 	/**
 	 * Creates {@link EntityCollections} object with list of lights, loader to load entities, and
-	 * call to initialize all {@link Entity} objects
+	 * call to queue all {@link TexturedModel} objects with an {@link AssetLoader}
 	 * 
 	 * @param lights
 	 * @param loader
+	 * @param assets
 	 */
-	public EntityCollections(List<Light> lights, Loader loader) {
+	public EntityCollections(List<Light> lights, Loader loader, AssetLoader assets) {
 		this.loader = loader;
 		this.lights = lights;
 		
-		initializeEntities();
+		initializeEntities(assets);
 	}
 	
 	public void setTerrainTree(TreeMap<String, Terrain> terrainTree) {
@@ -91,115 +105,139 @@ public class EntityCollections {
 	}
 
 	/**
-	 * Initializes all {@link TexturedModel} objects for in methods, which create entities
+	 * Queues all {@link TexturedModel} objects used in methods which create entities; they are assigned as each 
+	 * one is loaded by the {@link AssetLoader}
+	 * 
+	 * @param assets
 	 */
-	private void initializeEntities() {
-		// Create models
-		// Static
-		planatusForest = new TexturedModel(OBJLoader.loadObjModel("grassModel", OTWDirectories.ENTITIES.toString(), loader), 
-											new ModelTexture(loader.loadTexture("platanusforest", OTWDirectories.ENTITIES.toString())));
-		pineForest = new TexturedModel(OBJLoader.loadObjModel("grassModel", OTWDirectories.ENTITIES.toString(), loader), 
-											new ModelTexture(loader.loadTexture("pineforest", OTWDirectories.ENTITIES.toString())));
-		oakForest = new TexturedModel(OBJLoader.loadObjModel("grassModel", OTWDirectories.ENTITIES.toString(), loader), 
-											new ModelTexture(loader.loadTexture("oakforest", OTWDirectories.ENTITIES.toString())));
-		// Lit
-		lamp =  new TexturedModel(OBJLoader.loadObjModel("lamp", OTWDirectories.ENTITIES.toString(), loader), 
-			      							new ModelTexture(loader.loadTexture("lamp", OTWDirectories.ENTITIES.toString())));
-		// Model settings
+	private void initializeEntities(AssetLoader assets) {
+		// Create models; the forests share a single model
 		// Static
-		planatusForest.getTexture().setHasTransparency(true);
-		planatusForest.getTexture().setUseFakeLighting(true);
-		pineForest.getTexture().setHasTransparency(true);
-		pineForest.getTexture().setUseFakeLighting(true);
-		oakForest.getTexture().setHasTransparency(true);
-		oakForest.getTexture().setUseFakeLighting(true);
+		Asset<RawModel> grassModel = OBJLoader.loadObjModel("grassModel", OTWDirectories.ENTITIES.toString(), loader, assets);
 		
+		loader.loadTexturedModel(assets, grassModel, "platanusforest", OTWDirectories.ENTITIES.toString())
+			  .whenLoaded(model -> planatusForest = createForestModel(model));
+		loader.loadTexturedModel(assets, grassModel, "pineforest", OTWDirectories.ENTITIES.toString())
+			  .whenLoaded(model -> pineForest = createForestModel(model));
+		loader.loadTexturedModel(assets, grassModel, "oakforest", OTWDirectories.ENTITIES.toString())
+			  .whenLoaded(model -> oakForest = createForestModel(model));
 		// Lit
-		lamp.getTexture().setUseFakeLighting(true);
+		loader.loadTexturedModel(assets, "lamp", OTWDirectories.ENTITIES.toString()).whenLoaded(model -> {
+			lamp = model;
+			lamp.getTexture().setUseFakeLighting(true);
+		});
 	}
 	
 	/**
-	 * Creates static {@link Entity} objects from an autogen image file that maps specifically what type of entity should
-	 * be generated at a given location. The image file should be filled in black with the exception of 
-	 * red, green or blue pixels, which each determine buildings, trees and airports, respectively.
+	 * Sets model settings for a forest {@link TexturedModel}
 	 * 
-	 * <p>The {@link Terrain} argument specifies to which terrain the autogen objects should be "bound" to, which
-	 * involves adding the objects to a List in the terrain object. This list is then iterated through to render
-	 * each entity 
+	 * @param model
+	 * @return the same model
+	 */
+	private static TexturedModel createForestModel(TexturedModel model) {
+		model.getTexture().setHasTransparency(true);
+		model.getTexture().setUseFakeLighting(true);
+		
+		return model;
+	}
+	
+	/**
+	 * Reads an autogen image file that maps specifically what type of entity should be generated at a given location. 
+	 * The image file should be filled in black with the exception of red, green or blue pixels, which each determine 
+	 * buildings, trees and airports, respectively. This does not touch OpenGL, so it can be run on any thread
 	 * 
 	 * <p>Each pixel adds a new object, so they should be added to the autogen image (autogen.png) judiciously
 	 * 
-	 * @param terrain
 	 * @param fileName
 	 * @param directory
+	 * @return positions relative to a terrain's origin where trees should be generated
+	 * @throws IOException if the autogen image could not be read
 	 */
-	public static void createAutogenImageEntities(Terrain terrain, String fileName, String directory) {
-		
-		BufferedImage image = null;
+	public static List<Vector2f> readAutogenImage(String fileName, String directory) throws IOException {
 		
-		try {image = ImageIO.read(new File(OTWDirectories.RESOURCES.toString() + File.separator + directory + File.separator + fileName + OTWFiles.TEXTURE_EXT.toString()));} 
-		catch (IOException e) {logger.error("Could not load autogen file: " + fileName + OTWFiles.TEXTURE_EXT.toString() + "!", e);}
+		BufferedImage image = ImageIO.read(new File(OTWDirectories.RESOURCES.toString() + File.separator + directory + File.separator + fileName + OTWFiles.TEXTURE_EXT.toString()));
 		
+		List<Vector2f> treePositions = new ArrayList<>();
 		float imageScale = Terrain.getSize()/image.getHeight();
-		float scaledX, scaledZ;
 		Color readColor;
 		
 		for (int x = 0; x < image.getWidth(); x+=6) {
 			for (int z = 0; z < image.getHeight(); z+=6) {
 				readColor = new Color(image.getRGB(x, z));
-				scaledX = x * imageScale;
-				scaledZ = z * imageScale;
 				
 				if(readColor.getRed() > 250) {
 					// Create buildings here
 				} else if(readColor.getGreen() > 250) {
-					createRandomTrees(terrain, scaledX, scaledZ);
+					treePositions.add(new Vector2f(x * imageScale, z * imageScale));
 				} else if(readColor.getBlue() > 250) {
 					// Create airport here
 				}
 			}
 		}
+		
+		return treePositions;
 	}
 	
 	/**
-	 * Creates a random group of trees at the specified x and z position. Uses {@link Terrain} object to get
-	 * the absolute world position of the "origin" of this terrain object, which is used to determine the 
-	 * relative position to add a tree. Then it adds this entity to a list of static {@link Entity} objects
-	 * contained in terrain object.
+	 * Places a random group of trees at each of the specified positions relative to a {@link Terrain} object's "origin",
+	 * using its height array to set their height. The absolute world position of the "origin" of the terrain is used to 
+	 * determine the absolute position of each tree. This does not touch OpenGL, so it can be run on any thread; create
+	 * the entities afterwards with {@link EntityCollections#createAutogenEntities(Terrain, List)} 
 	 * 
-	 * @param terrain
-	 * @param x
-	 * @param z
+	 * @param treePositions
+	 * @param heightArray
+	 * @param terrainX
+	 * @param terrainZ
+	 * @return placement of each tree
 	 */
-	private static void createRandomTrees(Terrain terrain, float x, float z) {
+	public static List<AutogenPlacement> placeRandomTrees(List<Vector2f> treePositions, float[][] heightArray, float terrainX, float terrainZ) {
 		
 		Random random = new Random();
+		List<AutogenPlacement> placements = new ArrayList<>();
 		
-		float y = terrain.getTerrainHeight(x, z);
-		// (absolute world position of terrain's origin) + (position relative to origin) 
-		x += terrain.getX();
-		z += terrain.getZ();
-		
-		Entity staticEntity;
-		
-		if (random.nextInt(100) % 3 == 0) {
-			staticEntity = new Entity(pineForest, new Vector3f(x, y-2, z), 
-									  0, random.nextFloat()*360, 0, 
-									  random.nextFloat() + 6);
+		for (Vector2f treePosition : treePositions) {
+			float y = Terrain.getTerrainHeight(heightArray, treePosition.x, treePosition.y);
+			// (absolute world position of terrain's origin) + (position relative to origin) 
+			Vector3f position = new Vector3f(treePosition.x + terrainX, y-2, treePosition.y + terrainZ);
 			
-			terrain.getStaticEntities().add(staticEntity);
-		} else if (random.nextInt(100) % 9 == 0) {
-			staticEntity = new Entity(oakForest, new Vector3f(x, y-2, z), 
-									  0, random.nextFloat()*360, 0, 
-									  random.nextFloat() + 6);
+			if (random.nextInt(100) % 3 == 0) {
+				placements.add(new AutogenPlacement(AutogenModel.PINE_FOREST, position, random.nextFloat()*360, random.nextFloat() + 6));
+			} else if (random.nextInt(100) % 9 == 0) {
+				placements.add(new AutogenPlacement(AutogenModel.OAK_FOREST, position, random.nextFloat()*360, random.nextFloat() + 6));
+			} else if (random.nextInt(100) % 10 == 0) {
+				placements.add(new AutogenPlacement(AutogenModel.PLANATUS_FOREST, position, random.nextFloat()*360, random.nextFloat() + 6));
+			}
+		}
+		
+		return placements;
+	}
+	
+	/**
+	 * Creates static {@link Entity} objects placed by an autogen image. The {@link Terrain} argument specifies to 
+	 * which terrain the autogen objects should be "bound" to, which involves adding the objects to a List in the terrain 
+	 * object. This list is then iterated through to render each entity. Call this once the models queued by the 
+	 * constructor have been loaded 
+	 * 
+	 * @param terrain
+	 * @param placements
+	 */
+	public static void createAutogenEntities(Terrain terrain, List<AutogenPlacement> placements) {
+		for (AutogenPlacement placement : placements) {
+			TexturedModel model;
 			
-			terrain.getStaticEntities().add(staticEntity);
-		} else if (random.nextInt(100) % 10 == 0) {
-			staticEntity = new Entity(planatusForest, new Vector3f(x, y-2, z), 
-									  0, random.nextFloat()*360, 0, 
-									  random.nextFloat() + 6);
+			switch (placement.getModel()) {
+			case PINE_FOREST:
+				model = pineForest;
+				break;
+			case OAK_FOREST:
+				model = oakForest;
+				break;
+			default:
+				model = planatusForest;
+				break;
+			}
 			
-			terrain.getStaticEntities().add(staticEntity);
+			terrain.getStaticEntities().add(new Entity(model, placement.getPosition(), 0, placement.getRotY(), 0, placement.getScale()));
 		}
 	}
 	
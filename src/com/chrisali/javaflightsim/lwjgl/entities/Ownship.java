@@ -24,6 +24,7 @@ import java.util.Map;
 import org.lwjgl.util.vector.Vector3f;
 
 import com.chrisali.javaflightsim.lwjgl.models.TexturedModel;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
 import com.chrisali.javaflightsim.simulation.setup.InitialConditions;
 
@@ -73,7 +74,7 @@ public class Ownship extends Entity {
 	 * 
 	 * @param flightData
 	 */
-	public void move(Map<FlightDataType, Double> flightData) {
+	public void move(FlightDataFrame flightData) {
 		// Scale distances from simulation to OTW
 		setPosition(new Vector3f(
 			(float) (flightData.get(FlightDataType.NORTH)    / 15),
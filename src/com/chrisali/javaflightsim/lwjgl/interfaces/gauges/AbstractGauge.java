@@ -26,12 +26,12 @@ import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.lwjgl.util.vector.Vector2f;
-import org.newdawn.slick.opengl.Texture;
 
 import com.chrisali.javaflightsim.lwjgl.interfaces.ui.InterfaceTexture;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetLoader;
 import com.chrisali.javaflightsim.lwjgl.loader.Loader;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWDirectories;
-import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonSubTypes.Type;
@@ -70,7 +70,7 @@ public abstract class AbstractGauge {
 		
 	/**
 	 * Constructor that keeps a heiarchy of all texture names part of this object but does not load them into memory; 
-	 * call {@link AbstractGauge#loadTextures(Loader)} afterwards; texture files should be of PNG type 
+	 * call {@link AbstractGauge#loadTextures(Loader, AssetLoader)} afterwards; texture files should be of PNG type 
 	 * 
 	 * @param position - center of the gauge; (-1.0, 1.0) is the top left of the screen, (1.0, -1.0) is the bottom right
 	 * @param scale
@@ -86,15 +86,16 @@ public abstract class AbstractGauge {
 	 * Depending on the gauge type, set the rotation and position of each texture (pointer, horizon, etc) as needed; 
 	 * textures can be easily moved relative to the gauge's position using {@link Vector2f#translate(float, float)}
 	 */
-	public abstract void setGaugeValue(Map<FlightDataType, Double> flightData);
+	public abstract void setGaugeValue(FlightDataFrame flightData);
 	
 	/**
-	 * After the gauge has been deserialized, call this method to load all textures in to memory
-	 * in the textureNames list
+	 * After the gauge has been deserialized, call this method to queue all textures in the textureNames list 
+	 * with an {@link AssetLoader}; each {@link InterfaceTexture} is assigned its texture once loaded into memory
 	 * 
 	 * @param loader
+	 * @param assets
 	 */
-	public void loadTextures(Loader loader) {
+	public void loadTextures(Loader loader, AssetLoader assets) {
 		if (gaugeTextures == null || gaugeTextures.size() == 0) {
 			logger.error("No texture information stored in class!");
 			return;
@@ -103,9 +104,10 @@ public abstract class AbstractGauge {
 		logger.debug("Loading "+ getClass().getSimpleName() +"'s associated textures...");
 
 		for (Map.Entry<String, InterfaceTexture> entry : gaugeTextures.entrySet()) {
-			Texture texture = loader.loadAndGetTexture(entry.getKey(), OTWDirectories.GAUGES.toString()); 
-
-			entry.getValue().setTexture(texture.getTextureID());
+			InterfaceTexture interfaceTexture = entry.getValue();
+			
+			loader.loadAndGetTexture(assets, OTWDirectories.RESOURCES.toString(), entry.getKey(), OTWDirectories.GAUGES.toString())
+				  .whenLoaded(texture -> interfaceTexture.setTexture(texture.getTextureID()));
 		}
 	}
 	
@@ -19,12 +19,12 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.lwjgl.interfaces.gauges;
 
-import java.util.Map;
 
 import org.lwjgl.util.vector.Vector2f;
 
 import com.chrisali.javaflightsim.lwjgl.interfaces.ui.InterfaceTexture;
 import com.chrisali.javaflightsim.lwjgl.loader.Loader;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -62,7 +62,7 @@ public class Altimeter extends AbstractGauge {
 	}
 	
 	@Override
-	public void setGaugeValue(Map<FlightDataType, Double> flightData) {
+	public void setGaugeValue(FlightDataFrame flightData) {
 		if (flightData != null) {
 			double altitude = flightData.get(FlightDataType.ALTITUDE);
 			
@@ -19,12 +19,12 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.lwjgl.interfaces.gauges;
 
-import java.util.Map;
 
 import org.lwjgl.util.vector.Vector2f;
 
 import com.chrisali.javaflightsim.lwjgl.interfaces.ui.InterfaceTexture;
 import com.chrisali.javaflightsim.lwjgl.loader.Loader;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -60,7 +60,7 @@ public class DirectionalGyro extends AbstractGauge {
 	}
 	
 	@Override
-	public void setGaugeValue(Map<FlightDataType, Double> flightData) {
+	public void setGaugeValue(FlightDataFrame flightData) {
 		if (flightData != null) {
 			double heading = flightData.get(FlightDataType.HEADING);
 			double rotationAngle = (2.0 * Math.PI / 360.0) * (heading % 360);
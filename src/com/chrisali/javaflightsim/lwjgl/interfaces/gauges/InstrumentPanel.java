@@ -21,16 +21,16 @@ package com.chrisali.javaflightsim.lwjgl.interfaces.gauges;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.lwjgl.util.vector.Vector2f;
 
 import com.chrisali.javaflightsim.lwjgl.interfaces.ui.InterfaceTexture;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetLoader;
 import com.chrisali.javaflightsim.lwjgl.loader.Loader;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
-import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.utilities.SimDirectories;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -53,32 +53,34 @@ public class InstrumentPanel {
 	private Vector2f panelScale;
 	
 	/**
-	 * Generic constructor; call {@link InstrumentPanel#loadAndGetTextures(Loader)} after initializing to load
+	 * Generic constructor; call {@link InstrumentPanel#loadAndGetTextures(Loader, AssetLoader, String)} after initializing to load
 	 * all {@link InterfaceTexture} objects into memory
 	 */
 	public InstrumentPanel() { }
 	
 	/**
-	 * Loads all {@link InterfaceTexture} objects associated with each {@link AbstractGauge} in this class to be
-	 * rendered. Call this method after initializing this object
+	 * Queues all {@link InterfaceTexture} objects associated with each {@link AbstractGauge} in this class to be
+	 * rendered with an {@link AssetLoader}. Call this method after initializing this object; the textures are 
+	 * assigned as each is loaded into memory
 	 * 
 	 * @param loader
+	 * @param assets
+	 * @param aircraftName
 	 * @return List of {@link InterfaceTexture} objects
 	 */
-	public List<InterfaceTexture> loadAndGetTextures(Loader loader, String aircraftName) {
+	public List<InterfaceTexture> loadAndGetTextures(Loader loader, AssetLoader assets, String aircraftName) {
 		List<InterfaceTexture> interfaceTextures = new ArrayList<>();
 		
 		logger.debug("Initializing instrument panel...");
 		
-		InterfaceTexture panelBase = new InterfaceTexture(loader.loadTexture(SimDirectories.AIRCRAFT.toString(), getClass().getSimpleName(), aircraftName), 
-														  panelPosition, 
-														  0.0f, 
-														  panelScale);
+		InterfaceTexture panelBase = new InterfaceTexture(0, panelPosition, 0.0f, panelScale);
+		loader.loadTexture(assets, SimDirectories.AIRCRAFT.toString(), getClass().getSimpleName(), aircraftName)
+			  .whenLoaded(panelBase::setTexture);
 		
 		interfaceTextures.add(panelBase);
 		
 		for (AbstractGauge gauge : gauges) {
-			gauge.loadTextures(loader);
+			gauge.loadTextures(loader, assets);
 			interfaceTextures.addAll(gauge.getTextures());
 		}
 		
@@ -92,7 +94,7 @@ public class InstrumentPanel {
 	 * 
 	 * @param flightData
 	 */
-	public void update(Map<FlightDataType, Double> flightData) {
+	public void update(FlightDataFrame flightData) {
 		for (AbstractGauge gauge : gauges)
 			gauge.setGaugeValue(flightData);
 	}
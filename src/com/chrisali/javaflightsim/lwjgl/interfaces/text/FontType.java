@@ -48,7 +48,21 @@ public class FontType {
 	 *            information about each character in the texture atlas.
 	 */
 	public FontType(Loader loader, String fontName) {
-		this.textureAtlas = loader.loadTexture(fontName, OTWDirectories.FONTS.toString());
+		this(loader.loadTexture(fontName, OTWDirectories.FONTS.toString()), fontName);
+	}
+	
+	/**
+	 * Creates a new font from a font texture atlas that has already been loaded, and loads up the data about 
+	 * each character from the font file.
+	 * 
+	 * @param textureAtlas
+	 *            - ID of the font atlas texture.
+	 * @param fontName
+	 *            - the font file's name in the Resources/Fonts folder, which contains 
+	 *            information about each character in the texture atlas.
+	 */
+	public FontType(int textureAtlas, String fontName) {
+		this.textureAtlas = textureAtlas;
 		
 		File fontFile = new File(OTWDirectories.RESOURCES.toString() + File.separator + OTWDirectories.FONTS.toString() + 
 								File.separator + fontName + OTWFiles.FONT_EXT.toString()); 
@@ -28,6 +28,7 @@ import org.lwjgl.util.vector.Vector3f;
 
 import com.chrisali.javaflightsim.lwjgl.entities.Camera;
 import com.chrisali.javaflightsim.lwjgl.entities.Entity;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
 import com.chrisali.javaflightsim.simulation.setup.CameraMode;
 import com.chrisali.javaflightsim.simulation.setup.Options;
@@ -60,7 +61,7 @@ public class SimulationTexts {
 	 * @param flightData
 	 * @param options
 	 */
-	public void update(Map<FlightDataType, Double> flightData, SimulationConfiguration config, Camera camera, Entity entity) {
+	public void update(FlightDataFrame flightData, SimulationConfiguration config, Camera camera, Entity entity) {
 		if (!config.getCameraConfiguration().isShowPanel()) {
 			texts.get("FlightData").setTextString(setTelemetryText(flightData));
 			
@@ -84,7 +85,7 @@ public class SimulationTexts {
 	 * @param flightData
 	 * @return string displaying flight data output 
 	 */
-	private String setTelemetryText(Map<FlightDataType, Double> flightData) {	
+	private String setTelemetryText(FlightDataFrame flightData) {	
 		StringBuffer sb = new StringBuffer();
 
 		try {
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.lwjgl.loader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Handle to an asset queued with an {@link AssetLoader}. Once the asset has been prepared by a worker and uploaded 
+ * on the OpenGL context thread, its value can be taken with {@link Asset#get()}. All methods must be called on the
+ * context thread
+ * 
+ * @author Christopher Ali
+ *
+ * @param <R> type of the uploaded asset (texture ID, {@link com.chrisali.javaflightsim.lwjgl.models.RawModel}, etc)
+ */
+public class Asset<R> {
+	
+	private final AssetLoader assetLoader;
+	private final AssetTiming timing;
+	
+	private List<Consumer<? super R>> loadedActions = new ArrayList<>();
+	
+	private boolean complete;
+	private R value;
+	private Throwable error;
+	
+	Asset(AssetLoader assetLoader, AssetTiming timing) {
+		this.assetLoader = assetLoader;
+		this.timing = timing;
+	}
+	
+	/**
+	 * Returns the uploaded asset; if it has not been uploaded yet, uploads queued assets until it has been.
+	 * This can also be called from a {@link Asset#whenLoaded(Consumer)} action of another asset
+	 * 
+	 * @return uploaded asset
+	 * @throws IllegalStateException if the asset could not be loaded
+	 */
+	public R get() {
+		while (!complete)
+			assetLoader.uploadNext();
+		
+		if (error != null)
+			throw new IllegalStateException("Could not load " + timing.getName() + "!", error);
+		
+		return value;
+	}
+	
+	/**
+	 * Runs an action on the context thread with the uploaded asset, or immediately if it has already been uploaded. 
+	 * The action is not run if the asset could not be loaded
+	 * 
+	 * @param action
+	 * @return this asset
+	 */
+	public Asset<R> whenLoaded(Consumer<? super R> action) {
+		if (!complete)
+			loadedActions.add(action);
+		else if (error == null)
+			action.accept(value);
+		
+		return this;
+	}
+	
+	/**
+	 * Completes this asset with its uploaded value, or the error that stopped it from loading, and runs any
+	 * actions waiting on it
+	 * 
+	 * @param value
+	 * @param error
+	 */
+	void complete(R value, Throwable error) {
+		this.value = value;
+		this.error = error;
+		complete = true;
+		
+		if (error == null) {
+			for (Consumer<? super R> action : loadedActions)
+				action.accept(value);
+		}
+		
+		loadedActions = null;
+	}
+	
+	/**
+	 * @return if this asset has been uploaded successfully
+	 */
+	public boolean isLoaded() { return complete && error == null; }
+	
+	public String getName() { return timing.getName(); }
+	
+	public AssetTiming getTiming() { return timing; }
+}
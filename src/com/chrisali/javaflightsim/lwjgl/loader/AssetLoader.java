@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.lwjgl.loader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.lwjgl.events.AssetLoadListener;
+
+/**
+ * <p>Loads assets in two stages so that startup is not bound to a single thread. The CPU stage (image and sound decoding,
+ * model parsing, mesh generation, etc) runs on a pool of worker threads, and as each asset is prepared its upload stage 
+ * (OpenGL or OpenAL calls) is added to a queue. The queue is drained by the thread that created this object, which must
+ * be the one that owns the OpenGL context</p>
+ * 
+ * <p>Queue all assets first using {@link AssetLoader#load(String, Callable, Function)}, then call 
+ * {@link AssetLoader#awaitAll()} to upload them as they become ready. An {@link AssetLoadListener} is notified after 
+ * each one, and an {@link AssetTiming} is kept for each so that the slowest assets are logged when this loader is closed</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class AssetLoader implements AutoCloseable {
+	
+	private static final Logger logger = LogManager.getLogger(AssetLoader.class);
+	
+	// Number of slowest assets to log when closed
+	private static final int SLOWEST_ASSETS_LOGGED = 10;
+	
+	private final ExecutorService workers;
+	private final int workerThreads;
+	private final Thread contextThread;
+	private final AssetLoadListener listener;
+	
+	private final BlockingQueue<Runnable> uploadQueue = new LinkedBlockingQueue<>();
+	private final List<AssetTiming> timings = Collections.synchronizedList(new ArrayList<>());
+	
+	private final long startTime = System.nanoTime();
+	
+	// Only accessed on the context thread
+	private int totalAssets;
+	private int loadedAssets;
+	
+	/**
+	 * Creates a loader whose uploads are done on the calling thread
+	 * 
+	 * @param workerThreads number of threads to prepare assets on
+	 * @param listener notified on the calling thread each time an asset is loaded; can be null
+	 */
+	public AssetLoader(int workerThreads, AssetLoadListener listener) {
+		this.workerThreads = workerThreads;
+		this.listener = listener;
+		
+		contextThread = Thread.currentThread();
+		
+		AtomicInteger threadCount = new AtomicInteger();
+		workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+			Thread thread = new Thread(runnable, "Asset Loader " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * @return number of worker threads to use, leaving one processor for the context thread to upload on
+	 */
+	public static int getDefaultWorkerThreads() {
+		return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	}
+	
+	/**
+	 * Queues an asset to be prepared on a worker thread and then uploaded on the context thread
+	 * 
+	 * @param name name of the asset used for logging and timing
+	 * @param prepare CPU work for the asset, run on a worker thread
+	 * @param upload OpenGL/OpenAL work for the asset, run on the context thread with the prepared data
+	 * @return handle to the asset
+	 */
+	public <D, R> Asset<R> load(String name, Callable<D> prepare, Function<? super D, ? extends R> upload) {
+		AssetTiming timing = new AssetTiming(name);
+		
+		return enqueue(timing, submit(timing, prepare), upload);
+	}
+	
+	/**
+	 * Queues data that was prepared by {@link AssetLoader#prepare(String, Callable)} to be uploaded on 
+	 * the context thread as soon as it is ready 
+	 * 
+	 * @param name name of the asset used for logging and timing
+	 * @param prepared
+	 * @param upload OpenGL/OpenAL work for the asset, run on the context thread with the prepared data
+	 * @return handle to the asset
+	 */
+	public <D, R> Asset<R> upload(String name, CompletableFuture<D> prepared, Function<? super D, ? extends R> upload) {
+		return enqueue(new AssetTiming(name), prepared, upload);
+	}
+	
+	/**
+	 * Prepares data on a worker thread that is shared by several assets, such as a height map used by every 
+	 * terrain. Workers can wait on the returned future as long as it was prepared before the assets that use it
+	 * were queued
+	 * 
+	 * @param name name of the data used for logging and timing
+	 * @param prepare CPU work run on a worker thread
+	 * @return future completed with the prepared data
+	 */
+	public <D> CompletableFuture<D> prepare(String name, Callable<D> prepare) {
+		AssetTiming timing = new AssetTiming(name);
+		timings.add(timing);
+		
+		return submit(timing, prepare);
+	}
+	
+	/**
+	 * Runs a step on the context thread that builds objects out of loaded assets, timing it alongside them
+	 * 
+	 * @param name name of the step used for logging and timing
+	 * @param step
+	 */
+	public void assemble(String name, Runnable step) {
+		checkContextThread();
+		
+		AssetTiming timing = new AssetTiming(name);
+		timings.add(timing);
+		totalAssets++;
+		
+		long start = System.nanoTime();
+		try {
+			step.run();
+		} finally {
+			timing.setUploadNanos(System.nanoTime() - start);
+			assetLoaded(timing);
+		}
+	}
+	
+	/**
+	 * Uploads queued assets on the context thread as they are prepared until all of them have been loaded
+	 */
+	public void awaitAll() {
+		while (loadedAssets < totalAssets)
+			uploadNext();
+	}
+	
+	private <D> CompletableFuture<D> submit(AssetTiming timing, Callable<D> prepare) {
+		CompletableFuture<D> prepared = new CompletableFuture<>();
+		
+		workers.execute(() -> {
+			long start = System.nanoTime();
+			try {
+				D data = prepare.call();
+				timing.setPrepareNanos(System.nanoTime() - start);
+				prepared.complete(data);
+			} catch (Throwable e) {
+				timing.setPrepareNanos(System.nanoTime() - start);
+				timing.setFailed();
+				prepared.completeExceptionally(e);
+			}
+		});
+		
+		return prepared;
+	}
+	
+	private <D, R> Asset<R> enqueue(AssetTiming timing, CompletableFuture<D> prepared, Function<? super D, ? extends R> upload) {
+		checkContextThread();
+		
+		Asset<R> asset = new Asset<>(this, timing);
+		timings.add(timing);
+		totalAssets++;
+		
+		prepared.whenComplete((data, error) -> {
+			long queued = System.nanoTime();
+			
+			uploadQueue.add(() -> {
+				long start = System.nanoTime();
+				timing.setQueuedNanos(start - queued);
+				
+				R value = null;
+				Throwable failure = error instanceof CompletionException ? error.getCause() : error;
+				
+				if (failure == null) {
+					try {
+						value = upload.apply(data);
+					} catch (RuntimeException e) {
+						failure = e;
+					}
+				}
+				
+				timing.setUploadNanos(System.nanoTime() - start);
+				
+				if (failure != null) {
+					timing.setFailed();
+					logger.error("Could not load " + timing.getName() + "!", failure);
+				}
+				
+				try {
+					asset.complete(value, failure);
+				} finally {
+					assetLoaded(timing);
+				}
+			});
+		});
+		
+		return asset;
+	}
+	
+	/**
+	 * Waits for the next prepared asset and uploads it on the context thread
+	 */
+	void uploadNext() {
+		checkContextThread();
+		
+		try {
+			uploadQueue.take().run();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading assets!", e);
+		}
+	}
+	
+	private void assetLoaded(AssetTiming timing) {
+		loadedAssets++;
+		
+		if (listener != null)
+			listener.onAssetLoaded(timing, loadedAssets, totalAssets);
+	}
+	
+	private void checkContextThread() {
+		if (Thread.currentThread() != contextThread)
+			throw new IllegalStateException("Assets can only be queued and uploaded on " + contextThread.getName() + "!");
+	}
+	
+	/**
+	 * @return timing of every asset queued so far
+	 */
+	public List<AssetTiming> getTimings() {
+		synchronized (timings) {
+			return new ArrayList<>(timings);
+		}
+	}
+	
+	public int getWorkerThreads() { return workerThreads; }
+	
+	public int getTotalAssets() { return totalAssets; }
+	
+	public int getLoadedAssets() { return loadedAssets; }
+	
+	/**
+	 * Stops the worker threads and logs the time taken to load all assets, followed by the slowest of them
+	 */
+	@Override
+	public void close() {
+		workers.shutdownNow();
+		
+		if (!logger.isInfoEnabled())
+			return;
+		
+		List<AssetTiming> sortedTimings = getTimings();
+		sortedTimings.sort(Comparator.comparingLong(AssetTiming::getTotalNanos).reversed());
+		
+		long prepareNanos = 0, uploadNanos = 0;
+		for (AssetTiming timing : sortedTimings) {
+			prepareNanos += timing.getPrepareNanos();
+			uploadNanos += timing.getUploadNanos();
+		}
+		
+		StringBuilder sb = new StringBuilder("Loaded ").append(loadedAssets).append(" of ").append(totalAssets)
+				.append(String.format(" assets in %.0f ms using %d worker thread(s); ", (System.nanoTime() - startTime) / 1e6, workerThreads))
+				.append(String.format("%.0f ms preparing, %.0f ms uploading. Slowest:", prepareNanos / 1e6, uploadNanos / 1e6));
+		
+		for (int i = 0; i < Math.min(SLOWEST_ASSETS_LOGGED, sortedTimings.size()); i++)
+			sb.append("\n\t").append(sortedTimings.get(i));
+		
+		logger.info(sb.toString());
+	}
+}
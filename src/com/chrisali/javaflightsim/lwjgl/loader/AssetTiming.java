@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.lwjgl.loader;
+
+/**
+ * Time spent loading an asset: preparing it on an {@link AssetLoader} worker, waiting in the upload queue and
+ * uploading or assembling it on the OpenGL context thread 
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class AssetTiming {
+	
+	private final String name;
+	
+	private volatile long prepareNanos;
+	private volatile long queuedNanos;
+	private volatile long uploadNanos;
+	private volatile boolean failed;
+	
+	AssetTiming(String name) {
+		this.name = name;
+	}
+	
+	void setPrepareNanos(long prepareNanos) { this.prepareNanos = prepareNanos; }
+	
+	void setQueuedNanos(long queuedNanos) { this.queuedNanos = queuedNanos; }
+	
+	void setUploadNanos(long uploadNanos) { this.uploadNanos = uploadNanos; }
+	
+	void setFailed() { failed = true; }
+
+	public String getName() { return name; }
+
+	/**
+	 * @return time (ns) spent decoding or generating this asset on a worker thread
+	 */
+	public long getPrepareNanos() { return prepareNanos; }
+
+	/**
+	 * @return time (ns) this asset waited in the upload queue for the context thread after it was prepared
+	 */
+	public long getQueuedNanos() { return queuedNanos; }
+
+	/**
+	 * @return time (ns) spent uploading or assembling this asset on the context thread
+	 */
+	public long getUploadNanos() { return uploadNanos; }
+	
+	/**
+	 * @return time (ns) of work done on this asset by any thread, excluding time waiting in the queue
+	 */
+	public long getTotalNanos() { return prepareNanos + uploadNanos; }
+
+	public boolean isFailed() { return failed; }
+	
+	@Override
+	public String toString() {
+		return String.format("%s: prepare %.1f ms, queued %.1f ms, upload %.1f ms%s", name, prepareNanos / 1e6, 
+							 queuedNanos / 1e6, uploadNanos / 1e6, failed ? " (failed)" : "");
+	}
+}
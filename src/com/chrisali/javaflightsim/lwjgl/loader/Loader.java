@@ -19,9 +19,12 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.lwjgl.loader;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.LinkedList;
@@ -38,10 +41,15 @@ import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
 import org.lwjgl.opengl.GL33;
 import org.lwjgl.opengl.GLContext;
+import org.newdawn.slick.opengl.ImageData;
+import org.newdawn.slick.opengl.ImageDataFactory;
+import org.newdawn.slick.opengl.InternalTextureLoader;
+import org.newdawn.slick.opengl.LoadableImageData;
 import org.newdawn.slick.opengl.Texture;
-import org.newdawn.slick.opengl.TextureLoader;
 
 import com.chrisali.javaflightsim.lwjgl.models.RawModel;
+import com.chrisali.javaflightsim.lwjgl.models.TexturedModel;
+import com.chrisali.javaflightsim.lwjgl.textures.ModelTexture;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWDirectories;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWFiles;
 
@@ -74,6 +82,10 @@ public class Loader {
 		return new RawModel(vaoID, indices.length);
 	}
 	
+	public RawModel loadToVAO(ModelData modelData) {
+		return loadToVAO(modelData.getPositions(), modelData.getTextureCoords(), modelData.getNormals(), modelData.getIndices());
+	}
+	
 	public RawModel loadToVAO(float[] positions, int dimensions) {
 		int vaoID = createVAO();
 		this.storeDataInAttributeList(0, dimensions, positions);
@@ -199,31 +211,150 @@ public class Loader {
 		Texture texture = null;
 		
 		try {
-			texture = TextureLoader.getTexture("PNG",
-					new FileInputStream(rootDirectory + File.separator + directory + File.separator + fileName + OTWFiles.TEXTURE_EXT.toString()));
+			texture = uploadTexture(decodeTexture(rootDirectory, fileName, directory));
+		} catch (IOException | UncheckedIOException e) {
+			logger.error("Could not load texture: " + fileName + OTWFiles.TEXTURE_EXT.toString(), e);
+		}
 		
-			GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
-			GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
-			
-			// Set Anisotropic Filtering
-			if (GLContext.getCapabilities().GL_EXT_texture_filter_anisotropic && useAnisotropicFiltering) {
-				float value = Math.min(4f, GL11.glGetFloat(EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT));
-				GL11.glTexParameterf(GL11.GL_TEXTURE_2D, EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT, value);
-			}
+		return texture;
+	}
+	
+	/**
+	 * Queues a texture with an {@link AssetLoader}, which decodes it on a worker thread and then loads it into memory
+	 * using {@link Loader#uploadTexture(ImageData)} on the OpenGL context thread
+	 * 
+	 * @param assets
+	 * @param fileName
+	 * @param directory
+	 * @return handle to the texture ID
+	 */
+	public Asset<Integer> loadTexture(AssetLoader assets, String fileName, String directory) {
+		return loadTexture(assets, OTWDirectories.RESOURCES.toString(), fileName, directory);
+	}
+	
+	/**
+	 * Queues a texture with an {@link AssetLoader}, which decodes it on a worker thread and then loads it into memory
+	 * using {@link Loader#uploadTexture(ImageData)} on the OpenGL context thread
+	 * 
+	 * @param assets
+	 * @param rootDirectory
+	 * @param fileName
+	 * @param directory
+	 * @return handle to the texture ID
+	 */
+	public Asset<Integer> loadTexture(AssetLoader assets, String rootDirectory, String fileName, String directory) {
+		return assets.load(fileName + OTWFiles.TEXTURE_EXT.toString(), () -> decodeTexture(rootDirectory, fileName, directory), imageData -> {
+			int textureID = uploadTexture(imageData).getTextureID();
+			textureList.add(textureID);
 			
-			GL11.glTexParameterf(GL11.GL_TEXTURE_2D, GL14.GL_TEXTURE_LOD_BIAS, -0.4f);
-			GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
-			GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
-			GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
-			GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
-				
-			return texture;
+			return textureID;
+		});
+	}
+	
+	/**
+	 * Queues a texture with an {@link AssetLoader}, which decodes it on a worker thread and then loads it into memory
+	 * using {@link Loader#uploadTexture(ImageData)} on the OpenGL context thread. The Texture object is returned so that
+	 * the file's properties can be used elsewhere
+	 * 
+	 * @param assets
+	 * @param rootDirectory
+	 * @param fileName
+	 * @param directory
+	 * @return handle to the Texture object
+	 */
+	public Asset<Texture> loadAndGetTexture(AssetLoader assets, String rootDirectory, String fileName, String directory) {
+		return assets.load(fileName + OTWFiles.TEXTURE_EXT.toString(), () -> decodeTexture(rootDirectory, fileName, directory), this::uploadTexture);
+	}
+	
+	/**
+	 * Decodes a PNG texture using SlickUtils without touching OpenGL, so that it can be run on any thread. The texture is 
+	 * loaded into memory afterwards with {@link Loader#uploadTexture(ImageData)}
+	 * 
+	 * @param rootDirectory
+	 * @param fileName
+	 * @param directory
+	 * @return decoded image
+	 * @throws IOException if the file could not be read
+	 */
+	public static ImageData decodeTexture(String rootDirectory, String fileName, String directory) throws IOException {
+		String path = rootDirectory + File.separator + directory + File.separator + fileName + OTWFiles.TEXTURE_EXT.toString();
+		LoadableImageData imageData = ImageDataFactory.getImageDataFor(path);
+		
+		try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+			imageData.loadImage(in, false, null);
+		}
+		
+		return imageData;
+	}
+	
+	/**
+	 * Loads a decoded texture into memory on the OpenGL context thread. Generates mipmaps and sets anisotropic filtering 
+	 * for the texture as well in this method
+	 * 
+	 * @param imageData
+	 * @return Texture object
+	 * @throws UncheckedIOException if the texture is too large for the graphics hardware
+	 */
+	public Texture uploadTexture(ImageData imageData) {
+		Texture texture;
+		
+		try {
+			texture = InternalTextureLoader.get().getTexture(imageData, GL11.GL_LINEAR);
 		} catch (IOException e) {
-			logger.error("Could not load texture: " + fileName + OTWFiles.TEXTURE_EXT.toString(), e);
+			throw new UncheckedIOException(e);
+		}
+		
+		GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
+		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
+		
+		// Set Anisotropic Filtering
+		if (GLContext.getCapabilities().GL_EXT_texture_filter_anisotropic && useAnisotropicFiltering) {
+			float value = Math.min(4f, GL11.glGetFloat(EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT));
+			GL11.glTexParameterf(GL11.GL_TEXTURE_2D, EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT, value);
 		}
 		
+		GL11.glTexParameterf(GL11.GL_TEXTURE_2D, GL14.GL_TEXTURE_LOD_BIAS, -0.4f);
+		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+		
 		return texture;
 	}
+	
+	//====================================== Textured Models ========================================
+	
+	/**
+	 * Queues an OBJ model and PNG texture of the same name in a directory stemming from ./Resources with an {@link AssetLoader}
+	 * 
+	 * @param assets
+	 * @param fileName
+	 * @param directory
+	 * @return handle to the textured model
+	 */
+	public Asset<TexturedModel> loadTexturedModel(AssetLoader assets, String fileName, String directory) {
+		return loadTexturedModel(assets, OBJLoader.loadObjModel(fileName, directory, this, assets), fileName, directory);
+	}
+	
+	/**
+	 * Queues a PNG texture with an {@link AssetLoader} to be paired with a model that has already been queued, so that 
+	 * several textured models can share a single model
+	 * 
+	 * @param assets
+	 * @param model
+	 * @param textureName
+	 * @param directory
+	 * @return handle to the textured model
+	 */
+	public Asset<TexturedModel> loadTexturedModel(AssetLoader assets, Asset<RawModel> model, String textureName, String directory) {
+		return assets.load(textureName + OTWFiles.TEXTURE_EXT.toString(), 
+						   () -> decodeTexture(OTWDirectories.RESOURCES.toString(), textureName, directory), imageData -> {
+			int textureID = uploadTexture(imageData).getTextureID();
+			textureList.add(textureID);
+			
+			return new TexturedModel(model.get(), new ModelTexture(textureID));
+		});
+	}
 		
 	public static void setUseAnisotropicFiltering(boolean useAnisotropicFiltering) {
 		Loader.useAnisotropicFiltering = useAnisotropicFiltering;
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.lwjgl.loader;
+
+/**
+ * Vertex data of a model kept in plain arrays, so that it can be read from disk or generated away from 
+ * the OpenGL context thread and loaded into a VAO afterwards with {@link Loader#loadToVAO(ModelData)}
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class ModelData {
+	
+	private final float[] positions;
+	private final float[] textureCoords;
+	private final float[] normals;
+	private final int[] indices;
+	
+	public ModelData(float[] positions, float[] textureCoords, float[] normals, int[] indices) {
+		this.positions = positions;
+		this.textureCoords = textureCoords;
+		this.normals = normals;
+		this.indices = indices;
+	}
+
+	public float[] getPositions() { return positions; }
+
+	public float[] getTextureCoords() { return textureCoords; }
+
+	public float[] getNormals() { return normals; }
+
+	public int[] getIndices() { return indices; }
+}
@@ -21,8 +21,8 @@ package com.chrisali.javaflightsim.lwjgl.loader;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,7 +37,8 @@ import com.chrisali.javaflightsim.lwjgl.utilities.OTWFiles;
 
 /**
  * Contains static methods to load a {@link RawModel} into memory by reading and processing all vertices, textures and
- * normals associated with the model 
+ * normals associated with the model. Reading is kept apart from loading into a VAO so that models can be read by
+ * {@link AssetLoader} worker threads
  * 
  * @author Christopher Ali
  *
@@ -55,12 +56,42 @@ public class OBJLoader {
 	 * @return RawModwl object
 	 */
 	public static RawModel loadObjModel(String fileName, String directory, Loader loader) {
- 		FileReader fr = null;
-		
-		try {fr = new FileReader(new File(OTWDirectories.RESOURCES.toString() + File.separator + directory + File.separator + fileName + OTWFiles.MODEL_EXT.toString()));} 
-		catch (FileNotFoundException e) {logger.error("Could not load model: " + fileName + OTWFiles.MODEL_EXT.toString() + "!", e);}
+		try {
+			return loader.loadToVAO(parseObjModel(fileName, directory));
+		} catch (IOException e) {
+			logger.error("Could not load model: " + fileName + OTWFiles.MODEL_EXT.toString() + "!", e);
+		}
 		
-		BufferedReader reader = new BufferedReader(fr);
+		return null;
+	}
+	
+	/**
+	 * Queues an OBJ model with an {@link AssetLoader}, which reads it on a worker thread and then loads it into a VAO 
+	 * on the OpenGL context thread
+	 * 
+	 * @param fileName
+	 * @param directory
+	 * @param loader
+	 * @param assets
+	 * @return handle to the RawModel object
+	 */
+	public static Asset<RawModel> loadObjModel(String fileName, String directory, Loader loader, AssetLoader assets) {
+		return assets.load(fileName + OTWFiles.MODEL_EXT.toString(), () -> parseObjModel(fileName, directory), 
+						   (ModelData modelData) -> loader.loadToVAO(modelData));
+	}
+	
+	/**
+	 * Reads and processes all vertices, textures and normals of an OBJ model without touching OpenGL, so that 
+	 * it can be run on any thread
+	 * 
+	 * @param fileName
+	 * @param directory
+	 * @return model's vertex data
+	 * @throws IOException if the file could not be opened
+	 */
+	public static ModelData parseObjModel(String fileName, String directory) throws IOException {
+		BufferedReader reader = new BufferedReader(new FileReader(new File(OTWDirectories.RESOURCES.toString() + File.separator + directory + 
+																		   File.separator + fileName + OTWFiles.MODEL_EXT.toString())));
 		String line;
 		
 		List<Vector3f> vertices = new ArrayList<>();
@@ -134,7 +165,7 @@ public class OBJLoader {
 		for(int i=0; i<indices.size(); i++)
 			indicesArray[i] = indices.get(i);
 		
-		return loader.loadToVAO(verticesArray, texturesArray, normalsArray, indicesArray);
+		return new ModelData(verticesArray, texturesArray, normalsArray, indicesArray);
 	}
 	
 	private static void processVertex(String[] vertexData, List<Integer> indices, List<Vector2f> textures, 
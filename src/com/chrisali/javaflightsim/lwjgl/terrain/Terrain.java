@@ -28,15 +28,13 @@ import java.util.TreeMap;
 
 import javax.imageio.ImageIO;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.lwjgl.util.vector.Vector2f;
 import org.lwjgl.util.vector.Vector3f;
 
 import com.chrisali.javaflightsim.lwjgl.entities.Entity;
 import com.chrisali.javaflightsim.lwjgl.entities.EntityCollections;
 import com.chrisali.javaflightsim.lwjgl.entities.Ownship;
-import com.chrisali.javaflightsim.lwjgl.loader.Loader;
+import com.chrisali.javaflightsim.lwjgl.loader.ModelData;
 import com.chrisali.javaflightsim.lwjgl.models.RawModel;
 import com.chrisali.javaflightsim.lwjgl.textures.TerrainTexture;
 import com.chrisali.javaflightsim.lwjgl.textures.TerrainTexturePack;
@@ -53,8 +51,6 @@ import com.chrisali.javaflightsim.lwjgl.utilities.RenderingUtilities;
  *
  */
 public class Terrain implements Comparable<Terrain> {
-
-	private static final Logger logger = LogManager.getLogger(Terrain.class);
 	
 	private static final float SIZE = 1600;
 	private static final float MAX_HEIGHT = 20;
@@ -79,9 +75,10 @@ public class Terrain implements Comparable<Terrain> {
 	 * 
 	 * <p>gridX and gridZ correspond to indices in the terrain array that this object resides</p>
 	 * 
-	 * <p>fileName and Directory point to a height map .png file to give the terrain vertical modeling</p>
+	 * <p>model and heightArray come from a {@link TerrainMesh} generated from a height map .png file to give the terrain 
+	 * vertical modeling; they can be shared by several terrains</p>
 	 * 
-	 * <p>Uses {@link EntityCollections#createAutogenImageEntities()} to generate populate this object's lists of entities
+	 * <p>Use {@link EntityCollections#createAutogenEntities(Terrain, List)} afterwards to populate this object's lists of entities
 	 * using an autogen image file in Resources/Terrain/</p>
 	 * 
 	 * <p>Uses a reference to {@link Ownship} to calculate the distance the midpoint of this terrain instance is from 
@@ -89,46 +86,41 @@ public class Terrain implements Comparable<Terrain> {
 	 * 
 	 * @param gridX
 	 * @param gridZ
-	 * @param fileName
-	 * @param directory
-	 * @param loader
+	 * @param model
+	 * @param heightArray
 	 * @param texturePack
 	 * @param blendMap
 	 * @param ownship
 	 */
-	public Terrain(int gridX, int gridZ, String fileName, String directory, 
-					Loader loader, TerrainTexturePack texturePack, TerrainTexture blendMap,
+	public Terrain(int gridX, int gridZ, RawModel model, float[][] heightArray, 
+					TerrainTexturePack texturePack, TerrainTexture blendMap,
 					Ownship ownship) {
 		this.texturePack = texturePack;
 		this.blendMap = blendMap;
 		this.x = gridX * SIZE;
 		this.z = gridZ * SIZE;
-		this.model = generateTerrain(fileName, directory, loader);
+		this.model = model;
+		this.heightArray = heightArray;
 		this.ownship = ownship;
-		
-		// Generate all autogen objects and add them to staticEntities and litEntities
-		EntityCollections.createAutogenImageEntities(this, "autogen", directory);
 	}
 
 	/**
-	 * Gererates a terrain model using a BufferedImage height map
+	 * Gererates a terrain mesh using a BufferedImage height map. This does not touch OpenGL, so it can be run on any thread; 
+	 * load the mesh's {@link ModelData} into a VAO afterwards to create the terrain model
 	 * 
 	 * @param fileName
 	 * @param directory (usually "Terrain" or can specify sub-directories such as "Terrain\1-1")
-	 * @param loader
-	 * @return terrain model
+	 * @return terrain mesh
+	 * @throws IOException if the height map could not be read
 	 */
-	private RawModel generateTerrain(String fileName, String directory, Loader loader){
+	public static TerrainMesh generateMesh(String fileName, String directory) throws IOException {
 		
-		BufferedImage image = null;
-		
-		try {image = ImageIO.read(new File(OTWDirectories.RESOURCES.toString() + File.separator + directory + File.separator + fileName + OTWFiles.TEXTURE_EXT.toString()));} 
-		catch (IOException e) {logger.error("Could not load height map: " + fileName + OTWFiles.TEXTURE_EXT.toString() + "!", e);}
+		BufferedImage image = ImageIO.read(new File(OTWDirectories.RESOURCES.toString() + File.separator + directory + File.separator + fileName + OTWFiles.TEXTURE_EXT.toString()));
 		
 		int VERTEX_COUNT = image.getHeight();
 		int count = VERTEX_COUNT * VERTEX_COUNT;
 		
-		heightArray = new float[VERTEX_COUNT][VERTEX_COUNT];
+		float[][] heightArray = new float[VERTEX_COUNT][VERTEX_COUNT];
 		float[] vertices = new float[count * 3];
 		float[] normals = new float[count * 3];
 		float[] textureCoords = new float[count*2];
@@ -174,7 +166,7 @@ public class Terrain implements Comparable<Terrain> {
 			}
 		}
 		
-		return loader.loadToVAO(vertices, textureCoords, normals, indices);
+		return new TerrainMesh(new ModelData(vertices, textureCoords, normals, indices), heightArray);
 	}
 	
 	/**
@@ -185,7 +177,7 @@ public class Terrain implements Comparable<Terrain> {
 	 * @param image
 	 * @return normal vector
 	 */
-	private Vector3f calculateNormal(int x, int z, BufferedImage image) {
+	private static Vector3f calculateNormal(int x, int z, BufferedImage image) {
 		float heightL = getHeightFromImage(x-1, z  , image);
 		float heightR = getHeightFromImage(x+1, z  , image);
 		float heightD = getHeightFromImage(x  , z-1, image);
@@ -206,7 +198,7 @@ public class Terrain implements Comparable<Terrain> {
 	 * @param image
 	 * @return height of terrain vertex
 	 */
-	private float getHeightFromImage(int x, int z, BufferedImage image) {
+	private static float getHeightFromImage(int x, int z, BufferedImage image) {
 		// If out of terrain bounds, return 0
 		if (x < 0 || x >= image.getHeight() || z < 0 || z >= image.getWidth())
 			return 0;
@@ -229,9 +221,19 @@ public class Terrain implements Comparable<Terrain> {
 	 */
 	public float getTerrainHeight(float worldX, float worldZ) {
 		// Convert absolute world position to position relative to terrain square
-		float terrainX = worldX - this.x;
-		float terrainZ = worldZ - this.z;
-		
+		return getTerrainHeight(heightArray, worldX - this.x, worldZ - this.z);
+	}
+	
+	/**
+	 * Uses Barycentric interpolation to calculate the height of terrain for a given X and Z position relative 
+	 * to the terrain's origin using its height array
+	 * 
+	 * @param heightArray
+	 * @param terrainX
+	 * @param terrainZ
+	 * @return terrain height
+	 */
+	public static float getTerrainHeight(float[][] heightArray, float terrainX, float terrainZ) {
 		// Size of each grid square
 		float gridSquareSize = SIZE / ((float)heightArray.length - 1);
 		
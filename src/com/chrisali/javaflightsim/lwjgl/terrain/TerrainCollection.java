@@ -19,10 +19,20 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.lwjgl.terrain;
 
+import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
+import org.lwjgl.util.vector.Vector2f;
+
+import com.chrisali.javaflightsim.lwjgl.entities.AutogenPlacement;
+import com.chrisali.javaflightsim.lwjgl.entities.EntityCollections;
 import com.chrisali.javaflightsim.lwjgl.entities.Ownship;
+import com.chrisali.javaflightsim.lwjgl.loader.Asset;
+import com.chrisali.javaflightsim.lwjgl.loader.AssetLoader;
 import com.chrisali.javaflightsim.lwjgl.loader.Loader;
+import com.chrisali.javaflightsim.lwjgl.models.RawModel;
 import com.chrisali.javaflightsim.lwjgl.textures.TerrainTexture;
 import com.chrisali.javaflightsim.lwjgl.textures.TerrainTexturePack;
 import com.chrisali.javaflightsim.lwjgl.utilities.OTWDirectories;
@@ -36,49 +46,86 @@ import com.chrisali.javaflightsim.lwjgl.utilities.OTWDirectories;
 public class TerrainCollection {
 	
 	private TreeMap<String, Terrain> terrainTree;
+	private int numTerrains;
+	
+	// Assets queued by the constructor
+	private Asset<Integer> backgroundTexture, rTexture, gTexture, bTexture;
+	private Asset<Integer> blendMap;
+	private CompletableFuture<TerrainMesh> terrainMesh;
+	private Asset<RawModel> terrainModel;
+	private Map<String, Asset<List<AutogenPlacement>>> autogenPlacements;
 	
 	/**
-	 * Creates a TreeMao of {@link Terrain} objects, with texture blending and height maps. Each key to the tree map consists of
-	 * the string "xGrid-zGrid", which represents the terrain object's position relative to other terrains in an array fashion
+	 * Queues everything needed to create a TreeMap of {@link Terrain} objects, with texture blending and height maps, with an 
+	 * {@link AssetLoader}. Each key to the tree map consists of the string "xGrid-zGrid", which represents the terrain object's 
+	 * position relative to other terrains in an array fashion. Call {@link TerrainCollection#createTerrains(Ownship)} once the 
+	 * assets have been loaded
+	 * 
+	 * <p>Every terrain uses the same height map and autogen image, so each is read once and the terrain model is shared; 
+	 * trees are then placed for each terrain on the loader's worker threads</p>
 	 * 
 	 * @param numTerrains
 	 * @param loader
-	 * @param ownship
+	 * @param assets
 	 */
-	public TerrainCollection(int numTerrains, Loader loader, Ownship ownship) {
-		terrainTree = new TreeMap<>();
-
-		TerrainTexturePack texturePack = createTexturePack("fields", "town", "forest", "water", loader);
-		TerrainTexture blendMap = new TerrainTexture(loader.loadTexture("blendMap", OTWDirectories.TERRAIN.toString()));
-	
+	public TerrainCollection(int numTerrains, Loader loader, AssetLoader assets) {
+		this.numTerrains = numTerrains;
+		String directory = OTWDirectories.TERRAIN.toString();
+		
+		backgroundTexture = loader.loadTexture(assets, "fields", directory);
+		rTexture = loader.loadTexture(assets, "town", directory);
+		gTexture = loader.loadTexture(assets, "forest", directory);
+		bTexture = loader.loadTexture(assets, "water", directory);
+		blendMap = loader.loadTexture(assets, "blendMap", directory);
+		
+		terrainMesh = assets.prepare("heightMap", () -> Terrain.generateMesh("heightMap", directory));
+		terrainModel = assets.upload("heightMap", terrainMesh, mesh -> loader.loadToVAO(mesh.getModelData()));
+		
+		CompletableFuture<List<Vector2f>> treePositions = assets.prepare("autogen", () -> EntityCollections.readAutogenImage("autogen", directory));
+		
+		autogenPlacements = new TreeMap<>();
 		int median = Math.abs(numTerrains/2);
 		
 		for (int i = -median; i < median; i++) {
 			for (int j = -median; j < median; j++) {
-				terrainTree.put(i + "-" + j, new Terrain(i, j, "heightMap", OTWDirectories.TERRAIN.toString(), loader, texturePack, blendMap, ownship));
+				float terrainX = i * Terrain.getSize();
+				float terrainZ = j * Terrain.getSize();
+				
+				autogenPlacements.put(i + "-" + j, assets.load("autogen " + i + "-" + j, 
+						() -> EntityCollections.placeRandomTrees(treePositions.join(), terrainMesh.join().getHeightArray(), terrainX, terrainZ), 
+						placements -> placements));
 			}
 		}
 	}
 	
 	/**
-	 * Creates a texture blending "pack," which creates a blend map to paint the terrain with 4 texture types
-	 * assigned to black, red, green and blue colors
+	 * Creates the TreeMap of {@link Terrain} objects and their autogen entities from the assets queued by the constructor
 	 * 
-	 * @param backgroundTextureName
-	 * @param rTextureName
-	 * @param gTextureName
-	 * @param bTextureName
-	 * @param loader
-	 * @return
+	 * @param ownship
 	 */
-	private TerrainTexturePack createTexturePack(String backgroundTextureName, 
-							String rTextureName, String gTextureName, String bTextureName, Loader loader) {
-		TerrainTexture backgroundTexture = new TerrainTexture(loader.loadTexture(backgroundTextureName, OTWDirectories.TERRAIN.toString()));
-		TerrainTexture rTexture = new TerrainTexture(loader.loadTexture(rTextureName, OTWDirectories.TERRAIN.toString()));
-		TerrainTexture gTexture = new TerrainTexture(loader.loadTexture(gTextureName, OTWDirectories.TERRAIN.toString()));
-		TerrainTexture bTexture = new TerrainTexture(loader.loadTexture(bTextureName, OTWDirectories.TERRAIN.toString()));
+	public void createTerrains(Ownship ownship) {
+		terrainTree = new TreeMap<>();
+		
+		TerrainTexturePack texturePack = new TerrainTexturePack(new TerrainTexture(backgroundTexture.get()), 
+																new TerrainTexture(rTexture.get()),
+																new TerrainTexture(gTexture.get()), 
+																new TerrainTexture(bTexture.get()));
+		TerrainTexture blendMapTexture = new TerrainTexture(blendMap.get());
+		RawModel model = terrainModel.get();
+		float[][] heightArray = terrainMesh.join().getHeightArray();
+		
+		int median = Math.abs(numTerrains/2);
 		
-		return new TerrainTexturePack(backgroundTexture, rTexture, gTexture, bTexture); 
+		for (int i = -median; i < median; i++) {
+			for (int j = -median; j < median; j++) {
+				Terrain terrain = new Terrain(i, j, model, heightArray, texturePack, blendMapTexture, ownship);
+				
+				// Generate all autogen objects and add them to staticEntities and litEntities
+				EntityCollections.createAutogenEntities(terrain, autogenPlacements.get(i + "-" + j).get());
+				
+				terrainTree.put(i + "-" + j, terrain);
+			}
+		}
 	}
 
 	public TreeMap<String, Terrain> getTerrainTree() {
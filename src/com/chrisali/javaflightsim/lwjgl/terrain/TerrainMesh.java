@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.lwjgl.terrain;
+
+import com.chrisali.javaflightsim.lwjgl.loader.ModelData;
+
+/**
+ * Vertex and height data generated from a height map by {@link Terrain#generateMesh(String, String)}. It is kept apart 
+ * from {@link Terrain} so that it can be generated away from the OpenGL context thread, and shared by every terrain 
+ * that uses the same height map
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TerrainMesh {
+	
+	private final ModelData modelData;
+	private final float[][] heightArray;
+	
+	public TerrainMesh(ModelData modelData, float[][] heightArray) {
+		this.modelData = modelData;
+		this.heightArray = heightArray;
+	}
+
+	public ModelData getModelData() { return modelData; }
+
+	public float[][] getHeightArray() { return heightArray; }
+}
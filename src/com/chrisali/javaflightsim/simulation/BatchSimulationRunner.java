@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+
+/**
+ * Runs a batch of Analysis Mode simulations in parallel on a {@link ForkJoinPool}, one {@link HeadlessSimulationRunner} (and 
+ * therefore one independent {@link SimulationContext} and {@link Integrate6DOFEquations}) per {@link SimulationConfiguration} 
+ * variant. Each variant must be a separate {@link SimulationConfiguration} object, as running a simulation modifies its options
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class BatchSimulationRunner {
+	
+	private static final Logger logger = LogManager.getLogger(BatchSimulationRunner.class);
+	
+	private ForkJoinPool pool;
+	
+	/**
+	 * Creates a batch runner that runs as many simulations at once as there are available processors
+	 */
+	public BatchSimulationRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a batch runner that runs up to parallelism simulations at once
+	 * 
+	 * @param parallelism
+	 */
+	public BatchSimulationRunner(int parallelism) {
+		pool = new ForkJoinPool(parallelism);
+	}
+	
+	/**
+	 * Runs a simulation for each configuration in configurations, blocking until all have finished
+	 * 
+	 * @param configurations
+	 * @param analysisControls control inputs injected into every simulation; may be null
+	 * @return finished runners in the same order as configurations; a runner is null if its simulation failed
+	 */
+	public List<HeadlessSimulationRunner> run(List<SimulationConfiguration> configurations, AnalysisControls analysisControls) {
+		logger.debug("Running batch of " + configurations.size() + " simulations on " + pool.getParallelism() + " threads...");
+		
+		List<Callable<HeadlessSimulationRunner>> tasks = new ArrayList<>(configurations.size());
+		for (SimulationConfiguration configuration : configurations) {
+			tasks.add(() -> {
+				HeadlessSimulationRunner runner = new HeadlessSimulationRunner(configuration, analysisControls);
+				runner.run();
+				
+				return runner;
+			});
+		}
+		
+		List<HeadlessSimulationRunner> runners = new ArrayList<>(configurations.size());
+		for (Future<HeadlessSimulationRunner> future : pool.invokeAll(tasks)) {
+			try {
+				runners.add(future.get());
+			} catch (ExecutionException e) {
+				logger.error("Simulation in batch encountered an error!", e.getCause());
+				runners.add(null);
+			} catch (InterruptedException e) {
+				logger.error("Interrupted while waiting for batch to finish!", e);
+				Thread.currentThread().interrupt();
+				runners.add(null);
+			}
+		}
+		
+		logger.debug("...done!");
+		
+		return runners;
+	}
+	
+	/**
+	 * Shuts down the threads used to run simulations once all submitted batches have finished
+	 */
+	public void shutdown() { pool.shutdown(); }
+}
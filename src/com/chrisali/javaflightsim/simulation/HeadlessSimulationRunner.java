@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.interfaces.Steppable;
+import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentData;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsStateManager;
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.recording.InputRecorder;
+import com.chrisali.javaflightsim.simulation.recording.InputReplay;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.Options;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+
+/**
+ * Runs an Analysis Mode simulation as fast as possible by stepping {@link FlightControlsStateManager} and {@link Integrate6DOFEquations}
+ * in a tight loop, without pacing them to wall clock time like {@link SimulationRunner}. No out the window display, plots or console are 
+ * created, so it can be run without a {@link com.chrisali.javaflightsim.interfaces.SimulationController} or a display. Components are 
+ * stepped by a {@link StepScheduler} at the same rates and in the same order as in {@link SimulationRunner}, so the logged results 
+ * are identical to those of a regular Analysis Mode run. 
+ * <p>It can also regenerate a flight recorded by an {@link InputRecorder}, feeding the recorded inputs back to the simulation 
+ * from an {@link InputReplay} as fast as possible</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class HeadlessSimulationRunner implements Runnable {
+	
+	private static final Logger logger = LogManager.getLogger(HeadlessSimulationRunner.class);
+	private static final int TO_MILLISEC = 1000;
+	private static final double NANO_TO_SEC = 1e-9;
+	
+	private SimulationConfiguration configuration;
+	private FlightControlsStateManager flightControlsManager;
+	private Integrate6DOFEquations simulation;
+	
+	private AtomicInteger timeMS;
+	private int startTimeMS;
+	private int endTimeMS;
+	
+	private StepScheduler scheduler;
+	
+	private double wallTime = 0;
+	
+	private volatile boolean stopped = false;
+	
+	private InputReplay inputReplay;
+	private EnvironmentData environmentData;
+	private InputRecorder inputRecorder;
+	
+	/**
+	 * Constructor that initializes main simulation ({@link Integrate6DOFEquations} and {@link FlightControlsStateManager}) components 
+	 * and configures simulation time. {@link Options#ANALYSIS_MODE} is added to the configuration's options if not already present,
+	 * and {@link Options#UNLIMITED_FLIGHT} removed, as a headless run always ends at {@link IntegratorConfig#ENDTIME} 
+	 * 
+	 * @param configuration
+	 * @param analysisControls control inputs to inject during the run; may be null to hold controls at their trim values
+	 */
+	public HeadlessSimulationRunner(SimulationConfiguration configuration, AnalysisControls analysisControls) {
+		configuration.getSimulationOptions().add(Options.ANALYSIS_MODE);
+		configuration.getSimulationOptions().remove(Options.UNLIMITED_FLIGHT);
+		this.configuration = configuration;
+		
+		Map<IntegratorConfig, Double> integratorConfig = configuration.getIntegratorConfig();
+		startTimeMS = (int) Math.round(integratorConfig.get(IntegratorConfig.STARTTIME) * TO_MILLISEC);
+		endTimeMS   = (int) Math.round(integratorConfig.get(IntegratorConfig.ENDTIME) * TO_MILLISEC);
+		timeMS = new AtomicInteger(startTimeMS);
+		
+		SimulationContext context = new SimulationContext(configuration);
+		
+		logger.debug("Initializing flight controls manager...");
+		flightControlsManager = new FlightControlsStateManager(context, analysisControls, timeMS);
+		
+		logger.debug("Initializing simulation...");
+		simulation = new Integrate6DOFEquations(flightControlsManager.getControlsState(), context);
+		
+		// Analysis control inputs abruptly change controls; let the integrator end its steps on them
+		if (analysisControls != null)
+			simulation.setStepBoundaries(analysisControls.getDiscontinuityTimes());
+		
+		configureScheduler();
+	}
+	
+	/**
+	 * Constructor that initializes the simulation to regenerate the flight recorded in inputReplay, using the configuration 
+	 * and integration step boundaries of the recording. Its simulation time, control inputs and terrain heights follow those of 
+	 * the recorded flight frame by frame. The configuration's time step schedules the components at the same rates as in the 
+	 * recorded flight, so that its trajectory is reproduced exactly. The run ends where the recording ends; if the recorded 
+	 * flight had {@link Options#UNLIMITED_FLIGHT}, its retention window is lifted so that the whole flight is kept in the log 
+	 * 
+	 * @param inputReplay
+	 */
+	public HeadlessSimulationRunner(InputReplay inputReplay) {
+		this.inputReplay = inputReplay;
+		
+		configuration = inputReplay.getConfiguration();
+		Map<IntegratorConfig, Double> integratorConfig = configuration.getIntegratorConfig();
+		
+		// Runs forever like the original flight, but keeps every step
+		if (!configuration.getSimulationOptions().contains(Options.ANALYSIS_MODE) 
+				&& configuration.getSimulationOptions().remove(Options.UNLIMITED_FLIGHT))
+			integratorConfig.put(IntegratorConfig.ENDTIME, Double.POSITIVE_INFINITY);
+		
+		startTimeMS = inputReplay.getStartTimeMS();
+		endTimeMS   = Integer.MAX_VALUE;
+		timeMS = new AtomicInteger(startTimeMS);
+		
+		SimulationContext context = new SimulationContext(configuration);
+		
+		logger.debug("Initializing flight controls manager...");
+		flightControlsManager = new FlightControlsStateManager(context, inputReplay, timeMS);
+		
+		logger.debug("Initializing simulation...");
+		simulation = new Integrate6DOFEquations(flightControlsManager.getControlsState(), context);
+		simulation.setStepBoundaries(inputReplay.getStepBoundaries());
+		
+		environmentData = new EnvironmentData(null);
+		environmentData.addEnvironmentDataListener(simulation);
+		
+		configureScheduler();
+	}
+	
+	/**
+	 * Adds the controls and simulation to a {@link StepScheduler} in the same order as {@link SimulationRunner}, running as fast 
+	 * as possible. When replaying, recorded terrain heights are sent to the simulation after it steps, where {@link EnvironmentData}
+	 * would be stepped in {@link SimulationRunner}
+	 */
+	private void configureScheduler() {
+		scheduler = new StepScheduler(simulation.getStepRateHz(), timeMS);
+		
+		scheduler.add(flightControlsManager);
+		scheduler.add(simulation);
+		
+		if (inputReplay != null)
+			scheduler.add(() -> inputReplay.replayEnvironment(timeMS.get(), environmentData));
+	}
+	
+	/**
+	 * Records the inputs of this run to file as it runs, so that it can be replayed later 
+	 * 
+	 * @param file
+	 * @throws IOException if the recording cannot be created
+	 * @see InputReplay
+	 */
+	public void recordInputs(File file) throws IOException {
+		inputRecorder = new InputRecorder(file, configuration, timeMS, simulation.getStepBoundaries());
+		flightControlsManager.setInputRecorder(inputRecorder);
+	}
+	
+	/**
+	 * Steps each {@link Steppable} component until the end time of the simulation is reached or the run is stopped, then reports 
+	 * how many seconds of simulation were run per second of wall clock time
+	 */
+	@Override
+	public void run() {
+		logger.debug("Running headless simulation in Analysis Mode...");
+		
+		long start = System.nanoTime();
+		
+		while (!stopped && scheduler.getTimeMS() < endTimeMS && (inputReplay == null || !inputReplay.isFinished(scheduler.getTimeMS())))
+			scheduler.tick();
+		
+		if (inputRecorder != null) {
+			flightControlsManager.setInputRecorder(null);
+			
+			try {
+				inputRecorder.close();
+			} catch (IOException e) {
+				logger.error("An error occurred while saving input recording!", e);
+			}
+		}
+		
+		wallTime = (System.nanoTime() - start) * NANO_TO_SEC;
+		
+		logger.info(String.format("Simulated %.2f sec in %.3f sec of wall time (%.1f sim sec/wall sec)", 
+								  getSimulationTime(), wallTime, getRealTimeFactor()));
+	}
+	
+	/**
+	 * Lets other threads stop the run at the end of the current tick
+	 */
+	public void stop() { stopped = true; }
+	
+	public Integrate6DOFEquations getSimulation() { return simulation; }
+	
+	public SimulationConfiguration getConfiguration() { return configuration; }
+	
+	/**
+	 * @return time (sec) simulated by {@link Integrate6DOFEquations} 
+	 */
+	public double getSimulationTime() { 
+		return simulation.getTime() - startTimeMS / (double) TO_MILLISEC; 
+	}
+	
+	/**
+	 * @return wall clock time (sec) taken to run the simulation
+	 */
+	public double getWallTime() { return wallTime; }
+	
+	/**
+	 * @return simulated seconds per second of wall clock time
+	 */
+	public double getRealTimeFactor() { return wallTime > 0 ? getSimulationTime() / wallTime : 0; }
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation;
+
+/**
+ * Determines how {@link StepScheduler} recovers when running in real time and a frame finishes after the deadline of the 
+ * frame that follows it
+ * 
+ * @author Christopher Ali
+ *
+ */
+public enum OverrunPolicy {
+	/**
+	 * Steps late frames back to back without waiting until the schedule is caught up, however far behind it is, so that
+	 * simulation time never falls behind wall clock time
+	 */
+	CATCH_UP,
+	/**
+	 * Steps late frames back to back up to a limited number of frames behind schedule; beyond that, the schedule is moved 
+	 * back by the excess so that the simulation slows down for a moment rather than running in a burst to catch up
+	 */
+	SLIP;
+}
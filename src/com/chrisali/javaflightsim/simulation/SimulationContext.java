@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation;
+
+import com.chrisali.javaflightsim.interfaces.SimulationController;
+import com.chrisali.javaflightsim.simulation.aircraft.AccelAndMoments;
+import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
+import com.chrisali.javaflightsim.simulation.aircraft.AircraftRepository;
+import com.chrisali.javaflightsim.simulation.enviroment.Environment;
+import com.chrisali.javaflightsim.simulation.flightcontrols.SimEvents;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+
+/**
+ * Owns all state belonging to a single simulation: its {@link SimulationConfiguration}, {@link Aircraft}, {@link Environment}, 
+ * {@link AccelAndMoments} and {@link SimEvents}. Components such as {@link Integrate6DOFEquations} get this state from the context 
+ * rather than from static fields, so that any number of independent simulations can run in parallel on one JVM, as long as each 
+ * uses its own context and its own {@link SimulationConfiguration}
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class SimulationContext {
+	
+	private SimulationConfiguration configuration;
+	private Aircraft aircraft;
+	private Environment environment;
+	private AccelAndMoments accelAndMoments;
+	private SimEvents simEvents;
+	
+	/**
+	 * Creates a context for a simulation run without a {@link SimulationController}, getting the aircraft selected in configuration from the shared {@link AircraftRepository}
+	 * 
+	 * @param configuration
+	 */
+	public SimulationContext(SimulationConfiguration configuration) {
+		this(configuration, null);
+	}
+	
+	/**
+	 * Creates a context for a simulation run by simController, getting the aircraft selected in configuration from the shared {@link AircraftRepository}
+	 * 
+	 * @param configuration
+	 * @param simController controller to stop and plot the simulation; may be null
+	 */
+	public SimulationContext(SimulationConfiguration configuration, SimulationController simController) {
+		this.configuration = configuration;
+		
+		aircraft        = AircraftRepository.getShared().get(configuration.getSelectedAircraft());
+		environment     = new Environment();
+		accelAndMoments = new AccelAndMoments(aircraft);
+		simEvents       = new SimEvents(configuration.getSimulationOptions(), simController);
+	}
+
+	public SimulationConfiguration getConfiguration() { return configuration; }
+
+	public Aircraft getAircraft() { return aircraft; }
+
+	public Environment getEnvironment() { return environment; }
+
+	public AccelAndMoments getAccelAndMoments() { return accelAndMoments; }
+
+	public SimEvents getSimEvents() { return simEvents; }
+}
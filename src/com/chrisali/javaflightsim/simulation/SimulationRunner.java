@@ -19,6 +19,9 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.simulation;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -33,17 +36,30 @@ import com.chrisali.javaflightsim.lwjgl.events.WindowClosedListener;
 import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentData;
 import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentDataListener;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataSubscription;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataListener;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsStateManager;
 import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.metrics.LatencyHistogram;
+import com.chrisali.javaflightsim.simulation.metrics.SimulationMetrics;
+import com.chrisali.javaflightsim.simulation.recording.BackpressurePolicy;
+import com.chrisali.javaflightsim.simulation.recording.InputRecorder;
+import com.chrisali.javaflightsim.simulation.recording.StreamingFlightRecorder;
 import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
 import com.chrisali.javaflightsim.simulation.setup.Options;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.setup.TelemetryConfiguration;
+import com.chrisali.javaflightsim.simulation.telemetry.SharedMemoryExporter;
+import com.chrisali.javaflightsim.simulation.telemetry.TelemetryPublisher;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
 
 /**
- * Main runner thread for JavaFlightSimulator that combines all {@link Steppable} components into a single thread so that they can run
- * synchronously and not cause concurrency issues with each other
+ * Main runner thread for JavaFlightSimulator that combines all {@link Steppable} simulation components into a single thread so that they 
+ * can run synchronously and not cause concurrency issues with each other. Components are stepped at their own rates by a {@link StepScheduler},
+ * paced to wall clock time in normal mode. In normal mode, the simulation components run in their own physics thread, while the runner 
+ * thread renders the out the window display at its own frame rate, taking flight data from the physics thread through a 
+ * {@link FlightDataSubscription}, so that neither a slow frame nor a slow simulation step holds up the other
  * 
  * @author Christopher
  *
@@ -52,8 +68,10 @@ public class SimulationRunner implements Runnable, WindowClosedListener {
 	
 	private static final Logger logger = LogManager.getLogger(SimulationRunner.class);
 	private static final int TO_MILLISEC = 1000;
+	private static final long METRICS_LOG_PERIOD_SEC = 30;
 
 	private SimulationController simController;
+	private SimulationContext context;
 	
 	private FlightControlsStateManager flightControlsManager;
 	private Integrate6DOFEquations simulation;
@@ -61,16 +79,24 @@ public class SimulationRunner implements Runnable, WindowClosedListener {
 	
 	private FlightData flightData;
 	private EnvironmentData environmentData;
+	private TelemetryPublisher telemetryPublisher;
+	private SharedMemoryExporter sharedMemoryExporter;
+	
+	private StreamingFlightRecorder flightRecorder;
+	private InputRecorder inputRecorder;
 	
 	private Map<IntegratorConfig, Double> integratorConfig;
 	private Set<Options> options;	
 		
 	private AtomicInteger timeMS = new AtomicInteger(0);
-	private int frameStepMS;
 	private int endTimeMS;
-	private int threadPauseMS;
 	
-	private boolean running = false;
+	private StepScheduler scheduler;
+	
+	private SimulationMetrics metrics;
+	private LatencyHistogram frameTimes;
+	
+	private volatile boolean running = false;
 	
 	/**
 	 * Constructor that initialize main simulation ({@link Integrate6DOFEquations} and {@link FlightControlsState}) components and 
@@ -87,25 +113,147 @@ public class SimulationRunner implements Runnable, WindowClosedListener {
 		
 		configureSimulationTime();
 		
+		context = new SimulationContext(configuration, simController);
+		
 		logger.debug("Initializing flight controls manager...");
-		flightControlsManager = new FlightControlsStateManager(simController, timeMS);
+		flightControlsManager = new FlightControlsStateManager(context, timeMS);
 		
 		logger.debug("Initializing simulation...");
-		simulation = new Integrate6DOFEquations(flightControlsManager.getControlsState(), configuration);
+		simulation = new Integrate6DOFEquations(flightControlsManager.getControlsState(), context);
+		
+		// Analysis control inputs abruptly change controls; let the integrator end its steps on them
+		if (options.contains(Options.ANALYSIS_MODE) && flightControlsManager.getAnalysisControls() != null)
+			simulation.setStepBoundaries(flightControlsManager.getAnalysisControls().getDiscontinuityTimes());
+		
+		if (options.contains(Options.RECORD_FLIGHT))
+			initializeFlightRecorder(configuration);
+		
+		if (options.contains(Options.RECORD_INPUTS))
+			initializeInputRecorder(configuration);
+		
+		initializeSharedMemoryExporter(configuration.getTelemetryConfiguration());
+	}
+	
+	/**
+	 * Creates a {@link StreamingFlightRecorder} that records the whole session to the Recordings directory. Analysis Mode does not 
+	 * run in real time, so the simulation waits for the recorder rather than losing data; otherwise the recording is decimated
+	 * if the disk cannot keep up 
+	 * 
+	 * @param configuration
+	 */
+	private void initializeFlightRecorder(SimulationConfiguration configuration) {
+		String aircraftName = configuration.getSelectedAircraft();
+		BackpressurePolicy policy = options.contains(Options.ANALYSIS_MODE) ? BackpressurePolicy.BLOCK : BackpressurePolicy.DECIMATE;
+		
+		try {
+			logger.debug("Initializing flight recorder...");
+			flightRecorder = new StreamingFlightRecorder(FileUtilities.createFlightRecordingFile(aircraftName), aircraftName, 
+														 configuration, policy);
+			simulation.setFlightRecorder(flightRecorder);
+		} catch (IOException e) {
+			logger.error("Could not create flight recording; this flight will not be recorded!", e);
+		}
+	}
+	
+	/**
+	 * Creates an {@link InputRecorder} that records the configuration, control inputs and terrain heights of the session to the 
+	 * Recordings directory, so that it can be regenerated later
+	 * 
+	 * @param configuration
+	 */
+	private void initializeInputRecorder(SimulationConfiguration configuration) {
+		try {
+			logger.debug("Initializing input recorder...");
+			inputRecorder = new InputRecorder(FileUtilities.createInputRecordingFile(configuration.getSelectedAircraft()), configuration, 
+											  timeMS, simulation.getStepBoundaries());
+			flightControlsManager.setInputRecorder(inputRecorder);
+		} catch (IOException e) {
+			logger.error("Could not create input recording; inputs of this flight will not be recorded!", e);
+		}
+	}
+	
+	/**
+	 * Creates a {@link SharedMemoryExporter} that the simulation writes its outputs to at each step, if a shared memory file is set in 
+	 * telemetryConfiguration
+	 * 
+	 * @param telemetryConfiguration
+	 */
+	private void initializeSharedMemoryExporter(TelemetryConfiguration telemetryConfiguration) {
+		if (telemetryConfiguration == null || telemetryConfiguration.getSharedMemoryFile() == null 
+				|| telemetryConfiguration.getSharedMemoryFile().isEmpty())
+			return;
+		
+		try {
+			logger.debug("Initializing shared memory exporter...");
+			sharedMemoryExporter = new SharedMemoryExporter(new File(telemetryConfiguration.getSharedMemoryFile()), 
+															telemetryConfiguration.getSharedMemoryHistoryRows());
+			simulation.setSharedMemoryExporter(sharedMemoryExporter);
+		} catch (IOException | IllegalArgumentException e) {
+			logger.error("Could not export simulation outputs to shared memory!", e);
+		}
+	}
+	
+	/**
+	 * Stops exporting to shared memory, if exporting, and closes the exported file
+	 */
+	private void closeSharedMemoryExporter() {
+		if (sharedMemoryExporter == null)
+			return;
+		
+		simulation.setSharedMemoryExporter(null);
+		
+		try {
+			sharedMemoryExporter.close();
+		} catch (IOException e) {
+			logger.error("An error occurred while closing shared memory export!", e);
+		}
 	}
 	
 	/**
-	 * Sets running parameters (start/end time and frame step time) for the timulation. Time is kept as an AtomicInteger to ensure
+	 * Stops recording inputs, if recording, and closes the input recording
+	 */
+	private void closeInputRecorder() {
+		if (inputRecorder == null)
+			return;
+		
+		flightControlsManager.setInputRecorder(null);
+		
+		try {
+			inputRecorder.close();
+			logger.info(String.format("Saved input recording to %s (%d frames, %d written)", inputRecorder.getFile().getPath(), 
+									  inputRecorder.getFrames(), inputRecorder.getFramesWritten()));
+		} catch (IOException e) {
+			logger.error("An error occurred while saving input recording!", e);
+		}
+	}
+	
+	/**
+	 * Stops publishing to the flight recorder, if recording, and waits for it to finish writing the recording
+	 */
+	private void closeFlightRecorder() {
+		if (flightRecorder == null)
+			return;
+		
+		simulation.setFlightRecorder(null);
+		
+		try {
+			flightRecorder.close();
+			logger.info(String.format("Saved flight recording to %s (%d rows, %d dropped, %d decimated)", 
+									  flightRecorder.getFile().getPath(), flightRecorder.getWrittenRows(), 
+									  flightRecorder.getDroppedRows(), flightRecorder.getDecimatedRows()));
+		} catch (IOException e) {
+			logger.error("An error occurred while saving flight recording!", e);
+		}
+	}
+	
+	/**
+	 * Sets running parameters (start/end time) for the timulation. Time is kept as an AtomicInteger to ensure
 	 * atomic incrementation
 	 */
 	public void configureSimulationTime() {
 		// Set up running parameters for simulation
 		timeMS = new AtomicInteger(integratorConfig.get(IntegratorConfig.STARTTIME).intValue() * TO_MILLISEC);
 		
-		// Pause thread for frameStepMS milliseconds to emulate real time operation in normal mode
-		frameStepMS = (int) (integratorConfig.get(IntegratorConfig.DT) * TO_MILLISEC);
-		threadPauseMS = (!options.contains(Options.ANALYSIS_MODE)) ? frameStepMS : 1;
-		
 		// Run forever as a pilot in the loop simulation 
 		if (!options.contains(Options.ANALYSIS_MODE) && options.contains(Options.UNLIMITED_FLIGHT))
 			endTimeMS = Integer.MAX_VALUE;
@@ -129,60 +277,165 @@ public class SimulationRunner implements Runnable, WindowClosedListener {
 
 			logger.debug("Initializing flight data transfer...");
 			flightData = new FlightData(simulation);
-			flightData.addFlightDataListener(outTheWindow);
+			outTheWindow.setFlightDataBuffer(flightData.subscribe(0).getBuffer());
+			
+			initializeTelemetry(simController.getConfiguration().getTelemetryConfiguration());
 
 			logger.debug("Initializing environment data transfer...");
 			environmentData = new EnvironmentData(outTheWindow);
 			environmentData.addEnvironmentDataListener(simulation);		
+			
+			if (inputRecorder != null)
+				environmentData.addEnvironmentDataListener(inputRecorder);
+		}
+	}
+	
+	/**
+	 * Creates a {@link TelemetryPublisher} sending flight data to each destination in telemetryConfiguration, if any 
+	 * 
+	 * @param telemetryConfiguration
+	 */
+	private void initializeTelemetry(TelemetryConfiguration telemetryConfiguration) {
+		if (telemetryConfiguration == null || telemetryConfiguration.getDestinations().isEmpty())
+			return;
+		
+		logger.debug("Initializing telemetry publisher...");
+		telemetryPublisher = new TelemetryPublisher(flightData);
+		
+		for (TelemetryConfiguration.Destination destination : telemetryConfiguration.getDestinations()) {
+			try {
+				telemetryPublisher.addDestination(new InetSocketAddress(destination.getHost(), destination.getPort()), 
+												  destination.getRateHz(), destination.isIncludeSimOuts());
+			} catch (IOException | IllegalArgumentException e) {
+				logger.error("Could not publish telemetry to " + destination.getHost() + ":" + destination.getPort() + "!", e);
+			}
 		}
 	}
 	
 	/**
-	 * Main runner loop where {@link Steppable} components are step updated each iteration of the loop depending on the current value of time
+	 * Adds each {@link Steppable} simulation component to a {@link StepScheduler} ticking at the simulation's rate, in the order they are 
+	 * to be stepped when due on the same tick. In normal mode the scheduler is paced to wall clock time; Analysis Mode runs as fast as 
+	 * possible. The out the window display is not scheduled, as it is rendered on its own thread
+	 */
+	private void configureScheduler() {
+		scheduler = new StepScheduler(simulation.getStepRateHz(), timeMS);
+		scheduler.setRealTime(!options.contains(Options.ANALYSIS_MODE));
+		
+		scheduler.add(flightControlsManager);
+		scheduler.add(simulation);
+		
+		if (flightData != null)
+			scheduler.add(flightData);
+		
+		if (environmentData != null)
+			scheduler.add(environmentData);
+		
+		if (options.contains(Options.INSTRUMENT_SIMULATION))
+			initializeMetrics();
+	}
+	
+	/**
+	 * Creates {@link SimulationMetrics} recording the timing of each component stepped by the scheduler and of each frame of the out the 
+	 * window display, registers them with JMX and logs them periodically
+	 */
+	private void initializeMetrics() {
+		logger.debug("Initializing simulation metrics...");
+		metrics = new SimulationMetrics();
+		scheduler.setMetrics(metrics);
+		
+		if (outTheWindow != null)
+			frameTimes = metrics.addComponent(outTheWindow.getClass().getSimpleName());
+		
+		metrics.register();
+		metrics.startLogging(METRICS_LOG_PERIOD_SEC);
+	}
+	
+	/**
+	 * Main runner loop where {@link Steppable} components are step updated by the {@link StepScheduler} each iteration of the loop 
+	 * depending on the current value of time. In normal mode they are run in a separate physics thread, while this thread, which
+	 * owns the OpenGL context, renders the out the window display until the window is closed or the simulation ends
 	 */
 	@Override
 	public void run() {
 		running = true;
 				
 		configureAnalysisNormalMode();
+		configureScheduler();
 		
 		if (options.contains(Options.CONSOLE_DISPLAY))
 			simController.initializeConsole();
+		
+		if (flightRecorder != null)
+			flightRecorder.start();
 
-		while (running && timeMS.get() < endTimeMS) {
-			try {
-				// Step update each component if allowed to based on the current time 
-				if (flightControlsManager.canStepNow(timeMS.get()))
-					flightControlsManager.step();
-					
-				if (simulation.canStepNow(timeMS.get()))
-					simulation.step();
-				
-				if (flightData != null && flightData.canStepNow(timeMS.get()))
-					flightData.step();
-				
-				if (environmentData != null && environmentData.canStepNow(timeMS.get()))
-					environmentData.step();
+		if (outTheWindow == null) {
+			runPhysics();
+		} else {
+			Thread physicsThread = new Thread(this::runPhysics, "Simulation Physics");
+			physicsThread.setPriority(Thread.MAX_PRIORITY);
+			physicsThread.start();
+			
+			while (running && physicsThread.isAlive()) {
+				long frameStartNanos = frameTimes != null ? System.nanoTime() : 0;
 				
-				if (outTheWindow != null && outTheWindow.canStepNow(timeMS.get()))
+				try {
 					outTheWindow.step();
+				} catch (Exception ez) {
+					logger.error("Exception encountered while rendering out the window display. Attempting to continue...", ez);
+				}
 				
-				Thread.sleep((long)(threadPauseMS));
-
-				timeMS.addAndGet(frameStepMS);
-			} catch (Exception ez) {
-				logger.error("Exception encountered while running Simulation Runner thread. Attempting to continue...", ez);
-				
-				continue;
-			} 
+				if (frameTimes != null)
+					frameTimes.record(System.nanoTime() - frameStartNanos);
+			}
+			
+			try {
+				physicsThread.join();
+			} catch (InterruptedException e) {
+				logger.error("Interrupted while waiting for the physics thread to stop!", e);
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		logger.info("Simulation runner stopped: " + scheduler);
+		
+		if (metrics != null) {
+			logger.info(metrics);
+			metrics.close();
 		}
 		
+		if (telemetryPublisher != null)
+			telemetryPublisher.close();
+		
+		flightControlsManager.close();
+		
+		if (flightData != null)
+			flightData.close();
+		
+		closeFlightRecorder();
+		closeInputRecorder();
+		closeSharedMemoryExporter();
+		
 		if (options.contains(Options.ANALYSIS_MODE))
 			simController.plotSimulation();
 		
 		running = false;
 	}
 			
+	/**
+	 * Steps the simulation components until the end time of the simulation is reached or the runner is stopped
+	 */
+	private void runPhysics() {
+		while (running && scheduler.getTimeMS() < endTimeMS) {
+			try {
+				scheduler.tick();
+			} catch (Exception ez) {
+				logger.error("Exception encountered while running Simulation Runner thread. Attempting to continue...", ez);
+				
+				continue;
+			} 
+		}
+	}
+	
 	/**
 	 * When LWJGL OTW window is closed, this event is fired
 	 */
@@ -213,10 +466,26 @@ public class SimulationRunner implements Runnable, WindowClosedListener {
 		
 	public Integrate6DOFEquations getSimulation() { return simulation; }
 	
+	/**
+	 * @return recorder streaming this session to disk, or null if {@link Options#RECORD_FLIGHT} is not set
+	 */
+	public StreamingFlightRecorder getFlightRecorder() { return flightRecorder; }
+	
 	public FlightControlsState getFlightControls() { return flightControlsManager.getControlsState(); }
 
 	public AtomicInteger getTimeMS() { return timeMS; }
 	
+	/**
+	 * @return scheduler stepping the components of this runner, whose counters report overruns and drift from wall clock 
+	 * time; null until the runner starts
+	 */
+	public StepScheduler getScheduler() { return scheduler; }
+	
+	/**
+	 * @return timing metrics of this runner, or null if {@link Options#INSTRUMENT_SIMULATION} is not set
+	 */
+	public SimulationMetrics getMetrics() { return metrics; }
+	
 	/**
 	 * @return If out the window display is running
 	 */
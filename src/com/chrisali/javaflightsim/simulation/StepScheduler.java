@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.interfaces.Steppable;
+import com.chrisali.javaflightsim.simulation.metrics.LatencyHistogram;
+import com.chrisali.javaflightsim.simulation.metrics.SimulationMetrics;
+
+/**
+ * Steps {@link Steppable} components at their own rates on a common schedule of ticks at a base rate, normally that of 
+ * {@link com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations}. A component is stepped every n ticks, n being 
+ * the base rate divided by the rate it declares in {@link Steppable#getStepRateHz()}, and components stepped on the same tick are 
+ * stepped in the order they were added, so that a run is the same whether it is paced in real time or not. 
+ * <p>Simulation time is kept in whole ticks and converted to milliseconds for the simulation time shared with the components, so 
+ * time steps that are not whole milliseconds (1/120 sec) do not accumulate truncation errors</p>
+ * <p>When running in real time, each tick is paced against a deadline on {@link System#nanoTime()} measured from the first tick 
+ * rather than sleeping a fixed time after each frame, so that the time taken by each frame does not add up into drift from wall 
+ * clock time. Frames that finish late are caught up according to the {@link OverrunPolicy}</p>
+ * <p>If given {@link SimulationMetrics}, the time taken by each component's step, each tick's time and jitter, and deadline misses are 
+ * recorded into them</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class StepScheduler {
+	
+	private static final Logger logger = LogManager.getLogger(StepScheduler.class);
+	
+	private static final long NANOS_PER_SEC = 1_000_000_000L;
+	private static final long NANOS_PER_MILLISEC = 1_000_000L;
+	
+	// Parking the thread can overshoot by tens of microseconds; spin for the last part of the wait instead  
+	private static final long SPIN_NANOS = 200_000L;
+	
+	/**
+	 * Number of late ticks stepped back to back before the {@link OverrunPolicy#SLIP} policy moves the schedule back
+	 */
+	public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+	
+	private final List<ScheduledSteppable> steppables = new ArrayList<>();
+	
+	private final double baseRateHz;
+	private final long ratePerSec;
+	private final long tickNanos;
+	
+	private final AtomicInteger simTimeMS;
+	private final int startTimeMS;
+	
+	private final Clock clock;
+	
+	private boolean realTime = false;
+	private OverrunPolicy overrunPolicy = OverrunPolicy.SLIP;
+	private int maxCatchUpTicks = DEFAULT_MAX_CATCH_UP_TICKS;
+	
+	private SimulationMetrics metrics;
+	
+	private long tick = 0;
+	private boolean paced = false;
+	private long startNanos;
+	private long slippedNanos = 0;
+	
+	private volatile long overruns = 0;
+	private volatile long catchUpTicks = 0;
+	private volatile long maxLatenessNanos = 0;
+	private volatile long driftNanos = 0;
+	
+	/**
+	 * Creates a scheduler ticking at baseRateHz, starting from the current value of simTimeMS
+	 * 
+	 * @param baseRateHz rate of the schedule's ticks; the fastest rate any component can be stepped at
+	 * @param simTimeMS simulation time in milliseconds, set by the scheduler to the time of each tick
+	 */
+	public StepScheduler(double baseRateHz, AtomicInteger simTimeMS) {
+		this(baseRateHz, simTimeMS, SYSTEM_CLOCK);
+	}
+	
+	/**
+	 * Creates a scheduler ticking at baseRateHz, starting from the current value of simTimeMS, paced against clock
+	 * 
+	 * @param baseRateHz rate of the schedule's ticks; the fastest rate any component can be stepped at
+	 * @param simTimeMS simulation time in milliseconds, set by the scheduler to the time of each tick
+	 * @param clock time source that real time ticks are paced against and timed with
+	 */
+	StepScheduler(double baseRateHz, AtomicInteger simTimeMS, Clock clock) {
+		if (!(baseRateHz > 0) || Double.isInfinite(baseRateHz))
+			throw new IllegalArgumentException("Base rate must be positive and finite: " + baseRateHz);
+		
+		this.baseRateHz = baseRateHz;
+		this.simTimeMS = simTimeMS;
+		this.clock = clock;
+		startTimeMS = simTimeMS.get();
+		
+		// Time steps like 1/120 sec come back from the configuration as a rate slightly off a whole number of Hz
+		long roundedRate = Math.round(baseRateHz);
+		ratePerSec = Math.abs(baseRateHz - roundedRate) < 1e-6 ? roundedRate : 0;
+		tickNanos = Math.max(1, Math.round(NANOS_PER_SEC / baseRateHz));
+	}
+	
+	/**
+	 * Adds a component to the schedule, stepped at the rate in {@link Steppable#getStepRateHz()}
+	 * 
+	 * @param steppable
+	 */
+	public void add(Steppable steppable) {
+		add(steppable, steppable.getStepRateHz());
+	}
+	
+	/**
+	 * Adds a component to the schedule, stepped at rateHz rounded to the nearest whole number of ticks; components 
+	 * stepped on the same tick are stepped in the order they were added 
+	 * 
+	 * @param steppable
+	 * @param rateHz rate to step at; if not positive, or faster than the base rate, steps every tick
+	 */
+	public void add(Steppable steppable, double rateHz) {
+		int divisor = getDivisor(baseRateHz, rateHz);
+		ScheduledSteppable scheduled = new ScheduledSteppable(steppable, divisor);
+		steppables.add(scheduled);
+		
+		if (metrics != null)
+			scheduled.stepTimes = metrics.addComponent(steppable.getClass().getSimpleName());
+		
+		logger.debug(String.format("Stepping %s every %d tick(s) (%.2f Hz)", steppable.getClass().getSimpleName(), divisor, 
+								   baseRateHz / divisor));
+	}
+	
+	/**
+	 * @param baseRateHz
+	 * @param rateHz
+	 * @return number of ticks at baseRateHz between steps of a component running at rateHz
+	 */
+	public static int getDivisor(double baseRateHz, double rateHz) {
+		if (!(rateHz > 0) || rateHz >= baseRateHz)
+			return 1;
+		
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(baseRateHz / rateHz)));
+	}
+	
+	/**
+	 * Sets simulation time to the time of the current tick and steps each component due on it, waiting for the tick's 
+	 * deadline first if running in real time. Exceptions thrown by a component are logged, and do not stop the components 
+	 * after it from stepping 
+	 */
+	public void tick() {
+		if (realTime)
+			waitForDeadline();
+		
+		int timeMS = getTimeMS();
+		simTimeMS.set(timeMS);
+		
+		long tickStartNanos = (realTime || metrics != null) ? clock.nanoTime() : 0;
+		long stepStartNanos = tickStartNanos;
+		
+		if (realTime && metrics != null)
+			metrics.recordJitter(tickStartNanos - getDeadline(tick));
+		
+		for (ScheduledSteppable scheduled : steppables) {
+			if (tick % scheduled.divisor != 0 || !scheduled.steppable.canStepNow(timeMS))
+				continue;
+			
+			try {
+				scheduled.steppable.step();
+			} catch (Exception e) {
+				logger.error("Exception encountered while stepping " + scheduled.steppable.getClass().getSimpleName() + "!", e);
+			}
+			
+			if (scheduled.stepTimes != null) {
+				long stepEndNanos = clock.nanoTime();
+				scheduled.stepTimes.record(stepEndNanos - stepStartNanos);
+				stepStartNanos = stepEndNanos;
+			}
+		}
+		
+		// Between ticks, simulation time is that of the tick to be stepped next 
+		tick++;
+		simTimeMS.set(getTimeMS());
+		
+		if (!realTime && metrics == null)
+			return;
+		
+		long tickEndNanos = clock.nanoTime();
+		
+		if (metrics != null)
+			metrics.recordTick(tickStartNanos, tickEndNanos);
+		
+		if (realTime) {
+			long lateness = tickEndNanos - getDeadline(tick);
+			driftNanos = lateness + slippedNanos;
+			
+			if (lateness > 0) {
+				overruns++;
+				
+				if (metrics != null)
+					metrics.recordDeadlineMiss(tickStartNanos, tickEndNanos);
+			}
+		}
+	}
+	
+	/**
+	 * Waits on the clock until the deadline of the current tick. If the deadline has already passed, the tick is stepped 
+	 * right away to catch up, unless it is further behind than {@link OverrunPolicy#SLIP} allows 
+	 */
+	private void waitForDeadline() {
+		// Schedule starts from the first tick paced in real time
+		if (!paced) {
+			startNanos = clock.nanoTime() - getNanos(tick);
+			paced = true;
+			return;
+		}
+		
+		long deadline = getDeadline(tick);
+		long lateness = clock.nanoTime() - deadline;
+		
+		if (lateness > 0) {
+			catchUpTicks++;
+			maxLatenessNanos = Math.max(maxLatenessNanos, lateness);
+			
+			if (overrunPolicy == OverrunPolicy.SLIP && lateness > maxCatchUpTicks * tickNanos) {
+				slippedNanos += lateness;
+				logger.debug(String.format("Simulation running %.1f ms behind schedule; slipping schedule", 
+										   lateness / (double) NANOS_PER_MILLISEC));
+			}
+			
+			return;
+		}
+		
+		clock.waitUntil(deadline);
+	}
+	
+	/**
+	 * @param tick
+	 * @return nanoseconds from the first tick to tick, exact if the base rate is a whole number of Hz
+	 */
+	private long getNanos(long tick) {
+		return ratePerSec > 0 ? tick * NANOS_PER_SEC / ratePerSec : tick * tickNanos;
+	}
+	
+	/**
+	 * @param tick
+	 * @return {@link Clock#nanoTime()} deadline of tick
+	 */
+	private long getDeadline(long tick) {
+		return startNanos + slippedNanos + getNanos(tick);
+	}
+	
+	/**
+	 * @return simulation time (ms) of the tick to be stepped next
+	 */
+	public int getTimeMS() {
+		return startTimeMS + (int) (getNanos(tick) / NANOS_PER_MILLISEC);
+	}
+	
+	/**
+	 * @param realTime if true, ticks are paced to wall clock time; otherwise they are stepped as fast as possible
+	 */
+	public void setRealTime(boolean realTime) { this.realTime = realTime; }
+	
+	public boolean isRealTime() { return realTime; }
+	
+	/**
+	 * @param overrunPolicy how to recover from late ticks when running in real time
+	 * @param maxCatchUpTicks number of ticks behind schedule before {@link OverrunPolicy#SLIP} moves the schedule back
+	 */
+	public void setOverrunPolicy(OverrunPolicy overrunPolicy, int maxCatchUpTicks) {
+		this.overrunPolicy = overrunPolicy;
+		this.maxCatchUpTicks = Math.max(0, maxCatchUpTicks);
+	}
+	
+	public OverrunPolicy getOverrunPolicy() { return overrunPolicy; }
+	
+	/**
+	 * Records the timing of this scheduler and of the components added to it into metrics, with each component's step times 
+	 * named by its class
+	 * 
+	 * @param metrics
+	 */
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+		
+		for (ScheduledSteppable scheduled : steppables)
+			scheduled.stepTimes = metrics != null ? metrics.addComponent(scheduled.steppable.getClass().getSimpleName()) : null;
+	}
+	
+	public SimulationMetrics getMetrics() { return metrics; }
+	
+	public double getBaseRateHz() { return baseRateHz; }
+	
+	/**
+	 * @return number of ticks stepped so far
+	 */
+	public long getTicks() { return tick; }
+	
+	/**
+	 * @return number of ticks that finished after the deadline of the following tick
+	 */
+	public long getOverruns() { return overruns; }
+	
+	/**
+	 * @return number of ticks that started after their deadline, and were stepped without waiting to catch up
+	 */
+	public long getCatchUpTicks() { return catchUpTicks; }
+	
+	/**
+	 * @return longest time (ns) a tick has started after its deadline
+	 */
+	public long getMaxLatenessNanos() { return maxLatenessNanos; }
+	
+	/**
+	 * @return total time (ns) the schedule has been moved back by {@link OverrunPolicy#SLIP}
+	 */
+	public long getSlippedNanos() { return slippedNanos; }
+	
+	/**
+	 * @return time (ns) simulation time was behind wall clock time at the end of the last tick, since the first tick
+	 */
+	public long getDriftNanos() { return driftNanos; }
+	
+	@Override
+	public String toString() {
+		return String.format("%d ticks at %.2f Hz, %d overruns, %d catch-up ticks, max lateness %.3f ms, slipped %.3f ms, drift %.3f ms", 
+							 tick, baseRateHz, overruns, catchUpTicks, maxLatenessNanos / (double) NANOS_PER_MILLISEC, 
+							 slippedNanos / (double) NANOS_PER_MILLISEC, driftNanos / (double) NANOS_PER_MILLISEC);
+	}
+	
+	/**
+	 * Time source of the schedule, so that pacing can be tested without waiting on wall clock time
+	 */
+	interface Clock {
+		/**
+		 * @return current time (ns), only meaningful relative to other times from the same clock
+		 */
+		long nanoTime();
+		
+		/**
+		 * Returns once {@link #nanoTime()} has reached deadlineNanos
+		 * 
+		 * @param deadlineNanos
+		 */
+		void waitUntil(long deadlineNanos);
+	}
+	
+	/**
+	 * Wall clock time on {@link System#nanoTime()}; parks, then spins, until a deadline
+	 */
+	private static final Clock SYSTEM_CLOCK = new Clock() {
+		@Override
+		public long nanoTime() { return System.nanoTime(); }
+		
+		@Override
+		public void waitUntil(long deadlineNanos) {
+			long remaining;
+			while ((remaining = deadlineNanos - System.nanoTime()) > SPIN_NANOS)
+				LockSupport.parkNanos(remaining - SPIN_NANOS);
+			
+			while (System.nanoTime() < deadlineNanos)
+				Thread.yield();
+		}
+	};
+	
+	/**
+	 * A {@link Steppable} stepped every divisor ticks, whose step times are recorded into stepTimes if not null
+	 */
+	private static class ScheduledSteppable {
+		private final Steppable steppable;
+		private final int divisor;
+		private LatencyHistogram stepTimes;
+		
+		private ScheduledSteppable(Steppable steppable, int divisor) {
+			this.steppable = steppable;
+			this.divisor = divisor;
+		}
+	}
+}
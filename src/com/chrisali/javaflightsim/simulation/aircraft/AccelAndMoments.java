@@ -22,8 +22,9 @@ package com.chrisali.javaflightsim.simulation.aircraft;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.MathArrays;
 
+import com.chrisali.javaflightsim.simulation.enviroment.Environment;
 import com.chrisali.javaflightsim.simulation.enviroment.EnvironmentParameters;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
 import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
@@ -32,7 +33,7 @@ import com.chrisali.javaflightsim.simulation.propulsion.Engine;
 import com.chrisali.javaflightsim.simulation.utilities.SaturationUtilities;
 
 /**
- * Calculates total accelerations and moments experienced by the aircraft in the simulation. The init method creates an
+ * Calculates total accelerations and moments experienced by the aircraft in the simulation. The constructor creates an
  * {@link Aerodynamics} object to calculate aerodynamic forces and moments, which are then added to other various forces 
  * (ground reaction, wind, engine, etc) to yield accelerations and moments used by {@link Integrate6DOFEquations} in its 
  * numerical integration
@@ -40,18 +41,20 @@ import com.chrisali.javaflightsim.simulation.utilities.SaturationUtilities;
  */
 public class AccelAndMoments {
 	
-	private static Aerodynamics aero;
+	private Aerodynamics aero;
 	
-	private static double[] linearAccelerations = new double[3];
-	private static double[] totalMoments 		= new double[3];
+	// Scratch buffers reused by the array-based overloads to avoid creating new objects every step
+	private double[] aeroForces  = new double[3];
+	private double[] aeroMoments = new double[3];
+	private AerodynamicResult aeroResult = new AerodynamicResult();
 	
 	/**
-	 * Initializes {@link AccelAndMoments}. It uses the {@link Aircraft} argument to create an {@link Aerodynamics} object, 
+	 * Creates {@link AccelAndMoments}. It uses the {@link Aircraft} argument to create an {@link Aerodynamics} object, 
 	 * which calculates aerodynamic forces and moments associated with the Aircraft object passed in
 	 *  
 	 * @param aircraft
 	 */
-	public static void init(Aircraft aircraft) {aero = new Aerodynamics(aircraft);}
+	public AccelAndMoments(Aircraft aircraft) {aero = new Aerodynamics(aircraft);}
 	
 	
 	/**
@@ -68,37 +71,168 @@ public class AccelAndMoments {
 	 * @param heightAGL
 	 * @return linearAccelerations
 	 */
-	public static double[] calculateLinearAccelerations(double[] windParameters,
-									         		    double[] angularRates,
-									         		    Map<EnvironmentParameters, Double> environmentParameters,
-									         		    Map<FlightControl, Double> controls,
-									         		    double alphaDot,
-									         		    Set<Engine> engineList,
-									         		    Aircraft aircraft,
-									         		    IntegrateGroundReaction groundReaction,
-									         		    double heightAGL) {
-		
-		Vector3D aeroForceVector = new Vector3D(aero.calculateBodyForces(windParameters, 
-																	     angularRates, 
-																	     environmentParameters, 
-																	     controls, 
-																	     alphaDot,
-																	     heightAGL));
-		
-		Vector3D groundForceVector = new Vector3D(groundReaction.getTotalGroundForces());
-		
-		// Create a vector of engine force, iterate through engineList and add the thrust of each engine in list
-		Vector3D engineForceVector = Vector3D.ZERO;
-		for (Engine engine : engineList)
-			engineForceVector = engineForceVector.add(new Vector3D(engine.getEngineThrust()));
-
-		linearAccelerations = aeroForceVector.add(engineForceVector).add(groundForceVector)
-											 .scalarMultiply(1/aircraft.getMassProperty(MassProperties.TOTAL_MASS))
-											 .toArray(); 
+	public double[] calculateLinearAccelerations(double[] windParameters,
+												 double[] angularRates,
+												 Map<EnvironmentParameters, Double> environmentParameters,
+												 Map<FlightControl, Double> controls,
+												 double alphaDot,
+												 Set<Engine> engineList,
+												 Aircraft aircraft,
+												 IntegrateGroundReaction groundReaction,
+												 double heightAGL) {
+		return calculateLinearAccelerations(windParameters, angularRates, Environment.toArray(environmentParameters), 
+											controls, alphaDot, engineList.toArray(new Engine[engineList.size()]), 
+											aircraft, groundReaction, heightAGL, new double[3]);
+	}
+	
+	/**
+	 * Calculates the total linear acceleration experienced by the aircraft (ft/sec^2), writing the result into 
+	 * linearAccelerations; no objects are created, so this can be called every integration step
+	 * 
+	 * @param windParameters
+	 * @param angularRates
+	 * @param environmentParameters array indexed by {@link EnvironmentParameters} ordinal
+	 * @param controls
+	 * @param alphaDot
+	 * @param engines
+	 * @param aircraft
+	 * @param groundReaction
+	 * @param heightAGL
+	 * @param linearAccelerations
+	 * @return linearAccelerations
+	 */
+	public double[] calculateLinearAccelerations(double[] windParameters,
+												 double[] angularRates,
+												 double[] environmentParameters,
+												 Map<FlightControl, Double> controls,
+												 double alphaDot,
+												 Engine[] engines,
+												 Aircraft aircraft,
+												 IntegrateGroundReaction groundReaction,
+												 double heightAGL,
+												 double[] linearAccelerations) {
+		
+		calculateAerodynamics(windParameters, angularRates, environmentParameters, controls, heightAGL);
+		
+		return calculateLinearAccelerations(aeroResult, alphaDot, engines, aircraft, groundReaction, linearAccelerations);
+	}
+	
+	/**
+	 * Evaluates the aerodynamic forces and moments acting on the aircraft in a single pass using 
+	 * {@link Aerodynamics#calculateForcesAndMoments(double[], double[], double[], Map, double, AerodynamicResult)}. The 
+	 * {@link AerodynamicResult} returned is reused by each call, and is meant to be passed to the 
+	 * {@link AccelAndMoments#calculateLinearAccelerations(AerodynamicResult, double, Engine[], Aircraft, IntegrateGroundReaction, double[])}, 
+	 * {@link AccelAndMoments#calculateAlphaDotSensitivity(AerodynamicResult, Aircraft, double[])} and 
+	 * {@link AccelAndMoments#calculateTotalMoments(AerodynamicResult, double, Engine[], Aircraft, IntegrateGroundReaction, double[])} 
+	 * overloads for the same state
+	 * 
+	 * @param windParameters
+	 * @param angularRates
+	 * @param environmentParameters array indexed by {@link EnvironmentParameters} ordinal
+	 * @param controls
+	 * @param heightAGL
+	 * @return aerodynamic forces and moments at this state
+	 */
+	public AerodynamicResult calculateAerodynamics(double[] windParameters,
+												   double[] angularRates,
+												   double[] environmentParameters,
+												   Map<FlightControl, Double> controls,
+												   double heightAGL) {
+		return aero.calculateForcesAndMoments(windParameters, angularRates, environmentParameters, controls, heightAGL, aeroResult);
+	}
+	
+	/**
+	 * Calculates the total linear acceleration experienced by the aircraft (ft/sec^2) from aerodynamic forces already evaluated 
+	 * by {@link AccelAndMoments#calculateAerodynamics(double[], double[], double[], Map, double)}, writing the result into 
+	 * linearAccelerations
+	 * 
+	 * @param aerodynamics
+	 * @param alphaDot
+	 * @param engines
+	 * @param aircraft
+	 * @param groundReaction
+	 * @param linearAccelerations
+	 * @return linearAccelerations
+	 */
+	public double[] calculateLinearAccelerations(AerodynamicResult aerodynamics,
+												 double alphaDot,
+												 Engine[] engines,
+												 Aircraft aircraft,
+												 IntegrateGroundReaction groundReaction,
+												 double[] linearAccelerations) {
+		
+		calculateUnsaturatedLinearAccelerations(aerodynamics, alphaDot, engines, aircraft, groundReaction, linearAccelerations);
 		
 		return SaturationUtilities.limitLinearAccelerations(linearAccelerations);
 	}
 	
+	/**
+	 * Calculates the total linear acceleration experienced by the aircraft (ft/sec^2) like 
+	 * {@link AccelAndMoments#calculateLinearAccelerations(AerodynamicResult, double, Engine[], Aircraft, IntegrateGroundReaction, double[])}, 
+	 * but without limiting it with {@link SaturationUtilities#limitLinearAccelerations(double[])}, so that terms can be added to 
+	 * it before it is limited
+	 * 
+	 * @param aerodynamics
+	 * @param alphaDot
+	 * @param engines
+	 * @param aircraft
+	 * @param groundReaction
+	 * @param linearAccelerations
+	 * @return linearAccelerations
+	 */
+	public double[] calculateUnsaturatedLinearAccelerations(AerodynamicResult aerodynamics,
+															double alphaDot,
+															Engine[] engines,
+															Aircraft aircraft,
+															IntegrateGroundReaction groundReaction,
+															double[] linearAccelerations) {
+		
+		aerodynamics.getBodyForces(alphaDot, aeroForces);
+		
+		double[] groundForces = groundReaction.getTotalGroundForces();
+		
+		// Iterate through engines and add the thrust of each engine
+		double engineForceX = 0.0, engineForceY = 0.0, engineForceZ = 0.0;
+		for (int i = 0; i < engines.length; i++) {
+			double[] engineThrust = engines[i].getEngineThrust();
+			engineForceX += engineThrust[0];
+			engineForceY += engineThrust[1];
+			engineForceZ += engineThrust[2];
+		}
+		
+		double inverseMass = 1/aircraft.getMassProperty(MassProperties.TOTAL_MASS);
+		
+		linearAccelerations[0] = (aeroForces[0] + engineForceX + groundForces[0]) * inverseMass;
+		linearAccelerations[1] = (aeroForces[1] + engineForceY + groundForces[1]) * inverseMass;
+		linearAccelerations[2] = (aeroForces[2] + engineForceZ + groundForces[2]) * inverseMass;
+		
+		return linearAccelerations;
+	}
+	
+	/**
+	 * Calculates the partial derivative of linear acceleration with respect to alphaDot ((ft/sec^2)/(rad/sec)) from aerodynamic 
+	 * forces already evaluated by {@link AccelAndMoments#calculateAerodynamics(double[], double[], double[], Map, double)}, 
+	 * writing the result into sensitivity
+	 * 
+	 * @param aerodynamics
+	 * @param aircraft
+	 * @param sensitivity
+	 * @return sensitivity
+	 */
+	public double[] calculateAlphaDotSensitivity(AerodynamicResult aerodynamics,
+												 Aircraft aircraft,
+												 double[] sensitivity) {
+		System.arraycopy(aerodynamics.getBodyForceAlphaDotSensitivity(), 0, sensitivity, 0, 3);
+		
+		double inverseMass = 1/aircraft.getMassProperty(MassProperties.TOTAL_MASS);
+		
+		sensitivity[0] *= inverseMass;
+		sensitivity[1] *= inverseMass;
+		sensitivity[2] *= inverseMass;
+		
+		return sensitivity;
+	}
+	
 	/**
 	 * Calculates the total moment experienced by the aircraft (lb ft)
 	 * 
@@ -113,45 +247,107 @@ public class AccelAndMoments {
 	 * @param heightAGL
 	 * @return totalMoments
 	 */
-	public static double[] calculateTotalMoments(double[] windParameters,
-											     double[] angularRates,
-											     Map<EnvironmentParameters, Double> environmentParameters,
-											     Map<FlightControl, Double> controls,
-											     double alphaDot,
-											     Set<Engine> engineList,
-											     Aircraft aircraft,
-											     IntegrateGroundReaction groundReaction,
-											     double heightAGL) {
+	public double[] calculateTotalMoments(double[] windParameters,
+										  double[] angularRates,
+										  Map<EnvironmentParameters, Double> environmentParameters,
+										  Map<FlightControl, Double> controls,
+										  double alphaDot,
+										  Set<Engine> engineList,
+										  Aircraft aircraft,
+										  IntegrateGroundReaction groundReaction,
+										  double heightAGL) {
+		return calculateTotalMoments(windParameters, angularRates, Environment.toArray(environmentParameters), 
+									 controls, alphaDot, engineList.toArray(new Engine[engineList.size()]), 
+									 aircraft, groundReaction, heightAGL, new double[3]);
+	}
+	
+	/**
+	 * Calculates the total moment experienced by the aircraft (lb ft), writing the result into totalMoments; 
+	 * no objects are created, so this can be called every integration step
+	 * 
+	 * @param windParameters
+	 * @param angularRates
+	 * @param environmentParameters array indexed by {@link EnvironmentParameters} ordinal
+	 * @param controls
+	 * @param alphaDot
+	 * @param engines
+	 * @param aircraft
+	 * @param groundReaction
+	 * @param heightAGL
+	 * @param totalMoments
+	 * @return totalMoments
+	 */
+	public double[] calculateTotalMoments(double[] windParameters,
+										  double[] angularRates,
+										  double[] environmentParameters,
+										  Map<FlightControl, Double> controls,
+										  double alphaDot,
+										  Engine[] engines,
+										  Aircraft aircraft,
+										  IntegrateGroundReaction groundReaction,
+										  double heightAGL,
+										  double[] totalMoments) {
+		
+		calculateAerodynamics(windParameters, angularRates, environmentParameters, controls, heightAGL);
+		
+		return calculateTotalMoments(aeroResult, alphaDot, engines, aircraft, groundReaction, totalMoments);
+	}
+	
+	/**
+	 * Calculates the total moment experienced by the aircraft (lb ft) from aerodynamic forces and moments already evaluated 
+	 * by {@link AccelAndMoments#calculateAerodynamics(double[], double[], double[], Map, double)}, writing the result into 
+	 * totalMoments
+	 * 
+	 * @param aerodynamics
+	 * @param alphaDot
+	 * @param engines
+	 * @param aircraft
+	 * @param groundReaction
+	 * @param totalMoments
+	 * @return totalMoments
+	 */
+	public double[] calculateTotalMoments(AerodynamicResult aerodynamics,
+										  double alphaDot,
+										  Engine[] engines,
+										  Aircraft aircraft,
+										  IntegrateGroundReaction groundReaction,
+										  double[] totalMoments) {
 
-		Vector3D aeroForceVector = new Vector3D(aero.calculateBodyForces(windParameters, 
-																	     angularRates, 
-																	     environmentParameters, 
-																	     controls, 
-																	     alphaDot,
-																	     heightAGL));
+		aerodynamics.getBodyForces(alphaDot, aeroForces);
 		
-		// Apache Commons vector methods only accept primitive double[] arrays
-		Vector3D acVector = new Vector3D(aircraft.getAerodynamicCenter());
-		Vector3D cgVector = new Vector3D(aircraft.getCenterOfGravity());
+		// Moment arm from center of gravity to aerodynamic center
+		double armX = aircraft.getWingGeometry(WingGeometry.AC_X) - aircraft.getMassProperty(MassProperties.CG_X);
+		double armY = aircraft.getWingGeometry(WingGeometry.AC_Y) - aircraft.getMassProperty(MassProperties.CG_Y);
+		double armZ = aircraft.getWingGeometry(WingGeometry.AC_Z) - aircraft.getMassProperty(MassProperties.CG_Z);
 		
-		Vector3D aeroForceCrossProd = Vector3D.crossProduct(aeroForceVector, acVector.subtract(cgVector));
+		// Same ordering and accuracy as Vector3D.crossProduct(aeroForce, arm)
+		double aeroForceCrossX = MathArrays.linearCombination(aeroForces[1], armZ, -aeroForces[2], armY);
+		double aeroForceCrossY = MathArrays.linearCombination(aeroForces[2], armX, -aeroForces[0], armZ);
+		double aeroForceCrossZ = MathArrays.linearCombination(aeroForces[0], armY, -aeroForces[1], armX);
 		
-		Vector3D aeroMomentVector = new Vector3D(aero.calculateAeroMoments(windParameters, 
-																		   angularRates, 
-																		   environmentParameters, 
-																		   controls, 
-																		   alphaDot)); 
+		aerodynamics.getMoments(alphaDot, aeroMoments);
 		
-		Vector3D groundMomentVector = new Vector3D(groundReaction.getTotalGroundMoments());
+		double[] groundMoments = groundReaction.getTotalGroundMoments();
 		
-		// Create a vector of engine moment, iterate through engineList and add the moment of each engine in list
-		Vector3D engineMoment = Vector3D.ZERO;
-		for (Engine engine : engineList)
-			engineMoment = engineMoment.add(new Vector3D(engine.getEngineMoment()));
+		// Iterate through engines and add the moment of each engine
+		double engineMomentX = 0.0, engineMomentY = 0.0, engineMomentZ = 0.0;
+		for (int i = 0; i < engines.length; i++) {
+			double[] engineMoment = engines[i].getEngineMoment();
+			engineMomentX += engineMoment[0];
+			engineMomentY += engineMoment[1];
+			engineMomentZ += engineMoment[2];
+		}
 		
-		totalMoments = aeroMomentVector.add(engineMoment).add(aeroForceCrossProd).add(groundMomentVector)
-									   .toArray();
+		totalMoments[0] = aeroMoments[0] + engineMomentX + aeroForceCrossX + groundMoments[0];
+		totalMoments[1] = aeroMoments[1] + engineMomentY + aeroForceCrossY + groundMoments[1];
+		totalMoments[2] = aeroMoments[2] + engineMomentZ + aeroForceCrossZ + groundMoments[2];
 		
 		return SaturationUtilities.limitTotalMoments(totalMoments); 
 	}
+	
+	/**
+	 * @return number of stability derivative {@link LookupTable} evaluations made so far
+	 * @see Aerodynamics#getLookupTableEvaluations()
+	 */
+	public long getLookupTableEvaluations() { return aero.getLookupTableEvaluations(); }
 }
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.aircraft;
+
+/**
+ * Reusable result of a single pass of {@link Aerodynamics#calculateForcesAndMoments(double[], double[], double[], java.util.Map, double, AerodynamicResult)}.
+ * Aerodynamic forces and moments are linear in alphaDot, so they are stored evaluated at alphaDot = 0 along with their partial 
+ * derivatives with respect to alphaDot; this lets {@link AccelAndMoments} solve for alphaDot and apply it without evaluating 
+ * the aerodynamics again
+ * 
+ * @see Aerodynamics
+ * @see AccelAndMoments
+ */
+public class AerodynamicResult {
+	
+	private final double[] bodyForces 					 = new double[3];
+	private final double[] bodyForceAlphaDotSensitivity  = new double[3];
+	private final double[] moments						 = new double[3];
+	private final double[] momentAlphaDotSensitivity	 = new double[3];
+	
+	/**
+	 * @return aerodynamic forces in the body frame at alphaDot = 0 (lbf)
+	 */
+	public double[] getBodyForces() { return bodyForces; }
+	
+	/**
+	 * @return partial derivative of the body frame aerodynamic forces with respect to alphaDot (lbf/(rad/sec))
+	 */
+	public double[] getBodyForceAlphaDotSensitivity() { return bodyForceAlphaDotSensitivity; }
+	
+	/**
+	 * @return aerodynamic moments at alphaDot = 0 (lb ft)
+	 */
+	public double[] getMoments() { return moments; }
+	
+	/**
+	 * @return partial derivative of the aerodynamic moments with respect to alphaDot ((lb ft)/(rad/sec))
+	 */
+	public double[] getMomentAlphaDotSensitivity() { return momentAlphaDotSensitivity; }
+	
+	/**
+	 * Writes the body frame aerodynamic forces at the specified alphaDot into bodyForces
+	 * 
+	 * @param alphaDot
+	 * @param bodyForces
+	 * @return bodyForces (lbf)
+	 */
+	public double[] getBodyForces(double alphaDot, double[] bodyForces) {
+		for (int i = 0; i < 3; i++)
+			bodyForces[i] = this.bodyForces[i] + bodyForceAlphaDotSensitivity[i]*alphaDot;
+		
+		return bodyForces;
+	}
+	
+	/**
+	 * Writes the aerodynamic moments at the specified alphaDot into moments
+	 * 
+	 * @param alphaDot
+	 * @param moments
+	 * @return moments (lb ft)
+	 */
+	public double[] getMoments(double alphaDot, double[] moments) {
+		for (int i = 0; i < 3; i++)
+			moments[i] = this.moments[i] + momentAlphaDotSensitivity[i]*alphaDot;
+		
+		return moments;
+	}
+}
@@ -52,6 +52,13 @@ public class Aerodynamics {
 	
 	private Aircraft aircraft;
 	
+	// Scratch buffers reused by each call to avoid creating new arrays every step
+	private double[][] w2bDCM    = new double[3][3];
+	private double[]   aeroForces = new double[3];
+	
+	// Instrumentation; number of stability derivative lookup table evaluations made by this object
+	private long lookupTableEvaluations = 0;
+	
 	/**
 	 * Aerodynamics constructor. Takes the aerodynamic parameters of an {@link Aircraft} object to generate aerodynamic forces and moments
 	 * 
@@ -76,7 +83,7 @@ public class Aerodynamics {
 						  	   double heightAGL) {
 		double rotaryTerm = aircraft.getWingGeometry(WingGeometry.C_BAR)/(2*windParameters[0]);
 		
-		return calculateInterpStabDer(windParameters, controls, StabilityDerivatives.CL_ALPHA)*windParameters[2]*groundEffect(heightAGL)+
+		return lookupStabDer(windParameters, controls, StabilityDerivatives.CL_ALPHA)*windParameters[2]*groundEffect(heightAGL)+
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CL_0).getValue()+	
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CL_Q).getValue()*angularRates[1]*rotaryTerm+
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CL_ALPHA_DOT).getValue()*alphaDot*rotaryTerm+
@@ -108,7 +115,7 @@ public class Aerodynamics {
 	private double calculateCD(double[] windParameters,
 					 	  	   Map<FlightControl, Double> controls,
 					 	  	   double heightAGL) {
-		return calculateInterpStabDer(windParameters, controls, StabilityDerivatives.CD_ALPHA)*Math.abs(windParameters[2])/groundEffect(heightAGL)+ // Need absolute value to prevent negative drag at negative alpha
+		return lookupStabDer(windParameters, controls, StabilityDerivatives.CD_ALPHA)*Math.abs(windParameters[2])/groundEffect(heightAGL)+ // Need absolute value to prevent negative drag at negative alpha
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CD_0).getValue()+
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CD_D_FLAP).getValue()*controls.get(FlightControl.FLAPS)+
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CD_D_ELEV).getValue()*controls.get(FlightControl.ELEVATOR)+
@@ -150,7 +157,7 @@ public class Aerodynamics {
 						 	   double alphaDot) {
 		double rotaryTerm = aircraft.getWingGeometry(WingGeometry.C_BAR)/(2*windParameters[0]);
 		
-		return calculateInterpStabDer(windParameters, controls, StabilityDerivatives.CM_ALPHA)*windParameters[2]+
+		return lookupStabDer(windParameters, controls, StabilityDerivatives.CM_ALPHA)*windParameters[2]+
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CM_0).getValue()+
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CM_Q).getValue()*angularRates[1]*rotaryTerm+
 			   aircraft.getStabilityDerivative(StabilityDerivatives.CM_ALPHA_DOT).getValue()*alphaDot*rotaryTerm+
@@ -193,6 +200,8 @@ public class Aerodynamics {
 		Double interpStabDer;		
 		LookupTable lookup = aircraft.getStabilityDerivative(stabDer);
 		
+		lookupTableEvaluations++;
+		
 		try {
 			interpStabDer = lookup.interpolate(windParameters[2], controls.get(FlightControl.FLAPS));
 		} catch (OutOfRangeException e) {
@@ -203,6 +212,28 @@ public class Aerodynamics {
 		return interpStabDer;
 	}
 	
+	/**
+	 * Primitive equivalent of {@link Aerodynamics#calculateInterpStabDer(double[], Map, StabilityDerivatives)} that uses 
+	 * {@link LookupTable#evaluate(double, double)} so that no objects are created when interpolating
+	 *  
+	 * @param windParameters
+	 * @param controls
+	 * @param stabDer
+	 * @return interpStabDer
+	 */
+	private double lookupStabDer(double[] windParameters,
+								 Map<FlightControl, Double> controls,
+								 StabilityDerivatives stabDer) {
+		lookupTableEvaluations++;
+		
+		try {
+			return aircraft.getStabilityDerivative(stabDer).evaluate(windParameters[2], controls.get(FlightControl.FLAPS));
+		} catch (OutOfRangeException e) {
+			logger.error("Number out of range for interpolation! Returning 0 for value.");
+			return 0.0;
+		}
+	}
+	
 	/**
 	 * If aircraft is within 1 wing span length of the ground, return a slight multiple adjustment to CL_alpha
 	 * and CD_alpha to simulate aerodynamic benefits of ground effect
@@ -236,18 +267,56 @@ public class Aerodynamics {
 									    Map<FlightControl, Double> controls,
 										double alphaDot,
 										double heightAGL) {
-		double qBar = environmentParameters.get(EnvironmentParameters.RHO)*Math.pow(windParameters[0], 2)/2;
+		return calculateBodyForces(windParameters, angularRates, environmentParameters.get(EnvironmentParameters.RHO), 
+								   controls, alphaDot, heightAGL, new double[3]);
+	}
+	
+	/**
+	 * Calculates aerodynamic forces experienced by the aircraft, converted from the wind frame to the body
+	 * frame by using {@link SixDOFUtilities#wind2Body(double[], double[][])}. Results are written into bodyForces
+	 * instead of a new array
+	 * 
+	 * @param windParameters
+	 * @param angularRates
+	 * @param environmentParameters array indexed by {@link EnvironmentParameters} ordinal
+	 * @param controls
+	 * @param alphaDot
+	 * @param heightAGL
+	 * @param bodyForces
+	 * @return bodyForces
+	 */
+	public double[] calculateBodyForces(double[] windParameters,
+									  	double[] angularRates,
+										double[] environmentParameters,
+									    Map<FlightControl, Double> controls,
+										double alphaDot,
+										double heightAGL,
+										double[] bodyForces) {
+		return calculateBodyForces(windParameters, angularRates, environmentParameters[EnvironmentParameters.RHO.ordinal()], 
+								   controls, alphaDot, heightAGL, bodyForces);
+	}
+	
+	private double[] calculateBodyForces(double[] windParameters,
+										 double[] angularRates,
+										 double rho,
+										 Map<FlightControl, Double> controls,
+										 double alphaDot,
+										 double heightAGL,
+										 double[] bodyForces) {
+		double qBar = rho*Math.pow(windParameters[0], 2)/2;
 		
-		double[][] w2bDCM = SixDOFUtilities.wind2Body(windParameters);
+		SixDOFUtilities.wind2Body(windParameters, w2bDCM);
 		
 		// Negative L and D to switch body directions and position in array swapped
-		double[] aeroForces = {-qBar*calculateCD(windParameters, controls, heightAGL)*aircraft.getWingGeometry(WingGeometry.S_WING),
-				   			    qBar*calculateCY(windParameters, controls)*aircraft.getWingGeometry(WingGeometry.S_WING),
-							   -qBar*calculateCL(angularRates, windParameters, controls, alphaDot, heightAGL)*aircraft.getWingGeometry(WingGeometry.S_WING)};
+		aeroForces[0] = -qBar*calculateCD(windParameters, controls, heightAGL)*aircraft.getWingGeometry(WingGeometry.S_WING);
+		aeroForces[1] =  qBar*calculateCY(windParameters, controls)*aircraft.getWingGeometry(WingGeometry.S_WING);
+		aeroForces[2] = -qBar*calculateCL(angularRates, windParameters, controls, alphaDot, heightAGL)*aircraft.getWingGeometry(WingGeometry.S_WING);
 		
-		return new double[] {aeroForces[0]*w2bDCM[0][0]+aeroForces[1]*w2bDCM[0][1]+aeroForces[2]*w2bDCM[0][2],
-							 aeroForces[0]*w2bDCM[1][0]+aeroForces[1]*w2bDCM[1][1]+aeroForces[2]*w2bDCM[1][2],
-							 aeroForces[0]*w2bDCM[2][0]+aeroForces[1]*w2bDCM[2][1]+aeroForces[2]*w2bDCM[2][2]};
+		bodyForces[0] = aeroForces[0]*w2bDCM[0][0]+aeroForces[1]*w2bDCM[0][1]+aeroForces[2]*w2bDCM[0][2];
+		bodyForces[1] = aeroForces[0]*w2bDCM[1][0]+aeroForces[1]*w2bDCM[1][1]+aeroForces[2]*w2bDCM[1][2];
+		bodyForces[2] = aeroForces[0]*w2bDCM[2][0]+aeroForces[1]*w2bDCM[2][1]+aeroForces[2]*w2bDCM[2][2];
+		
+		return bodyForces;
 	}
 	
 	/**
@@ -265,10 +334,104 @@ public class Aerodynamics {
 									     Map<EnvironmentParameters, Double> environmentParameters,
 									     Map<FlightControl, Double> controls,
 									     double alphaDot) {
-		double qBar = environmentParameters.get(EnvironmentParameters.RHO)*Math.pow(windParameters[0], 2)/2;
+		return calculateAeroMoments(windParameters, angularRates, environmentParameters.get(EnvironmentParameters.RHO), 
+									controls, alphaDot, new double[3]);
+	}
+	
+	/**
+	 * Calculates aerodynamic moments experienced by the aircraft, writing results into aeroMoments instead of a new array
+	 * 
+	 * @param windParameters
+	 * @param angularRates
+	 * @param environmentParameters array indexed by {@link EnvironmentParameters} ordinal
+	 * @param controls
+	 * @param alphaDot
+	 * @param aeroMoments
+	 * @return aeroMoments
+	 */
+	public double[] calculateAeroMoments(double[] windParameters,
+									     double[] angularRates,
+									     double[] environmentParameters,
+									     Map<FlightControl, Double> controls,
+									     double alphaDot,
+									     double[] aeroMoments) {
+		return calculateAeroMoments(windParameters, angularRates, environmentParameters[EnvironmentParameters.RHO.ordinal()], 
+									controls, alphaDot, aeroMoments);
+	}
+	
+	private double[] calculateAeroMoments(double[] windParameters,
+									      double[] angularRates,
+									      double rho,
+									      Map<FlightControl, Double> controls,
+									      double alphaDot,
+									      double[] aeroMoments) {
+		double qBar = rho*Math.pow(windParameters[0], 2)/2;
+		
+		aeroMoments[0] = qBar*calculateCRoll(angularRates, windParameters, controls)*aircraft.getWingGeometry(WingGeometry.S_WING)*aircraft.getWingGeometry(WingGeometry.B_WING); 
+		aeroMoments[1] = qBar*calculateCM(angularRates, windParameters, controls, alphaDot)*aircraft.getWingGeometry(WingGeometry.S_WING)*aircraft.getWingGeometry(WingGeometry.C_BAR); 
+		aeroMoments[2] = qBar*calculateCN(angularRates, windParameters, controls)*aircraft.getWingGeometry(WingGeometry.S_WING)*aircraft.getWingGeometry(WingGeometry.B_WING);
+		
+		return aeroMoments;
+	}
+	
+	/**
+	 * Calculates aerodynamic forces in the body frame and aerodynamic moments together in a single pass, so that the 
+	 * coefficient build-up, the {@link LookupTable} evaluations and the wind to body transformation from 
+	 * {@link SixDOFUtilities#wind2Body(double[], double[][])} are each done only once. Forces and moments are linear in alphaDot; 
+	 * they are written into result at alphaDot = 0, along with their sensitivities to alphaDot
+	 * 
+	 * @param windParameters
+	 * @param angularRates
+	 * @param environmentParameters array indexed by {@link EnvironmentParameters} ordinal
+	 * @param controls
+	 * @param heightAGL
+	 * @param result
+	 * @return result
+	 */
+	public AerodynamicResult calculateForcesAndMoments(double[] windParameters,
+													   double[] angularRates,
+													   double[] environmentParameters,
+													   Map<FlightControl, Double> controls,
+													   double heightAGL,
+													   AerodynamicResult result) {
+		double qBar = environmentParameters[EnvironmentParameters.RHO.ordinal()]*Math.pow(windParameters[0], 2)/2;
+		double sWing = aircraft.getWingGeometry(WingGeometry.S_WING);
+		double rotaryTerm = aircraft.getWingGeometry(WingGeometry.C_BAR)/(2*windParameters[0]);
+		
+		SixDOFUtilities.wind2Body(windParameters, w2bDCM);
+		
+		// Negative L and D to switch body directions and position in array swapped
+		aeroForces[0] = -qBar*calculateCD(windParameters, controls, heightAGL)*sWing;
+		aeroForces[1] =  qBar*calculateCY(windParameters, controls)*sWing;
+		aeroForces[2] = -qBar*calculateCL(angularRates, windParameters, controls, 0.0, heightAGL)*sWing;
+		
+		double liftSensitivity = -qBar*aircraft.getStabilityDerivative(StabilityDerivatives.CL_ALPHA_DOT).getValue()*rotaryTerm*sWing;
 		
-		return new double[] {qBar*calculateCRoll(angularRates, windParameters, controls)*aircraft.getWingGeometry(WingGeometry.S_WING)*aircraft.getWingGeometry(WingGeometry.B_WING), 
-							 qBar*calculateCM(angularRates, windParameters, controls, alphaDot)*aircraft.getWingGeometry(WingGeometry.S_WING)*aircraft.getWingGeometry(WingGeometry.C_BAR), 
-						 	 qBar*calculateCN(angularRates, windParameters, controls)*aircraft.getWingGeometry(WingGeometry.S_WING)*aircraft.getWingGeometry(WingGeometry.B_WING)};					
+		double[] bodyForces = result.getBodyForces();
+		double[] bodyForceSensitivity = result.getBodyForceAlphaDotSensitivity();
+		
+		for (int i = 0; i < 3; i++) {
+			bodyForces[i] = aeroForces[0]*w2bDCM[i][0]+aeroForces[1]*w2bDCM[i][1]+aeroForces[2]*w2bDCM[i][2];
+			bodyForceSensitivity[i] = liftSensitivity*w2bDCM[i][2];
+		}
+		
+		double[] moments = result.getMoments();
+		double[] momentSensitivity = result.getMomentAlphaDotSensitivity();
+		
+		moments[0] = qBar*calculateCRoll(angularRates, windParameters, controls)*sWing*aircraft.getWingGeometry(WingGeometry.B_WING); 
+		moments[1] = qBar*calculateCM(angularRates, windParameters, controls, 0.0)*sWing*aircraft.getWingGeometry(WingGeometry.C_BAR); 
+		moments[2] = qBar*calculateCN(angularRates, windParameters, controls)*sWing*aircraft.getWingGeometry(WingGeometry.B_WING);
+		
+		momentSensitivity[0] = 0.0;
+		momentSensitivity[1] = qBar*aircraft.getStabilityDerivative(StabilityDerivatives.CM_ALPHA_DOT).getValue()*rotaryTerm*sWing*aircraft.getWingGeometry(WingGeometry.C_BAR);
+		momentSensitivity[2] = 0.0;
+		
+		return result;
 	}
+	
+	/**
+	 * @return number of stability derivative {@link LookupTable} evaluations made by this object; used to instrument how many 
+	 * lookups are done per step of integration
+	 */
+	public long getLookupTableEvaluations() { return lookupTableEvaluations; }
 }
@@ -74,6 +74,24 @@ public class Aircraft implements Saveable {
 		engines 			= new LinkedHashSet<>();
 	}
 	
+	/**
+	 * Creates an aircraft that shares the stability derivatives, wing geometry, mass properties and ground reaction of 
+	 * aircraft, but has its own copies of its engines, which hold state while a simulation runs. Used by {@link AircraftRepository}
+	 * 
+	 * @param aircraft
+	 */
+	Aircraft(Aircraft aircraft) {
+		name 		   = aircraft.name;
+		stabDerivs 	   = aircraft.stabDerivs;
+		wingGeometry   = aircraft.wingGeometry;
+		massProps 	   = aircraft.massProps;
+		groundReaction = aircraft.groundReaction;
+		engines 	   = new LinkedHashSet<>();
+		
+		for (Engine engine : aircraft.engines)
+			engines.add(engine.copy());
+	}
+	
 	/**
 	 *  Default constructor that uses the Ryan Navion as a baseline. 
 	 *   
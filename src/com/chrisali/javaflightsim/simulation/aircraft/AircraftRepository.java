@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.aircraft;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.SimulationContext;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Loads each {@link Aircraft} from its Aircraft.json file once, so that parsing the file and building the splines of its 
+ * {@link LookupTable}s is not repeated every time a simulation, trim or sound collection needs the aircraft. The stability 
+ * derivatives, wing geometry, mass properties and ground reaction of a loaded aircraft are unmodifiable and shared by every 
+ * {@link Aircraft} handed out by {@link AircraftRepository#get(String)}; only engines, which hold state while a simulation
+ * runs, are copied for each.
+ * <p>A loaded aircraft is reloaded when the modification time or size of its file changes, such as after being saved from 
+ * the menus. Aircraft that need to be edited and saved should still be read with 
+ * {@link FileUtilities#readAircraftConfiguration(String)}</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class AircraftRepository {
+	
+	private static final Logger logger = LogManager.getLogger(AircraftRepository.class);
+	
+	private static final AircraftRepository SHARED = new AircraftRepository();
+	
+	private final ConcurrentMap<String, LoadedAircraft> loadedAircraft = new ConcurrentHashMap<>();
+	
+	private final AtomicLong loads = new AtomicLong();
+	
+	/**
+	 * @return repository shared by all simulations in this JVM, used by {@link SimulationContext}
+	 */
+	public static AircraftRepository getShared() { return SHARED; }
+	
+	/**
+	 * Gets an aircraft, loading it first if it has not been loaded yet or its file has changed since it was loaded
+	 * 
+	 * @param aircraftName
+	 * @return aircraft sharing unmodifiable properties with all other aircraft of this name, or null if it could not be read
+	 */
+	public Aircraft get(String aircraftName) {
+		LoadedAircraft loaded = getLoaded(aircraftName);
+		
+		return loaded != null ? new Aircraft(loaded.aircraft) : null;
+	}
+	
+	/**
+	 * Loads aircraft ahead of time, so that the cost of parsing their files and building their splines is not paid by the first
+	 * simulation to use them
+	 * 
+	 * @param aircraftNames
+	 */
+	public void warmUp(String... aircraftNames) {
+		for (String aircraftName : aircraftNames) {
+			logger.debug("Warming up " + aircraftName + "...");
+			getLoaded(aircraftName);
+		}
+	}
+	
+	/**
+	 * Removes aircraftName from the repository, so that it is read from its file again the next time it is needed
+	 * 
+	 * @param aircraftName
+	 */
+	public void invalidate(String aircraftName) { loadedAircraft.remove(aircraftName); }
+	
+	/**
+	 * Removes all aircraft from the repository
+	 */
+	public void clear() { loadedAircraft.clear(); }
+	
+	/**
+	 * @return number of times an aircraft file has been read by this repository
+	 */
+	public long getLoads() { return loads.get(); }
+	
+	private LoadedAircraft getLoaded(String aircraftName) {
+		File file = FileUtilities.getAircraftConfigurationFile(aircraftName);
+		long lastModified = file.lastModified();
+		long length = file.length();
+		
+		LoadedAircraft loaded = loadedAircraft.get(aircraftName);
+		if (loaded != null && loaded.isCurrent(lastModified, length))
+			return loaded;
+		
+		// Only one thread reads a given aircraft; others needing it at the same time wait for that read 
+		return loadedAircraft.compute(aircraftName, (name, existing) -> 
+			(existing != null && existing.isCurrent(lastModified, length)) ? existing : load(name, lastModified, length));
+	}
+	
+	private LoadedAircraft load(String aircraftName, long lastModified, long length) {
+		logger.debug("Loading " + aircraftName + " into aircraft repository...");
+		
+		Aircraft aircraft = FileUtilities.readAircraftConfiguration(aircraftName);
+		loads.incrementAndGet();
+		
+		if (aircraft == null)
+			return null;
+		
+		aircraft.setStabDerivs(Collections.unmodifiableMap(aircraft.getStabDerivs()));
+		aircraft.setWingGeometry(Collections.unmodifiableMap(aircraft.getWingGeometry()));
+		aircraft.setMassProps(Collections.unmodifiableMap(aircraft.getMassProps()));
+		aircraft.setGroundReaction(Collections.unmodifiableMap(aircraft.getGroundReaction()));
+		
+		return new LoadedAircraft(aircraft, lastModified, length);
+	}
+	
+	/**
+	 * Aircraft read from a file, along with the modification time and size of that file when it was read 
+	 */
+	private static class LoadedAircraft {
+		private final Aircraft aircraft;
+		private final long lastModified;
+		private final long length;
+		
+		private LoadedAircraft(Aircraft aircraft, long lastModified, long length) {
+			this.aircraft = aircraft;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+		
+		private boolean isCurrent(long lastModified, long length) {
+			return this.lastModified == lastModified && this.length == length;
+		}
+	}
+}
@@ -19,7 +19,11 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.simulation.aircraft;
 
+import java.util.Arrays;
+
 import org.apache.commons.math3.analysis.interpolation.PiecewiseBicubicSplineInterpolatingFunction;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.Precision;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -114,6 +118,125 @@ public class LookupTable {
 		
 		return interp;
 	}
+	
+	/**
+	 * Primitive equivalent of {@link LookupTable#interpolate(double, double)} that does not create any objects; it evaluates the
+	 * same piecewise bicubic (Akima) spline as {@link PiecewiseBicubicSplineInterpolatingFunction#value(double, double)}, using 
+	 * the five breakpoints surrounding each argument, but without building intermediate spline functions on each call
+	 * 
+	 * @param angle
+	 * @param flap
+	 * @return an interpolated value if the table has breakpoints, otherwise returns a constant value
+	 * @throws OutOfRangeException if angle or flap lie outside of the table's breakpoints
+	 */
+	public double evaluate(double angle, double flap) {
+		if (pbsif == null) {
+			if (value == null) {
+				logger.error("Null value encountered in interpolation of " + name + "! Returning 0...");
+				return 0.0;
+			}
+			
+			return value;
+		}
+		
+		final int i = searchIndex(angle, breakPointAngle);
+		final int j = searchIndex(flap, breakPointFlap);
+		
+		// Interpolate along the angle axis for each of the five flap breakpoints, then along the flap axis 
+		double[][] f = lookupValues;
+		double z0 = akimaValue(breakPointAngle, i, f[i][j],   f[i+1][j],   f[i+2][j],   f[i+3][j],   f[i+4][j],   angle);
+		double z1 = akimaValue(breakPointAngle, i, f[i][j+1], f[i+1][j+1], f[i+2][j+1], f[i+3][j+1], f[i+4][j+1], angle);
+		double z2 = akimaValue(breakPointAngle, i, f[i][j+2], f[i+1][j+2], f[i+2][j+2], f[i+3][j+2], f[i+4][j+2], angle);
+		double z3 = akimaValue(breakPointAngle, i, f[i][j+3], f[i+1][j+3], f[i+2][j+3], f[i+3][j+3], f[i+4][j+3], angle);
+		double z4 = akimaValue(breakPointAngle, i, f[i][j+4], f[i+1][j+4], f[i+2][j+4], f[i+3][j+4], f[i+4][j+4], angle);
+		
+		return akimaValue(breakPointFlap, j, z0, z1, z2, z3, z4, flap);
+	}
+	
+	/**
+	 * Finds the index of the first of five breakpoints surrounding c, as done in {@link PiecewiseBicubicSplineInterpolatingFunction}
+	 * 
+	 * @param c
+	 * @param breakPoints
+	 * @return index of first breakpoint in window
+	 */
+	private static int searchIndex(double c, double[] breakPoints) {
+		int r = Arrays.binarySearch(breakPoints, c);
+		
+		if (r == -1 || r == -breakPoints.length - 1)
+			throw new OutOfRangeException(c, breakPoints[0], breakPoints[breakPoints.length - 1]);
+		
+		r = (r < 0) ? -r - 3 : r - 2;
+		
+		if (r < 0)
+			r = 0;
+		
+		if (r + 5 >= breakPoints.length)
+			r = breakPoints.length - 5;
+		
+		return r;
+	}
+	
+	/**
+	 * Evaluates a five point Akima spline through (x[offset+k], zk) at position v; arithmetic mirrors that of 
+	 * Apache Commons' AkimaSplineInterpolator so that results are identical to {@link LookupTable#interpolate(double, double)}
+	 * 
+	 * @return interpolated value at v
+	 */
+	private static double akimaValue(double[] x, int offset, double z0, double z1, double z2, double z3, double z4, double v) {
+		final double x0 = x[offset], x1 = x[offset+1], x2 = x[offset+2], x3 = x[offset+3], x4 = x[offset+4];
+		
+		final double d0 = (z1 - z0) / (x1 - x0);
+		final double d1 = (z2 - z1) / (x2 - x1);
+		final double d2 = (z3 - z2) / (x3 - x2);
+		final double d3 = (z4 - z3) / (x4 - x3);
+		
+		final double wM = Math.abs(d1 - d0);
+		final double wP = Math.abs(d3 - d2);
+		
+		final double fd0 = threePointDerivative(x0, x0, x1, x2, z0, z1, z2);
+		final double fd1 = threePointDerivative(x1, x0, x1, x2, z0, z1, z2);
+		final double fd2 = (Precision.equals(wP, 0.0) && Precision.equals(wM, 0.0)) 
+							? (((x3 - x2) * d1) + ((x2 - x1) * d2)) / (x3 - x1)
+							: ((wP * d1) + (wM * d2)) / (wP + wM);
+		final double fd3 = threePointDerivative(x3, x2, x3, x4, z2, z3, z4);
+		final double fd4 = threePointDerivative(x4, x2, x3, x4, z2, z3, z4);
+		
+		if (v < x0 || v > x4)
+			throw new OutOfRangeException(v, x0, x4);
+		
+		// Select the Hermite polynomial segment containing v
+		double xk, zk, zkP, fdk, fdkP, w;
+		if (v < x1) {
+			xk = x0; w = x1 - x0; zk = z0; zkP = z1; fdk = fd0; fdkP = fd1;
+		} else if (v < x2) {
+			xk = x1; w = x2 - x1; zk = z1; zkP = z2; fdk = fd1; fdkP = fd2;
+		} else if (v < x3) {
+			xk = x2; w = x3 - x2; zk = z2; zkP = z3; fdk = fd2; fdkP = fd3;
+		} else {
+			xk = x3; w = x4 - x3; zk = z3; zkP = z4; fdk = fd3; fdkP = fd4;
+		}
+		
+		final double c2 = (3 * (zkP - zk) / w - 2 * fdk - fdkP) / w;
+		final double c3 = (2 * (zk - zkP) / w + fdk + fdkP) / (w * w);
+		final double t = v - xk;
+		
+		return ((c3 * t + c2) * t + fdk) * t + zk;
+	}
+	
+	/**
+	 * @return first derivative at xd of the parabola passing through (xa, za), (xb, zb) and (xc, zc)
+	 */
+	private static double threePointDerivative(double xd, double xa, double xb, double xc, double za, double zb, double zc) {
+		final double t  = xd - xa;
+		final double t1 = xb - xa;
+		final double t2 = xc - xa;
+		
+		final double a = (zc - za - (t2 / t1 * (zb - za))) / (t2 * t2 - t1 * t2);
+		final double b = (zb - za - a * t1 * t1) / t1;
+		
+		return (2 * a * t) + b;
+	}
 		
 	public String getName() { return name; }
 
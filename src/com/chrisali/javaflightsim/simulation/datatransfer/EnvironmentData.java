@@ -41,6 +41,9 @@ public class EnvironmentData implements Steppable {
 	
 	private static final Logger logger = LogManager.getLogger(EnvironmentData.class);
 	
+	// Rate (Hz) terrain height is sampled at; it changes slowly compared to the aircraft's state
+	private static final double STEP_RATE_HZ = 10.0;
+	
 	private Map<EnvironmentDataType, Double> environmentData = Collections.synchronizedMap(new EnumMap<EnvironmentDataType, Double>(EnvironmentDataType.class));
 	
 	private OTWWorld outTheWindow;
@@ -73,9 +76,7 @@ public class EnvironmentData implements Steppable {
 	}
 		
 	@Override
-	public boolean canStepNow(int simTimeMS) {
-		return simTimeMS % 1 == 0;
-	}
+	public double getStepRateHz() { return STEP_RATE_HZ; }
 
 	@Override
 	public void step() {
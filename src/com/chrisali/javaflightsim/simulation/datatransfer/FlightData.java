@@ -20,10 +20,11 @@
 package com.chrisali.javaflightsim.simulation.datatransfer;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,20 +32,30 @@ import org.apache.logging.log4j.Logger;
 import com.chrisali.javaflightsim.interfaces.Steppable;
 import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
 import com.chrisali.javaflightsim.simulation.integration.SimOuts;
-import com.chrisali.javaflightsim.simulation.utilities.SixDOFUtilities;
 
 /**
  *	Interacts with {@link Integrate6DOFEquations} and any registered listeners to pass flight data from the simulation
- *	listeners. Uses threading to obtain data from the simulation at a reasonable rate
+ *	listeners. Each step of the simulation is converted into a {@link FlightDataFrame}, numbered in sequence, and published to 
+ *	each {@link FlightDataSubscription} at the subscription's own rate, without the simulation ever waiting for a subscriber
  */
 public class FlightData implements Steppable {
 	
 	private static final Logger logger = LogManager.getLogger(FlightData.class);
 	
-	private Map<FlightDataType, Double> flightData = Collections.synchronizedMap(new EnumMap<FlightDataType, Double>(FlightDataType.class));
+	/**
+	 * Rate (Hz) flight data is delivered to listeners added without a rate; no faster than instruments are drawn 
+	 */
+	public static final double DEFAULT_LISTENER_RATE_HZ = 60.0;
+	
+	private final FlightDataFrame frame = new FlightDataFrame();
+	private final double[] simOut = new double[SimOuts.values().length];
+	private long sequence = 0;
 	
 	private Integrate6DOFEquations simulation;
-	private List<FlightDataListener> dataListenerList;
+	private List<FlightDataSubscription> subscriptions = new CopyOnWriteArrayList<>();
+	
+	// Threads created for listeners added without an executor of their own
+	private List<ExecutorService> listenerExecutors = new ArrayList<>();
 	
 	/**
 	 * Creates an instance of {@link FlightData} with a reference to {@link Integrate6DOFEquations} so
@@ -54,101 +65,114 @@ public class FlightData implements Steppable {
 	 */
 	public FlightData(Integrate6DOFEquations simulation) {
 		this.simulation = simulation;
-		this.dataListenerList = new ArrayList<>();
 	}
 	
-	public Map<FlightDataType, Double> getFlightData() {return flightData;}
-	
 	/**
-	 * Polls simOut for data, and assigns and converts the values needed to the flightData EnumMap  
-	 * 
-	 * @param simOut
+	 * Publishes the latest step of the simulation to each subscription, unless it has not stepped since the last frame  
 	 */
-	public void updateData(Map<SimOuts, Double> simOut) {
-		final Double TAS_TO_IAS = 1/(1+((simOut.get(SimOuts.ALT)/1000)*0.02));
-		
-		synchronized (flightData) {
-			flightData.put(FlightDataType.IAS, SixDOFUtilities.toKnots(simOut.get(SimOuts.TAS)*TAS_TO_IAS));
-			flightData.put(FlightDataType.TAS, SixDOFUtilities.toKnots(simOut.get(SimOuts.TAS)));
-			
-			flightData.put(FlightDataType.VERT_SPEED, simOut.get(SimOuts.ALT_DOT));
-			
-			flightData.put(FlightDataType.ALTITUDE, simOut.get(SimOuts.ALT));
-			
-			flightData.put(FlightDataType.ROLL, Math.toDegrees(simOut.get(SimOuts.PHI)));
-			flightData.put(FlightDataType.PITCH, Math.toDegrees(simOut.get(SimOuts.THETA)));
-			
-			flightData.put(FlightDataType.HEADING, Math.toDegrees(simOut.get(SimOuts.PSI)));
-			
-			flightData.put(FlightDataType.TURN_RATE, Math.toDegrees(simOut.get(SimOuts.PSI_DOT)));
-			flightData.put(FlightDataType.TURN_COORD, simOut.get(SimOuts.AN_Y));
-			
-			flightData.put(FlightDataType.GFORCE, simOut.get(SimOuts.AN_Z));
-			
-			flightData.put(FlightDataType.LATITUDE, Math.toDegrees(simOut.get(SimOuts.LAT)));
-			flightData.put(FlightDataType.LONGITUDE, Math.toDegrees(simOut.get(SimOuts.LON)));
-			
-			flightData.put(FlightDataType.NORTH, simOut.get(SimOuts.NORTH));
-			flightData.put(FlightDataType.EAST, simOut.get(SimOuts.EAST));
-			
-			flightData.put(FlightDataType.RPM_1, simOut.get(SimOuts.RPM_1));
-			flightData.put(FlightDataType.RPM_2, simOut.get(SimOuts.RPM_2));
-			
-			flightData.put(FlightDataType.GEAR, simOut.get(SimOuts.GEAR));
-			flightData.put(FlightDataType.FLAPS, Math.toDegrees(simOut.get(SimOuts.FLAPS)));
-			
-			flightData.put(FlightDataType.AOA, Math.abs(simOut.get(SimOuts.ALPHA)));
-			
-			flightData.put(FlightDataType.PITCH_RATE, Math.toDegrees(simOut.get(SimOuts.Q)));
-		}
-		
-		fireDataArrived();
-	}
-		
-	@Override
-	public boolean canStepNow(int simTimeMS) {
-		return simTimeMS % 1 == 0;
-	}
-
 	@Override
 	public void step() {
 		try {
-			if(simulation.getSimOut() != null)
-				updateData(simulation.getSimOut());
+			if (!simulation.copySimOut(simOut) || simOut[SimOuts.TIME.ordinal()] == frame.getTime())
+				return;
+			
+			frame.update(simOut);
+			frame.markPublished(++sequence);
+			
+			for (FlightDataSubscription subscription : subscriptions)
+				subscription.offer(frame);
 		} catch (Exception ez) {
 			logger.error("Exception encountered in Flight Data Listener!", ez);
 		}
 	}
 	
 	/**
-	 * Adds a listener that implements {@link FlightDataListener} to a list of listeners that can listen
-	 * to {@link NewFlightData} 
+	 * Adds a listener that implements {@link FlightDataListener}, delivered flight data at {@link #DEFAULT_LISTENER_RATE_HZ} on a 
+	 * thread of its own
 	 * 
 	 * @param dataListener
+	 * @return subscription of the listener
 	 */
-	public void addFlightDataListener(FlightDataListener dataListener) {
+	public FlightDataSubscription addFlightDataListener(FlightDataListener dataListener) {
+		ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Flight Data: " + dataListener.getClass().getSimpleName());
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		synchronized (listenerExecutors) {
+			listenerExecutors.add(executor);
+		}
+		
+		return addFlightDataListener(dataListener, DEFAULT_LISTENER_RATE_HZ, executor);
+	}
+	
+	/**
+	 * Adds a listener that implements {@link FlightDataListener}, delivered flight data at rateHz using executor. A listener that 
+	 * is still busy with a frame when the next is due skips to the latest frame once done, rather than holding up the simulation 
+	 * 
+	 * @param dataListener
+	 * @param rateHz rate (Hz of simulation time) to deliver data at; if not positive, every step of the simulation is delivered
+	 * @param executor runs the deliveries, such as SwingUtilities::invokeLater for a Swing component; if null, data is delivered 
+	 * on the simulation thread, which waits for the listener
+	 * @return subscription of the listener
+	 */
+	public FlightDataSubscription addFlightDataListener(FlightDataListener dataListener, double rateHz, Executor executor) {
 		logger.debug("Adding flight data listener: " + dataListener.getClass());
-		dataListenerList.add(dataListener);
+		
+		return subscribe(new FlightDataSubscription(dataListener, rateHz, executor));
 	}
 	
 	/**
-	 * Lets registered listeners know that data has arrived from the {@link Integrate6DOFEquations} thread
-	 * so that they can use it as needed
+	 * Subscribes to flight data without a listener; the subscriber takes the latest frame from the subscription's 
+	 * {@link FlightDataSubscription#getBuffer()} at its own pace on its own thread
+	 * 
+	 * @param rateHz rate (Hz of simulation time) to publish data at; if not positive, every step of the simulation is published
+	 * @return subscription
 	 */
-	private void fireDataArrived() {
-		for (FlightDataListener listener : dataListenerList) {
-			if(listener != null) 
-				listener.onFlightDataReceived(this);
+	public FlightDataSubscription subscribe(double rateHz) {
+		return subscribe(new FlightDataSubscription(null, rateHz, null));
+	}
+	
+	private FlightDataSubscription subscribe(FlightDataSubscription subscription) {
+		subscriptions.add(subscription);
+		
+		return subscription;
+	}
+	
+	/**
+	 * Stops publishing to a subscription
+	 * 
+	 * @param subscription
+	 */
+	public void unsubscribe(FlightDataSubscription subscription) {
+		subscriptions.remove(subscription);
+	}
+	
+	/**
+	 * Stops publishing to all subscriptions and stops the threads created for listeners 
+	 */
+	public void close() {
+		subscriptions.clear();
+		
+		synchronized (listenerExecutors) {
+			listenerExecutors.forEach(ExecutorService::shutdown);
+			listenerExecutors.clear();
 		}
 	}
+	
+	/**
+	 * @return number of frames published since the simulation started
+	 */
+	public long getSequence() { return sequence; }
 
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		
-		for (Map.Entry<FlightDataType, Double> entry : flightData.entrySet()) {
-			 sb.append(entry.getKey().toString()).append(": ").append(entry.getValue())
-			   .append(" ").append(entry.getKey().getUnit()).append("\n");
+		for (FlightDataType type : FlightDataType.values()) {
+			 sb.append(type.toString()).append(": ").append(frame.get(type))
+			   .append(" ").append(type.getUnit()).append("\n");
 		}
 		sb.append("\n");
 		
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.datatransfer;
+
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.utilities.SixDOFUtilities;
+
+/**
+ * Flight data for one step of {@link Integrate6DOFEquations}, converted from its outputs and stored in a primitive array 
+ * indexed by {@link FlightDataType#ordinal()} and numbered in the sequence {@link FlightData} published them, along with the raw 
+ * outputs themselves, indexed by {@link SimOuts#ordinal()}. Frames are allocated 
+ * up front and overwritten with each step's data, so that they can be passed from the simulation to listeners through a 
+ * {@link TripleBuffer} without allocating
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class FlightDataFrame {
+	
+	private static final double NANO_TO_SEC = 1e-9;
+	
+	private final double[] values = new double[FlightDataType.values().length];
+	private final double[] simOut = new double[SimOuts.values().length];
+	
+	// Simulation time (sec) of the data, or NaN if no data has been written yet
+	private double time = Double.NaN;
+	
+	// System.nanoTime() when the frame was published by the simulation
+	private long publishNanos;
+	
+	// Number of frames published by the simulation up to and including this one
+	private long sequence;
+	
+	/**
+	 * Assigns and converts the values needed from a row of simulation outputs, indexed by {@link SimOuts#ordinal()}, and keeps 
+	 * a copy of the row 
+	 * 
+	 * @param simOut
+	 */
+	public void update(double[] simOut) {
+		System.arraycopy(simOut, 0, this.simOut, 0, this.simOut.length);
+		
+		final double TAS_TO_IAS = 1/(1+((simOut[SimOuts.ALT.ordinal()]/1000)*0.02));
+		
+		time = simOut[SimOuts.TIME.ordinal()];
+		
+		set(FlightDataType.IAS, SixDOFUtilities.toKnots(simOut[SimOuts.TAS.ordinal()]*TAS_TO_IAS));
+		set(FlightDataType.TAS, SixDOFUtilities.toKnots(simOut[SimOuts.TAS.ordinal()]));
+		
+		set(FlightDataType.VERT_SPEED, simOut[SimOuts.ALT_DOT.ordinal()]);
+		
+		set(FlightDataType.ALTITUDE, simOut[SimOuts.ALT.ordinal()]);
+		
+		set(FlightDataType.ROLL, Math.toDegrees(simOut[SimOuts.PHI.ordinal()]));
+		set(FlightDataType.PITCH, Math.toDegrees(simOut[SimOuts.THETA.ordinal()]));
+		
+		set(FlightDataType.HEADING, Math.toDegrees(simOut[SimOuts.PSI.ordinal()]));
+		
+		set(FlightDataType.TURN_RATE, Math.toDegrees(simOut[SimOuts.PSI_DOT.ordinal()]));
+		set(FlightDataType.TURN_COORD, simOut[SimOuts.AN_Y.ordinal()]);
+		
+		set(FlightDataType.GFORCE, simOut[SimOuts.AN_Z.ordinal()]);
+		
+		set(FlightDataType.LATITUDE, Math.toDegrees(simOut[SimOuts.LAT.ordinal()]));
+		set(FlightDataType.LONGITUDE, Math.toDegrees(simOut[SimOuts.LON.ordinal()]));
+		
+		set(FlightDataType.NORTH, simOut[SimOuts.NORTH.ordinal()]);
+		set(FlightDataType.EAST, simOut[SimOuts.EAST.ordinal()]);
+		
+		set(FlightDataType.RPM_1, simOut[SimOuts.RPM_1.ordinal()]);
+		set(FlightDataType.RPM_2, simOut[SimOuts.RPM_2.ordinal()]);
+		set(FlightDataType.RPM_3, simOut[SimOuts.RPM_3.ordinal()]);
+		set(FlightDataType.RPM_4, simOut[SimOuts.RPM_4.ordinal()]);
+		
+		set(FlightDataType.GEAR, simOut[SimOuts.GEAR.ordinal()]);
+		set(FlightDataType.FLAPS, Math.toDegrees(simOut[SimOuts.FLAPS.ordinal()]));
+		
+		set(FlightDataType.AOA, Math.abs(simOut[SimOuts.ALPHA.ordinal()]));
+		
+		set(FlightDataType.PITCH_RATE, Math.toDegrees(simOut[SimOuts.Q.ordinal()]));
+	}
+	
+	/**
+	 * Copies all data of another frame into this frame
+	 * 
+	 * @param frame
+	 */
+	public void copy(FlightDataFrame frame) {
+		System.arraycopy(frame.values, 0, values, 0, values.length);
+		System.arraycopy(frame.simOut, 0, simOut, 0, simOut.length);
+		time = frame.time;
+		publishNanos = frame.publishNanos;
+		sequence = frame.sequence;
+	}
+	
+	/**
+	 * Sets the ownship pose (position and attitude) of this frame part way between those of two consecutive frames, taking the 
+	 * shorter way around for roll and heading; all other data are those of the later frame 
+	 * 
+	 * @param previous earlier frame
+	 * @param current later frame
+	 * @param alpha fraction of the way from previous to current, between 0 and 1
+	 */
+	public void interpolate(FlightDataFrame previous, FlightDataFrame current, double alpha) {
+		copy(current);
+		
+		if (!previous.hasData() || alpha >= 1)
+			return;
+		
+		time = previous.time + (current.time - previous.time) * alpha;
+		
+		interpolate(FlightDataType.NORTH,    previous, current, alpha, false);
+		interpolate(FlightDataType.EAST,     previous, current, alpha, false);
+		interpolate(FlightDataType.ALTITUDE, previous, current, alpha, false);
+		interpolate(FlightDataType.ROLL,     previous, current, alpha, true);
+		interpolate(FlightDataType.PITCH,    previous, current, alpha, false);
+		interpolate(FlightDataType.HEADING,  previous, current, alpha, true);
+	}
+	
+	private void interpolate(FlightDataType type, FlightDataFrame previous, FlightDataFrame current, double alpha, boolean wraps) {
+		double from = previous.get(type);
+		double change = current.get(type) - from;
+		
+		if (wraps)
+			change -= 360 * Math.rint(change / 360);
+		
+		set(type, from + change * alpha);
+	}
+	
+	/**
+	 * @param previous frame observed before this frame
+	 * @param nowNanos current {@link System#nanoTime()}
+	 * @return fraction of the time between previous and this frame that has passed on the wall clock since this frame was published, 
+	 * between 0 and 1, to render the pose part way between the two frames 
+	 */
+	public double getInterpolationAlpha(FlightDataFrame previous, long nowNanos) {
+		double interval = time - previous.time;
+		
+		if (!previous.hasData() || !(interval > 0))
+			return 1;
+		
+		return Math.max(0, Math.min(1, (nowNanos - publishNanos) * NANO_TO_SEC / interval));
+	}
+	
+	public double get(FlightDataType type) { return values[type.ordinal()]; }
+	
+	private void set(FlightDataType type, double value) { values[type.ordinal()] = value; }
+	
+	/**
+	 * @param simOut
+	 * @return raw simulation output the data in this frame was converted from
+	 */
+	public double getSimOut(SimOuts simOut) { return this.simOut[simOut.ordinal()]; }
+	
+	/**
+	 * @return simulation time (sec) of the data in this frame
+	 */
+	public double getTime() { return time; }
+	
+	/**
+	 * @return if simulation data has been written to this frame
+	 */
+	public boolean hasData() { return !Double.isNaN(time); }
+	
+	/**
+	 * Stamps this frame with its sequence number and the current {@link System#nanoTime()} as it is published
+	 * 
+	 * @param sequence
+	 */
+	void markPublished(long sequence) { 
+		this.sequence = sequence;
+		publishNanos = System.nanoTime(); 
+	}
+	
+	public long getPublishNanos() { return publishNanos; }
+	
+	/**
+	 * @return number of frames published by the simulation up to and including this one; gaps between frames received by a 
+	 * listener are frames it skipped
+	 */
+	public long getSequence() { return sequence; }
+}
@@ -21,6 +21,13 @@ package com.chrisali.javaflightsim.simulation.datatransfer;
 
 import java.util.EventListener;
 
+/**
+ * Receives flight data published by {@link FlightData}, at the rate and on the thread of its {@link FlightDataSubscription}
+ */
 public interface FlightDataListener extends EventListener {
-	public void onFlightDataReceived(FlightData flightData);
+	
+	/**
+	 * @param frame latest flight data; reused once this method returns, so any values needed later must be copied 
+	 */
+	public void onFlightDataReceived(FlightDataFrame frame);
 }
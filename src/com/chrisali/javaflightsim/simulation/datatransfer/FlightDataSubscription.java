@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.datatransfer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A subscription to the {@link FlightDataFrame}s published by {@link FlightData}, at a rate of its own. Frames are passed from the 
+ * simulation thread through a {@link TripleBuffer} of the subscription's own, so the simulation never waits for a subscriber, and a
+ * subscriber that cannot keep up receives the latest frame when it is ready rather than a backlog of old ones.
+ * <p>A subscription with a {@link FlightDataListener} delivers frames to it with its executor, or on the simulation thread if it has 
+ * none. A subscription without a listener is read by its subscriber with {@link TripleBuffer#update()} at the subscriber's own pace</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class FlightDataSubscription {
+	
+	private static final Logger logger = LogManager.getLogger(FlightDataSubscription.class);
+	
+	private final TripleBuffer<FlightDataFrame> buffer = new TripleBuffer<>(FlightDataFrame::new);
+	
+	private final FlightDataListener listener;
+	private final Executor executor;
+	private final double periodSec;
+	
+	// Set from when a delivery is handed to the executor until it has been delivered
+	private final AtomicBoolean deliveryPending = new AtomicBoolean();
+	private final Runnable delivery = this::deliver;
+	
+	// Simulation time (sec) of the last frame published to this subscription, accessed only by the simulation thread
+	private double publishedTime = Double.NaN;
+	
+	private volatile long publishedFrames = 0;
+	private volatile long deliveredFrames = 0;
+	
+	/**
+	 * @param listener listener to deliver frames to, or null if the subscriber reads them from {@link #getBuffer()} 
+	 * @param rateHz rate (Hz of simulation time) frames are published to this subscription at; if not positive, every frame is
+	 * @param executor runs deliveries to listener; if null, frames are delivered on the simulation thread 
+	 */
+	FlightDataSubscription(FlightDataListener listener, double rateHz, Executor executor) {
+		this.listener = listener;
+		this.executor = executor;
+		periodSec = rateHz > 0 ? 1 / rateHz : 0;
+	}
+	
+	/**
+	 * Called by the simulation thread to publish frame to this subscription, if due at its rate, and deliver it to the listener 
+	 * unless a delivery is already pending. Frames are due when a whole period of simulation time has passed since the last 
+	 * one published, or if simulation time has gone back, as when the simulation is reset
+	 * 
+	 * @param frame
+	 */
+	void offer(FlightDataFrame frame) {
+		double time = frame.getTime();
+		
+		// Allows for the time step not being a whole fraction of the period 
+		if (time >= publishedTime && time - publishedTime < periodSec * (1 - 1e-6))
+			return;
+		
+		publishedTime = time;
+		
+		buffer.getWriteBuffer().copy(frame);
+		buffer.publish();
+		publishedFrames++;
+		
+		if (listener == null || !deliveryPending.compareAndSet(false, true))
+			return;
+		
+		if (executor == null) {
+			deliver();
+			return;
+		}
+		
+		try {
+			executor.execute(delivery);
+		} catch (RejectedExecutionException e) {
+			deliveryPending.set(false);
+			logger.debug("Flight data delivery rejected for " + listener.getClass().getSimpleName());
+		}
+	}
+	
+	/**
+	 * Delivers the latest frame to the listener. Only one delivery is pending at a time, so the listener is never called 
+	 * concurrently, and only one thread reads the buffer. A frame published while the listener was busy, after the simulation
+	 * saw the delivery still pending, is delivered before returning so that the last frame published is never left undelivered
+	 */
+	private void deliver() {
+		do {
+			try {
+				if (buffer.update()) {
+					listener.onFlightDataReceived(buffer.getReadBuffer());
+					deliveredFrames++;
+				}
+			} catch (Exception e) {
+				logger.error("Exception encountered in Flight Data Listener!", e);
+			} finally {
+				deliveryPending.set(false);
+			}
+		} while (buffer.isFresh() && deliveryPending.compareAndSet(false, true));
+	}
+	
+	/**
+	 * @return buffer that frames are published through, to be read by a single subscriber thread if there is no listener 
+	 */
+	public TripleBuffer<FlightDataFrame> getBuffer() { return buffer; }
+	
+	public FlightDataListener getListener() { return listener; }
+	
+	/**
+	 * @return number of frames published to this subscription
+	 */
+	public long getPublishedFrames() { return publishedFrames; }
+	
+	/**
+	 * @return number of frames delivered to the listener; fewer than published if the listener could not keep up
+	 */
+	public long getDeliveredFrames() { return deliveredFrames; }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.datatransfer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free triple buffer that passes the latest of a series of objects from one producer thread to one consumer thread, each 
+ * running at its own rate. The producer writes into its own buffer and publishes it by swapping it with the middle buffer; the 
+ * consumer takes the middle buffer, if newer than its own, by swapping it with the buffer it has finished reading. Neither thread 
+ * ever waits for the other or sees a buffer being written, and buffers are reused rather than allocated for each object, although 
+ * objects published between two reads of the consumer are overwritten unread
+ * 
+ * @author Christopher Ali
+ *
+ * @param <T> type of object in the buffers
+ */
+public class TripleBuffer<T> {
+	
+	private static final int INDEX_MASK = 0b11;
+	
+	// Set in the middle index when the middle buffer has been published and not yet taken by the consumer
+	private static final int FRESH = 0b100;
+	
+	private final Object[] buffers = new Object[3];
+	
+	private final AtomicInteger middle = new AtomicInteger(1);
+	
+	// Each accessed only by its own thread
+	private int writeIndex = 0;
+	private int readIndex = 2;
+	
+	/**
+	 * @param factory creates each of the three buffers
+	 */
+	public TripleBuffer(Supplier<T> factory) {
+		for (int i = 0; i < buffers.length; i++)
+			buffers[i] = factory.get();
+	}
+	
+	/**
+	 * Called by the producer thread
+	 * 
+	 * @return buffer to write the next object into
+	 */
+	@SuppressWarnings("unchecked")
+	public T getWriteBuffer() { return (T) buffers[writeIndex]; }
+	
+	/**
+	 * Called by the producer thread to make the buffer returned by {@link TripleBuffer#getWriteBuffer()} the latest object 
+	 * available to the consumer
+	 */
+	public void publish() {
+		writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+	}
+	
+	/**
+	 * Called by the consumer thread to take the latest object published, if any has been published since the last update
+	 * 
+	 * @return if {@link TripleBuffer#getReadBuffer()} now returns a newly published object
+	 */
+	public boolean update() {
+		if ((middle.get() & FRESH) == 0)
+			return false;
+		
+		readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+		
+		return true;
+	}
+	
+	/**
+	 * @return if an object has been published that the consumer has not yet taken with {@link TripleBuffer#update()}
+	 */
+	public boolean isFresh() { return (middle.get() & FRESH) != 0; }
+	
+	/**
+	 * Called by the consumer thread
+	 * 
+	 * @return latest object taken by {@link TripleBuffer#update()}
+	 */
+	@SuppressWarnings("unchecked")
+	public T getReadBuffer() { return (T) buffers[readIndex]; }
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.enviroment;
+
+/**
+ * 1976 NASA Standard Atmosphere tabulated at {@link AtmosphereModel#RESOLUTION} ft increments from sea level up to 
+ * {@link AtmosphereModel#SERVICE_CEILING}, so that each call only needs to linearly interpolate between two table entries 
+ * rather than evaluate non-integer powers, exponentials and square roots. Pressure, density and gravity do not depend on the 
+ * deviation from ISA, so their tables are built once and shared by all instances; temperature and speed of sound tables are 
+ * rebuilt only when the deviation from ISA changes. Heights outside of the table are calculated analytically
+ * 
+ * @see Environment
+ */
+public class AtmosphereModel {
+	
+	/**
+	 * Highest height above sea level (ft) covered by the tables 
+	 */
+	public static final double SERVICE_CEILING = 65000;
+	
+	/**
+	 * Height increment (ft) between table entries
+	 */
+	public static final double RESOLUTION = 1.0;
+	
+	private static final int TABLE_SIZE = (int)(SERVICE_CEILING/RESOLUTION) + 1;
+	
+	private static final double RADIUS_EARTH = 3959*5280;
+	
+	private static final double R = 1716.49;
+	private static final double GAMMA = 1.4;
+	private static final double RHO_SSL = 0.002377;
+	private static final double P_SSL = 2116.22;
+	private static final double T_SSL = 518.67;
+	private static final double GRAVITY = 32.17;
+	
+	private static final double HT_TROP = 36089;
+	private static final double P_TROP = 472.6758;
+	private static final double RHO_TROP = 0.000706115;
+	private static final double T_STRAT = 389.97;
+	
+	private static final double ENV_CONST_TROP = 0.0000068755;
+	private static final double ENV_CONST_STRAT = -0.0000480637;
+	
+	private static final double[] PRESSURE_TABLE 			= new double[TABLE_SIZE];
+	private static final double[] DENSITY_TABLE 			= new double[TABLE_SIZE];
+	private static final double[] GRAVITY_TABLE 			= new double[TABLE_SIZE];
+	private static final double[] ISA_TEMPERATURE_TABLE 	= new double[TABLE_SIZE];
+	private static final double[] ISA_SPEED_OF_SOUND_TABLE  = new double[TABLE_SIZE];
+	
+	static {
+		for (int i = 0; i < TABLE_SIZE; i++) {
+			double height = i*RESOLUTION;
+			
+			PRESSURE_TABLE[i] 			= calculatePressure(height);
+			DENSITY_TABLE[i] 			= calculateDensity(height);
+			GRAVITY_TABLE[i] 			= calculateGravity(height);
+			ISA_TEMPERATURE_TABLE[i] 	= calculateTemperature(height, 0.0);
+			ISA_SPEED_OF_SOUND_TABLE[i] = calculateSpeedOfSound(ISA_TEMPERATURE_TABLE[i]);
+		}
+	}
+	
+	private double deltaIsa = 0.0;
+	
+	// Point to the shared ISA tables until a deviation from ISA is set 
+	private double[] temperatureTable  = ISA_TEMPERATURE_TABLE;
+	private double[] speedOfSoundTable = ISA_SPEED_OF_SOUND_TABLE;
+	
+	// Allocated the first time this instance deviates from ISA, then reused
+	private double[] deviatedTemperatureTable;
+	private double[] deviatedSpeedOfSoundTable;
+	
+	/**
+	 * Writes temperature, pressure, density, speed of sound and gravity at the specified height into state, 
+	 * interpolating from the tables if the height lies within them 
+	 * 
+	 * @param height height above sea level (ft)
+	 * @param state
+	 * @return state
+	 */
+	public EnvironmentState calculate(double height, EnvironmentState state) {
+		if (height >= 0 && height < SERVICE_CEILING) {
+			double index = height/RESOLUTION;
+			int lower = (int)index;
+			double fraction = index - lower;
+			
+			state.temperature  = interpolate(temperatureTable,  lower, fraction);
+			state.pressure     = interpolate(PRESSURE_TABLE,    lower, fraction);
+			state.density      = interpolate(DENSITY_TABLE,     lower, fraction);
+			state.speedOfSound = interpolate(speedOfSoundTable, lower, fraction);
+			state.gravity      = interpolate(GRAVITY_TABLE,     lower, fraction);
+		} else {
+			calculateAnalytic(height, deltaIsa, state);
+		}
+		
+		return state;
+	}
+	
+	/**
+	 * Writes temperature, pressure, density, speed of sound and gravity at the specified height into state by
+	 * directly evaluating the standard atmosphere equations 
+	 * 
+	 * @param height height above sea level (ft)
+	 * @param deltaIsa difference in temperature from ISA (deg R)
+	 * @param state
+	 * @return state
+	 */
+	public static EnvironmentState calculateAnalytic(double height, double deltaIsa, EnvironmentState state) {
+		state.temperature  = calculateTemperature(height, deltaIsa);
+		state.pressure     = calculatePressure(height);
+		state.density      = calculateDensity(height);
+		state.speedOfSound = calculateSpeedOfSound(state.temperature);
+		state.gravity      = calculateGravity(height);
+		
+		return state;
+	}
+	
+	private static double interpolate(double[] table, int lower, double fraction) {
+		double value = table[lower];
+		
+		return value + fraction*(table[lower + 1] - value);
+	}
+	
+	private static double calculateTemperature(double height, double deltaIsa) {
+		return (height < HT_TROP) ? T_SSL-(0.003566*height) + deltaIsa : T_STRAT + deltaIsa;         // (deg R)
+	}
+	
+	private static double calculatePressure(double height) {
+		return (height < HT_TROP) ? P_SSL*Math.pow((1-(ENV_CONST_TROP*height)),5.2559)               // (lbf/ft^2)
+								  : P_TROP*Math.exp(ENV_CONST_STRAT*(height-HT_TROP));
+	}
+	
+	private static double calculateDensity(double height) {
+		return (height < HT_TROP) ? RHO_SSL*Math.pow((1-(ENV_CONST_TROP*height)),4.2559)             // (slug/ft^3)
+								  : RHO_TROP*Math.exp(ENV_CONST_STRAT*(height-HT_TROP));
+	}
+	
+	private static double calculateSpeedOfSound(double temperature) {
+		return Math.sqrt(GAMMA*R*temperature);                                                       // (ft/sec)
+	}
+	
+	private static double calculateGravity(double height) {
+		return GRAVITY*(RADIUS_EARTH/(RADIUS_EARTH+height));                                         // (ft/sec^2)
+	}
+	
+	/**
+	 * @return difference in temperature from ISA (deg R) that the temperature and speed of sound tables were built with
+	 */
+	public double getDeltaIsa() { return deltaIsa; }
+
+	/**
+	 * Sets the difference in temperature from ISA (deg R), rebuilding the temperature and speed of sound tables 
+	 * if it differs from the current value
+	 * 
+	 * @param deltaIsa
+	 */
+	public void setDeltaIsa(double deltaIsa) {
+		if (Double.compare(deltaIsa, this.deltaIsa) == 0)
+			return;
+		
+		this.deltaIsa = deltaIsa;
+		
+		if (deltaIsa == 0.0) {
+			temperatureTable  = ISA_TEMPERATURE_TABLE;
+			speedOfSoundTable = ISA_SPEED_OF_SOUND_TABLE;
+			return;
+		}
+		
+		if (deviatedTemperatureTable == null) {
+			deviatedTemperatureTable  = new double[TABLE_SIZE];
+			deviatedSpeedOfSoundTable = new double[TABLE_SIZE];
+		}
+		
+		for (int i = 0; i < TABLE_SIZE; i++) {
+			deviatedTemperatureTable[i]  = ISA_TEMPERATURE_TABLE[i] + deltaIsa;
+			deviatedSpeedOfSoundTable[i] = calculateSpeedOfSound(deviatedTemperatureTable[i]);
+		}
+		
+		temperatureTable  = deviatedTemperatureTable;
+		speedOfSoundTable = deviatedSpeedOfSoundTable;
+	}
+}
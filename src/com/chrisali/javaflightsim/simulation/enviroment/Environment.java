@@ -27,30 +27,24 @@ import com.chrisali.javaflightsim.simulation.utilities.SixDOFUtilities;
 
 /**
  * This class calculates atmospheric parameters as a function of height, and the gravitational acceleration constant.
- * It uses the 1976 NASA Standard Atmosphere model, and assumes that gravity is constant in the Z direction.
+ * It uses the 1976 NASA Standard Atmosphere model, tabulated by {@link AtmosphereModel}, and assumes that gravity is constant 
+ * in the Z direction. Wind and temperature deviation from ISA are held by each instance, so that each simulation can have 
+ * its own weather; wind components are only recalculated when wind speed or direction change
  */
 public class Environment {
-	private static final double RADIUS_EARTH = 3959*5280;
 	
-	private static final double R = 1716.49;
-	private static final double GAMMA = 1.4;
-	private static final double RHO_SSL = 0.002377;
-	private static final double P_SSL = 2116.22;
-	private static final double T_SSL = 518.67;
 	private static final double GRAVITY = 32.17;
 	
-	private static final double HT_TROP = 36089;
-	private static final double P_TROP = 472.6758;
-	private static final double RHO_TROP = 0.000706115;
+	private Map<EnvironmentParameters, Double> environmentParams = new EnumMap<>(EnvironmentParameters.class);
 	
-	private static final double ENV_CONST_TROP = 0.0000068755;
-	private static final double ENV_CONST_STRAT = -0.0000480637;
+	private AtmosphereModel atmosphere = new AtmosphereModel();
+	private EnvironmentState state = new EnvironmentState();
 	
-	private static Map<EnvironmentParameters, Double> environmentParams = new EnumMap<>(EnvironmentParameters.class);
-	
-	private static double windSpeed = 0.0;
-	private static double windDir   = 0.0;
-	private static double deltaIsa  = 0.0;
+	private double windSpeed = 0.0;
+	private double windDir   = 0.0;
+	private double windN     = 0.0;
+	private double windE     = 0.0;
+	private double windD     = 0.0;
 
 	/**
 	 * Calculates the temperature (R), presssure (lb/ft^2), density (slug/ft^3), speed of sound (ft/sec) and gravity (ft/sec^2)
@@ -60,40 +54,62 @@ public class Environment {
 	 * @param NEDPosition
 	 * @return EnumMap of environment parameters
 	 */
-	public static Map<EnvironmentParameters, Double> getAndUpdateEnvironmentParams(double[] NEDPosition) {
-		double temp, rho, p, a, g, windN, windE, windD;
+	public Map<EnvironmentParameters, Double> getAndUpdateEnvironmentParams(double[] NEDPosition) {
+		double[] environmentArray = getAndUpdateEnvironmentParams(NEDPosition, new double[EnvironmentParameters.values().length]);
 		
-		// Troposphere
-		if (NEDPosition[2] < HT_TROP) {
-			temp = T_SSL-(0.003566*NEDPosition[2]) + deltaIsa;                   // (deg R)
-			p = P_SSL*Math.pow((1-(ENV_CONST_TROP*NEDPosition[2])),5.2559);      // (lbf/ft^2)
-			rho = RHO_SSL*Math.pow((1-(ENV_CONST_TROP*NEDPosition[2])),4.2559);  // (slug/ft^3) 												
-		}
-		// Stratosphere
-		else {
-			temp = 389.97 + deltaIsa; 											 // (degR)
-			p = P_TROP*Math.exp(ENV_CONST_STRAT*(NEDPosition[2]-HT_TROP)); 		 // (lbf/ft^2)
-			rho = RHO_TROP*Math.exp(ENV_CONST_STRAT*(NEDPosition[2]-HT_TROP));   // (slug/ft^3)			
+		for (EnvironmentParameters parameter : EnvironmentParameters.values()) {
+			if (parameter != EnvironmentParameters.TURBULENCE)
+				environmentParams.put(parameter, environmentArray[parameter.ordinal()]);
 		}
 		
-		a = Math.sqrt(GAMMA*R*temp);     									 // (ft/sec)
+		return environmentParams;
+	}
+	
+	/**
+	 * Calculates the same environment parameters as {@link Environment#getAndUpdateEnvironmentParams(double[])}, but writes them 
+	 * into a preallocated array indexed by {@link EnvironmentParameters} ordinal so that no objects are created  
+	 * 
+	 * @param NEDPosition
+	 * @param environmentParameters array of length EnvironmentParameters.values().length
+	 * @return environmentParameters
+	 */
+	public double[] getAndUpdateEnvironmentParams(double[] NEDPosition, double[] environmentParameters) {
+		return getAndUpdateEnvironmentParams(NEDPosition, state).toArray(environmentParameters);
+	}
+	
+	/**
+	 * Calculates the same environment parameters as {@link Environment#getAndUpdateEnvironmentParams(double[])}, but writes them 
+	 * into a reusable {@link EnvironmentState} so that no objects are created  
+	 * 
+	 * @param NEDPosition
+	 * @param environmentState
+	 * @return environmentState
+	 */
+	public EnvironmentState getAndUpdateEnvironmentParams(double[] NEDPosition, EnvironmentState environmentState) {
+		atmosphere.calculate(NEDPosition[2], environmentState);
 		
-		g = GRAVITY*(RADIUS_EARTH/(RADIUS_EARTH+NEDPosition[2]));
+		environmentState.windSpeedN = windN;
+		environmentState.windSpeedE = windE;
+		environmentState.windSpeedD = windD;
 		
-		windN = windSpeed*Math.cos(windDir);
-		windE = windSpeed*Math.sin(windDir);
-		windD = 0.0;
+		return environmentState;
+	}
+	/**
+	 * Converts an EnumMap of environment parameters into an array indexed by {@link EnvironmentParameters} ordinal; 
+	 * parameters missing from the map are set to zero
+	 * 
+	 * @param environmentParameters
+	 * @return array of environment parameters
+	 */
+	public static double[] toArray(Map<EnvironmentParameters, Double> environmentParameters) {
+		double[] environmentArray = new double[EnvironmentParameters.values().length];
 		
-		environmentParams.put(EnvironmentParameters.T,       	   temp);
-		environmentParams.put(EnvironmentParameters.P,       		  p);
-		environmentParams.put(EnvironmentParameters.RHO,     		rho);
-		environmentParams.put(EnvironmentParameters.A,       	  	  a);
-		environmentParams.put(EnvironmentParameters.GRAVITY, 	  	  g);
-		environmentParams.put(EnvironmentParameters.WIND_SPEED_N, windN);
-		environmentParams.put(EnvironmentParameters.WIND_SPEED_E, windE);
-		environmentParams.put(EnvironmentParameters.WIND_SPEED_D, windD);
+		for (Map.Entry<EnvironmentParameters, Double> entry : environmentParameters.entrySet()) {
+			if (entry.getValue() != null)
+				environmentArray[entry.getKey().ordinal()] = entry.getValue();
+		}
 		
-		return environmentParams;
+		return environmentArray;
 	}
 	
 	/**
@@ -106,8 +122,9 @@ public class Environment {
 	 * 
 	 * @param windSpeed
 	 */
-	public static void setWindSpeed(double windSpeed) {
-		Environment.windSpeed = (windSpeed > 100) ? SixDOFUtilities.toFtPerSec(100) : SixDOFUtilities.toFtPerSec(windSpeed);
+	public void setWindSpeed(double windSpeed) {
+		this.windSpeed = (windSpeed > 100) ? SixDOFUtilities.toFtPerSec(100) : SixDOFUtilities.toFtPerSec(windSpeed);
+		updateWindComponents();
 	}
 	
 	/**
@@ -115,13 +132,23 @@ public class Environment {
 	 * 
 	 * @param windDir
 	 */
-	public static void setWindDir(double windDir) {Environment.windDir = SaturationUtilities.twoPiBounding(Math.toRadians(windDir)-Math.PI);}
+	public void setWindDir(double windDir) {
+		this.windDir = SaturationUtilities.twoPiBounding(Math.toRadians(windDir)-Math.PI);
+		updateWindComponents();
+	}
+	
+	private void updateWindComponents() {
+		windN = windSpeed*Math.cos(windDir);
+		windE = windSpeed*Math.sin(windDir);
+		windD = 0.0;
+	}
 
 	/**
-	 * Sets the difference in temperature from ISA (59 F, 15 C at Standard Sea Level)
+	 * Sets the difference in temperature from ISA (59 F, 15 C at Standard Sea Level); the atmosphere tables are only 
+	 * rebuilt if this value changes
 	 * 
 	 * @param deltaIsa
 	 */
-	public static void setDeltaIsa(double deltaIsa) {Environment.deltaIsa = deltaIsa;}
+	public void setDeltaIsa(double deltaIsa) {atmosphere.setDeltaIsa(deltaIsa);}
 	
 }
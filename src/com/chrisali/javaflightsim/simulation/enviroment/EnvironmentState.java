@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.enviroment;
+
+/**
+ * Reusable, primitive holder of the environment parameters calculated by {@link Environment} for one position; 
+ * it replaces the boxed values of a Map&lt;{@link EnvironmentParameters}, Double&gt; in code that is called every step
+ * 
+ * @see Environment
+ * @see AtmosphereModel
+ */
+public class EnvironmentState {
+	
+	double temperature;
+	double pressure;
+	double density;
+	double speedOfSound;
+	double gravity;
+	double windSpeedN;
+	double windSpeedE;
+	double windSpeedD;
+	
+	/**
+	 * @return temperature (deg R)
+	 */
+	public double getTemperature() { return temperature; }
+	
+	/**
+	 * @return pressure (lbf/ft^2)
+	 */
+	public double getPressure() { return pressure; }
+
+	/**
+	 * @return density (slug/ft^3)
+	 */
+	public double getDensity() { return density; }
+
+	/**
+	 * @return speed of sound (ft/sec)
+	 */
+	public double getSpeedOfSound() { return speedOfSound; }
+
+	/**
+	 * @return gravitational acceleration (ft/sec^2)
+	 */
+	public double getGravity() { return gravity; }
+
+	/**
+	 * @return north component of wind speed (ft/sec)
+	 */
+	public double getWindSpeedN() { return windSpeedN; }
+
+	/**
+	 * @return east component of wind speed (ft/sec)
+	 */
+	public double getWindSpeedE() { return windSpeedE; }
+
+	/**
+	 * @return down component of wind speed (ft/sec)
+	 */
+	public double getWindSpeedD() { return windSpeedD; }
+	
+	/**
+	 * Copies these parameters into an array indexed by {@link EnvironmentParameters} ordinal
+	 * 
+	 * @param environmentParameters array of length EnvironmentParameters.values().length
+	 * @return environmentParameters
+	 */
+	public double[] toArray(double[] environmentParameters) {
+		environmentParameters[EnvironmentParameters.T.ordinal()]            = temperature;
+		environmentParameters[EnvironmentParameters.P.ordinal()]            = pressure;
+		environmentParameters[EnvironmentParameters.RHO.ordinal()]          = density;
+		environmentParameters[EnvironmentParameters.A.ordinal()]            = speedOfSound;
+		environmentParameters[EnvironmentParameters.GRAVITY.ordinal()]      = gravity;
+		environmentParameters[EnvironmentParameters.WIND_SPEED_N.ordinal()] = windSpeedN;
+		environmentParameters[EnvironmentParameters.WIND_SPEED_E.ordinal()] = windSpeedE;
+		environmentParameters[EnvironmentParameters.WIND_SPEED_D.ordinal()] = windSpeedD;
+		
+		return environmentParameters;
+	}
+	
+	@Override
+	public String toString() {
+		return "T: " + temperature + " P: " + pressure + " Rho: " + density + " a: " + speedOfSound + " g: " + gravity 
+				+ " Wind N: " + windSpeedN + " Wind E: " + windSpeedE + " Wind D: " + windSpeedD;
+	}
+}
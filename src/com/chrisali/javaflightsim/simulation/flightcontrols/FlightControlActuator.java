@@ -3,6 +3,7 @@ package com.chrisali.javaflightsim.simulation.flightcontrols;
 import static com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl.*;
 import static com.chrisali.javaflightsim.simulation.setup.KeyCommand.*;
 
+import com.chrisali.javaflightsim.simulation.StepScheduler;
 import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
 
@@ -16,9 +17,21 @@ public class FlightControlActuator implements ControlParameterActuator {
 	
 	FlightControlsState controlsState;
 	
-	// Scales the values in getRate() depending on the rate the simulation is running at
+	// Pause, reset and plot events of the simulation these controls belong to
+	private SimEvents simEvents;
+	
+	// Rates in getRate() and the transient lag were tuned with controls updated at this time step (sec)
+	private static final double TUNED_DT = 1.0 / 120.0;
+	
+	// Transient value's fraction of the way to the desired value covered in one step at TUNED_DT
+	private static final double TUNED_TRANSIENT_LAG = 0.125;
+	
+	// Scales the values in getRate() depending on the rate the controls are updated at
 	private double dt = 0.05;
 	
+	// Fraction of the way the transient value moves to the desired value each step, for the same lag as at TUNED_DT
+	private double transientLag = TUNED_TRANSIENT_LAG;
+	
 	// Add trim values to getDeflection() to emulate trim deflections
 	private double trimElevator = 0.0;
 	private double trimAileron  = 0.0;
@@ -32,10 +45,20 @@ public class FlightControlActuator implements ControlParameterActuator {
 	// If true, don't directly calculate controls; use a transient value 
 	private boolean useTransientLag = true;
 	
-	public FlightControlActuator(SimulationConfiguration configuration, FlightControlsState controlsState) {
-		dt = configuration.getIntegratorConfig().get(IntegratorConfig.DT);
+	/**
+	 * @param configuration
+	 * @param controlsState
+	 * @param simEvents
+	 * @param stepRateHz rate the controls are updated at, rounded by {@link StepScheduler} to a whole number of simulation steps 
+	 */
+	public FlightControlActuator(SimulationConfiguration configuration, FlightControlsState controlsState, SimEvents simEvents, 
+								 double stepRateHz) {
+		double simDt = configuration.getIntegratorConfig().get(IntegratorConfig.DT);
+		dt = simDt * StepScheduler.getDivisor(1 / simDt, stepRateHz);
+		transientLag = 1 - Math.pow(1 - TUNED_TRANSIENT_LAG, dt / TUNED_DT);
 		
 		this.controlsState = controlsState;
+		this.simEvents = simEvents;
 		
 		gearLeverDown = controlsState.get(GEAR) == 1.0;
 		
@@ -96,11 +119,11 @@ public class FlightControlActuator implements ControlParameterActuator {
 			} else if (parameter.equals(RUDDER_TRIM_RIGHT)) {
 				if (isPressed(value)) rudderTrimRight();
 			} else if (parameter.equals(PAUSE_UNPAUSE_SIM)) {
-				SimEvents.pauseUnpauseSimulation(isPressed(value));
+				simEvents.pauseUnpauseSimulation(isPressed(value));
 			} else if (parameter.equals(RESET_SIM)) {
-				SimEvents.resetSimulation(isPressed(value));
+				simEvents.resetSimulation(isPressed(value));
 			} else if (parameter.equals(GENERATE_PLOTS)) {
-				if (isPressed(value)) SimEvents.plotSimulation();
+				if (isPressed(value)) simEvents.plotSimulation();
 			} 
 		}
 		else {
@@ -163,9 +186,7 @@ public class FlightControlActuator implements ControlParameterActuator {
 		double desiredValue = (value <= 0) ? (controlType.getMaximum()*Math.abs(value)) : (controlType.getMinimum()*value);   
 						
 		// Scale the rate as desired and transient values near each other
-		double rateScale = 0.125;
-		
-		transientValue += (desiredValue - transientValue) * rateScale;
+		transientValue += (desiredValue - transientValue) * transientLag;
 			
 		controlsState.setTransientValue(controlType, transientValue);
 		
@@ -193,16 +214,25 @@ public class FlightControlActuator implements ControlParameterActuator {
 	
 	/**
 	 * Standardizes rate of control deflection of keyboard and joystick button inputs regardless of the 
-	 * simulation update rate based on the {@link FlightControl} argument provided
+	 * controls update rate based on the {@link FlightControl} argument provided
 	 * 
 	 * @param type
+	 * @return change in control value over one step
 	 */
 	private double getRate(FlightControl type) {
+		return getTunedRate(type) * dt / TUNED_DT;
+	}
+	
+	/**
+	 * @param type
+	 * @return change in control value over one step at TUNED_DT
+	 */
+	private double getTunedRate(FlightControl type) {
 		switch (type) {
 		case AILERON:
 		case ELEVATOR:
 		case RUDDER:
-			return 0.00012 / dt;
+			return 0.00012 / TUNED_DT;
 		case THROTTLE_1:
 		case THROTTLE_2:
 		case THROTTLE_3:
@@ -215,11 +245,11 @@ public class FlightControlActuator implements ControlParameterActuator {
 		case MIXTURE_2:
 		case MIXTURE_3:
 		case MIXTURE_4:
-			return 0.0005 / dt;
+			return 0.0005 / TUNED_DT;
 		case FLAPS:
-			return 0.00015 / dt;
+			return 0.00015 / TUNED_DT;
 		case GEAR:
-			return 0.000015 / dt;
+			return 0.000015 / TUNED_DT;
 		default:
 			return 0;
 		}
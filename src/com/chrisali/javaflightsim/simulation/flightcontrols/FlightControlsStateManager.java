@@ -19,6 +19,7 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.simulation.flightcontrols;
 
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -27,6 +28,7 @@ import org.apache.logging.log4j.Logger;
 
 import com.chrisali.javaflightsim.interfaces.SimulationController;
 import com.chrisali.javaflightsim.interfaces.Steppable;
+import com.chrisali.javaflightsim.simulation.SimulationContext;
 import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControlInput;
 import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
 import com.chrisali.javaflightsim.simulation.inputdevices.AbstractDevice;
@@ -36,14 +38,20 @@ import com.chrisali.javaflightsim.simulation.inputdevices.Keyboard;
 import com.chrisali.javaflightsim.simulation.inputdevices.KeyboardVisitor;
 import com.chrisali.javaflightsim.simulation.inputdevices.Mouse;
 import com.chrisali.javaflightsim.simulation.inputdevices.MouseVisitor;
+import com.chrisali.javaflightsim.simulation.inputdevices.NetworkControlDevice;
+import com.chrisali.javaflightsim.simulation.recording.InputRecorder;
+import com.chrisali.javaflightsim.simulation.recording.InputReplay;
 import com.chrisali.javaflightsim.simulation.setup.ControlsConfiguration;
+import com.chrisali.javaflightsim.simulation.setup.ControlsConfiguration.NetworkControls;
 import com.chrisali.javaflightsim.simulation.setup.Options;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
 import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
 
 /**
  * Handles flight controls actuated by human interface devices. Also contains 
- * {@link AnalysisControlInput} functionality when simulation in Analysis Mode
+ * {@link AnalysisControlInput} functionality when simulation in Analysis Mode, and replays control inputs from an 
+ * {@link InputReplay} when regenerating a recorded flight. Every input passes through a single {@link ControlParameterActuator},
+ * so that it can be captured by an {@link InputRecorder}
  * 
  * @author Christopher Ali
  *
@@ -51,6 +59,11 @@ import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
 public class FlightControlsStateManager implements Steppable {
 
 	private static final Logger logger = LogManager.getLogger(FlightControlsStateManager.class);
+	
+	/**
+	 * Rate (Hz) flight controls are updated at, no faster than the simulation 
+	 */
+	public static final double STEP_RATE_HZ = 60.0;
 
 	private FlightControlsState controlsState;
 	
@@ -61,22 +74,26 @@ public class FlightControlsStateManager implements Steppable {
 	private AbstractDevice hidController;
 	private Keyboard hidKeyboard;
 	private AnalysisControls analysisControls;
+	private NetworkControlDevice networkControls;
 
 	private ControlParameterActuator actuator;
 	
+	// Inputs from devices, analysis controls and replays go through here so that they can be recorded
+	private ControlParameterActuator inputActuator = this::actuate;
+	private InputRecorder inputRecorder;
+	private InputReplay inputReplay;
+	
 	private JoystickVisitor joystickVisitor;
     private KeyboardVisitor keyboardVisitor;
     private MouseVisitor mouseVisitor;
 	
-	public FlightControlsStateManager(SimulationController simController, AtomicInteger simTimeMS) {
+	public FlightControlsStateManager(SimulationContext context, AtomicInteger simTimeMS) {
 		logger.debug("Initializing flight controls...");
 		
-		SimEvents.init(simController);
-
-		SimulationConfiguration simConfig = simController.getConfiguration();
+		SimulationConfiguration simConfig = context.getConfiguration();
 		options = simConfig.getSimulationOptions();
 		controlsState = new FlightControlsState(simConfig);
-		actuator = new FlightControlActuator(simConfig, controlsState);
+		actuator = new FlightControlActuator(simConfig, controlsState, context.getSimEvents(), STEP_RATE_HZ);
 
 		this.simTimeMS = simTimeMS;
 		
@@ -93,50 +110,161 @@ public class FlightControlsStateManager implements Steppable {
 			if (options.contains(Options.USE_JOYSTICK)) {
 				logger.debug("Joystick controller selected");
 				hidController = new Joystick();
-				joystickVisitor = new JoystickVisitor(controlsConfig.getJoystickAssignments(), actuator);
+				joystickVisitor = new JoystickVisitor(controlsConfig.getJoystickAssignments(), inputActuator);
 			}
 			else if (options.contains(Options.USE_MOUSE)){
 				logger.debug("Mouse controller selected");
 				hidController = new Mouse();
-				mouseVisitor = new MouseVisitor(controlsState, actuator);
+				mouseVisitor = new MouseVisitor(controlsState, inputActuator);
 			}
 			
 			hidKeyboard = new Keyboard();
-			keyboardVisitor = new KeyboardVisitor(controlsConfig.getKeyboardAssignments(), actuator);
+			keyboardVisitor = new KeyboardVisitor(controlsConfig.getKeyboardAssignments(), inputActuator);
+			
+			initializeNetworkControls(controlsConfig.getNetworkControls());
+		}
+	}
+	
+	/**
+	 * Constructor for running in Analysis Mode without a {@link SimulationController}; controls are only 
+	 * actuated by analysisControls, so no human interface devices or configuration are initialized 
+	 * 
+	 * @param context
+	 * @param analysisControls
+	 * @param simTimeMS
+	 */
+	public FlightControlsStateManager(SimulationContext context, AnalysisControls analysisControls, AtomicInteger simTimeMS) {
+		logger.debug("Initializing flight controls for analysis...");
+		
+		SimulationConfiguration simConfig = context.getConfiguration();
+		options = simConfig.getSimulationOptions();
+		controlsState = new FlightControlsState(simConfig);
+		actuator = new FlightControlActuator(simConfig, controlsState, context.getSimEvents(), STEP_RATE_HZ);
+
+		this.simTimeMS = simTimeMS;
+		this.analysisControls = analysisControls;
+		
+		if (analysisControls != null) {
+			logger.debug(analysisControls.getAnalysisInputs().size() + " analysis flight control inputs found:");
+			logger.debug(analysisControls.toString());
 		}
 	}
 	
+	/**
+	 * Constructor for regenerating a recorded flight without a {@link SimulationController}; controls are only actuated by 
+	 * the inputs in inputReplay, in the same order and at the same simulation times as they were recorded  
+	 * 
+	 * @param context
+	 * @param inputReplay
+	 * @param simTimeMS
+	 */
+	public FlightControlsStateManager(SimulationContext context, InputReplay inputReplay, AtomicInteger simTimeMS) {
+		logger.debug("Initializing flight controls for replay...");
+		
+		SimulationConfiguration simConfig = context.getConfiguration();
+		options = simConfig.getSimulationOptions();
+		controlsState = new FlightControlsState(simConfig);
+		actuator = new FlightControlActuator(simConfig, controlsState, context.getSimEvents(), STEP_RATE_HZ);
+
+		this.simTimeMS = simTimeMS;
+		this.inputReplay = inputReplay;
+	}
+	
 	@Override
 	public void step() {
+		if (inputRecorder != null)
+			inputRecorder.beginFrame(simTimeMS.get());
+		
 		try {
-			// if not running in analysis mode, controls and options are updated with pilot input
-			// otherwise, controls updated using generated doublets
-			if (!options.contains(Options.ANALYSIS_MODE)) {
+			// if replaying a recorded flight, controls are updated with the recorded inputs; if not running in analysis mode, 
+			// controls and options are updated with pilot input; otherwise, controls updated using generated doublets
+			if (inputReplay != null) {
+				inputReplay.replayControls(simTimeMS.get(), inputActuator);
+			} else if (!options.contains(Options.ANALYSIS_MODE)) {
 				if (hidController != null) 
 					hidController.collectControlDeviceValues(joystickVisitor != null ? joystickVisitor : mouseVisitor);
 		
 				if (hidKeyboard != null)
 					hidKeyboard.collectControlDeviceValues(keyboardVisitor);
-			} else {
-				analysisControls.updateFlightControls(simTimeMS, actuator);
+				
+				if (networkControls != null)
+					networkControls.applyLatestFrame(inputActuator);
+			} else if (analysisControls != null) {
+				analysisControls.updateFlightControls(simTimeMS, inputActuator);
 			}
 			
 			limitControls(controlsState);
 		} catch (Exception e) {
 			logger.error("Flight controls encountered an error!", e);
 		}
+		
+		if (inputRecorder != null)
+			inputRecorder.endFrame();
 	}
 	
-	@Override
-	public boolean canStepNow(int timeMS) {
-		return timeMS % 1 == 0;
+	/**
+	 * Starts receiving control frames from external software if enabled in the controls configuration
+	 * 
+	 * @param config
+	 */
+	private void initializeNetworkControls(NetworkControls config) {
+		if (config == null || !config.isEnabled())
+			return;
+		
+		try {
+			networkControls = new NetworkControlDevice(config.getPort(), config.getStaleTimeoutMS());
+			logger.debug("Network controls selected on port " + config.getPort());
+		} catch (IOException e) {
+			logger.error("Could not receive network controls on port " + config.getPort() + "!", e);
+		}
+	}
+	
+	/**
+	 * Stops receiving network controls, if any; to be called once the simulation has stopped 
+	 */
+	public void close() {
+		if (networkControls != null) {
+			logger.info("Network controls: " + networkControls);
+			networkControls.close();
+			networkControls = null;
+		}
 	}
+	
+	/**
+	 * Passes an input on to the actuator, recording it first if an {@link InputRecorder} is set
+	 * 
+	 * @param parameter
+	 * @param value
+	 */
+	private void actuate(ControlParameter parameter, float value) {
+		if (inputRecorder != null)
+			inputRecorder.handleParameterChange(parameter, value);
+		
+		actuator.handleParameterChange(parameter, value);
+	}
+	
+	@Override
+	public double getStepRateHz() { return STEP_RATE_HZ; }
 		
 	public void setSimTimeMS(AtomicInteger simTimeMS) { this.simTimeMS = simTimeMS;	}
 
 	public AtomicInteger getSimTimeMS() { return simTimeMS;	}
 	
 	public FlightControlsState getControlsState() { return controlsState; }
+	
+	public AnalysisControls getAnalysisControls() { return analysisControls; }
+	
+	/**
+	 * @return device receiving controls from external software, or null if network controls are not enabled
+	 */
+	public NetworkControlDevice getNetworkControls() { return networkControls; }
+	
+	/**
+	 * Sets an {@link InputRecorder} to capture every input actuated from now on
+	 * 
+	 * @param inputRecorder recorder to capture inputs with, or null to stop recording
+	 */
+	public void setInputRecorder(InputRecorder inputRecorder) { this.inputRecorder = inputRecorder; }
 
 	/**
 	 *  Limit control inputs to sensible deflection values based on the minimum and maximum values defined for 
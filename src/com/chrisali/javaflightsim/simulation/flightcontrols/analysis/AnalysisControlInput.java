@@ -23,6 +23,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameterActuator;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonSubTypes.Type;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -70,6 +71,12 @@ public abstract class AnalysisControlInput implements Comparable<AnalysisControl
 	}
 
 	public abstract void generate(AtomicInteger timeMS, ControlParameterActuator actuator);
+	
+	/**
+	 * @return times in milliseconds at which this input abruptly changes the control deflection
+	 */
+	@JsonIgnore
+	public abstract int[] getDiscontinuityTimesMS();
 
 	public FlightControl getControlType() { return controlType;	}
 
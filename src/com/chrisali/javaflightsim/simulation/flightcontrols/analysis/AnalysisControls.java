@@ -19,9 +19,12 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.simulation.flightcontrols.analysis;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -65,6 +68,26 @@ public class AnalysisControls implements Saveable {
 		}
 	}
 	
+	/**
+	 * Gathers the times at which any {@link AnalysisControlInput} abruptly changes a control deflection, so that 
+	 * an integrator can end its steps on them rather than step across them
+	 * 
+	 * @return sorted times in seconds
+	 */
+	@JsonIgnore
+	public double[] getDiscontinuityTimes() {
+		List<Double> times = new ArrayList<>();
+		
+		for (AnalysisControlInput input : analysisInputs) {
+			for (int timeMS : input.getDiscontinuityTimesMS())
+				times.add(timeMS / 1000.0);
+		}
+		
+		Collections.sort(times);
+		
+		return ArrayUtils.toPrimitive(times.toArray(new Double[times.size()]));
+	}
+	
 	@Override
 	public void save() {
 		FileUtilities.serializeJson(SimDirectories.SIM_CONFIG.toString(), this.getClass().getSimpleName(), this);
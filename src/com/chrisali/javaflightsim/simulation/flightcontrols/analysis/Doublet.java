@@ -66,5 +66,10 @@ public class Doublet extends AnalysisControlInput {
 			actuator.handleParameterChange(controlType, (float)(-amplitude/controlType.getMaximum()));
 		else 
 			actuator.handleParameterChange(controlType, 0.0f);
-	}	
+	}
+	
+	@Override
+	public int[] getDiscontinuityTimesMS() {
+		return new int[] {startTimeMS, startTimeMS + durationMS, startTimeMS + (2 * durationMS)};
+	}
 }
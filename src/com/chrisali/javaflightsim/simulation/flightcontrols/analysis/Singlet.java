@@ -59,5 +59,10 @@ public class Singlet extends AnalysisControlInput {
 			actuator.handleParameterChange(controlType, (float)(amplitude/controlType.getMaximum()));
 		else 
 			actuator.handleParameterChange(controlType, 0.0f);
-	}	
+	}
+	
+	@Override
+	public int[] getDiscontinuityTimesMS() {
+		return new int[] {startTimeMS, startTimeMS + durationMS};
+	}
 }
\ No newline at end of file
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.inputdevices;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.datatransfer.TripleBuffer;
+import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameterActuator;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsStateManager;
+import com.chrisali.javaflightsim.simulation.metrics.LatencyHistogram;
+import com.chrisali.javaflightsim.simulation.setup.KeyCommand;
+
+/**
+ * Input device for external software, such as autopilots or motion platform consoles, that sends {@link NetworkControlFrame}s over UDP. 
+ * Frames are received by a thread waiting on a {@link Selector}, which passes the latest frame to the simulation through a 
+ * {@link TripleBuffer}; {@link FlightControlsStateManager} then applies it with {@link #applyLatestFrame(ControlParameterActuator)} at 
+ * each step of the flight controls, without waiting on any I/O
+ * <p>The time from receipt of each frame to its application is recorded in a {@link LatencyHistogram}. If no frame is received 
+ * for longer than the stale timeout the input is considered stale: held buttons are released and the axes are no longer commanded, 
+ * leaving the controls where the last frame set them, until frames are received again</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class NetworkControlDevice implements AutoCloseable {
+	
+	private static final Logger logger = LogManager.getLogger(NetworkControlDevice.class);
+	
+	// values() returns a new array on each call 
+	private static final FlightControl[] FLIGHT_CONTROLS = FlightControl.values();
+	private static final KeyCommand[] KEY_COMMANDS = KeyCommand.values();
+	
+	private final DatagramChannel channel;
+	private final Selector selector;
+	private final Thread receiverThread;
+	
+	// Used only by the receiver thread
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(NetworkControlFrame.BYTES * 2);
+	private final NetworkControlFrame receivedFrame = new NetworkControlFrame();
+	private final TripleBuffer<NetworkControlFrame> frames = new TripleBuffer<>(NetworkControlFrame::new);
+	private long lastSequence = 0;
+	
+	private volatile long receivedFrames = 0;
+	private volatile long publishedFrames = 0;
+	private volatile long outOfOrderFrames = 0;
+	private volatile long invalidFrames = 0;
+	
+	// Used only by the simulation thread
+	private final long staleTimeoutNanos;
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private NetworkControlFrame latestFrame;
+	private long heldButtons = 0;
+	
+	private volatile boolean stale = false;
+	private volatile long appliedFrames = 0;
+	private volatile long staleEvents = 0;
+	
+	/**
+	 * Binds a channel to receive control frames on port of all local addresses, and starts a thread to receive them
+	 * 
+	 * @param port port to listen on, or 0 for any free port
+	 * @param staleTimeoutMS time (ms) without a frame after which the input is considered stale
+	 * @throws IOException if the port cannot be bound
+	 */
+	public NetworkControlDevice(int port, long staleTimeoutMS) throws IOException {
+		staleTimeoutNanos = staleTimeoutMS * 1_000_000;
+		
+		channel = DatagramChannel.open();
+		channel.bind(new InetSocketAddress(port));
+		channel.configureBlocking(false);
+		
+		selector = Selector.open();
+		channel.register(selector, SelectionKey.OP_READ);
+		
+		receiverThread = new Thread(this::receiveFrames, "Network Controls");
+		receiverThread.setDaemon(true);
+		receiverThread.start();
+		
+		logger.debug("Receiving network controls on " + getLocalAddress());
+	}
+	
+	/**
+	 * Waits for frames to arrive and publishes the latest to the simulation, until closed
+	 */
+	private void receiveFrames() {
+		try {
+			while (channel.isOpen()) {
+				selector.select();
+				selector.selectedKeys().clear();
+				
+				// Read everything that arrived; only the latest frame needs to be published
+				int accepted = 0;
+				
+				while (true) {
+					buffer.clear();
+					if (channel.receive(buffer) == null)
+						break;
+					
+					buffer.flip();
+					if (onFrameReceived())
+						accepted++;
+				}
+				
+				if (accepted > 0) {
+					frames.publish();
+					publishedFrames += accepted;
+				}
+			}
+		} catch (ClosedChannelException | ClosedSelectorException e) {
+			logger.debug("Network controls closed");
+		} catch (IOException e) {
+			logger.error("Error receiving network controls!", e);
+		}
+	}
+	
+	/**
+	 * Decodes the frame in buffer, copying it into the write buffer of frames if it is newer than the last one received
+	 * 
+	 * @return if the write buffer was updated
+	 */
+	private boolean onFrameReceived() {
+		long receivedNanos = System.nanoTime();
+		
+		if (!receivedFrame.decode(buffer)) {
+			invalidFrames++;
+			return false;
+		}
+		
+		receivedFrames++;
+		
+		// A sequence of 1 is a new run of the sender, so starts counting again
+		long sequence = receivedFrame.getSequence();
+		if (sequence != 1 && sequence <= lastSequence) {
+			outOfOrderFrames++;
+			return false;
+		}
+		
+		lastSequence = sequence;
+		receivedFrame.setReceivedNanos(receivedNanos);
+		frames.getWriteBuffer().copy(receivedFrame);
+		
+		return true;
+	}
+	
+	/**
+	 * Applies the latest frame received to actuator, if it is not stale. To be called by the simulation thread at each step of the 
+	 * flight controls; never waits on I/O
+	 * 
+	 * @param actuator
+	 */
+	public void applyLatestFrame(ControlParameterActuator actuator) {
+		long nowNanos = System.nanoTime();
+		
+		if (frames.update()) {
+			latestFrame = frames.getReadBuffer();
+			latency.record(nowNanos - latestFrame.getReceivedNanos());
+			appliedFrames++;
+			
+			if (stale) {
+				stale = false;
+				logger.info("Network controls resumed after " + String.format("%.0f", (nowNanos - latestFrame.getReceivedNanos()) * 1e-6) 
+							+ " ms");
+			}
+		} else if (latestFrame == null) {
+			return;
+		} else if (!stale && nowNanos - latestFrame.getReceivedNanos() > staleTimeoutNanos) {
+			stale = true;
+			staleEvents++;
+			logger.warn("No network controls received for " + (staleTimeoutNanos / 1_000_000) + " ms; releasing network controls");
+			
+			releaseButtons(actuator, 0);
+		}
+		
+		if (stale)
+			return;
+		
+		long axisMask = latestFrame.getAxisMask();
+		for (FlightControl control : FLIGHT_CONTROLS) {
+			if ((axisMask & (1L << control.ordinal())) != 0)
+				actuator.handleParameterChange(control, latestFrame.getAxis(control));
+		}
+		
+		// Held buttons are pressed at each step, as a key held down on the keyboard is
+		long buttonMask = latestFrame.getButtonMask();
+		releaseButtons(actuator, buttonMask);
+		
+		for (KeyCommand command : KEY_COMMANDS) {
+			if ((buttonMask & (1L << command.ordinal())) != 0)
+				actuator.handleParameterChange(command, 1.0f);
+		}
+		
+		heldButtons = buttonMask;
+	}
+	
+	/**
+	 * Releases buttons held until now that are not in buttonMask, so that commands acting on release (such as cycling the landing gear) 
+	 * see it once
+	 * 
+	 * @param actuator
+	 * @param buttonMask buttons that remain held
+	 */
+	private void releaseButtons(ControlParameterActuator actuator, long buttonMask) {
+		long released = heldButtons & ~buttonMask;
+		
+		for (KeyCommand command : KEY_COMMANDS) {
+			if ((released & (1L << command.ordinal())) != 0)
+				actuator.handleParameterChange(command, 0.0f);
+		}
+		
+		heldButtons &= buttonMask;
+	}
+	
+	/**
+	 * Stops receiving frames and closes the channel
+	 */
+	@Override
+	public void close() {
+		try {
+			selector.close();
+			channel.close();
+			receiverThread.join(1000);
+		} catch (IOException e) {
+			logger.error("Error closing network controls!", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * @return local address frames are received on
+	 * @throws IOException
+	 */
+	public InetSocketAddress getLocalAddress() throws IOException { return (InetSocketAddress) channel.getLocalAddress(); }
+	
+	public long getReceivedFrames() { return receivedFrames; }
+	
+	/**
+	 * @return number of frames received in sequence whose values have been published to the simulation, counted once published 
+	 * so that the latest of them is available to {@link #applyLatestFrame(ControlParameterActuator)}
+	 */
+	public long getPublishedFrames() { return publishedFrames; }
+
+	/**
+	 * @return frames applied to the controls; frames received between two steps of the controls are skipped for the latest one
+	 */
+	public long getAppliedFrames() { return appliedFrames; }
+
+	public long getOutOfOrderFrames() { return outOfOrderFrames; }
+
+	public long getInvalidFrames() { return invalidFrames; }
+	
+	/**
+	 * @return if no frame has been received within the stale timeout
+	 */
+	public boolean isStale() { return stale; }
+	
+	/**
+	 * @return number of times the input became stale
+	 */
+	public long getStaleEvents() { return staleEvents; }
+	
+	/**
+	 * @return time from receipt to application of each frame applied; read only from the simulation thread, or once it has stopped
+	 */
+	public LatencyHistogram getLatency() { return latency; }
+	
+	@Override
+	public String toString() {
+		return String.format("%d received, %d applied, %d out of order, %d invalid, %d stale events; latency %s", receivedFrames, 
+							 appliedFrames, outOfOrderFrames, invalidFrames, staleEvents, latency);
+	}
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.inputdevices;
+
+import java.nio.ByteBuffer;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.setup.KeyCommand;
+
+/**
+ * Fixed layout of the UDP control frames received by {@link NetworkControlDevice}, and a reusable frame that can be encoded by a 
+ * sender or decoded by the device. All fields are big-endian (network order):
+ * 
+ * <pre>
+ *  0  int    magic, "JFSC"
+ *  4  short  layout version
+ *  6  short  number of axis values, n
+ *  8  long   frame sequence number, counting from 1 for each run of the sender
+ * 16  long   send time, milliseconds since the epoch
+ * 24  long   axis mask; bit i set if the {@link FlightControl} of ordinal i is commanded by this frame
+ * 32  long   button mask; bit i set if the {@link KeyCommand} of ordinal i is held down
+ * 40  float[n] axis values, in FlightControl order, scaled from -1 to 1 as a joystick axis would be
+ * </pre>
+ * 
+ * Axes not set in the axis mask are left to other input devices
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class NetworkControlFrame {
+	
+	public static final int MAGIC = 0x4A465343;
+	public static final short VERSION = 1;
+	
+	public static final int HEADER_BYTES = 40;
+	
+	// values() returns a new array on each call 
+	private static final FlightControl[] FLIGHT_CONTROLS = FlightControl.values();
+	
+	/**
+	 * Size (bytes) of a frame
+	 */
+	public static final int BYTES = HEADER_BYTES + Float.BYTES * FLIGHT_CONTROLS.length;
+	
+	private long sequence;
+	private long sendTimeMillis;
+	private long axisMask;
+	private long buttonMask;
+	private final float[] axes = new float[FLIGHT_CONTROLS.length];
+	
+	// Time (System.nanoTime()) the frame was received, set by the receiver 
+	private long receivedNanos;
+	
+	/**
+	 * Clears buffer and encodes this frame into it with the current time, leaving it ready to be sent
+	 * 
+	 * @param buffer big-endian buffer of at least {@link #BYTES} bytes
+	 * @param sequence frame sequence number
+	 */
+	public void encode(ByteBuffer buffer, long sequence) {
+		this.sequence = sequence;
+		sendTimeMillis = System.currentTimeMillis();
+		
+		buffer.clear();
+		
+		buffer.putInt(MAGIC)
+			  .putShort(VERSION)
+			  .putShort((short) axes.length)
+			  .putLong(sequence)
+			  .putLong(sendTimeMillis)
+			  .putLong(axisMask)
+			  .putLong(buttonMask);
+		
+		for (float axis : axes)
+			buffer.putFloat(axis);
+		
+		buffer.flip();
+	}
+	
+	/**
+	 * Decodes a frame from buffer into this object. Axes beyond those known to this build are skipped
+	 * 
+	 * @param buffer big-endian buffer positioned at the start of a frame 
+	 * @return false if buffer does not hold a control frame of a known version
+	 */
+	public boolean decode(ByteBuffer buffer) {
+		if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != VERSION)
+			return false;
+		
+		int axisCount  = buffer.getShort();
+		sequence       = buffer.getLong();
+		sendTimeMillis = buffer.getLong();
+		axisMask       = buffer.getLong();
+		buttonMask     = buffer.getLong();
+		
+		if (axisCount < 0 || buffer.remaining() < Float.BYTES * axisCount)
+			return false;
+		
+		for (int i = 0; i < axisCount; i++) {
+			float axis = buffer.getFloat();
+			if (i < axes.length)
+				axes[i] = axis;
+		}
+		
+		// Axes this build knows of that the sender does not can't be commanded 
+		if (axisCount < Long.SIZE)
+			axisMask &= (1L << axisCount) - 1;
+		
+		return true;
+	}
+	
+	/**
+	 * Copies all fields of another frame into this frame
+	 * 
+	 * @param frame
+	 */
+	public void copy(NetworkControlFrame frame) {
+		sequence = frame.sequence;
+		sendTimeMillis = frame.sendTimeMillis;
+		axisMask = frame.axisMask;
+		buttonMask = frame.buttonMask;
+		receivedNanos = frame.receivedNanos;
+		System.arraycopy(frame.axes, 0, axes, 0, axes.length);
+	}
+	
+	/**
+	 * Commands an axis with this frame
+	 * 
+	 * @param control
+	 * @param value from -1 to 1, as a joystick axis would be
+	 */
+	public void setAxis(FlightControl control, float value) {
+		axes[control.ordinal()] = value;
+		axisMask |= 1L << control.ordinal();
+	}
+	
+	/**
+	 * Stops commanding an axis with this frame, leaving it to other input devices
+	 * 
+	 * @param control
+	 */
+	public void clearAxis(FlightControl control) {
+		axes[control.ordinal()] = 0;
+		axisMask &= ~(1L << control.ordinal());
+	}
+	
+	/**
+	 * @param control
+	 * @return if this frame commands control
+	 */
+	public boolean hasAxis(FlightControl control) { return (axisMask & (1L << control.ordinal())) != 0; }
+	
+	public float getAxis(FlightControl control) { return axes[control.ordinal()]; }
+	
+	public void setButton(KeyCommand command, boolean pressed) {
+		if (pressed)
+			buttonMask |= 1L << command.ordinal();
+		else
+			buttonMask &= ~(1L << command.ordinal());
+	}
+	
+	public boolean isButtonPressed(KeyCommand command) { return (buttonMask & (1L << command.ordinal())) != 0; }
+	
+	public long getAxisMask() { return axisMask; }
+	
+	public long getButtonMask() { return buttonMask; }
+	
+	public long getSequence() { return sequence; }
+
+	public long getSendTimeMillis() { return sendTimeMillis; }
+	
+	/**
+	 * @return time ({@link System#nanoTime()}) the frame was received
+	 */
+	public long getReceivedNanos() { return receivedNanos; }
+
+	public void setReceivedNanos(long receivedNanos) { this.receivedNanos = receivedNanos; }
+}
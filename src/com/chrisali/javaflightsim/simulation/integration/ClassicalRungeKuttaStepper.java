@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.integration;
+
+import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math3.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+
+/**
+ * Single step classical 4th order Runge Kutta integrator. Uses the same Butcher tableau and order of 
+ * summation as {@link ClassicalRungeKuttaIntegrator#singleStep(FirstOrderDifferentialEquations, double, double[], double)}, 
+ * but keeps its stage derivatives in buffers allocated once at construction and writes its result into an array 
+ * supplied by the caller, so that no objects are created each time a step is run
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class ClassicalRungeKuttaStepper {
+	
+	private static final double[]   C = {1.0/2.0, 1.0/2.0, 1.0};
+	private static final double[][] A = {{1.0/2.0}, {0.0, 1.0/2.0}, {0.0, 0.0, 1.0}};
+	private static final double[]   B = {1.0/6.0, 1.0/3.0, 1.0/3.0, 1.0/6.0};
+	
+	private final double[][] yDotK;
+	private final double[]   yTmp;
+	
+	/**
+	 * Creates a stepper for a system of first order differential equations of the specified dimension
+	 * 
+	 * @param dimension
+	 */
+	public ClassicalRungeKuttaStepper(int dimension) {
+		yDotK = new double[B.length][dimension];
+		yTmp  = new double[dimension];
+	}
+	
+	/**
+	 * Runs a single step of integration from t0 to t
+	 * 
+	 * @param equations differential equations to integrate
+	 * @param t0 start time
+	 * @param y0 state at t0; not modified
+	 * @param t end time
+	 * @param y array the state at t is written into; may be the same array as y0
+	 * @return y
+	 */
+	public double[] singleStep(FirstOrderDifferentialEquations equations, double t0, double[] y0, double t, double[] y) {
+		final double h = t - t0;
+		final int stages = B.length;
+		
+		// First stage
+		equations.computeDerivatives(t0, y0, yDotK[0]);
+		
+		// Next stages
+		for (int k = 1; k < stages; ++k) {
+			for (int j = 0; j < y0.length; ++j) {
+				double sum = A[k - 1][0] * yDotK[0][j];
+				for (int l = 1; l < k; ++l)
+					sum += A[k - 1][l] * yDotK[l][j];
+				
+				yTmp[j] = y0[j] + h * sum;
+			}
+			
+			equations.computeDerivatives(t0 + C[k - 1] * h, yTmp, yDotK[k]);
+		}
+		
+		// Estimate the state at the end of the step
+		for (int j = 0; j < y0.length; ++j) {
+			double sum = B[0] * yDotK[0][j];
+			for (int l = 1; l < stages; ++l)
+				sum += B[l] * yDotK[l][j];
+			
+			y[j] = y0[j] + h * sum;
+		}
+		
+		return y;
+	}
+}
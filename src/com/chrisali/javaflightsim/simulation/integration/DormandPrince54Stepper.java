@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.integration;
+
+import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math3.ode.nonstiff.DormandPrince54Integrator;
+
+/**
+ * Single step, error controlled Dormand-Prince 5(4) integrator. Uses the same Butcher tableau as 
+ * {@link DormandPrince54Integrator}, but is driven one accepted step at a time so that the caller can decide 
+ * when to step ahead, when to restart (e.g. after a control input discontinuity) and when to sample the 
+ * solution with {@link DormandPrince54Stepper#interpolate(double, double[])} using the method's continuous 
+ * extension. Every buffer is allocated at construction so that no objects are created while stepping
+ * 
+ * @see Source: <i>Solving Ordinary Differential Equations I by Hairer, E., Norsett, S.P. and Wanner, G.</i>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class DormandPrince54Stepper {
+	
+	// Butcher tableau
+	private static final double C2 = 1.0/5.0, C3 = 3.0/10.0, C4 = 4.0/5.0, C5 = 8.0/9.0;
+	
+	private static final double A21 = 1.0/5.0;
+	private static final double A31 = 3.0/40.0,       A32 = 9.0/40.0;
+	private static final double A41 = 44.0/45.0,      A42 = -56.0/15.0,      A43 = 32.0/9.0;
+	private static final double A51 = 19372.0/6561.0, A52 = -25360.0/2187.0, A53 = 64448.0/6561.0, A54 = -212.0/729.0;
+	private static final double A61 = 9017.0/3168.0,  A62 = -355.0/33.0,     A63 = 46732.0/5247.0, A64 = 49.0/176.0, A65 = -5103.0/18656.0;
+	private static final double A71 = 35.0/384.0,     A73 = 500.0/1113.0,    A74 = 125.0/192.0,    A75 = -2187.0/6784.0, A76 = 11.0/84.0;
+	
+	// Difference between 5th and 4th order weights, used to estimate error
+	private static final double E1 = 71.0/57600.0, E3 = -71.0/16695.0, E4 = 71.0/1920.0, E5 = -17253.0/339200.0, E6 = 22.0/525.0, E7 = -1.0/40.0;
+	
+	// Continuous extension
+	private static final double D1 = -12715105075.0/11282082432.0, D3 = 87487479700.0/32700410799.0, D4 = -10690763975.0/1880347072.0,
+								D5 = 701980252875.0/199316789632.0, D6 = -1453857185.0/822651844.0, D7 = 69997945.0/29380423.0;
+	
+	// Step size control
+	private static final double SAFETY     = 0.9;
+	private static final double MIN_FACTOR = 0.2;
+	private static final double MAX_FACTOR = 10.0;
+	
+	private final double minStep;
+	private final double maxStep;
+	private final double absTolerance;
+	private final double relTolerance;
+	
+	// Stage derivatives and temporary state
+	private final double[] k1, k2, k3, k4, k5, k6, k7;
+	private final double[] yTmp;
+	
+	// Last accepted step, kept for interpolation
+	private final double[] yStart;
+	private final double[] yEnd;
+	private double tStart;
+	private double stepSize;
+	
+	private double nextStepSize = 0;
+	private boolean firstStageValid = false;
+	
+	private int evaluations = 0;
+	private int rejectedSteps = 0;
+	
+	/**
+	 * Creates a stepper for a system of first order differential equations of the specified dimension
+	 * 
+	 * @param dimension
+	 * @param minStep minimum step size; steps are accepted at this size even if the error is above tolerance
+	 * @param maxStep maximum step size
+	 * @param absTolerance allowed absolute error
+	 * @param relTolerance allowed relative error
+	 */
+	public DormandPrince54Stepper(int dimension, double minStep, double maxStep, double absTolerance, double relTolerance) {
+		this.minStep = minStep;
+		this.maxStep = maxStep;
+		this.absTolerance = absTolerance;
+		this.relTolerance = relTolerance;
+		
+		k1 = new double[dimension];
+		k2 = new double[dimension];
+		k3 = new double[dimension];
+		k4 = new double[dimension];
+		k5 = new double[dimension];
+		k6 = new double[dimension];
+		k7 = new double[dimension];
+		
+		yTmp   = new double[dimension];
+		yStart = new double[dimension];
+		yEnd   = new double[dimension];
+	}
+	
+	/**
+	 * Discards the derivative saved from the end of the last step. Must be called when the next step does not 
+	 * start where the previous one ended, or when the equations themselves change (e.g. new control inputs)
+	 */
+	public void restart() { firstStageValid = false; }
+	
+	/**
+	 * Takes a single error controlled step starting at t0, retrying with smaller step sizes until the error is within 
+	 * tolerance. The step never goes past tMax, so that discontinuities can be honored as step boundaries 
+	 * 
+	 * @param equations differential equations to integrate
+	 * @param t0 start time
+	 * @param y0 state at t0
+	 * @param tMax latest time the step may end at
+	 * @param y array the state at the end of the step is written into; may be the same array as y0
+	 * @return time at the end of the accepted step
+	 */
+	public double step(FirstOrderDifferentialEquations equations, double t0, double[] y0, double tMax, double[] y) {
+		final int n = y0.length;
+		
+		System.arraycopy(y0, 0, yStart, 0, n);
+		
+		// Derivative at the start of the step; reuse the last stage of the previous step if possible (first same as last)
+		if (firstStageValid) {
+			System.arraycopy(k7, 0, k1, 0, n);
+		} else {
+			computeDerivatives(equations, t0, yStart, k1);
+			if (nextStepSize <= 0)
+				nextStepSize = initialStepSize(t0, tMax);
+		}
+		
+		double h = Math.min(nextStepSize, maxStep);
+		
+		while (true) {
+			boolean lastStep = false;
+			if (t0 + h >= tMax || tMax - (t0 + h) < minStep) {
+				h = tMax - t0;
+				lastStep = true;
+			}
+			
+			for (int i = 0; i < n; i++)
+				yTmp[i] = yStart[i] + h*A21*k1[i];
+			computeDerivatives(equations, t0 + C2*h, yTmp, k2);
+			
+			for (int i = 0; i < n; i++)
+				yTmp[i] = yStart[i] + h*(A31*k1[i] + A32*k2[i]);
+			computeDerivatives(equations, t0 + C3*h, yTmp, k3);
+			
+			for (int i = 0; i < n; i++)
+				yTmp[i] = yStart[i] + h*(A41*k1[i] + A42*k2[i] + A43*k3[i]);
+			computeDerivatives(equations, t0 + C4*h, yTmp, k4);
+			
+			for (int i = 0; i < n; i++)
+				yTmp[i] = yStart[i] + h*(A51*k1[i] + A52*k2[i] + A53*k3[i] + A54*k4[i]);
+			computeDerivatives(equations, t0 + C5*h, yTmp, k5);
+			
+			for (int i = 0; i < n; i++)
+				yTmp[i] = yStart[i] + h*(A61*k1[i] + A62*k2[i] + A63*k3[i] + A64*k4[i] + A65*k5[i]);
+			computeDerivatives(equations, t0 + h, yTmp, k6);
+			
+			for (int i = 0; i < n; i++)
+				yEnd[i] = yStart[i] + h*(A71*k1[i] + A73*k3[i] + A74*k4[i] + A75*k5[i] + A76*k6[i]);
+			computeDerivatives(equations, t0 + h, yEnd, k7);
+			
+			// Estimate error relative to tolerances
+			double error = 0;
+			for (int i = 0; i < n; i++) {
+				double stateError = h*(E1*k1[i] + E3*k3[i] + E4*k4[i] + E5*k5[i] + E6*k6[i] + E7*k7[i]);
+				double tolerance  = absTolerance + relTolerance*Math.max(Math.abs(yStart[i]), Math.abs(yEnd[i]));
+				double ratio      = stateError/tolerance;
+				error += ratio*ratio;
+			}
+			error = Math.sqrt(error/n);
+			
+			double factor = (error == 0) ? MAX_FACTOR : SAFETY*Math.pow(error, -0.2);
+			
+			if (error <= 1.0 || Math.abs(h) <= minStep) {
+				tStart   = t0;
+				stepSize = h;
+				
+				// Keep the step size that would have been used without hitting tMax
+				if (!lastStep || h > nextStepSize)
+					nextStepSize = Math.max(minStep, h*Math.min(MAX_FACTOR, Math.max(MIN_FACTOR, factor)));
+				
+				firstStageValid = true;
+				System.arraycopy(yEnd, 0, y, 0, n);
+				
+				return t0 + h;
+			}
+			
+			// Rejected; retry with a smaller step
+			rejectedSteps++;
+			h = Math.max(minStep, h*Math.max(MIN_FACTOR, Math.min(1.0, factor)));
+		}
+	}
+	
+	/**
+	 * Evaluates the solution of the last accepted step at time using the continuous extension of the Dormand-Prince method
+	 * 
+	 * @param time time within the last accepted step
+	 * @param y array the interpolated state is written into
+	 * @return y
+	 */
+	public double[] interpolate(double time, double[] y) {
+		final double theta = (stepSize == 0) ? 1.0 : (time - tStart)/stepSize;
+		final double eta   = 1 - theta;
+		
+		for (int i = 0; i < y.length; i++) {
+			double yDiff  = yEnd[i] - yStart[i];
+			double bSpl   = stepSize*k1[i] - yDiff;
+			double cont3  = yDiff - stepSize*k7[i] - bSpl;
+			double cont4  = stepSize*(D1*k1[i] + D3*k3[i] + D4*k4[i] + D5*k5[i] + D6*k6[i] + D7*k7[i]);
+			
+			y[i] = yStart[i] + theta*(yDiff + eta*(bSpl + theta*(cont3 + eta*cont4)));
+		}
+		
+		return y;
+	}
+	
+	private void computeDerivatives(FirstOrderDifferentialEquations equations, double t, double[] y, double[] yDot) {
+		equations.computeDerivatives(t, y, yDot);
+		evaluations++;
+	}
+	
+	/**
+	 * Initial step size guess from the tolerances and derivative at the start of integration
+	 */
+	private double initialStepSize(double t0, double tMax) {
+		double yNorm = 0, yDotNorm = 0;
+		for (int i = 0; i < yStart.length; i++) {
+			double scale = absTolerance + relTolerance*Math.abs(yStart[i]);
+			yNorm    += (yStart[i]/scale)*(yStart[i]/scale);
+			yDotNorm += (k1[i]/scale)*(k1[i]/scale);
+		}
+		
+		double h = (yNorm < 1e-10 || yDotNorm < 1e-10) ? 1e-6 : 0.01*Math.sqrt(yNorm/yDotNorm);
+		
+		return Math.max(minStep, Math.min(Math.min(h, maxStep), tMax - t0));
+	}
+	
+	/**
+	 * @return start time of the last accepted step
+	 */
+	public double getStepStart() { return tStart; }
+	
+	/**
+	 * @return end time of the last accepted step
+	 */
+	public double getStepEnd() { return tStart + stepSize; }
+	
+	/**
+	 * @return number of derivative evaluations made by this stepper
+	 */
+	public int getEvaluations() { return evaluations; }
+	
+	/**
+	 * @return number of steps rejected for exceeding tolerance
+	 */
+	public int getRejectedSteps() { return rejectedSteps; }
+}
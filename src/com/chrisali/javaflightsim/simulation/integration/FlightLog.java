@@ -0,0 +1,365 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.integration;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Columnar store of simulation output data logged by {@link Integrate6DOFEquations} after each step of integration. Each 
+ * {@link SimOuts} column is kept as primitive double arrays, allocated in fixed-size blocks of {@link FlightLog#BLOCK_SIZE} rows, 
+ * so that a logged step costs roughly 8 bytes per column rather than an EnumMap of boxed Doubles.
+ * <p>A log created with a capacity is a ring buffer that retains only the latest capacity rows; appending to a full log 
+ * overwrites the oldest row in O(1). Otherwise the log grows until cleared</p>
+ * <p>The log is meant to be written by a single simulation thread. Readers never take a lock; each read is an optimistic 
+ * read of a {@link StampedLock} sequence, which is retried if a write happened while it was copying data, so plotting and 
+ * console threads never block the writer. Reads that must see the same rows across several columns should use 
+ * {@link FlightLog#getColumns(SimOuts[])}</p>
+ * <p>Rows are indexed from 0, the oldest row retained, to {@link FlightLog#size()} - 1, the latest row appended</p>
+ * 
+ * @see SimOuts
+ */
+public class FlightLog {
+	
+	public static final int BLOCK_SIZE = 1024;
+	
+	private static final int COLUMNS = SimOuts.values().length;
+	private static final int INITIAL_BLOCKS = 16;
+	
+	private final StampedLock sequence = new StampedLock();
+	
+	// Maximum rows retained, and rows allocated for the ring buffer (capacity rounded up to a whole block); 0 if unbounded 
+	private final long capacity;
+	private final long ringRows;
+	
+	// Blocks indexed [column][row in block]; a logical row is found at physical row (row - origin) % ringRows in a ring buffer
+	// or (row - origin) otherwise 
+	private double[][][] blocks;
+	
+	// Logical indices of the oldest row retained and the next row to be appended, and of the row at physical row 0
+	private long tail   = 0;
+	private long head   = 0;
+	private long origin = 0;
+	
+	/**
+	 * Creates an unbounded log, which grows one block at a time until cleared
+	 */
+	public FlightLog() {
+		capacity = 0;
+		ringRows = 0;
+		blocks   = new double[INITIAL_BLOCKS][][];
+	}
+	
+	/**
+	 * Creates a bounded log that retains at most capacity of the latest rows appended to it
+	 * 
+	 * @param capacity maximum number of rows retained
+	 * @throws IllegalArgumentException if capacity is not positive
+	 */
+	public FlightLog(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Flight log capacity must be positive, was: " + capacity);
+		
+		int ringBlocks = (capacity + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		
+		this.capacity = capacity;
+		this.ringRows = (long) ringBlocks * BLOCK_SIZE;
+		this.blocks   = new double[ringBlocks][][];
+	}
+	
+	//=================================== Writer ===============================================================
+	
+	/**
+	 * Appends a row of data to the end of the log. If the log is bounded and full, the oldest row is evicted
+	 * 
+	 * @param row simulation outputs indexed by {@link SimOuts#ordinal()}
+	 */
+	public void append(double[] row) {
+		long stamp = sequence.writeLock();
+		
+		try {
+			long physical = head - origin;
+			int blockIndex;
+			
+			if (ringRows > 0) {
+				physical %= ringRows;
+				blockIndex = (int) (physical / BLOCK_SIZE);
+			} else {
+				blockIndex = (int) (physical / BLOCK_SIZE);
+				
+				if (blockIndex == blocks.length)
+					blocks = Arrays.copyOf(blocks, blocks.length * 2);
+			}
+			
+			if (blocks[blockIndex] == null)
+				blocks[blockIndex] = new double[COLUMNS][BLOCK_SIZE];
+			
+			double[][] block = blocks[blockIndex];
+			int blockRow = (int) (physical % BLOCK_SIZE);
+			
+			for (int column = 0; column < COLUMNS; column++)
+				block[column][blockRow] = row[column];
+			
+			head++;
+			
+			if (capacity > 0 && head - tail > capacity)
+				tail = head - capacity;
+		} finally {
+			sequence.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Removes all rows from the log. An unbounded log releases its blocks
+	 */
+	public void clear() {
+		long stamp = sequence.writeLock();
+		
+		try {
+			if (ringRows == 0) {
+				blocks = new double[INITIAL_BLOCKS][][];
+				origin = head;
+			}
+			
+			tail = head;
+		} finally {
+			sequence.unlockWrite(stamp);
+		}
+	}
+	
+	//=================================== Readers ==============================================================
+	
+	/**
+	 * @return maximum number of rows retained, or 0 if the log is unbounded
+	 */
+	public int getCapacity() { return (int) capacity; }
+	
+	/**
+	 * @return number of rows in the log
+	 */
+	public int size() {
+		for (;;) {
+			long stamp = sequence.tryOptimisticRead();
+			int size = (int) (head - tail);
+			
+			if (stamp != 0 && sequence.validate(stamp))
+				return size;
+			
+			Thread.yield();
+		}
+	}
+	
+	/**
+	 * @return if the log contains no rows
+	 */
+	public boolean isEmpty() { return size() == 0; }
+	
+	/**
+	 * @param row
+	 * @param column
+	 * @return value of column at the specified row
+	 * @throws IndexOutOfBoundsException if row is not in the log
+	 */
+	public double get(int row, SimOuts column) {
+		int ordinal = column.ordinal();
+		
+		for (;;) {
+			long stamp = sequence.tryOptimisticRead();
+			double[][][] blocks = this.blocks;
+			long tail = this.tail, size = head - tail, origin = this.origin;
+			double value = Double.NaN;
+			boolean copied = false;
+			
+			if (row >= 0 && row < size) {
+				long physical = physicalRow(tail + row, origin);
+				double[][] block = block(blocks, physical);
+				if (block != null) {
+					value = block[ordinal][(int) (physical % BLOCK_SIZE)];
+					copied = true;
+				}
+			}
+			
+			if (stamp != 0 && sequence.validate(stamp)) {
+				if (row < 0 || row >= size)
+					throw new IndexOutOfBoundsException("Row " + row + " not in log of size " + size);
+				if (copied)
+					return value;
+			}
+			
+			Thread.yield();
+		}
+	}
+	
+	/**
+	 * Copies all columns of a row into dest, indexed by {@link SimOuts#ordinal()}
+	 * 
+	 * @param row
+	 * @param dest array of at least {@link SimOuts#values()} length, or null to allocate a new one
+	 * @return dest
+	 * @throws IndexOutOfBoundsException if row is not in the log
+	 */
+	public double[] getRow(int row, double[] dest) {
+		if (dest == null)
+			dest = new double[COLUMNS];
+		
+		for (;;) {
+			long stamp = sequence.tryOptimisticRead();
+			double[][][] blocks = this.blocks;
+			long tail = this.tail, size = head - tail, origin = this.origin;
+			boolean copied = false;
+			
+			if (row >= 0 && row < size) {
+				long physical = physicalRow(tail + row, origin);
+				double[][] block = block(blocks, physical);
+				if (block != null) {
+					int blockRow = (int) (physical % BLOCK_SIZE);
+					for (int column = 0; column < COLUMNS; column++)
+						dest[column] = block[column][blockRow];
+					copied = true;
+				}
+			}
+			
+			if (stamp != 0 && sequence.validate(stamp)) {
+				if (row < 0 || row >= size)
+					throw new IndexOutOfBoundsException("Row " + row + " not in log of size " + size);
+				if (copied)
+					return dest;
+			}
+			
+			Thread.yield();
+		}
+	}
+	
+	/**
+	 * Copies rows [fromRow, toRow) of a single column into dest
+	 * 
+	 * @param column
+	 * @param fromRow first row copied (inclusive)
+	 * @param toRow last row copied (exclusive)
+	 * @param dest array of at least toRow - fromRow length, or null to allocate a new one
+	 * @return dest
+	 * @throws IndexOutOfBoundsException if the range is not in the log
+	 */
+	public double[] getColumn(SimOuts column, int fromRow, int toRow, double[] dest) {
+		if (fromRow > toRow || fromRow < 0)
+			throw new IndexOutOfBoundsException("Rows " + fromRow + " to " + toRow + " are not a valid range");
+		
+		if (dest == null)
+			dest = new double[toRow - fromRow];
+		
+		for (;;) {
+			long stamp = sequence.tryOptimisticRead();
+			double[][][] blocks = this.blocks;
+			long tail = this.tail, size = head - tail, origin = this.origin;
+			boolean copied = toRow <= size && copyColumn(blocks, origin, column.ordinal(), tail + fromRow, tail + toRow, dest);
+			
+			if (stamp != 0 && sequence.validate(stamp)) {
+				if (toRow > size)
+					throw new IndexOutOfBoundsException("Rows " + fromRow + " to " + toRow + " not in log of size " + size);
+				if (copied)
+					return dest;
+			}
+			
+			Thread.yield();
+		}
+	}
+	
+	/**
+	 * Copies every row of a single column into a new array
+	 * 
+	 * @param column
+	 * @return array of column values, oldest first
+	 */
+	public double[] getColumn(SimOuts column) { return getColumns(new SimOuts[] {column})[0]; }
+	
+	/**
+	 * Takes a consistent snapshot of every row in the log for the specified columns; all columns are copied from the same rows
+	 * 
+	 * @param columns
+	 * @return array of column values indexed [column index in columns][row], oldest row first
+	 */
+	public double[][] getColumns(SimOuts[] columns) {
+		double[][] snapshot = new double[columns.length][];
+		
+		for (;;) {
+			long stamp = sequence.tryOptimisticRead();
+			double[][][] blocks = this.blocks;
+			long from = tail, to = head, origin = this.origin;
+			int  size = (int) (to - from);
+			boolean copied = size >= 0 && (capacity == 0 || size <= capacity);
+			
+			for (int i = 0; i < columns.length && copied; i++) {
+				if (snapshot[i] == null || snapshot[i].length != size)
+					snapshot[i] = new double[size];
+				
+				copied = copyColumn(blocks, origin, columns[i].ordinal(), from, to, snapshot[i]);
+			}
+			
+			if (stamp != 0 && sequence.validate(stamp) && copied)
+				return snapshot;
+			
+			Thread.yield();
+		}
+	}
+	
+	//=================================== Optimistic Read Helpers ==============================================
+	
+	/*
+	 * These are called during optimistic reads, where the fields read may be inconsistent with each other if the writer is active. 
+	 * They return null or false instead of throwing when they encounter inconsistent values; callers validate and retry
+	 */
+	
+	private long physicalRow(long row, long origin) {
+		long physical = row - origin;
+		
+		return ringRows > 0 ? physical % ringRows : physical;
+	}
+	
+	private static double[][] block(double[][][] blocks, long physical) {
+		if (physical < 0 || physical / BLOCK_SIZE >= blocks.length)
+			return null;
+		
+		return blocks[(int) (physical / BLOCK_SIZE)];
+	}
+	
+	private boolean copyColumn(double[][][] blocks, long origin, int ordinal, long fromRow, long toRow, double[] dest) {
+		if (dest.length < toRow - fromRow)
+			return false;
+		
+		int destPos = 0;
+		
+		for (long row = fromRow; row < toRow;) {
+			long physical = physicalRow(row, origin);
+			double[][] block = block(blocks, physical);
+			if (block == null)
+				return false;
+			
+			int blockRow = (int) (physical % BLOCK_SIZE);
+			int length = (int) Math.min(BLOCK_SIZE - blockRow, toRow - row);
+			
+			System.arraycopy(block[ordinal], blockRow, dest, destPos, length);
+			
+			row += length;
+			destPos += length;
+		}
+		
+		return true;
+	}
+}
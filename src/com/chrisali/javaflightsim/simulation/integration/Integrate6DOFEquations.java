@@ -19,22 +19,21 @@
  ******************************************************************************/
 package com.chrisali.javaflightsim.simulation.integration;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
-import org.apache.commons.math3.ode.nonstiff.ClassicalRungeKuttaIntegrator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.chrisali.javaflightsim.interfaces.Steppable;
+import com.chrisali.javaflightsim.simulation.SimulationContext;
 import com.chrisali.javaflightsim.simulation.aircraft.AccelAndMoments;
+import com.chrisali.javaflightsim.simulation.aircraft.AerodynamicResult;
 import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
 import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentData;
 import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentDataListener;
@@ -43,29 +42,33 @@ import com.chrisali.javaflightsim.simulation.enviroment.Environment;
 import com.chrisali.javaflightsim.simulation.enviroment.EnvironmentParameters;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
 import com.chrisali.javaflightsim.simulation.propulsion.Engine;
+import com.chrisali.javaflightsim.simulation.recording.StreamingFlightRecorder;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorType;
 import com.chrisali.javaflightsim.simulation.setup.Options;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
-import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+import com.chrisali.javaflightsim.simulation.telemetry.SharedMemoryExporter;
 import com.chrisali.javaflightsim.simulation.utilities.SaturationUtilities;
 import com.chrisali.javaflightsim.simulation.utilities.SixDOFUtilities;
 
 /**
  * This class integrates all 12 6DOF (plus 2 latitude/longitude) equations numerically to obtain the aircraft's states.
- * The {@link ClassicalRungeKuttaIntegrator} is used to integrate over a period of time defined in {@link Integrate6DOFEquations#integratorConfig}.
+ * The {@link ClassicalRungeKuttaStepper} is used to integrate over a period of time defined in {@link Integrate6DOFEquations#integratorConfig}.
  * The class outputs at each step using {@link Integrate6DOFEquations#logData(double)} to 
- * generate a {@link Integrate6DOFEquations#logsOut} ArrayList of {@link Integrate6DOFEquations#simOut} EnumMaps containing simulation outputs.
- * These can be obtained using the proper getters for {@link Integrate6DOFEquations#logsOut} and {@link Integrate6DOFEquations#simOut}. Options are passed into the class to
+ * generate a columnar {@link FlightLog} of simulation outputs, {@link Integrate6DOFEquations#logsOut}.
+ * These can be obtained using the proper getters for {@link Integrate6DOFEquations#logsOut} and {@link Integrate6DOFEquations#getSimOut()}. Options are passed into the class to
  * allow the user to choose between various run-time options 
  * 
  * @param  AircraftBuilder builtAircraft
  * @param  EnumSet runOptions
  *      
  * @return EnumMap simOut
- * @return ArrayList logsOut
+ * @return FlightLog logsOut
  *      
  * @see FirstOrderDifferentialEquations 
- * @see ClassicalRungeKuttaIntegrator
+ * @see ClassicalRungeKuttaStepper
  * @see AircraftBuilder
  * @see Options
  */
@@ -73,6 +76,23 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 	//Logging
 	private static final Logger logger = LogManager.getLogger(Integrate6DOFEquations.class);
 	
+	// Adaptive Integrator Limits
+	private static final double MIN_ADAPTIVE_STEP = 1e-6;
+	private static final double MAX_ADAPTIVE_STEP = 1.0;
+	private static final double DEFAULT_TOLERANCE = 1e-6;
+	
+	// Seconds of flight data kept in UNLIMITED_FLIGHT if no retention window is configured
+	private static final double DEFAULT_RETENTION_WINDOW = 100.0;
+	
+	private static final FlightControl[] FLIGHT_CONTROLS = FlightControl.values();
+	private static final SimOuts[] SIM_OUTS = SimOuts.values();
+	
+	// Thrust, RPM and fuel flow outputs of engines 1 to 4, in that order
+	private static final SimOuts[] ENGINE_OUTPUTS = {SimOuts.THRUST_1, SimOuts.RPM_1, SimOuts.FUEL_FLOW_1,
+													 SimOuts.THRUST_2, SimOuts.RPM_2, SimOuts.FUEL_FLOW_2,
+													 SimOuts.THRUST_3, SimOuts.RPM_3, SimOuts.FUEL_FLOW_3,
+													 SimOuts.THRUST_4, SimOuts.RPM_4, SimOuts.FUEL_FLOW_4};
+	
 	// 6DOF Integration Results
 	private double[] linearVelocities 		= new double[3];
 	private double[] NEDPosition      		= new double[3];
@@ -80,7 +100,7 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 	private double[] angularRates     		= new double[3];
 	
 	// Environment and Wind Parameters
-	private Map<EnvironmentParameters, Double> environmentParameters;
+	private double[] environmentParameters  = new double[EnvironmentParameters.values().length];
 	private double   gravity			    = Environment.getGravity();
 	private double[] windParameters   		= new double[3];	
 	private double   alphaDot 				= 0.0f;
@@ -93,17 +113,34 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 	// Forces and Moments
 	private double[] linearAccelerations    = new double[3];
 	private double[] totalMoments     		= new double[3];
+	private double[] alphaDotSensitivity	= new double[3];
 	
 	// Simulation Controls (Joystick, Keyboard, etc.)
 	private FlightControlsState flightControls;
 	private Map<FlightControl, Double> controlsMap;
 	
 	// Integrator Fields
-	private ClassicalRungeKuttaIntegrator integrator;
+	private ClassicalRungeKuttaStepper integrator;
+	private SixDOFEquations sixDOFEquations = new SixDOFEquations();
 	private double[] sixDOFDerivatives		= new double[14];
 	private double[] y					    = new double[14];
 	private double[] initialConditions      = new double[14];
 	private double[] resetInitialConditions = new double[14]; 
+	private int      evaluations			= 0;
+	
+	// Adaptive Integrator Fields (only used with IntegratorType.DORMAND_PRINCE_54)
+	private DormandPrince54Stepper adaptiveIntegrator;
+	private double[] adaptiveState			= new double[14]; // state at the end of the last accepted adaptive step
+	private double   adaptiveTime;							  // time at the end of the last accepted adaptive step
+	private boolean  adaptiveRestart		= true;
+	private double[] adaptiveControls		= new double[FLIGHT_CONTROLS.length]; // controls the adaptive steps were taken with
+	private double[] stepBoundaries			= new double[0];
+	
+	// Scratch buffers reused each step to avoid creating new objects
+	private double[][] dirCosMat			= new double[3][3];
+	private double[]   dirCosEulerAngles	= new double[3];
+	private double[]   inertiaCoeffs		= new double[9];
+	private double[]   ned2LLA				= new double[2];
 	
 	// Time Properties (sec for calculations in this object, millisec elsewhere)
 	private double[] integratorConfig 		= new double[3];
@@ -112,10 +149,18 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 	// Aircraft Properties
 	private Aircraft aircraft;
 	private Set<Engine> engineList;
+	private Engine[] engines;
+	
+	// Per-simulation environment and force and moment calculation, owned by SimulationContext
+	private Environment environment;
+	private AccelAndMoments accelAndMoments;
 	
 	// Output Logging
-	private List<Map<SimOuts, Double>> logsOut = Collections.synchronizedList(new ArrayList<Map<SimOuts, Double>>());
-	private Map<SimOuts, Double> simOut;
+	private FlightLog logsOut;
+	private double[]  simOutRow				= new double[SIM_OUTS.length];
+	private boolean   simOutLogged			= false;
+	private StreamingFlightRecorder flightRecorder;
+	private SharedMemoryExporter sharedMemoryExporter;
 	
 	// Options
 	private EnumSet<Options> options;
@@ -128,16 +173,33 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 	 * @param configuration
 	 */
 	public Integrate6DOFEquations(FlightControlsState flightControls, SimulationConfiguration configuration) {
+		this(flightControls, new SimulationContext(configuration));
+	}
+	
+	/**
+	 * Creates the {@link Integrate6DOFEquations} object with references to {@link FlightControlsState} and the {@link SimulationContext}
+	 * that owns this simulation's configuration, aircraft, environment and accelerations and moments
+	 * 
+	 * @param flightControls
+	 * @param context
+	 */
+	public Integrate6DOFEquations(FlightControlsState flightControls, SimulationContext context) {
 		this.flightControls = flightControls;
 		
+		SimulationConfiguration configuration = context.getConfiguration();
+		
 	    controlsMap 	   = flightControls.getFlightControls();
-		aircraft 		   = FileUtilities.readAircraftConfiguration(configuration.getSelectedAircraft());
+		aircraft 		   = context.getAircraft();
+		environment		   = context.getEnvironment();
+		accelAndMoments	   = context.getAccelAndMoments();
 		engineList   	   = aircraft.getEngines();
+		engines			   = engineList.toArray(new Engine[engineList.size()]);
 		options		       = configuration.getSimulationOptions();
 		
 		// Use Apache Commons Lang to convert EnumMap values into primitive double[]
-		initialConditions = resetInitialConditions = ArrayUtils.toPrimitive(configuration.getInitialConditions().values()
-																.toArray(new Double[initialConditions.length]));
+		initialConditions = ArrayUtils.toPrimitive(configuration.getInitialConditions().values()
+												   .toArray(new Double[initialConditions.length]));
+		resetInitialConditions = initialConditions.clone();
 				
 		integratorConfig  = ArrayUtils.toPrimitive(configuration.getIntegratorConfig().values()
 				   												.toArray(new Double[integratorConfig.length]));
@@ -148,10 +210,35 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 		
 		// Initial time
 		t = integratorConfig[0];
+		
+		// Keep only the latest retention window of flight data in a ring buffer when running forever
+		if (options.contains(Options.UNLIMITED_FLIGHT)) {
+			Double retentionWindow = configuration.getIntegratorConfig().get(IntegratorConfig.RETENTIONWINDOW);
+			int capacity = (int) Math.ceil((retentionWindow != null ? retentionWindow : DEFAULT_RETENTION_WINDOW) / integratorConfig[1]);
+			
+			logsOut = new FlightLog(Math.max(capacity, 1));
+		} else {
+			logsOut = new FlightLog();
+		}
 				
 		// Use fourth-order Runge-Kutta numerical integration with time step of dt
 		logger.debug("Setting up Runge Kutta Integrator for 6DOF calculations...");
-		integrator = new ClassicalRungeKuttaIntegrator(integratorConfig[1]);
+		integrator = new ClassicalRungeKuttaStepper(initialConditions.length);
+		
+		// Alternatively, use error controlled Dormand-Prince integration with output interpolated every dt 
+		if (configuration.getIntegratorType() == IntegratorType.DORMAND_PRINCE_54) {
+			Double absTolerance = configuration.getIntegratorConfig().get(IntegratorConfig.ABSTOLERANCE);
+			Double relTolerance = configuration.getIntegratorConfig().get(IntegratorConfig.RELTOLERANCE);
+			
+			logger.debug("Setting up Dormand-Prince Integrator for 6DOF calculations...");
+			adaptiveIntegrator = new DormandPrince54Stepper(initialConditions.length, 
+															MIN_ADAPTIVE_STEP, 
+															MAX_ADAPTIVE_STEP,
+															absTolerance != null ? absTolerance : DEFAULT_TOLERANCE, 
+															relTolerance != null ? relTolerance : DEFAULT_TOLERANCE);
+		}
+		
+		SixDOFUtilities.calculateInertiaCoeffs(aircraft.getInertiaValues(), inertiaCoeffs);
 		
 		// Set up ground reaction integration
 		logger.debug("Initializing ground reaction model...");
@@ -166,39 +253,56 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 													 aircraft, 
 													 controlsMap);
 		
-		// Initialize accelerations and moments, and calculate initial data members' values
-		AccelAndMoments.init(aircraft);
-		
-		updateDataMembers();
+		// Calculate initial data members' values
+		updateDataMembers(initialConditions, false);
 	}
 	
 	/**
-	 * Creates the 14 (12 6DOF + 2 lat/lon) state derivatives that {@link Integrate6DOFEquations#integrator} uses to numerically integrate. It loops through {@link Integrate6DOFEquations#sixDOFDerivatives} to
-	 * assign values to yDot[], which is used in the single step {@link Integrate6DOFEquations#integrator} in {@link Integrate6DOFEquations#run()}
+	 * Creates the 14 (12 6DOF + 2 lat/lon) state derivatives that {@link Integrate6DOFEquations#integrator} uses to numerically integrate. Each time
+	 * it is called, forces, moments and kinematics are re-evaluated at the intermediate state y of that Runge Kutta stage using 
+	 * {@link Integrate6DOFEquations#updateDataMembers(double[], boolean)}, and the resulting {@link Integrate6DOFEquations#sixDOFDerivatives} are
+	 * assigned to yDot[], which is used in the single step {@link Integrate6DOFEquations#integrator} in {@link Integrate6DOFEquations#integrateStep()}
 	 * @see FirstOrderDifferentialEquations 
 	 * @see Integrate6DOFEquations
-	 * @see ClassicalRungeKuttaIntegrator
+	 * @see ClassicalRungeKuttaStepper
 	 */
 	private class SixDOFEquations implements FirstOrderDifferentialEquations {		
 		private SixDOFEquations() {}
 
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
-			for (int i = 0; i < yDot.length; i++) 
-				yDot[i] = sixDOFDerivatives[i];
+			updateDataMembers(y, false);
+			
+			System.arraycopy(sixDOFDerivatives, 0, yDot, 0, yDot.length);
 		}
 
 		public int getDimension() {return 14;}
 	}
 	
-	@Override
-	public boolean canStepNow(int simTimeMS) {
-		return simTimeMS % 1 == 0;
+	/**
+	 * Evaluates the 14 (12 6DOF + 2 lat/lon) state derivatives at state with the current flight controls, without advancing the 
+	 * simulation. Data members such as accelerations and moments are left at their values for state, so this should only be 
+	 * called on an instance dedicated to evaluating derivatives, such as one used for linearization
+	 * 
+	 * @param state
+	 * @param yDot array of 14 elements that derivatives are written into
+	 * @return yDot
+	 */
+	public double[] computeDerivatives(double[] state, double[] yDot) {
+		sixDOFEquations.computeDerivatives(t, state, yDot);
+		
+		return yDot;
 	}
+	
+	/**
+	 * @return rate (Hz) the simulation steps at; 1/dt
+	 */
+	@Override
+	public double getStepRateHz() { return 1 / integratorConfig[1]; }
 
 	/**
 	 * Runs {@link Integrate6DOFEquations} integration process by calling 
-	 * {@link ClassicalRungeKuttaIntegrator#singleStep(FirstOrderDifferentialEquations, double, double[], double)}
-	 * method on each invocation as long as {@link Options#PAUSED} isn't enabled 
+	 * {@link Integrate6DOFEquations#integrateStep()} on each invocation as long as {@link Options#PAUSED} isn't enabled,
+	 * then logs the results of the step 
 	 */
 	@Override
 	public void step() {
@@ -206,30 +310,20 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 			// If paused and reset selected, reset initialConditions to saved values in configuration
 			if (options.contains(Options.PAUSED) && options.contains(Options.RESET)) {
 				logger.debug("Simulation reset to initial conditions!");
-				initialConditions = resetInitialConditions;
+				System.arraycopy(resetInitialConditions, 0, initialConditions, 0, initialConditions.length);
+				adaptiveRestart = true;
 				flightControls.reset();
 				options.remove(Options.RESET);
 			}
 							
 			// If paused, skip the integration and update process
 			if (!options.contains(Options.PAUSED)) {
-				// Run a single step of integration each step of the loop
-				y = integrator.singleStep(new SixDOFEquations(),  // derivatives
-										  t, 		  			  // start time
-										  initialConditions, 	  // initial conditions
-										  t+integratorConfig[1]); // end time (t+dt)
-														
-				// Update data members' values
-				updateDataMembers();
+				double stepStartTime = t;
 				
-				// Update initial conditions for next step of integration
-				initialConditions = y;
+				integrateStep();
 				
 				// Update output log
-				logData();
-
-				// Increment time
-				t += integratorConfig[1];
+				logData(stepStartTime);
 			}
 		} catch (Exception e) {
 			logger.error("Integration encountered an error!", e);
@@ -237,26 +331,124 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 	}
 	
 	/**
-	 * Recalculates the 14 (12 6DOF + 2 lat/lon) state derivatives based on the newly calculated accelerations and moments accomplished in {@link Integrate6DOFEquations#updateDataMembers(double[], double)}.
-	 * The equations are calculated with the help of methods in {@link SixDOFUtilities} to convert coordinate frames and calculate inertia parameters
+	 * Runs a single step of integration with {@link ClassicalRungeKuttaStepper}, or interpolates the state at the end of the step 
+	 * from {@link DormandPrince54Stepper} if {@link IntegratorType#DORMAND_PRINCE_54} is selected, then updates all data members 
+	 * and increments time by dt. Every buffer used here is allocated when this object is constructed, so no objects
+	 * are created in the process; logging of the step's results is left to the caller
+	 */
+	public void integrateStep() {
+		if (adaptiveIntegrator != null) {
+			integrateAdaptive(t+integratorConfig[1]);
+		} else {
+			// Run a single step of integration
+			integrator.singleStep(sixDOFEquations,  	  // derivatives
+								  t, 		  			  // start time
+								  initialConditions, 	  // initial conditions
+								  t+integratorConfig[1],  // end time (t+dt)
+								  y);					  // results
+		}
+												
+		// Update data members' values at the end of the step, advancing ground reaction integration
+		updateDataMembers(y, true);
+		
+		// Update initial conditions for next step of integration
+		System.arraycopy(y, 0, initialConditions, 0, y.length);
+
+		// Increment time
+		t += integratorConfig[1];
+	}
+	
+	/**
+	 * Takes error controlled steps until the integration reaches outputTime, then interpolates the state at outputTime into y. 
+	 * Steps often reach well past outputTime, in which case later calls only interpolate. Controls are held constant over each 
+	 * step, so if they have changed since the last step was taken, integration restarts from the current state. Steps never 
+	 * cross a time set in {@link Integrate6DOFEquations#setStepBoundaries(double[])} or the end time of the simulation
+	 * 
+	 * @param outputTime
+	 */
+	private void integrateAdaptive(double outputTime) {
+		if (adaptiveRestart || controlsChanged()) {
+			System.arraycopy(initialConditions, 0, adaptiveState, 0, adaptiveState.length);
+			adaptiveTime = t;
+			adaptiveIntegrator.restart();
+			adaptiveRestart = false;
+			
+			for (int i = 0; i < FLIGHT_CONTROLS.length; i++)
+				adaptiveControls[i] = controlsMap.get(FLIGHT_CONTROLS[i]);
+		}
+		
+		while (outputTime - adaptiveTime > MIN_ADAPTIVE_STEP) {
+			adaptiveTime = adaptiveIntegrator.step(sixDOFEquations, 
+												   adaptiveTime, 
+												   adaptiveState, 
+												   nextStepBoundary(adaptiveTime), 
+												   adaptiveState);
+		}
+		
+		adaptiveIntegrator.interpolate(outputTime, y);
+	}
+	
+	/**
+	 * @return if any control differs from those used to take the last adaptive step
+	 */
+	private boolean controlsChanged() {
+		for (int i = 0; i < FLIGHT_CONTROLS.length; i++) {
+			if (controlsMap.get(FLIGHT_CONTROLS[i]) != adaptiveControls[i])
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * @param time
+	 * @return the earliest step boundary or simulation end time after time
+	 */
+	private double nextStepBoundary(double time) {
+		for (int i = 0; i < stepBoundaries.length; i++) {
+			if (stepBoundaries[i] > time + MIN_ADAPTIVE_STEP)
+				return stepBoundaries[i];
+		}
+		
+		return integratorConfig[2] > time + MIN_ADAPTIVE_STEP ? integratorConfig[2] : Double.POSITIVE_INFINITY;
+	}
+	
+	/**
+	 * Sets times (sec) that adaptive integration steps must end on rather than step across, such as when {@link AnalysisControls}
+	 * inputs abruptly change a control. Has no effect on fixed step integration
+	 * 
+	 * @param stepBoundaries sorted times in seconds
+	 */
+	public void setStepBoundaries(double[] stepBoundaries) { this.stepBoundaries = stepBoundaries.clone(); }
+	
+	/**
+	 * @return times (sec) that adaptive integration steps must end on
+	 * @see Integrate6DOFEquations#setStepBoundaries(double[])
+	 */
+	public double[] getStepBoundaries() { return stepBoundaries.clone(); }
+	
+	/**
+	 * @return number of times forces, moments and state derivatives have been evaluated
+	 */
+	public int getEvaluations() { return evaluations; }
+	
+	/**
+	 * @return number of aerodynamic stability derivative lookup table evaluations made by this simulation; divide by 
+	 * {@link Integrate6DOFEquations#getEvaluations()} to get the number of lookups per evaluation
+	 */
+	public long getLookupTableEvaluations() { return accelAndMoments.getLookupTableEvaluations(); }
+	
+	/**
+	 * Recalculates the 14 (12 6DOF + 2 lat/lon) state derivatives based on the newly calculated accelerations and moments accomplished in {@link Integrate6DOFEquations#updateDataMembers(double[], boolean)}.
+	 * The equations are calculated with the help of methods in {@link SixDOFUtilities} to convert coordinate frames and calculate inertia parameters. 
+	 * Position and latitude/longitude derivatives are calculated beforehand in {@link Integrate6DOFEquations#updateNavigationDerivatives(double[])}
 	 * @see Source: <i>Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
 	 */
 	private void updateDerivatives(double[] y) {
-		double[][] dirCosMat     = SixDOFUtilities.body2Ned(new double[]{y[6], y[7], y[8]});      // create DCM for NED equations ([column][row])
-		double[]   inertiaCoeffs = SixDOFUtilities.calculateInertiaCoeffs(aircraft.getInertiaValues());
-		double[]   ned2LLA       = SixDOFUtilities.ned2LLA(y);
-		double[]   windSpdNED    = new double[]{environmentParameters.get(EnvironmentParameters.WIND_SPEED_N),
-												environmentParameters.get(EnvironmentParameters.WIND_SPEED_E),
-												environmentParameters.get(EnvironmentParameters.WIND_SPEED_D)};
-		
 		sixDOFDerivatives[0]  = (y[11]*y[1])-(y[10]*y[2])-(gravity*Math.sin(y[7]))               +linearAccelerations[0];    // u (ft/sec)
 		sixDOFDerivatives[1]  = (y[9]* y[2])-(y[11]*y[0])+(gravity*Math.sin(y[6])*Math.cos(y[7]))+linearAccelerations[1];    // v (ft/sec)
 		sixDOFDerivatives[2]  = (y[10]*y[0])-(y[9]* y[1])+(gravity*Math.cos(y[6])*Math.cos(y[7]))+linearAccelerations[2];    // w (ft/sec)
 		
-		sixDOFDerivatives[3]  =    (y[0]*dirCosMat[0][0]+y[1]*dirCosMat[0][1]+y[2]*dirCosMat[0][2])+windSpdNED[0];    // N (ft)
-		sixDOFDerivatives[4]  =    (y[0]*dirCosMat[1][0]+y[1]*dirCosMat[1][1]+y[2]*dirCosMat[1][2])+windSpdNED[1];    // E (ft)
-		sixDOFDerivatives[5]  = -1*(y[0]*dirCosMat[2][0]+y[1]*dirCosMat[2][1]+y[2]*dirCosMat[2][2])+windSpdNED[2];    // D (ft)
-		
 		sixDOFDerivatives[6]  =   y[9]+(Math.tan(y[7])*((y[10]*Math.sin(y[6]))+(y[11]*Math.cos(y[6])))); // phi (rad)
 		sixDOFDerivatives[7]  =  (y[10]*Math.cos(y[6]))-(y[11]*Math.sin(y[6]));     			         // theta (rad)
 		sixDOFDerivatives[8]  = ((y[10]*Math.sin(y[6]))+(y[11]*Math.cos(y[6])))/Math.cos(y[7]);          // psi (rad)
@@ -264,223 +456,319 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 		sixDOFDerivatives[9]  = ((inertiaCoeffs[1]*y[9]*y[10]) - (inertiaCoeffs[0]*y[10])*y[11]) + (inertiaCoeffs[2]*totalMoments[0])+(inertiaCoeffs[3]*totalMoments[2]);     // p (rad/sec)
 		sixDOFDerivatives[10] =  (inertiaCoeffs[4]*y[9]*y[11]) - (inertiaCoeffs[5]*((y[9]*y[9])-(y[11]*y[11])))                      +(inertiaCoeffs[6]*totalMoments[1]);     // q (rad/sec)
 		sixDOFDerivatives[11] = ((inertiaCoeffs[7]*y[9]*y[10]) - (inertiaCoeffs[1]*y[10]*y[11])) + (inertiaCoeffs[3]*totalMoments[0])+(inertiaCoeffs[8]*totalMoments[2]);     // r (rad/sec)
+	}
+	
+	/**
+	 * Calculates the NED position and latitude/longitude derivatives, which depend only on the state y and wind speed 
+	 * @see Source: <i>Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
+	 */
+	private void updateNavigationDerivatives(double[] y) {
+		dirCosEulerAngles[0] = y[6];
+		dirCosEulerAngles[1] = y[7];
+		dirCosEulerAngles[2] = y[8];
+		
+		SixDOFUtilities.body2Ned(dirCosEulerAngles, dirCosMat); // create DCM for NED equations ([column][row])
+		SixDOFUtilities.ned2LLA(y, ned2LLA);
+		
+		double windSpdN = environmentParameters[EnvironmentParameters.WIND_SPEED_N.ordinal()];
+		double windSpdE = environmentParameters[EnvironmentParameters.WIND_SPEED_E.ordinal()];
+		double windSpdD = environmentParameters[EnvironmentParameters.WIND_SPEED_D.ordinal()];
+		
+		sixDOFDerivatives[3]  =    (y[0]*dirCosMat[0][0]+y[1]*dirCosMat[0][1]+y[2]*dirCosMat[0][2])+windSpdN;    // N (ft)
+		sixDOFDerivatives[4]  =    (y[0]*dirCosMat[1][0]+y[1]*dirCosMat[1][1]+y[2]*dirCosMat[1][2])+windSpdE;    // E (ft)
+		sixDOFDerivatives[5]  = -1*(y[0]*dirCosMat[2][0]+y[1]*dirCosMat[2][1]+y[2]*dirCosMat[2][2])+windSpdD;    // D (ft)
 		
 		sixDOFDerivatives[12] = sixDOFDerivatives[3]*ned2LLA[0]; // Latitude  (rad)
 		sixDOFDerivatives[13] = sixDOFDerivatives[4]*ned2LLA[1]; // Longitude (rad)
 	}
 	
+	/**
+	 * Solves for alphaDot at the saturated state held in {@link Integrate6DOFEquations#linearVelocities}, 
+	 * {@link Integrate6DOFEquations#eulerAngles} and {@link Integrate6DOFEquations#angularRates}, the same state that the 
+	 * aerodynamics were evaluated at. alphaDot = (u*w_dot-w*u_dot)/(u^2+w^2), while u_dot and w_dot themselves depend linearly 
+	 * on alphaDot through lift; {@link Integrate6DOFEquations#linearAccelerations} must hold unsaturated accelerations calculated 
+	 * with alphaDot of zero and {@link Integrate6DOFEquations#alphaDotSensitivity} their partial derivatives with respect to alphaDot
+	 * 
+	 * @return alphaDot (rad/sec)
+	 */
+	private double solveAlphaDot() {
+		double u = linearVelocities[0], v = linearVelocities[1], w = linearVelocities[2];
+		double phi = eulerAngles[0], theta = eulerAngles[1];
+		double p = angularRates[0], q = angularRates[1], r = angularRates[2];
+		
+		double uDot = (r*v)-(q*w)-(gravity*Math.sin(theta))              +linearAccelerations[0];
+		double wDot = (q*u)-(p*v)+(gravity*Math.cos(phi)*Math.cos(theta))+linearAccelerations[2];
+		
+		return ((u*wDot)-(w*uDot))/((u*u)+(w*w)-((u*alphaDotSensitivity[2])-(w*alphaDotSensitivity[0])));
+	}
+	
 	/**
 	 *  Runs various helper methods to update data members in {@link Integrate6DOFEquations}. It updates the 6DOF states, environment parameters, controls, engine state, and finally 
-	 *  calculates accelerations and moments to be used in {@link Integrate6DOFEquations#updateDerivatives(double[])} 
+	 *  calculates accelerations and moments to be used in {@link Integrate6DOFEquations#updateDerivatives(double[])}
+	 *  
+	 *  @param state 6DOF state to evaluate; either an intermediate Runge Kutta stage or the result of a completed step
+	 *  @param advanceGroundReaction if true, runs a step of ground reaction integration; otherwise ground forces and moments 
+	 *  are only re-evaluated at this state
 	 */
-	private void updateDataMembers() {
-		// Assign indices in yTemp array to 6DOF state arrays
+	private void updateDataMembers(double[] state, boolean advanceGroundReaction) {
+		evaluations++;
+		
+		// Assign indices in state array to 6DOF state arrays
 		for (int i=0; i<linearVelocities.length; i++) {
-			linearVelocities[i] = y[i];
-			NEDPosition[i]      = y[i+3];
-			eulerAngles[i]      = y[i+6];
-			angularRates[i]     = y[i+9];
+			linearVelocities[i] = state[i];
+			NEDPosition[i]      = state[i+3];
+			eulerAngles[i]      = state[i+6];
+			angularRates[i]     = state[i+9];
 		}
 
-		// Implement saturation and (2)pi bounding to keep states within realistic limits
-		linearVelocities = SaturationUtilities.limitLinearVelocities(linearVelocities);
-		NEDPosition      = SaturationUtilities.limitNEDPosition(NEDPosition, terrainHeight);
-		eulerAngles      = SaturationUtilities.piBounding(eulerAngles, angularRates);
-		angularRates     = SaturationUtilities.limitAngularRates(angularRates);
+		// Implement saturation and (2)pi bounding to keep states within realistic limits (arrays are modified in place)
+		SaturationUtilities.limitLinearVelocities(linearVelocities);
+		SaturationUtilities.limitNEDPosition(NEDPosition, terrainHeight);
+		SaturationUtilities.piBounding(eulerAngles, angularRates);
+		SaturationUtilities.limitAngularRates(angularRates);
 		
 		// Update wind parameters
-		windParameters = SixDOFUtilities.calculateWindParameters(linearVelocities);
+		SixDOFUtilities.calculateWindParameters(linearVelocities, windParameters);
 		
 		// Update environment		
-		environmentParameters = Environment.getAndUpdateEnvironmentParams(NEDPosition);
-		
-		// Update all engines in engine list
-		for(Engine engine : engineList)
-			 engine.updateEngineState(controlsMap, environmentParameters, windParameters);
+		environment.getAndUpdateEnvironmentParams(NEDPosition, environmentParameters);
 		
-		// Update alphaDot
-		alphaDot = SixDOFUtilities.calculateAlphaDot(linearVelocities, sixDOFDerivatives);
+		// Update all engines
+		for (int i = 0; i < engines.length; i++)
+			 engines[i].updateEngineState(controlsMap, environmentParameters, windParameters);
 		
 		// Update mach
 		mach = SixDOFUtilities.calculateMach(windParameters, environmentParameters);
 		
-		// Integrate another step of ground reaction only if within 100 ft of ground
+		// Update position derivatives, which depend only on this state, before ground reaction needs vertical speed
+		updateNavigationDerivatives(state);
+		
+		// Update ground reaction only if within 100 ft of ground
 		double heightAGL = NEDPosition[2] - terrainHeight;
-		if (heightAGL < 100)
-			groundReaction.integrateStep(terrainHeight);
+		if (heightAGL < 100) {
+			if (advanceGroundReaction)
+				groundReaction.integrateStep(terrainHeight);
+			else
+				groundReaction.updateForcesAndMoments(terrainHeight);
+		}
 		
 		//System.out.println(groundReaction);
 		
-		// Update accelerations
-		linearAccelerations = AccelAndMoments.calculateLinearAccelerations(windParameters,
-																		   angularRates,
-																		   environmentParameters,
-																		   controlsMap,
-																		   alphaDot,
-																		   engineList,
-																		   aircraft,
-																		   groundReaction,
-																		   heightAGL);
+		// Evaluate aerodynamic forces and moments once at this state
+		AerodynamicResult aerodynamics = accelAndMoments.calculateAerodynamics(windParameters,
+																			   angularRates,
+																			   environmentParameters,
+																			   controlsMap,
+																			   heightAGL);
+		
+		// Update accelerations without the contribution of alphaDot, then solve for alphaDot at this state and add it back in, 
+		// saturating only the total so that alphaDot is solved from the accelerations it is consistent with
+		accelAndMoments.calculateUnsaturatedLinearAccelerations(aerodynamics, 0.0, engines, aircraft, groundReaction, linearAccelerations);
+		
+		accelAndMoments.calculateAlphaDotSensitivity(aerodynamics, aircraft, alphaDotSensitivity);
+		
+		alphaDot = solveAlphaDot();
+		
+		for (int i = 0; i < linearAccelerations.length; i++)
+			linearAccelerations[i] += alphaDotSensitivity[i]*alphaDot;
+		
+		SaturationUtilities.limitLinearAccelerations(linearAccelerations);
+		
 		// Update moments
-		totalMoments = AccelAndMoments.calculateTotalMoments(windParameters,
-														 	 angularRates,
-															 environmentParameters,
-															 controlsMap,
-															 alphaDot,
-															 engineList,
-															 aircraft,
-															 groundReaction,
-															 heightAGL);
+		accelAndMoments.calculateTotalMoments(aerodynamics, alphaDot, engines, aircraft, groundReaction, totalMoments);
 				
-		// Recalculates derivatives for next step
-		updateDerivatives(y);
+		// Recalculates derivatives at this state
+		updateDerivatives(state);
 	}
 	
 	/**
-	 *  Adds simulation data to the ArrayList {@link Integrate6DOFEquations#getLogsOut()} after each successful step of integration 
-	 *  for plotting and outputs to the console, if set in {@link Integrate6DOFEquations#options}. 
-	 *  The data calculated in each step of integration is available in the EnumMap {@link Integrate6DOFEquations#getSimOut()}. All
-	 *  collections are synchronized to mitigate data access problems from threading
+	 *  Adds simulation data to the {@link FlightLog} {@link Integrate6DOFEquations#getLogsOut()} after each successful step of integration 
+	 *  for plotting and outputs to the console, if set in {@link Integrate6DOFEquations#options}. The time logged is the
+	 *  start time of the step. 
+	 *  The data calculated in each step of integration is written into the primitive array simOutRow, indexed by 
+	 *  {@link SimOuts#ordinal()}, and is available as an EnumMap through {@link Integrate6DOFEquations#getSimOut()}
 	 */
-	private void logData() {
-		// Need to initialize within logData(), else plots won't display correctly
-		simOut = Collections.synchronizedMap(new EnumMap<SimOuts, Double>(SimOuts.class));
+	private void logData(double time) {
+		double[] row = simOutRow;
 		
-		synchronized (simOut) {
-			// Assign EnumMap with data members from integration
-			simOut.put(SimOuts.TIME, 		t);
+		synchronized (row) {
+			// Assign array with data members from integration
+			row[SimOuts.TIME.ordinal()] 	 = time;
 			
 			//6DOF States
-			simOut.put(SimOuts.U, 		 	linearVelocities[0]);
-			simOut.put(SimOuts.V, 		 	linearVelocities[1]);
-			simOut.put(SimOuts.W, 		 	linearVelocities[2]);
-			simOut.put(SimOuts.NORTH, 	 	NEDPosition[0]);
-			simOut.put(SimOuts.EAST, 		NEDPosition[1]);
-			simOut.put(SimOuts.ALT, 		NEDPosition[2]);
-			simOut.put(SimOuts.PHI, 		eulerAngles[0]);
-			simOut.put(SimOuts.THETA, 	 	eulerAngles[1]);
-			simOut.put(SimOuts.PSI, 		eulerAngles[2]);
-			simOut.put(SimOuts.P, 		 	angularRates[0]);
-			simOut.put(SimOuts.Q, 		 	angularRates[1]);
-			simOut.put(SimOuts.R, 		 	angularRates[2]);
+			row[SimOuts.U.ordinal()] 		 = linearVelocities[0];
+			row[SimOuts.V.ordinal()] 		 = linearVelocities[1];
+			row[SimOuts.W.ordinal()] 		 = linearVelocities[2];
+			row[SimOuts.NORTH.ordinal()] 	 = NEDPosition[0];
+			row[SimOuts.EAST.ordinal()] 	 = NEDPosition[1];
+			row[SimOuts.ALT.ordinal()] 		 = NEDPosition[2];
+			row[SimOuts.PHI.ordinal()] 		 = eulerAngles[0];
+			row[SimOuts.THETA.ordinal()] 	 = eulerAngles[1];
+			row[SimOuts.PSI.ordinal()] 		 = eulerAngles[2];
+			row[SimOuts.P.ordinal()] 		 = angularRates[0];
+			row[SimOuts.Q.ordinal()] 		 = angularRates[1];
+			row[SimOuts.R.ordinal()] 		 = angularRates[2];
 			
 			// Earth Position/Velocity
-			simOut.put(SimOuts.LAT, 		y[12]);
-			simOut.put(SimOuts.LAT_DOT, 	sixDOFDerivatives[12]);
-			simOut.put(SimOuts.LON, 		y[13]);
-			simOut.put(SimOuts.LON_DOT,		sixDOFDerivatives[13]);
+			row[SimOuts.LAT.ordinal()] 		 = y[12];
+			row[SimOuts.LAT_DOT.ordinal()] 	 = sixDOFDerivatives[12];
+			row[SimOuts.LON.ordinal()] 		 = y[13];
+			row[SimOuts.LON_DOT.ordinal()] 	 = sixDOFDerivatives[13];
 			
 			// Wind Parameters
-			simOut.put(SimOuts.TAS, 		windParameters[0]);
-			simOut.put(SimOuts.BETA, 		windParameters[1]);
-			simOut.put(SimOuts.ALPHA, 	 	windParameters[2]*-1);
+			row[SimOuts.TAS.ordinal()] 		 = windParameters[0];
+			row[SimOuts.BETA.ordinal()] 	 = windParameters[1];
+			row[SimOuts.ALPHA.ordinal()] 	 = windParameters[2]*-1;
 			
-			simOut.put(SimOuts.ALPHA_DOT,   alphaDot);
-			simOut.put(SimOuts.MACH, 		mach);
+			row[SimOuts.ALPHA_DOT.ordinal()] = alphaDot;
+			row[SimOuts.MACH.ordinal()] 	 = mach;
 			
 			// Accelerations
-			simOut.put(SimOuts.A_X, 		linearAccelerations[0]);
-			simOut.put(SimOuts.A_Y, 		linearAccelerations[1]);
-			simOut.put(SimOuts.A_Z, 		linearAccelerations[2]);
+			row[SimOuts.A_X.ordinal()] 		 = linearAccelerations[0];
+			row[SimOuts.A_Y.ordinal()] 		 = linearAccelerations[1];
+			row[SimOuts.A_Z.ordinal()] 		 = linearAccelerations[2];
 			
-			simOut.put(SimOuts.AN_X, 	   (sixDOFDerivatives[0]/gravity));
-			simOut.put(SimOuts.AN_Y, 	   (sixDOFDerivatives[1]/gravity));
-			simOut.put(SimOuts.AN_Z, 	  ((sixDOFDerivatives[2]/gravity)+1.0));
+			row[SimOuts.AN_X.ordinal()] 	 = (sixDOFDerivatives[0]/gravity);
+			row[SimOuts.AN_Y.ordinal()] 	 = (sixDOFDerivatives[1]/gravity);
+			row[SimOuts.AN_Z.ordinal()] 	 = ((sixDOFDerivatives[2]/gravity)+1.0);
 			
 			// Moments
-			simOut.put(SimOuts.L, 		 	totalMoments[0]);
-			simOut.put(SimOuts.M, 		 	totalMoments[1]);
-			simOut.put(SimOuts.N, 		 	totalMoments[2]);
+			row[SimOuts.L.ordinal()] 		 = totalMoments[0];
+			row[SimOuts.M.ordinal()] 		 = totalMoments[1];
+			row[SimOuts.N.ordinal()] 		 = totalMoments[2];
 			
 			// 6DOF Derivatives
-			simOut.put(SimOuts.U_DOT, 	    sixDOFDerivatives[0]);
-			simOut.put(SimOuts.V_DOT, 	    sixDOFDerivatives[1]);
-			simOut.put(SimOuts.W_DOT, 	    sixDOFDerivatives[2]);
-			simOut.put(SimOuts.NORTH_DOT,   sixDOFDerivatives[3]);
-			simOut.put(SimOuts.EAST_DOT, 	sixDOFDerivatives[4]);
-			simOut.put(SimOuts.ALT_DOT,    (sixDOFDerivatives[5]*60));
-			simOut.put(SimOuts.PHI_DOT, 	sixDOFDerivatives[6]);
-			simOut.put(SimOuts.THETA_DOT,   sixDOFDerivatives[7]);
-			simOut.put(SimOuts.PSI_DOT, 	sixDOFDerivatives[8]);
-			simOut.put(SimOuts.P_DOT, 	 	sixDOFDerivatives[9]);
-			simOut.put(SimOuts.Q_DOT, 	 	sixDOFDerivatives[10]);
-			simOut.put(SimOuts.R_DOT, 	 	sixDOFDerivatives[11]);
+			row[SimOuts.U_DOT.ordinal()] 	 = sixDOFDerivatives[0];
+			row[SimOuts.V_DOT.ordinal()] 	 = sixDOFDerivatives[1];
+			row[SimOuts.W_DOT.ordinal()] 	 = sixDOFDerivatives[2];
+			row[SimOuts.NORTH_DOT.ordinal()] = sixDOFDerivatives[3];
+			row[SimOuts.EAST_DOT.ordinal()]  = sixDOFDerivatives[4];
+			row[SimOuts.ALT_DOT.ordinal()] 	 = (sixDOFDerivatives[5]*60);
+			row[SimOuts.PHI_DOT.ordinal()] 	 = sixDOFDerivatives[6];
+			row[SimOuts.THETA_DOT.ordinal()] = sixDOFDerivatives[7];
+			row[SimOuts.PSI_DOT.ordinal()] 	 = sixDOFDerivatives[8];
+			row[SimOuts.P_DOT.ordinal()] 	 = sixDOFDerivatives[9];
+			row[SimOuts.Q_DOT.ordinal()] 	 = sixDOFDerivatives[10];
+			row[SimOuts.R_DOT.ordinal()] 	 = sixDOFDerivatives[11];
 	
 			// Engine(s)
-			simOut.put(SimOuts.THRUST_1, 	0.0);
-			simOut.put(SimOuts.RPM_1, 	 	0.0);
-			simOut.put(SimOuts.FUEL_FLOW_1, 0.0);
-			simOut.put(SimOuts.THRUST_2, 	0.0);
-			simOut.put(SimOuts.RPM_2, 	 	0.0);
-			simOut.put(SimOuts.FUEL_FLOW_2, 0.0);
-			simOut.put(SimOuts.THRUST_3, 	0.0);
-			simOut.put(SimOuts.RPM_3, 	 	0.0);
-			simOut.put(SimOuts.FUEL_FLOW_3, 0.0);
-			simOut.put(SimOuts.THRUST_4, 	0.0);
-			simOut.put(SimOuts.RPM_4, 	 	0.0);
-			simOut.put(SimOuts.FUEL_FLOW_4, 0.0);
-	
-			for (Engine engine : engineList) {
-				int engineNumber = engine.getEngineNumber();
+			for (int i = 0; i < ENGINE_OUTPUTS.length; i++)
+				row[ENGINE_OUTPUTS[i].ordinal()] = 0.0;
+	
+			for (Engine engine : engines) {
+				int engineOutput = (engine.getEngineNumber() - 1) * 3;
 				
-				simOut.put(Enum.valueOf(SimOuts.class, "THRUST_" + engineNumber), 	 engine.getEngineThrust()[0]);
-				simOut.put(Enum.valueOf(SimOuts.class, "RPM_" + engineNumber), 	 	 engine.getRPM());
-				simOut.put(Enum.valueOf(SimOuts.class, "FUEL_FLOW_" + engineNumber), engine.getFuelFlow());
+				row[ENGINE_OUTPUTS[engineOutput].ordinal()] 	= engine.getEngineThrust()[0];
+				row[ENGINE_OUTPUTS[engineOutput + 1].ordinal()] = engine.getRPM();
+				row[ENGINE_OUTPUTS[engineOutput + 2].ordinal()] = engine.getFuelFlow();
 			}
 			
 			// Controls
-			simOut.put(SimOuts.ELEVATOR,    controlsMap.get(FlightControl.ELEVATOR));
-			simOut.put(SimOuts.AILERON, 	controlsMap.get(FlightControl.AILERON));
-			simOut.put(SimOuts.RUDDER, 	 	controlsMap.get(FlightControl.RUDDER));
-			simOut.put(SimOuts.THROTTLE_1, 	controlsMap.get(FlightControl.THROTTLE_1));
-			simOut.put(SimOuts.THROTTLE_2, 	controlsMap.get(FlightControl.THROTTLE_2));
-			simOut.put(SimOuts.THROTTLE_3, 	controlsMap.get(FlightControl.THROTTLE_3));
-			simOut.put(SimOuts.THROTTLE_4, 	controlsMap.get(FlightControl.THROTTLE_4));
-			simOut.put(SimOuts.PROPELLER_1, controlsMap.get(FlightControl.PROPELLER_1));
-			simOut.put(SimOuts.PROPELLER_2, controlsMap.get(FlightControl.PROPELLER_2));
-			simOut.put(SimOuts.PROPELLER_3, controlsMap.get(FlightControl.PROPELLER_3));
-			simOut.put(SimOuts.PROPELLER_4, controlsMap.get(FlightControl.PROPELLER_4));
-			simOut.put(SimOuts.MIXTURE_1, 	controlsMap.get(FlightControl.MIXTURE_1));
-			simOut.put(SimOuts.MIXTURE_2, 	controlsMap.get(FlightControl.MIXTURE_2));
-			simOut.put(SimOuts.MIXTURE_3, 	controlsMap.get(FlightControl.MIXTURE_3));
-			simOut.put(SimOuts.MIXTURE_4, 	controlsMap.get(FlightControl.MIXTURE_4));
-			simOut.put(SimOuts.FLAPS, 	 	controlsMap.get(FlightControl.FLAPS));
-			simOut.put(SimOuts.GEAR, 	 	controlsMap.get(FlightControl.GEAR));
+			row[SimOuts.ELEVATOR.ordinal()]    = controlsMap.get(FlightControl.ELEVATOR);
+			row[SimOuts.AILERON.ordinal()] 	   = controlsMap.get(FlightControl.AILERON);
+			row[SimOuts.RUDDER.ordinal()] 	   = controlsMap.get(FlightControl.RUDDER);
+			row[SimOuts.THROTTLE_1.ordinal()]  = controlsMap.get(FlightControl.THROTTLE_1);
+			row[SimOuts.THROTTLE_2.ordinal()]  = controlsMap.get(FlightControl.THROTTLE_2);
+			row[SimOuts.THROTTLE_3.ordinal()]  = controlsMap.get(FlightControl.THROTTLE_3);
+			row[SimOuts.THROTTLE_4.ordinal()]  = controlsMap.get(FlightControl.THROTTLE_4);
+			row[SimOuts.PROPELLER_1.ordinal()] = controlsMap.get(FlightControl.PROPELLER_1);
+			row[SimOuts.PROPELLER_2.ordinal()] = controlsMap.get(FlightControl.PROPELLER_2);
+			row[SimOuts.PROPELLER_3.ordinal()] = controlsMap.get(FlightControl.PROPELLER_3);
+			row[SimOuts.PROPELLER_4.ordinal()] = controlsMap.get(FlightControl.PROPELLER_4);
+			row[SimOuts.MIXTURE_1.ordinal()]   = controlsMap.get(FlightControl.MIXTURE_1);
+			row[SimOuts.MIXTURE_2.ordinal()]   = controlsMap.get(FlightControl.MIXTURE_2);
+			row[SimOuts.MIXTURE_3.ordinal()]   = controlsMap.get(FlightControl.MIXTURE_3);
+			row[SimOuts.MIXTURE_4.ordinal()]   = controlsMap.get(FlightControl.MIXTURE_4);
+			row[SimOuts.FLAPS.ordinal()] 	   = controlsMap.get(FlightControl.FLAPS);
+			row[SimOuts.GEAR.ordinal()] 	   = controlsMap.get(FlightControl.GEAR);
+			
+			simOutLogged = true;
 		}
 		
-		synchronized (logsOut) {
-			// Removes the first entry in logsOut to keep a maximum of 100 sec of flight data in UNLIMITED_FLIGHT
-			if (options.contains(Options.UNLIMITED_FLIGHT) & t >= 100 & logsOut.size() > 0)
-				logsOut.remove(0);
-				
-			// Add output step to logging arrayList
-			logsOut.add(simOut);	
-		}
+		// Copy output step into the columnar log; in UNLIMITED_FLIGHT this evicts the oldest step once the retention window is full
+		logsOut.append(row);
+		
+		// Stream the full session to disk without waiting on the writer thread, if recording
+		if (flightRecorder != null)
+			flightRecorder.offer(row);
+		
+		// Latest step for co-located readers; a copy into the mapped ring, so cheap enough to do on every step
+		if (sharedMemoryExporter != null)
+			sharedMemoryExporter.write(row);
 	}
 	
 	//================================= Simulation Logging =====================================================
 	
 	/**
-	 * Returns an ArrayList of {@link Integrate6DOFEquations#getSimOut()} objects; acts as a logging method, which can be used to plot simulation data
-	 * or output it to a file
+	 * Returns the columnar {@link FlightLog} of simulation outputs logged at each step; acts as a logging method, which can be used 
+	 * to plot simulation data or output it to a file. Readers of the log never block the simulation thread
 	 * 
 	 * @return logsOut
 	 */
-	public synchronized List<Map<SimOuts, Double>> getLogsOut() { return Collections.unmodifiableList(logsOut); }
+	public FlightLog getLogsOut() { return logsOut; }
+	
+	/**
+	 * Sets a {@link StreamingFlightRecorder} to publish simulation outputs to after each step, in addition to logsOut  
+	 * 
+	 * @param flightRecorder recorder to publish to, or null to stop publishing
+	 */
+	public void setFlightRecorder(StreamingFlightRecorder flightRecorder) { this.flightRecorder = flightRecorder; }
+	
+	/**
+	 * Sets a {@link SharedMemoryExporter} to write simulation outputs to after each step, in addition to logsOut  
+	 * 
+	 * @param sharedMemoryExporter exporter to write to, or null to stop exporting
+	 */
+	public void setSharedMemoryExporter(SharedMemoryExporter sharedMemoryExporter) { this.sharedMemoryExporter = sharedMemoryExporter; }
 	
 	/**
-	 * Clears logsOut list of past data in preparation for recording a new maneuver 
+	 * Clears logsOut of past data in preparation for recording a new maneuver 
 	 * 
-	 * @return If logsOut list was successfully deleted
+	 * @return If logsOut was successfully cleared
 	 */
-	public synchronized boolean clearLogsOut() { return logsOut.removeAll(logsOut); }
+	public boolean clearLogsOut() { 
+		boolean hadData = !logsOut.isEmpty();
+		logsOut.clear();
+		
+		return hadData;
+	}
 	
 	/**
-	 * Returns an EnumMap of data for a single step of integration accomplished in {@link Integrate6DOFEquations#accelAndMoments#logData(double)}	
+	 * Returns an EnumMap of data for the latest step of integration accomplished in {@link Integrate6DOFEquations#logData(double)}, 
+	 * or null if no step has been logged yet	
 	 * 
 	 * @return simOut
 	 */
-	public synchronized Map<SimOuts, Double> getSimOut() { return Collections.unmodifiableMap(simOut); }
+	public Map<SimOuts, Double> getSimOut() {
+		synchronized (simOutRow) {
+			if (!simOutLogged)
+				return null;
+			
+			Map<SimOuts, Double> simOut = new EnumMap<>(SimOuts.class);
+			for (SimOuts simOutType : SIM_OUTS)
+				simOut.put(simOutType, simOutRow[simOutType.ordinal()]);
+			
+			return Collections.unmodifiableMap(simOut);
+		}
+	}
+	
+	/**
+	 * Copies the data for the latest step of integration accomplished in {@link Integrate6DOFEquations#logData(double)} into row, 
+	 * without allocating  
+	 * 
+	 * @param row array indexed by {@link SimOuts#ordinal()}
+	 * @return false, leaving row unchanged, if no step has been logged yet
+	 */
+	public boolean copySimOut(double[] row) {
+		synchronized (simOutRow) {
+			if (!simOutLogged)
+				return false;
+			
+			System.arraycopy(simOutRow, 0, row, 0, simOutRow.length);
+			
+			return true;
+		}
+	}
 	
 	//========================================= Time ============================================================
 	
@@ -499,10 +787,10 @@ public class Integrate6DOFEquations implements Steppable, EnvironmentDataListene
 	 * @param temperature
 	 */
 	public void setWeather(double windSpeed, double windDir, double temperature) {
-		Environment.setWindDir(windDir);
-		Environment.setWindSpeed(windSpeed);
+		environment.setWindDir(windDir);
+		environment.setWindSpeed(windSpeed);
 		// Subtract standard temperature from argument to get deviation from standard, then convert C deg to F deg 
-		Environment.setDeltaIsa((temperature-15)*9/5);
+		environment.setDeltaIsa((temperature-15)*9/5);
 	}
 	
 	@Override
@@ -22,9 +22,9 @@ package com.chrisali.javaflightsim.simulation.integration;
 import java.text.DecimalFormat;
 import java.util.Map;
 
-import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
 import org.apache.commons.math3.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.apache.commons.math3.util.MathArrays;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -77,7 +77,8 @@ public class IntegrateGroundReaction {
 	private double[] totalGroundMoments		   = new double[3]; //{Fx, Fy, Fz} [lbf]
 	
 	// Integrator Fields
-	private ClassicalRungeKuttaIntegrator integrator;
+	private ClassicalRungeKuttaStepper integrator;
+	private GroundReactionEquations groundReactionEquations = new GroundReactionEquations();
 	private double   t;
 	private double[] integratorConfig		   = new double[3];
 	private double[] groundReactionDerivatives = new double[6];
@@ -94,6 +95,12 @@ public class IntegrateGroundReaction {
 	
 	private double[] sixDOFDerivatives		   = new double[14];
 	
+	// Scratch buffers reused each step to avoid creating new objects
+	private double[][] dirCosMat			   = new double[3][3];
+	private double[]   gearRelativeCG		   = new double[3]; // Position of {nose, left, right} gear relative to CG position
+	private double[]   gearMomentArm		   = new double[3];
+	private double[]   tireStates			   = new double[6];
+	
 	/**
 	 * Constructor for ground reaction integrator; uses references to integrated states from 
 	 * {@link Integrate6DOFEquations} as well as terrain height received from the 
@@ -139,7 +146,7 @@ public class IntegrateGroundReaction {
 		
 		logger.debug("Setting up Runge Kutta Integrator for 6DOF calculations...");
 		
-		integrator = new ClassicalRungeKuttaIntegrator(integratorConfig[2]);
+		integrator = new ClassicalRungeKuttaStepper(y0.length);
 		t = integratorConfig[0];
 		
 		updateDerivatives(y);
@@ -147,9 +154,8 @@ public class IntegrateGroundReaction {
 	
 	/**
 	 * Ground reaction derivatives integrated to determine ground forces and moments; 
-	 * {@link IntegrateGroundReaction#updateDerivatives(double[])} is called in each step of
-	 * integration to recalculate derivatives, which are then passed into the yDot[] array 
-	 * programmatically
+	 * {@link IntegrateGroundReaction#calculateDerivatives(double[], double[])} is called at each stage of
+	 * integration to evaluate the spring-mass-damper derivatives at that stage's intermediate state
 	 * 
 	 * @author Christopher Ali
 	 *
@@ -157,8 +163,7 @@ public class IntegrateGroundReaction {
 	private class GroundReactionEquations implements FirstOrderDifferentialEquations {
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
-			for (int i = 0; i < groundReactionDerivatives.length; i++)
-				yDot[i] = groundReactionDerivatives[i];			
+			calculateDerivatives(y, yDot);
 		}
 
 		@Override
@@ -199,23 +204,33 @@ public class IntegrateGroundReaction {
 			}
 		}
 		
+		calculateDerivatives(y, groundReactionDerivatives);
+	}
+	
+	/**
+	 * Evaluates the spring-mass-damper derivatives of each landing gear for the state y, writing them into yDot
+	 * 
+	 * @param y
+	 * @param yDot
+	 */
+	private void calculateDerivatives(double[] y, double[] yDot) {
 		// Nose
-		groundReactionDerivatives[0] = y[1];
-		groundReactionDerivatives[1] =  (- groundReaction.get(GroundReaction.NOSE_DAMPING)/mass * y[1]) 
-									 	- (groundReaction.get(GroundReaction.NOSE_SPRING)/mass * y[0])
-									 	+ noseGroundForces[2]/mass;
+		yDot[0] = y[1];
+		yDot[1] =  (- groundReaction.get(GroundReaction.NOSE_DAMPING)/mass * y[1]) 
+				   - (groundReaction.get(GroundReaction.NOSE_SPRING)/mass * y[0])
+				   + noseGroundForces[2]/mass;
 		
 		// Left Main
-		groundReactionDerivatives[2] = y[3];
-		groundReactionDerivatives[3] =  (- groundReaction.get(GroundReaction.LEFT_DAMPING)/mass * y[3]) 
-									 	- (groundReaction.get(GroundReaction.LEFT_SPRING)/mass * y[2])
-									 	+ leftGroundForces[2]/mass;
+		yDot[2] = y[3];
+		yDot[3] =  (- groundReaction.get(GroundReaction.LEFT_DAMPING)/mass * y[3]) 
+				   - (groundReaction.get(GroundReaction.LEFT_SPRING)/mass * y[2])
+				   + leftGroundForces[2]/mass;
 		
 		// Right Main
-		groundReactionDerivatives[4] = y[5];
-		groundReactionDerivatives[5] =  (- groundReaction.get(GroundReaction.RIGHT_DAMPING)/mass * y[5]) 
-									 	- (groundReaction.get(GroundReaction.RIGHT_SPRING)/mass * y[4])
-									 	+ rightGroundForces[2]/mass;
+		yDot[4] = y[5];
+		yDot[5] =  (- groundReaction.get(GroundReaction.RIGHT_DAMPING)/mass * y[5]) 
+				   - (groundReaction.get(GroundReaction.RIGHT_SPRING)/mass * y[4])
+				   + rightGroundForces[2]/mass;
 	}
 	
 	/**
@@ -223,30 +238,26 @@ public class IntegrateGroundReaction {
 	 * calculate ground reaction derivatives and forces 
 	 */
 	private void calculateTirePositionsAndVelocities() {
-		double[][] dirCosMat = SixDOFUtilities.body2Ned(eulerAngles);
-		double[] gearRelativeCG; // Position of {nose, left, right} gear relative to CG position
+		SixDOFUtilities.body2Ned(eulerAngles, dirCosMat);
 		
 		// i=0 (nose), i=1 (left main), i=2 (right main)
 		for (int i = 0; i < 3; i++) {
 			// Assign body gear positions depending on stage of loop
 			switch(i) {
 			case 0:
-				gearRelativeCG = new double[]{groundReaction.get(GroundReaction.NOSE_X),
-											  groundReaction.get(GroundReaction.NOSE_Y),
-											  groundReaction.get(GroundReaction.NOSE_Z)};
+				gearRelativeCG[0] = groundReaction.get(GroundReaction.NOSE_X);
+				gearRelativeCG[1] = groundReaction.get(GroundReaction.NOSE_Y);
+				gearRelativeCG[2] = groundReaction.get(GroundReaction.NOSE_Z);
 				break;
 			case 1:
-				gearRelativeCG = new double[]{groundReaction.get(GroundReaction.LEFT_X),
-											  groundReaction.get(GroundReaction.LEFT_Y),
-											  groundReaction.get(GroundReaction.LEFT_Z)};
+				gearRelativeCG[0] = groundReaction.get(GroundReaction.LEFT_X);
+				gearRelativeCG[1] = groundReaction.get(GroundReaction.LEFT_Y);
+				gearRelativeCG[2] = groundReaction.get(GroundReaction.LEFT_Z);
 				break;
 			case 2:
-				gearRelativeCG = new double[]{groundReaction.get(GroundReaction.RIGHT_X),
-											  groundReaction.get(GroundReaction.RIGHT_Y),
-											  groundReaction.get(GroundReaction.RIGHT_Z)};
-				break;
-			default:
-				gearRelativeCG = new double[]{0, 0, 0};
+				gearRelativeCG[0] = groundReaction.get(GroundReaction.RIGHT_X);
+				gearRelativeCG[1] = groundReaction.get(GroundReaction.RIGHT_Y);
+				gearRelativeCG[2] = groundReaction.get(GroundReaction.RIGHT_Z);
 				break;
 			}
 			
@@ -328,9 +339,11 @@ public class IntegrateGroundReaction {
 	 * to the center of gravity and ground reaction forces
 	 */
 	private void calculateTotalGroundMoments() {
-		double[] tempTotalGroundMoments = new double[]{0, 0, 0};
-		Vector3D forceVector;
-		Vector3D gearRelativeCGVector;
+		double[] forces;
+		
+		totalGroundMoments[0] = 0;
+		totalGroundMoments[1] = 0;
+		totalGroundMoments[2] = 0;
 		
 		// i=0 (nose), i=1 (left main), i=2 (right main)
 		for (int i = 0; i < 3; i++) {
@@ -338,50 +351,45 @@ public class IntegrateGroundReaction {
 			// Scale down moments by scaling the arm lengths (negative sign produces realistic braking moments)
 			switch(i) {
 			case 0:
-				gearRelativeCGVector = new Vector3D(new double[]{groundReaction.get(GroundReaction.NOSE_X),
-																 groundReaction.get(GroundReaction.NOSE_Y),
-																-groundReaction.get(GroundReaction.NOSE_Z)*0.125});
-				forceVector = new Vector3D(noseGroundForces);
+				gearMomentArm[0] =  groundReaction.get(GroundReaction.NOSE_X);
+				gearMomentArm[1] =  groundReaction.get(GroundReaction.NOSE_Y);
+				gearMomentArm[2] = -groundReaction.get(GroundReaction.NOSE_Z)*0.125;
+				forces = noseGroundForces;
 				break;
 			case 1:
-				gearRelativeCGVector = new Vector3D(new double[]{groundReaction.get(GroundReaction.LEFT_X),
-																 groundReaction.get(GroundReaction.LEFT_Y)*0.25,
-																-groundReaction.get(GroundReaction.LEFT_Z)*0.125});
-				forceVector = new Vector3D(leftGroundForces);
-				break;
-			case 2:
-				gearRelativeCGVector = new Vector3D(new double[]{groundReaction.get(GroundReaction.RIGHT_X),
-																 groundReaction.get(GroundReaction.RIGHT_Y)*0.25,
-																-groundReaction.get(GroundReaction.RIGHT_Z)*0.125});
-				forceVector = new Vector3D(rightGroundForces);
+				gearMomentArm[0] =  groundReaction.get(GroundReaction.LEFT_X);
+				gearMomentArm[1] =  groundReaction.get(GroundReaction.LEFT_Y)*0.25;
+				gearMomentArm[2] = -groundReaction.get(GroundReaction.LEFT_Z)*0.125;
+				forces = leftGroundForces;
 				break;
 			default:
-				gearRelativeCGVector = new Vector3D(new double[]{0, 0, 0});
-				forceVector = new Vector3D(new double[]{0, 0, 0});
+				gearMomentArm[0] =  groundReaction.get(GroundReaction.RIGHT_X);
+				gearMomentArm[1] =  groundReaction.get(GroundReaction.RIGHT_Y)*0.25;
+				gearMomentArm[2] = -groundReaction.get(GroundReaction.RIGHT_Z)*0.125;
+				forces = rightGroundForces;
 				break;
 			}
 		
-			// Take the cross product of force and arm vectors and add them to total moments 
-			for (int j = 0; j < tempTotalGroundMoments.length; j ++)
-				tempTotalGroundMoments[j] += Vector3D.crossProduct(forceVector, gearRelativeCGVector).toArray()[j];
+			// Take the cross product of force and arm vectors and add them to total moments (same ordering and accuracy as Vector3D.crossProduct) 
+			totalGroundMoments[0] += MathArrays.linearCombination(forces[1], gearMomentArm[2], -forces[2], gearMomentArm[1]);
+			totalGroundMoments[1] += MathArrays.linearCombination(forces[2], gearMomentArm[0], -forces[0], gearMomentArm[2]);
+			totalGroundMoments[2] += MathArrays.linearCombination(forces[0], gearMomentArm[1], -forces[1], gearMomentArm[0]);
 		}
 		
 		// Saturate ground moments if forward speed is less than 10 ft/sec
 		if (linearVelocities[0] < 10) {
-			tempTotalGroundMoments[0] = (tempTotalGroundMoments[0] >  100) ?  100 : 
-								   		(tempTotalGroundMoments[0] < -100) ? -100 : 
-									     tempTotalGroundMoments[0];
+			totalGroundMoments[0] = (totalGroundMoments[0] >  100) ?  100 : 
+							   		(totalGroundMoments[0] < -100) ? -100 : 
+								     totalGroundMoments[0];
 
-			tempTotalGroundMoments[1] = (tempTotalGroundMoments[1] >  100) ?  100 : 
-								   		(tempTotalGroundMoments[1] < -100) ? -100 : 
-									     tempTotalGroundMoments[1];
+			totalGroundMoments[1] = (totalGroundMoments[1] >  100) ?  100 : 
+							   		(totalGroundMoments[1] < -100) ? -100 : 
+								     totalGroundMoments[1];
 			
-			tempTotalGroundMoments[2] = (tempTotalGroundMoments[1] >  100) ?  100 : 
-								   		(tempTotalGroundMoments[1] < -100) ? -100 : 
-								   		 tempTotalGroundMoments[1];
+			totalGroundMoments[2] = (totalGroundMoments[1] >  100) ?  100 : 
+							   		(totalGroundMoments[1] < -100) ? -100 : 
+							   		 totalGroundMoments[1];
 		}
-		
-		totalGroundMoments = tempTotalGroundMoments;
 	}
 	
 	/**
@@ -390,18 +398,14 @@ public class IntegrateGroundReaction {
 	 * based on the results 
 	 */
 	public void integrateStep(double terrainHeight) {
-		this.terrainHeight = terrainHeight;
+		updateDerivativesFromTires(terrainHeight);
 		
-		calculateTirePositionsAndVelocities();
-		
-		updateDerivatives(new double[] {tirePosition[0],tireVelocity[0],
-										tirePosition[1],tireVelocity[1],
-										tirePosition[2],tireVelocity[2]});
 		// Run a single step of integration
-		y = integrator.singleStep(new GroundReactionEquations(), // derivatives
-								  t, 		  					 // start time
-								  y0, 		  					 // initial conditions
-								  t+integratorConfig[1]);   	 // end time (t+dt)
+		integrator.singleStep(groundReactionEquations, // derivatives
+							  t, 		  			   // start time
+							  y0, 		  			   // initial conditions
+							  t+integratorConfig[1],   // end time (t+dt)
+							  y);					   // results
 		
 		calculateTotalGroundForces();
 		calculateTotalGroundMoments();
@@ -409,6 +413,39 @@ public class IntegrateGroundReaction {
 		t += integratorConfig[1];
 	}
 	
+	/**
+	 * Calculates the positions and velocities of each landing gear on the aircraft for the current 6DOF states and 
+	 * recalculates ground forces and moments from them without advancing the ground reaction integrator. Used by 
+	 * {@link Integrate6DOFEquations} to evaluate ground reaction at the intermediate states of each Runge Kutta stage 
+	 * 
+	 * @param terrainHeight
+	 */
+	public void updateForcesAndMoments(double terrainHeight) {
+		updateDerivativesFromTires(terrainHeight);
+		
+		calculateTotalGroundForces();
+		calculateTotalGroundMoments();
+	}
+	
+	/**
+	 * Calculates tire positions and velocities relative to the terrain, then updates ground reaction derivatives
+	 * using them as states
+	 * 
+	 * @param terrainHeight
+	 */
+	private void updateDerivativesFromTires(double terrainHeight) {
+		this.terrainHeight = terrainHeight;
+		
+		calculateTirePositionsAndVelocities();
+		
+		for (int i = 0; i < tirePosition.length; i++) {
+			tireStates[2*i]   = tirePosition[i];
+			tireStates[2*i+1] = tireVelocity[i];
+		}
+		
+		updateDerivatives(tireStates);
+	}
+	
 	/**
 	 * @return If aircraft is on ground
 	 */
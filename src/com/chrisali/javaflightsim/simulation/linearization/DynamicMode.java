@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.linearization;
+
+/**
+ * Classical rigid body dynamic modes of an aircraft, identified from the eigenvalues of a {@link LinearModel}. The string field
+ * is used to display the name of each mode 
+ */
+public enum DynamicMode {
+	SHORT_PERIOD ("Short Period"),
+	PHUGOID		 ("Phugoid"),
+	DUTCH_ROLL	 ("Dutch Roll"),
+	ROLL		 ("Roll Subsidence"),
+	SPIRAL		 ("Spiral");
+	
+	private final String mode;
+	
+	private DynamicMode(String mode) {this.mode = mode;}
+	
+	public String toString() {return mode;}
+}
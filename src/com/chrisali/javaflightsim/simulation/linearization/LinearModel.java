@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.linearization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.math3.complex.Complex;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+
+/**
+ * Linear state space model x_dot = Ax + Bu of the aircraft about a trim point, produced by {@link LinearizationService}. States 
+ * are the 14 (12 6DOF + 2 lat/lon) states integrated by the simulation, in the order of {@link LinearModel#STATES}, and inputs
+ * are the flight controls perturbed to generate the model.
+ * <p>On construction the eigenvalues of A are calculated, and the classical dynamic modes are identified from the eigenvalues 
+ * of its longitudinal (u, w, q, theta) and lateral-directional (v, p, r, phi) partitions: the faster longitudinal pair is the 
+ * short period and the slower the phugoid; a lateral complex pair is the Dutch roll, the fastest real root the roll 
+ * subsidence and the slowest the spiral</p>
+ * 
+ * @see DynamicMode
+ * @see Source: <i>Aircraft Control and Simulation by Stevens, B.L. and Lewis, F.L.</i>
+ */
+public class LinearModel {
+	
+	/**
+	 * States of the model, in the order of the rows and columns of A 
+	 */
+	public static final SimOuts[] STATES = {SimOuts.U, SimOuts.V, SimOuts.W, SimOuts.NORTH, SimOuts.EAST, SimOuts.ALT,
+											SimOuts.PHI, SimOuts.THETA, SimOuts.PSI, SimOuts.P, SimOuts.Q, SimOuts.R,
+											SimOuts.LAT, SimOuts.LON};
+	
+	private static final int[] LONGITUDINAL_STATES = {0, 2, 10, 7};  // u, w, q, theta
+	private static final int[] LATERAL_STATES	   = {1, 9, 11, 6};  // v, p, r, phi
+	
+	private double[] trimState;
+	private FlightControl[] controls;
+	private double[] trimControls;
+	private double[][] a;
+	private double[][] b;
+	
+	private double[] eigenvaluesReal;
+	private double[] eigenvaluesImaginary;
+	private Map<DynamicMode, ModeCharacteristics> modes = new EnumMap<>(DynamicMode.class);
+	
+	/**
+	 * Creates a linear model and identifies its dynamic modes
+	 * 
+	 * @param trimState state the model is linearized about, in the order of {@link LinearModel#STATES}
+	 * @param controls flight controls that are the inputs of the model
+	 * @param trimControls values of controls the model is linearized about
+	 * @param a state matrix (14 x 14)
+	 * @param b input matrix (14 x number of controls)
+	 */
+	public LinearModel(double[] trimState, FlightControl[] controls, double[] trimControls, double[][] a, double[][] b) {
+		this.trimState = trimState;
+		this.controls = controls;
+		this.trimControls = trimControls;
+		this.a = a;
+		this.b = b;
+		
+		EigenDecomposition eigen = new EigenDecomposition(new Array2DRowRealMatrix(a, false));
+		eigenvaluesReal = eigen.getRealEigenvalues();
+		eigenvaluesImaginary = eigen.getImagEigenvalues();
+		
+		identifyLongitudinalModes(eigenvalues(LONGITUDINAL_STATES));
+		identifyLateralModes(eigenvalues(LATERAL_STATES));
+	}
+	
+	/**
+	 * @param states
+	 * @return eigenvalues of the partition of A made up of the rows and columns of states, sorted from slowest to fastest
+	 */
+	private List<Complex> eigenvalues(int[] states) {
+		RealMatrix partition = new Array2DRowRealMatrix(a, false).getSubMatrix(states, states);
+		EigenDecomposition eigen = new EigenDecomposition(partition);
+		
+		List<Complex> eigenvalues = new ArrayList<>();
+		for (int i = 0; i < states.length; i++)
+			eigenvalues.add(new Complex(eigen.getRealEigenvalue(i), eigen.getImagEigenvalue(i)));
+		
+		eigenvalues.sort(Comparator.comparingDouble(Complex::abs));
+		
+		return eigenvalues;
+	}
+	
+	/**
+	 * The two slowest roots are the phugoid and the two fastest the short period
+	 * 
+	 * @param eigenvalues sorted from slowest to fastest
+	 */
+	private void identifyLongitudinalModes(List<Complex> eigenvalues) {
+		modes.put(DynamicMode.PHUGOID, 		pairCharacteristics(eigenvalues.get(0), eigenvalues.get(1)));
+		modes.put(DynamicMode.SHORT_PERIOD, pairCharacteristics(eigenvalues.get(2), eigenvalues.get(3)));
+	}
+	
+	/**
+	 * A complex pair is the Dutch roll, leaving the slowest real root as the spiral and fastest as the roll subsidence. If all
+	 * roots are real, the middle two are taken as an overdamped Dutch roll. If there are two complex pairs, the roll and spiral
+	 * have coupled into a slower oscillation, and the faster pair is taken as the Dutch roll
+	 * 
+	 * @param eigenvalues sorted from slowest to fastest
+	 */
+	private void identifyLateralModes(List<Complex> eigenvalues) {
+		List<Complex> real = new ArrayList<>();
+		List<Complex> complex = new ArrayList<>();
+		
+		for (Complex eigenvalue : eigenvalues) {
+			if (eigenvalue.getImaginary() == 0)
+				real.add(eigenvalue);
+			else if (eigenvalue.getImaginary() > 0)
+				complex.add(eigenvalue);
+		}
+		
+		if (complex.isEmpty()) {
+			modes.put(DynamicMode.DUTCH_ROLL, pairCharacteristics(real.get(1), real.get(2)));
+			modes.put(DynamicMode.SPIRAL, 	  new ModeCharacteristics(real.get(0).getReal(), 0));
+			modes.put(DynamicMode.ROLL, 	  new ModeCharacteristics(real.get(3).getReal(), 0));
+		} else if (complex.size() == 1) {
+			modes.put(DynamicMode.DUTCH_ROLL, new ModeCharacteristics(complex.get(0).getReal(), complex.get(0).getImaginary()));
+			modes.put(DynamicMode.SPIRAL, 	  new ModeCharacteristics(real.get(0).getReal(), 0));
+			modes.put(DynamicMode.ROLL, 	  new ModeCharacteristics(real.get(1).getReal(), 0));
+		} else {
+			ModeCharacteristics rollSpiral = new ModeCharacteristics(complex.get(0).getReal(), complex.get(0).getImaginary());
+			
+			modes.put(DynamicMode.DUTCH_ROLL, new ModeCharacteristics(complex.get(1).getReal(), complex.get(1).getImaginary()));
+			modes.put(DynamicMode.SPIRAL, 	  rollSpiral);
+			modes.put(DynamicMode.ROLL, 	  rollSpiral);
+		}
+	}
+	
+	/**
+	 * @param first
+	 * @param second
+	 * @return characteristics of the complex pair, or of the least stable root if both are real
+	 */
+	private static ModeCharacteristics pairCharacteristics(Complex first, Complex second) {
+		if (first.getImaginary() != 0)
+			return new ModeCharacteristics(first.getReal(), first.getImaginary());
+		
+		return new ModeCharacteristics(Math.max(first.getReal(), second.getReal()), 0);
+	}
+	
+	public double[] getTrimState() { return trimState; }
+
+	public FlightControl[] getControls() { return controls; }
+
+	public double[] getTrimControls() { return trimControls; }
+
+	/**
+	 * @return state matrix; element [i][j] is the partial derivative of state i's derivative with respect to state j
+	 */
+	public double[][] getA() { return a; }
+
+	/**
+	 * @return input matrix; element [i][j] is the partial derivative of state i's derivative with respect to control j
+	 */
+	public double[][] getB() { return b; }
+
+	/**
+	 * @return real parts of the eigenvalues of A
+	 */
+	public double[] getEigenvaluesReal() { return eigenvaluesReal; }
+
+	/**
+	 * @return imaginary parts of the eigenvalues of A
+	 */
+	public double[] getEigenvaluesImaginary() { return eigenvaluesImaginary; }
+
+	/**
+	 * @return dynamic modes identified from the eigenvalues of A
+	 */
+	public Map<DynamicMode, ModeCharacteristics> getModes() { return modes; }
+	
+	/**
+	 * @param mode
+	 * @return characteristics of the specified mode
+	 */
+	public ModeCharacteristics getMode(DynamicMode mode) { return modes.get(mode); }
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		
+		for (Map.Entry<DynamicMode, ModeCharacteristics> entry : modes.entrySet())
+			sb.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+		
+		return sb.toString();
+	}
+}
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.linearization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.SimulationContext;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.setup.Trimming;
+
+/**
+ * Extracts {@link LinearModel} state space models of the aircraft about a trim point, such as one found by 
+ * {@link Trimming#trimSim(SimulationConfiguration, boolean)}. The A and B Jacobians are calculated by central finite 
+ * differences of the 6DOF state derivatives from {@link Integrate6DOFEquations#computeDerivatives(double[], double[])}, 
+ * so no simulation needs to be run.
+ * <p>The 2 x (14 + number of controls) perturbed evaluations are spread across a {@link ForkJoinPool}; each thread 
+ * evaluates derivatives with its own {@link Integrate6DOFEquations} and {@link SimulationContext}, which are created once 
+ * when the service is constructed and reused for every model extracted</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class LinearizationService {
+	
+	private static final Logger logger = LogManager.getLogger(LinearizationService.class);
+	
+	// Relative size of each perturbation; close to the cube root of machine epsilon, which balances truncation and round off error
+	private static final double PERTURBATION = 1e-5;
+	
+	private static final int STATES = LinearModel.STATES.length;
+	
+	private static final FlightControl[] THROTTLES = {FlightControl.THROTTLE_1, FlightControl.THROTTLE_2, 
+													  FlightControl.THROTTLE_3, FlightControl.THROTTLE_4};
+	
+	private SimulationConfiguration configuration;
+	private ForkJoinPool pool;
+	private List<Evaluator> evaluators = new ArrayList<>();
+	private FlightControl[] defaultControls;
+	
+	/**
+	 * Creates a linearization service that evaluates derivatives on as many threads as there are available processors
+	 * 
+	 * @param configuration configuration whose selected aircraft, initial conditions and initial controls define the trim point
+	 */
+	public LinearizationService(SimulationConfiguration configuration) {
+		this(configuration, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a linearization service that evaluates derivatives on up to parallelism threads
+	 * 
+	 * @param configuration configuration whose selected aircraft, initial conditions and initial controls define the trim point
+	 * @param parallelism
+	 */
+	public LinearizationService(SimulationConfiguration configuration, int parallelism) {
+		logger.debug("Initializing linearization service with " + parallelism + " threads...");
+		
+		this.configuration = configuration;
+		pool = new ForkJoinPool(parallelism);
+		
+		for (int i = 0; i < parallelism; i++)
+			evaluators.add(new Evaluator(configuration));
+		
+		// Elevator, aileron, rudder and the throttle of each engine
+		int engines = evaluators.get(0).context.getAircraft().getEngines().size();
+		defaultControls = new FlightControl[3 + engines];
+		defaultControls[0] = FlightControl.ELEVATOR;
+		defaultControls[1] = FlightControl.AILERON;
+		defaultControls[2] = FlightControl.RUDDER;
+		
+		for (int i = 0; i < engines; i++)
+			defaultControls[3 + i] = THROTTLES[i];
+	}
+	
+	/**
+	 * Linearizes about the current initial conditions and initial controls of the configuration, using the elevator, aileron, 
+	 * rudder and the throttle of each engine as inputs
+	 * 
+	 * @return linear model about the trim point
+	 * @throws IllegalStateException if the derivatives could not be evaluated, or the calling thread was interrupted
+	 */
+	public LinearModel linearize() {
+		return linearize(defaultControls);
+	}
+	
+	/**
+	 * Linearizes about the current initial conditions and initial controls of the configuration
+	 * 
+	 * @param controls flight controls to use as inputs of the model
+	 * @return linear model about the trim point
+	 * @throws IllegalStateException if the derivatives could not be evaluated, or the calling thread was interrupted
+	 */
+	public LinearModel linearize(FlightControl[] controls) {
+		double[] trimState = ArrayUtils.toPrimitive(configuration.getInitialConditions().values().toArray(new Double[STATES]));
+		Map<FlightControl, Double> trimControlsMap = configuration.getInitialControls();
+		
+		double[] trimControls = new double[controls.length];
+		for (int i = 0; i < controls.length; i++)
+			trimControls[i] = trimControlsMap.get(controls[i]);
+		
+		// Each perturbation gives one column of A (first STATES) or B (remainder), from a positive and a negative evaluation
+		int perturbations = STATES + controls.length;
+		double[][] derivatives = new double[2 * perturbations][];
+		
+		List<Callable<Void>> tasks = new ArrayList<>(evaluators.size());
+		for (int i = 0; i < evaluators.size(); i++) {
+			Evaluator evaluator = evaluators.get(i);
+			int first = i;
+			
+			tasks.add(() -> {
+				evaluator.setControls(trimControlsMap);
+				
+				for (int evaluation = first; evaluation < derivatives.length; evaluation += evaluators.size())
+					derivatives[evaluation] = evaluator.evaluate(trimState, controls, trimControls, evaluation / 2, 
+																 evaluation % 2 == 0 ? 1 : -1);
+				return null;
+			});
+		}
+		
+		try {
+			for (Future<Void> future : pool.invokeAll(tasks))
+				future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error evaluating derivatives for linearization!", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while evaluating derivatives for linearization!", e);
+		}
+		
+		double[][] a = new double[STATES][STATES];
+		double[][] b = new double[STATES][controls.length];
+		
+		for (int j = 0; j < perturbations; j++) {
+			double[] positive = derivatives[2 * j];
+			double[] negative = derivatives[2 * j + 1];
+			double step = 2 * perturbation(j < STATES ? trimState[j] : trimControls[j - STATES]);
+			
+			for (int i = 0; i < STATES; i++) {
+				if (j < STATES)
+					a[i][j] = (positive[i] - negative[i]) / step;
+				else
+					b[i][j - STATES] = (positive[i] - negative[i]) / step;
+			}
+		}
+		
+		return new LinearModel(trimState, controls.clone(), trimControls, a, b);
+	}
+	
+	/**
+	 * Shuts down the thread pool used to evaluate derivatives
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+	
+	/**
+	 * @param value
+	 * @return perturbation size for a state or control with this trim value 
+	 */
+	private static double perturbation(double value) {
+		return PERTURBATION * Math.max(1.0, Math.abs(value));
+	}
+	
+	/**
+	 * Evaluates the state derivatives of one independent copy of the simulation; used by only one thread at a time
+	 */
+	private static class Evaluator {
+		
+		private SimulationContext context;
+		private FlightControlsState controlsState;
+		private Integrate6DOFEquations equations;
+		private double[] state = new double[STATES];
+		
+		private Evaluator(SimulationConfiguration configuration) {
+			context = new SimulationContext(configuration);
+			controlsState = new FlightControlsState(configuration);
+			equations = new Integrate6DOFEquations(controlsState, context);
+		}
+		
+		private void setControls(Map<FlightControl, Double> controls) {
+			for (Map.Entry<FlightControl, Double> entry : controls.entrySet())
+				controlsState.set(entry.getKey(), entry.getValue());
+		}
+		
+		/**
+		 * @param trimState
+		 * @param controls
+		 * @param trimControls
+		 * @param perturbed index of the state, or STATES + index of the control, to perturb
+		 * @param sign direction of the perturbation
+		 * @return state derivatives with the state or control perturbed
+		 */
+		private double[] evaluate(double[] trimState, FlightControl[] controls, double[] trimControls, int perturbed, int sign) {
+			System.arraycopy(trimState, 0, state, 0, STATES);
+			
+			if (perturbed < STATES) {
+				state[perturbed] += sign * perturbation(trimState[perturbed]);
+			} else {
+				int control = perturbed - STATES;
+				controlsState.set(controls[control], trimControls[control] + sign * perturbation(trimControls[control]));
+			}
+			
+			double[] derivatives = equations.computeDerivatives(state, new double[STATES]);
+			
+			if (perturbed >= STATES)
+				controlsState.set(controls[perturbed - STATES], trimControls[perturbed - STATES]);
+			
+			return derivatives;
+		}
+	}
+}
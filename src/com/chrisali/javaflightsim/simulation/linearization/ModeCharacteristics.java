@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.linearization;
+
+/**
+ * Eigenvalue of a {@link DynamicMode} and the characteristics derived from it. For an oscillatory mode the eigenvalue with 
+ * positive imaginary part of the complex pair is stored
+ */
+public class ModeCharacteristics {
+	
+	private double real;
+	private double imaginary;
+	
+	/**
+	 * @param real real part of the eigenvalue (1/sec)
+	 * @param imaginary imaginary part of the eigenvalue (rad/sec)
+	 */
+	public ModeCharacteristics(double real, double imaginary) {
+		this.real = real;
+		this.imaginary = Math.abs(imaginary);
+	}
+	
+	/**
+	 * @return real part of the eigenvalue (1/sec)
+	 */
+	public double getReal() { return real; }
+	
+	/**
+	 * @return imaginary part of the eigenvalue (rad/sec)
+	 */
+	public double getImaginary() { return imaginary; }
+	
+	/**
+	 * @return if the mode is an oscillation rather than a subsidence or divergence
+	 */
+	public boolean isOscillatory() { return imaginary > 0; }
+	
+	/**
+	 * @return undamped natural frequency (rad/sec)
+	 */
+	public double getNaturalFrequency() { return Math.hypot(real, imaginary); }
+	
+	/**
+	 * @return damping ratio; 1 for a stable subsidence, -1 for a divergence
+	 */
+	public double getDampingRatio() { 
+		double naturalFrequency = getNaturalFrequency();
+		
+		return naturalFrequency > 0 ? -real/naturalFrequency : 0.0; 
+	}
+	
+	/**
+	 * @return period of oscillation (sec), or infinity if the mode is not oscillatory
+	 */
+	public double getPeriod() { return isOscillatory() ? 2*Math.PI/imaginary : Double.POSITIVE_INFINITY; }
+	
+	/**
+	 * @return time constant (sec) of the mode's envelope; negative if the mode diverges
+	 */
+	public double getTimeConstant() { return -1/real; }
+	
+	@Override
+	public String toString() {
+		return String.format("%.4f + %.4fi (wn: %.4f rad/sec, zeta: %.4f)", real, imaginary, getNaturalFrequency(), getDampingRatio());
+	}
+}
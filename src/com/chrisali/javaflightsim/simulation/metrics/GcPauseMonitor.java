@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Listens for garbage collections reported by the JVM's {@link GarbageCollectorMXBean}s, recording their durations, and works out which 
+ * deadline misses of the simulation loop overlapped one. As a collection is only reported after it ends, which may be after the tick 
+ * it delayed has been recorded as missed, recent misses and collections are kept so that they can be matched whichever is reported 
+ * first. Both are rare, so they are matched under a lock
+ * <p>Times are kept in milliseconds of JVM uptime, the time base of collections reported by the JVM</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+class GcPauseMonitor implements NotificationListener {
+	
+	private static final Logger logger = LogManager.getLogger(GcPauseMonitor.class);
+	
+	private static final int RECENT_EVENTS = 16;
+	private static final double NANOS_PER_MILLISEC = 1_000_000.0;
+	
+	private final List<NotificationEmitter> emitters = new ArrayList<>();
+	
+	// Written only by the thread the JVM reports collections on
+	private final LatencyHistogram pauses = new LatencyHistogram();
+	
+	// Start and end times (uptime ms) of recent collections, and of recent misses not yet matched to a collection
+	private final double[][] recentPauses = new double[RECENT_EVENTS][2];
+	private final double[][] recentMisses = new double[RECENT_EVENTS][2];
+	private int pauseIndex = 0;
+	private int missIndex = 0;
+	
+	private volatile long missesDuringPauses = 0;
+	
+	private final long baseNanos;
+	private final double baseUptimeMS;
+	
+	GcPauseMonitor() {
+		baseNanos = System.nanoTime();
+		baseUptimeMS = ManagementFactory.getRuntimeMXBean().getUptime();
+		
+		for (double[] event : recentPauses)
+			event[0] = event[1] = Double.NaN;
+		for (double[] event : recentMisses)
+			event[0] = event[1] = Double.NaN;
+		
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (!(collector instanceof NotificationEmitter))
+				continue;
+			
+			NotificationEmitter emitter = (NotificationEmitter) collector;
+			emitter.addNotificationListener(this, null, null);
+			emitters.add(emitter);
+		}
+		
+		if (emitters.isEmpty())
+			logger.warn("This JVM does not report garbage collections; GC pauses will not be recorded");
+	}
+	
+	/**
+	 * Called by the JVM after each garbage collection
+	 */
+	@Override
+	public void handleNotification(Notification notification, Object handback) {
+		if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+			return;
+		
+		GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+		
+		// Concurrent collectors also report their cycles, most of which run alongside the application rather than pausing it 
+		String name = info.getGcName();
+		if (name.contains("Concurrent") || name.contains("Cycles"))
+			return;
+		
+		double startMS = info.getGcInfo().getStartTime();
+		double endMS = info.getGcInfo().getEndTime();
+		
+		synchronized (this) {
+			pauses.record((long) (info.getGcInfo().getDuration() * NANOS_PER_MILLISEC));
+			
+			recentPauses[pauseIndex][0] = startMS;
+			recentPauses[pauseIndex][1] = endMS;
+			pauseIndex = (pauseIndex + 1) % RECENT_EVENTS;
+			
+			for (double[] miss : recentMisses) {
+				if (overlaps(miss, startMS, endMS)) {
+					missesDuringPauses++;
+					miss[0] = miss[1] = Double.NaN;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Called by the simulation thread when a tick misses its deadline
+	 * 
+	 * @param startNanos {@link System#nanoTime()} the tick started stepping
+	 * @param endNanos {@link System#nanoTime()} the tick finished stepping
+	 */
+	synchronized void onDeadlineMiss(long startNanos, long endNanos) {
+		double startMS = toUptimeMS(startNanos);
+		double endMS = toUptimeMS(endNanos);
+		
+		for (double[] pause : recentPauses) {
+			if (overlaps(pause, startMS, endMS)) {
+				missesDuringPauses++;
+				return;
+			}
+		}
+		
+		recentMisses[missIndex][0] = startMS;
+		recentMisses[missIndex][1] = endMS;
+		missIndex = (missIndex + 1) % RECENT_EVENTS;
+	}
+	
+	/**
+	 * @param event start and end times (uptime ms) of an event, or NaN if none
+	 * @param startMS
+	 * @param endMS
+	 * @return if event overlaps startMS to endMS, with a millisecond's allowance for the resolution of uptime
+	 */
+	private static boolean overlaps(double[] event, double startMS, double endMS) {
+		return event[0] <= endMS + 1 && startMS <= event[1] + 1;
+	}
+	
+	private double toUptimeMS(long nanos) {
+		return baseUptimeMS + (nanos - baseNanos) / NANOS_PER_MILLISEC;
+	}
+	
+	/**
+	 * Stops listening for garbage collections
+	 */
+	void close() {
+		for (NotificationEmitter emitter : emitters) {
+			try {
+				emitter.removeNotificationListener(this);
+			} catch (ListenerNotFoundException e) {}
+		}
+		
+		emitters.clear();
+	}
+	
+	/**
+	 * @return durations of garbage collections since monitoring started
+	 */
+	LatencyHistogram getPauses() { return pauses; }
+	
+	/**
+	 * @return number of deadline misses that overlapped a garbage collection
+	 */
+	long getMissesDuringPauses() { return missesDuringPauses; }
+}
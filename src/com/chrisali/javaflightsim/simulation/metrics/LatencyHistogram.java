@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.metrics;
+
+/**
+ * Histogram of latencies in nanoseconds, in the manner of HdrHistogram: values are counted in buckets whose width doubles with each 
+ * power of two, each power of two split into {@link #SUB_BUCKETS} / 2 sub-buckets, so that any value is resolved to within 1/32 
+ * (about 3%) of itself. All buckets are allocated up front, so recording a value allocates nothing and takes only a few instructions, 
+ * making it cheap enough to record every step of the simulation
+ * <p>Each histogram is written by a single thread. Other threads may read it while it is written, as a JMX client does, in which case 
+ * the statistics they read may be off by the few values recorded while reading</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class LatencyHistogram {
+	
+	private static final int SUB_BUCKET_BITS = 6;
+	
+	/**
+	 * Number of values resolved exactly before buckets start widening; half as many sub-buckets split each higher power of two 
+	 */
+	public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+	
+	/**
+	 * Largest value resolved, about 18 minutes; larger values are counted as this value
+	 */
+	public static final long MAX_VALUE = (1L << 40) - 1;
+	
+	private final long[] counts = new long[getIndex(MAX_VALUE) + 1];
+	
+	private volatile long count = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = 0;
+	
+	/**
+	 * Records a latency, which is clamped to between 0 and {@link #MAX_VALUE}
+	 * 
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		long value = nanos < 0 ? 0 : Math.min(nanos, MAX_VALUE);
+		
+		counts[getIndex(value)]++;
+		sum += value;
+		
+		if (value < min)
+			min = value;
+		if (value > max)
+			max = value;
+		
+		count++;
+	}
+	
+	/**
+	 * @param value
+	 * @return index of the bucket value is counted in
+	 */
+	private static int getIndex(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		
+		// Shift leaving value with SUB_BUCKET_BITS significant bits, the first of which is always set
+		int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		
+		return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+	}
+	
+	/**
+	 * @param index
+	 * @return largest value counted in the bucket at index
+	 */
+	private static long getHighestValue(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		
+		int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+		long lowest = (long) ((index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS) << shift;
+		
+		return lowest + (1L << shift) - 1;
+	}
+	
+	/**
+	 * @param percentile between 0 and 100
+	 * @return value (ns) that percentile of the values recorded are no larger than, to within the resolution of the histogram; 
+	 * 0 if nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = count;
+		if (total == 0)
+			return 0;
+		
+		long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+		long counted = 0;
+		
+		for (int i = 0; i < counts.length; i++) {
+			counted += counts[i];
+			
+			if (counted >= target)
+				return Math.min(getHighestValue(i), max);
+		}
+		
+		return max;
+	}
+	
+	/**
+	 * @return number of values recorded
+	 */
+	public long getCount() { return count; }
+	
+	/**
+	 * @return mean of the values recorded (ns), or 0 if nothing has been recorded
+	 */
+	public double getMean() { 
+		long total = count;
+		return total == 0 ? 0 : sum / (double) total; 
+	}
+	
+	/**
+	 * @return smallest value recorded (ns), or 0 if nothing has been recorded
+	 */
+	public long getMin() { return count == 0 ? 0 : min; }
+	
+	/**
+	 * @return largest value recorded (ns)
+	 */
+	public long getMax() { return max; }
+	
+	/**
+	 * @return snapshot of the statistics of this histogram
+	 */
+	public LatencySummary getSummary() { return new LatencySummary(this); }
+	
+	@Override
+	public String toString() { return getSummary().toString(); }
+}
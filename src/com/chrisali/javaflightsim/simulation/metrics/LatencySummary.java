@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the statistics of a {@link LatencyHistogram} in microseconds, in a form JMX clients can display as composite data
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class LatencySummary {
+	
+	private static final double NANOS_PER_MICROSEC = 1000.0;
+	
+	private final long count;
+	private final double meanMicros;
+	private final double p50Micros;
+	private final double p99Micros;
+	private final double p999Micros;
+	private final double maxMicros;
+	
+	@ConstructorProperties({"count", "meanMicros", "p50Micros", "p99Micros", "p999Micros", "maxMicros"})
+	public LatencySummary(long count, double meanMicros, double p50Micros, double p99Micros, double p999Micros, double maxMicros) {
+		this.count = count;
+		this.meanMicros = meanMicros;
+		this.p50Micros = p50Micros;
+		this.p99Micros = p99Micros;
+		this.p999Micros = p999Micros;
+		this.maxMicros = maxMicros;
+	}
+	
+	LatencySummary(LatencyHistogram histogram) {
+		this(histogram.getCount(), 
+			 histogram.getMean() / NANOS_PER_MICROSEC, 
+			 histogram.getValueAtPercentile(50) / NANOS_PER_MICROSEC, 
+			 histogram.getValueAtPercentile(99) / NANOS_PER_MICROSEC, 
+			 histogram.getValueAtPercentile(99.9) / NANOS_PER_MICROSEC, 
+			 histogram.getMax() / NANOS_PER_MICROSEC);
+	}
+	
+	public long getCount() { return count; }
+
+	public double getMeanMicros() { return meanMicros; }
+
+	public double getP50Micros() { return p50Micros; }
+
+	public double getP99Micros() { return p99Micros; }
+
+	public double getP999Micros() { return p999Micros; }
+
+	public double getMaxMicros() { return maxMicros; }
+	
+	@Override
+	public String toString() {
+		return String.format("n=%d mean=%.1f p50=%.1f p99=%.1f p99.9=%.1f max=%.1f us", count, meanMicros, p50Micros, p99Micros, 
+							 p999Micros, maxMicros);
+	}
+}
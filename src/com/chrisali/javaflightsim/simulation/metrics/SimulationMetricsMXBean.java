@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link SimulationMetrics}, through which JMX clients such as JConsole or VisualVM can watch the timing of the 
+ * simulation loop while it runs. Latencies are in microseconds
+ * 
+ * @author Christopher Ali
+ *
+ */
+public interface SimulationMetricsMXBean {
+	
+	/**
+	 * @return number of ticks of the simulation loop recorded
+	 */
+	long getTicks();
+	
+	/**
+	 * @return number of ticks that finished after the deadline of the following tick
+	 */
+	long getDeadlineMisses();
+	
+	/**
+	 * @return number of deadline misses that overlapped a garbage collection pause
+	 */
+	long getDeadlineMissesDuringGcPauses();
+	
+	/**
+	 * @return time taken to step all components due on each tick
+	 */
+	LatencySummary getTickTimes();
+	
+	/**
+	 * @return time each tick started after its deadline when running in real time
+	 */
+	LatencySummary getJitter();
+	
+	/**
+	 * @return durations of garbage collection pauses 
+	 */
+	LatencySummary getGcPauses();
+	
+	/**
+	 * @return time taken by each step of each component, by component name
+	 */
+	Map<String, LatencySummary> getStepTimes();
+}
@@ -23,8 +23,9 @@ import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Map;
 
-import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.MathArrays;
 
+import com.chrisali.javaflightsim.simulation.enviroment.Environment;
 import com.chrisali.javaflightsim.simulation.enviroment.EnvironmentParameters;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -70,7 +71,7 @@ public abstract class Engine {
 	@JsonIgnore
 	protected double[] engineThrust   = {0, 0, 0};	// {T_x,T_y,T_z}	    (lbf)			
 	@JsonIgnore
-	protected double[] engineMoment;				// {M_x,M_y,M_z}        (lbf)
+	protected double[] engineMoment   = {0, 0, 0};	// {M_x,M_y,M_z}        (lbf)
 		
 	//TODO need engine model properties (etaP, advance ratio, bhp curves) for lookup tables
 	//TODO etaP needs to vary
@@ -82,19 +83,41 @@ public abstract class Engine {
 	 * @param environmentParameters
 	 * @param windParameters
 	 */
+	public void updateEngineState(Map<FlightControl, Double> controls,				
+								  Map<EnvironmentParameters, Double> environmentParameters,
+								  double[] windParameters) {
+		updateEngineState(controls, Environment.toArray(environmentParameters), windParameters);
+	}
+	
+	/**
+	 * Calculates all parameters of the engine given the input parameters specified below. Environment parameters 
+	 * are an array indexed by {@link EnvironmentParameters} ordinal so that no objects need to be created 
+	 * when called every integration step
+	 * 
+	 * @param controls
+	 * @param environmentParameters
+	 * @param windParameters
+	 */
 	public abstract void updateEngineState(Map<FlightControl, Double> controls,				
-										   Map<EnvironmentParameters, Double> environmentParameters,
+										   double[] environmentParameters,
 										   double[] windParameters);
 	
+	/**
+	 * Creates an engine with the same properties as this one, but with its own thrust, moment, RPM and fuel flow state
+	 * 
+	 * @return copy of this engine
+	 */
+	public abstract Engine copy();
+	
 	/**
 	 * Calculates the moment generated by the engine as a function of its thrust and location
-	 * relative to the aircraft's center of gravity. Used in {@link Engine#updateEngineState(EnumMap, EnumMap, double[])}
+	 * relative to the aircraft's center of gravity. Used in {@link Engine#updateEngineState(Map, double[], double[])}
 	 */
 	protected void calculateEngMoments() {
-		Vector3D forceVector = new Vector3D(engineThrust);
-		Vector3D armVector   = new Vector3D(enginePosition);
-		
-		this.engineMoment = Vector3D.crossProduct(forceVector, armVector).toArray();
+		// Same ordering and accuracy as Vector3D.crossProduct(thrust, position)
+		engineMoment[0] = MathArrays.linearCombination(engineThrust[1], enginePosition[2], -engineThrust[2], enginePosition[1]);
+		engineMoment[1] = MathArrays.linearCombination(engineThrust[2], enginePosition[0], -engineThrust[0], enginePosition[2]);
+		engineMoment[2] = MathArrays.linearCombination(engineThrust[0], enginePosition[1], -engineThrust[1], enginePosition[0]);
 	}
 	
 	/**
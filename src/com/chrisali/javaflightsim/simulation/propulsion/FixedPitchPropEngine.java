@@ -74,11 +74,23 @@ public class FixedPitchPropEngine extends Engine {
 		this.engineNumber   = engineNumber;
 	}
 		
+	@Override
+	public Engine copy() {
+		FixedPitchPropEngine copy = new FixedPitchPropEngine(engineName, maxBHP, maxRPM, propDiameter,
+															 enginePosition != null ? enginePosition.clone() : null, 
+															 engineNumber);
+		copy.propArea = propArea;
+		copy.propEfficiency = propEfficiency;
+		
+		return copy;
+	}
+		
 	/**
 	 * Updates all fields of engine; called by {@link Integrate6DOFEquations} to recalculate thrust, moment, fuel flow and RPM for this engine
 	 */
+	@Override
 	public void updateEngineState(Map<FlightControl, Double> controls,				
-								  Map<EnvironmentParameters, Double> environmentParameters,
+								  double[] environmentParameters,
 								  double[] windParameters) {		//{vTrue,beta,alpha}
 		// Assign engine controls depending on engine number specified
 		switch (engineNumber) {
@@ -118,13 +130,15 @@ public class FixedPitchPropEngine extends Engine {
 	 * 
 	 * @return Double array vector of engine force (lbf)
 	 */
-	private void calculateThrust(Map<EnvironmentParameters, Double> environmentParameters, 
+	private void calculateThrust(double[] environmentParameters, 
 								 double[] windParameters) {		 
+		double rho = environmentParameters[EnvironmentParameters.RHO.ordinal()];
+		
 		// Consider static thrust case at low speeds
 		if (windParameters[0] <= 65)
-			this.engineThrust[0] = Math.pow((throttle*maxBHP*HP_2_FTLBS), 0.6667)*Math.pow((2*environmentParameters.get(EnvironmentParameters.RHO)*propArea), 0.3333);			
+			this.engineThrust[0] = Math.pow((throttle*maxBHP*HP_2_FTLBS), 0.6667)*Math.pow((2*rho*propArea), 0.3333);			
 		else
-			this.engineThrust[0] = (throttle*maxBHP*HP_2_FTLBS)*((A_P*environmentParameters.get(EnvironmentParameters.RHO)/RHO_SSL)-B_P)*(propEfficiency/windParameters[0]);
+			this.engineThrust[0] = (throttle*maxBHP*HP_2_FTLBS)*((A_P*rho/RHO_SSL)-B_P)*(propEfficiency/windParameters[0]);
 	}
 	
 	/**
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.recording;
+
+/**
+ * Determines what {@link StreamingFlightRecorder} does with a row published by the simulation when its queue cannot keep up with
+ * the writer thread:
+ * 
+ *	<p>DROP - Discards rows published while the queue is full</p>
+ *	<p>BLOCK - Waits for the writer thread to free space in the queue; no rows are lost, but the simulation thread is held back to
+ *	the speed of the disk, so this is only suitable when the simulation does not run in real time</p>
+ *	<p>DECIMATE - Keeps every {@link StreamingFlightRecorder#DECIMATION}th row once the queue is three quarters full, and discards 
+ *	rows published while it is full, so that a slow disk thins out the recording rather than leaving gaps in it</p>
+ */
+public enum BackpressurePolicy {
+	DROP,
+	BLOCK,
+	DECIMATE;
+}
@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.recording;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Memory maps a flight recording written by {@link FlightRecordingWriter} for random access by row or by time. Only the 
+ * header is read eagerly; rows are paged in by the operating system as they are accessed. Columns are matched to 
+ * {@link SimOuts} by name, so recordings made with a different set of outputs can still be read; columns missing from 
+ * the recording read as NaN.
+ * <p>A reader can be shared between threads once opened</p>
+ * 
+ * @author Christopher Ali
+ * @see FlightRecordingWriter
+ */
+public class FlightRecordingReader implements Closeable {
+	
+	private static final Logger logger = LogManager.getLogger(FlightRecordingReader.class);
+	
+	/**
+	 * Largest region mapped at once, rounded down to whole rows
+	 */
+	private static final long MAX_CHUNK_BYTES = 1L << 30;
+	
+	private final FileChannel channel;
+	private final List<String> columnNames;
+	private final String aircraftName;
+	private final String configurationJson;
+	private final Map<SimOuts, Integer> columnIndices = new EnumMap<>(SimOuts.class);
+	
+	private final long rows;
+	private final int rowBytes;
+	private final long chunkRows;
+	private final ByteBuffer[] chunks;
+	
+	/**
+	 * Opens a flight recording and maps its rows into memory
+	 * 
+	 * @param file
+	 * @throws IOException if the file cannot be read or is not a flight recording
+	 */
+	public FlightRecordingReader(File file) throws IOException {
+		logger.debug("Opening flight recording: " + file.getAbsolutePath() + "...");
+		
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		
+		try {
+			ByteBuffer fixed = readFully(0, FlightRecordingWriter.MAGIC.length + 4 * Integer.BYTES + Long.BYTES);
+			
+			byte[] magic = new byte[FlightRecordingWriter.MAGIC.length];
+			fixed.get(magic);
+			if (!Arrays.equals(magic, FlightRecordingWriter.MAGIC))
+				throw new IOException(file.getName() + " is not a flight recording");
+			
+			int version = fixed.getInt();
+			if (version != FlightRecordingWriter.VERSION)
+				throw new IOException("Unsupported flight recording version: " + version);
+			
+			int headerLength = fixed.getInt();
+			int columns = fixed.getInt();
+			fixed.getInt(); // rows per block, only needed by the writer
+			long headerRows = fixed.getLong();
+			
+			ByteBuffer header = readFully(fixed.limit(), headerLength - fixed.limit());
+			
+			int names = header.getInt();
+			List<String> columnNameList = new ArrayList<>(names);
+			for (int i = 0; i < names; i++)
+				columnNameList.add(readString(header));
+			
+			columnNames = Collections.unmodifiableList(columnNameList);
+			aircraftName = readString(header);
+			configurationJson = readString(header);
+			
+			for (SimOuts simOut : SimOuts.values()) {
+				int index = columnNames.indexOf(simOut.name());
+				if (index >= 0)
+					columnIndices.put(simOut, index);
+			}
+			
+			// A recording that was not closed may have rows past the header's count; only trust completed rows
+			rowBytes = columns * Double.BYTES;
+			rows = rowBytes > 0 ? Math.min(headerRows, (channel.size() - headerLength) / rowBytes) : 0;
+			
+			chunkRows = Math.max(1, MAX_CHUNK_BYTES / Math.max(1, rowBytes));
+			chunks = new ByteBuffer[(int) ((rows + chunkRows - 1) / chunkRows)];
+			
+			for (int i = 0; i < chunks.length; i++) {
+				long firstRow = i * chunkRows;
+				long chunkBytes = Math.min(chunkRows, rows - firstRow) * rowBytes;
+				
+				MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, headerLength + firstRow * rowBytes, chunkBytes);
+				chunks[i] = chunk.order(ByteOrder.LITTLE_ENDIAN);
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		
+		logger.debug("Opened flight recording with " + rows + " rows of " + aircraftName);
+	}
+	
+	/**
+	 * @return number of rows in the recording
+	 */
+	public long size() { return rows; }
+	
+	/**
+	 * @return names of the columns stored in the recording, in the order they were written
+	 */
+	public List<String> getColumnNames() { return columnNames; }
+	
+	/**
+	 * @return name of the aircraft recorded
+	 */
+	public String getAircraftName() { return aircraftName; }
+	
+	/**
+	 * @return {@link SimulationConfiguration} of the recorded simulation as JSON, or an empty string if none was recorded
+	 */
+	public String getConfigurationJson() { return configurationJson; }
+	
+	/**
+	 * @return {@link SimulationConfiguration} of the recorded simulation, or null if none was recorded or it could not 
+	 * be deserialized
+	 */
+	public SimulationConfiguration getConfiguration() {
+		if (configurationJson.isEmpty())
+			return null;
+		
+		try {
+			return new ObjectMapper().readValue(configurationJson, SimulationConfiguration.class);
+		} catch (IOException e) {
+			logger.error("Could not deserialize configuration from flight recording!", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * @param row
+	 * @param column
+	 * @return value of column at row, or NaN if the recording does not contain column
+	 */
+	public double get(long row, SimOuts column) {
+		checkRow(row);
+		
+		Integer index = columnIndices.get(column);
+		if (index == null)
+			return Double.NaN;
+		
+		return chunks[(int) (row / chunkRows)].getDouble((int) ((row % chunkRows) * rowBytes) + index * Double.BYTES);
+	}
+	
+	/**
+	 * Copies a row into dest, indexed by {@link SimOuts} ordinal
+	 * 
+	 * @param row
+	 * @param dest array of at least {@link SimOuts#values()} length, or null to allocate one
+	 * @return dest
+	 */
+	public double[] getRow(long row, double[] dest) {
+		checkRow(row);
+		
+		SimOuts[] simOuts = SimOuts.values();
+		if (dest == null)
+			dest = new double[simOuts.length];
+		
+		ByteBuffer chunk = chunks[(int) (row / chunkRows)];
+		int offset = (int) ((row % chunkRows) * rowBytes);
+		
+		for (SimOuts simOut : simOuts) {
+			Integer index = columnIndices.get(simOut);
+			dest[simOut.ordinal()] = index == null ? Double.NaN : chunk.getDouble(offset + index * Double.BYTES);
+		}
+		
+		return dest;
+	}
+	
+	/**
+	 * Finds the last row recorded at or before time using a binary search of {@link SimOuts#TIME}
+	 * 
+	 * @param time simulation time in seconds
+	 * @return index of the row, 0 if time precedes the recording, or -1 if the recording is empty
+	 */
+	public long findRow(double time) {
+		if (rows == 0)
+			return -1;
+		
+		long low = 0, high = rows - 1;
+		
+		while (low < high) {
+			long mid = (low + high + 1) >>> 1;
+			
+			if (get(mid, SimOuts.TIME) <= time)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * Copies the last row recorded at or before time into dest
+	 * 
+	 * @param time simulation time in seconds
+	 * @param dest array of at least {@link SimOuts#values()} length, or null to allocate one
+	 * @return dest
+	 * @see FlightRecordingReader#findRow(double)
+	 */
+	public double[] getRowAtTime(double time, double[] dest) { return getRow(findRow(time), dest); }
+	
+	/**
+	 * @param column
+	 * @return every value of column in the recording
+	 */
+	public double[] getColumn(SimOuts column) {
+		double[] values = new double[checkedSize()];
+		
+		for (int row = 0; row < values.length; row++)
+			values[row] = get(row, column);
+		
+		return values;
+	}
+	
+	/**
+	 * Copies the recording into a {@link FlightLog}, so that it can be plotted or displayed like a live simulation
+	 * 
+	 * @return new {@link FlightLog} containing every row of the recording
+	 */
+	public FlightLog toFlightLog() {
+		int size = checkedSize();
+		FlightLog logsOut = new FlightLog();
+		double[] row = new double[SimOuts.values().length];
+		
+		for (int i = 0; i < size; i++)
+			logsOut.append(getRow(i, row));
+		
+		return logsOut;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	private int checkedSize() {
+		if (rows > Integer.MAX_VALUE)
+			throw new IllegalStateException("Flight recording is too large to load into memory: " + rows + " rows");
+		
+		return (int) rows;
+	}
+	
+	private void checkRow(long row) {
+		if (row < 0 || row >= rows)
+			throw new IndexOutOfBoundsException("Row " + row + " is outside of flight recording of " + rows + " rows");
+	}
+	
+	private ByteBuffer readFully(long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("Flight recording header is truncated");
+		}
+		
+		buffer.flip();
+		
+		return buffer;
+	}
+	
+	private static String readString(ByteBuffer header) {
+		byte[] bytes = new byte[header.getInt()];
+		header.get(bytes);
+		
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.recording;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes simulation output to a binary flight recording, which {@link FlightRecordingReader} can memory map for random access.
+ * A recording starts with a header, all little-endian:
+ * 
+ * <pre>
+ * magic "J6DOFREC" (8 bytes), version (int), header length in bytes (int), columns (int), rows per block (int), rows (long),
+ * column names (int count, then int length and UTF-8 bytes of each {@link SimOuts} name), aircraft name and 
+ * {@link SimulationConfiguration} JSON (int length and UTF-8 bytes each), padded to a multiple of 8 bytes
+ * </pre>
+ * 
+ * followed by rows of fixed-width doubles, one per column. Rows are written through {@link MappedByteBuffer}s of 
+ * {@link FlightRecordingWriter#BLOCK_ROWS} rows at a time; the row count in the header is updated as each block is 
+ * completed and when the recording is closed.
+ * <p>A writer is meant to be used by a single thread</p>
+ * 
+ * @author Christopher Ali
+ * @see FlightRecordingReader
+ */
+public class FlightRecordingWriter implements Closeable {
+	
+	private static final Logger logger = LogManager.getLogger(FlightRecordingWriter.class);
+	
+	/**
+	 * Extension of flight recording files
+	 */
+	public static final String FILE_EXTENSION = "j6dof";
+	
+	/**
+	 * Rows mapped into memory at a time while writing
+	 */
+	public static final int BLOCK_ROWS = 1024;
+	
+	static final byte[] MAGIC = "J6DOFREC".getBytes(StandardCharsets.US_ASCII);
+	static final int VERSION = 1;
+	static final int ROWS_OFFSET = 24;
+	
+	private static final SimOuts[] SCHEMA = SimOuts.values();
+	
+	private final FileChannel channel;
+	private final int headerLength;
+	private final int rowBytes;
+	
+	private MappedByteBuffer block;
+	private DoubleBuffer blockDoubles;
+	private long rows = 0;
+	
+	/**
+	 * Creates a recording file, replacing any existing file, and writes its header
+	 * 
+	 * @param file
+	 * @param aircraftName name of the aircraft recorded
+	 * @param configuration configuration of the simulation recorded; may be null
+	 * @throws IOException
+	 */
+	public FlightRecordingWriter(File file, String aircraftName, SimulationConfiguration configuration) throws IOException {
+		logger.debug("Creating flight recording: " + file.getAbsolutePath() + "...");
+		
+		rowBytes = SCHEMA.length * Double.BYTES;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, 
+								   StandardOpenOption.READ, StandardOpenOption.WRITE);
+		
+		try {
+			ByteBuffer header = createHeader(aircraftName, configuration);
+			headerLength = header.limit();
+			
+			while (header.hasRemaining())
+				channel.write(header);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Writes a recording of all rows in logsOut to file
+	 * 
+	 * @param file
+	 * @param logsOut
+	 * @param aircraftName
+	 * @param configuration may be null
+	 * @throws IOException
+	 */
+	public static void write(File file, FlightLog logsOut, String aircraftName, SimulationConfiguration configuration) throws IOException {
+		try (FlightRecordingWriter writer = new FlightRecordingWriter(file, aircraftName, configuration)) {
+			writer.append(logsOut);
+		}
+	}
+	
+	/**
+	 * Appends one row to the recording
+	 * 
+	 * @param row simulation output indexed by {@link SimOuts} ordinal
+	 * @throws IOException
+	 */
+	public void append(double[] row) throws IOException { append(row, 0); }
+	
+	/**
+	 * Appends one row, stored in src starting at offset, to the recording
+	 * 
+	 * @param src
+	 * @param offset index in src of the row's first column
+	 * @throws IOException
+	 */
+	void append(double[] src, int offset) throws IOException {
+		if (blockDoubles == null || !blockDoubles.hasRemaining())
+			mapNextBlock();
+		
+		blockDoubles.put(src, offset, SCHEMA.length);
+		rows++;
+	}
+	
+	/**
+	 * Appends a consistent snapshot of all rows in logsOut to the recording
+	 * 
+	 * @param logsOut
+	 * @throws IOException
+	 */
+	public void append(FlightLog logsOut) throws IOException {
+		double[][] columns = logsOut.getColumns(SCHEMA);
+		int logRows = columns.length > 0 ? columns[0].length : 0;
+		
+		for (int row = 0; row < logRows; row++) {
+			if (blockDoubles == null || !blockDoubles.hasRemaining())
+				mapNextBlock();
+			
+			for (double[] column : columns)
+				blockDoubles.put(column[row]);
+			
+			rows++;
+		}
+	}
+	
+	/**
+	 * @return rows written so far
+	 */
+	public long getRows() { return rows; }
+	
+	/**
+	 * Writes the final row count to the header and closes the file. The file is truncated to the rows written, except on 
+	 * platforms that cannot truncate a file that is still mapped, where the header's row count is used by readers instead
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			writeRowCount();
+			
+			if (block != null)
+				block.force();
+			
+			try {
+				channel.truncate(headerLength + rows * rowBytes);
+			} catch (IOException e) {
+				logger.debug("Could not truncate flight recording; the unused part of its last block will remain", e);
+			}
+			
+			logger.debug("Saved flight recording with " + rows + " rows");
+		} finally {
+			block = null;
+			blockDoubles = null;
+			channel.close();
+		}
+	}
+	
+	private void mapNextBlock() throws IOException {
+		if (block != null)
+			writeRowCount();
+		
+		block = channel.map(FileChannel.MapMode.READ_WRITE, headerLength + rows * rowBytes, (long) BLOCK_ROWS * rowBytes);
+		block.order(ByteOrder.LITTLE_ENDIAN);
+		blockDoubles = block.asDoubleBuffer();
+	}
+	
+	private void writeRowCount() throws IOException {
+		ByteBuffer count = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		count.putLong(0, rows);
+		
+		channel.write(count, ROWS_OFFSET);
+	}
+	
+	private ByteBuffer createHeader(String aircraftName, SimulationConfiguration configuration) {
+		String configurationJson = "";
+		
+		if (configuration != null) {
+			try {
+				configurationJson = new ObjectMapper().writeValueAsString(configuration);
+			} catch (JsonProcessingException e) {
+				logger.error("Could not serialize configuration into flight recording!", e);
+			}
+		}
+		
+		byte[][] columnNames = new byte[SCHEMA.length][];
+		int length = MAGIC.length + 4 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+		
+		for (int i = 0; i < SCHEMA.length; i++) {
+			columnNames[i] = SCHEMA[i].name().getBytes(StandardCharsets.UTF_8);
+			length += Integer.BYTES + columnNames[i].length;
+		}
+		
+		byte[] aircraft = (aircraftName != null ? aircraftName : "").getBytes(StandardCharsets.UTF_8);
+		byte[] json = configurationJson.getBytes(StandardCharsets.UTF_8);
+		length += 2 * Integer.BYTES + aircraft.length + json.length;
+		
+		// Align rows to 8 bytes
+		length = (length + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+		
+		ByteBuffer header = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(MAGIC)
+			  .putInt(VERSION)
+			  .putInt(length)
+			  .putInt(SCHEMA.length)
+			  .putInt(BLOCK_ROWS)
+			  .putLong(0L)
+			  .putInt(SCHEMA.length);
+		
+		for (byte[] columnName : columnNames)
+			header.putInt(columnName.length).put(columnName);
+		
+		header.putInt(aircraft.length).put(aircraft)
+			  .putInt(json.length).put(json);
+		
+		header.position(0);
+		
+		return header;
+	}
+}
@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.recording;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentData;
+import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentDataListener;
+import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentDataType;
+import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameter;
+import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameterActuator;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsStateManager;
+import com.chrisali.javaflightsim.simulation.setup.KeyCommand;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Records only the inputs to a simulation, from which {@link InputReplay} can regenerate its exact trajectory: the 
+ * {@link SimulationConfiguration} (including initial conditions and controls) the simulation started with, every 
+ * {@link ControlParameter} passed to the {@link ControlParameterActuator} of {@link FlightControlsStateManager} and every terrain 
+ * height received from the out the window display, each stamped with the simulation time (ms) of the frame it happened in. 
+ * <p>Devices repeat the same inputs every frame while the pilot holds still, so a frame is only written when its inputs differ
+ * from the previous frame's, and then only the values that changed if the same parameters were actuated. A recording, compressed
+ * with GZIP, consists of a header:</p>
+ * 
+ * <pre>
+ * magic "J6DOFINP" (8 bytes), version (int), configuration JSON (int length and UTF-8 bytes), start time (int ms), 
+ * integration step boundaries (int count, then doubles), parameter names (int count, then UTF strings)
+ * </pre>
+ * 
+ * followed by records, each starting with a byte type and int frame time (ms):
+ * 
+ * <pre>
+ * INPUTS:  short count, then count of (short parameter, float value), replacing the previous frame's inputs
+ * CHANGES: short count, then count of (short index into previous frame's inputs, float value)
+ * TERRAIN: double height
+ * END:     (frame time is the end time of the recording)
+ * </pre>
+ * 
+ * <p>Inputs are captured on the simulation thread between {@link InputRecorder#beginFrame(int)} and 
+ * {@link InputRecorder#endFrame()}; records are buffered, so the thread only touches the disk every several seconds</p>
+ * 
+ * @author Christopher Ali
+ * @see InputReplay
+ */
+public class InputRecorder implements ControlParameterActuator, EnvironmentDataListener, Closeable {
+	
+	private static final Logger logger = LogManager.getLogger(InputRecorder.class);
+	
+	/**
+	 * Extension of input recording files
+	 */
+	public static final String FILE_EXTENSION = "j6dofin";
+	
+	static final byte[] MAGIC = "J6DOFINP".getBytes(StandardCharsets.US_ASCII);
+	static final int VERSION = 2;
+	
+	static final byte END     = 0;
+	static final byte INPUTS  = 1;
+	static final byte CHANGES = 2;
+	static final byte TERRAIN = 3;
+	
+	private static final int BUFFER_BYTES = 1 << 16;
+	
+	/**
+	 * Every parameter that can be recorded, indexed by the id written for it
+	 */
+	static final ControlParameter[] PARAMETERS;
+	private static final Map<ControlParameter, Integer> PARAMETER_IDS = new IdentityHashMap<>();
+	
+	static {
+		FlightControl[] flightControls = FlightControl.values();
+		KeyCommand[] keyCommands = KeyCommand.values();
+		
+		PARAMETERS = new ControlParameter[flightControls.length + keyCommands.length];
+		System.arraycopy(flightControls, 0, PARAMETERS, 0, flightControls.length);
+		System.arraycopy(keyCommands, 0, PARAMETERS, flightControls.length, keyCommands.length);
+		
+		for (int i = 0; i < PARAMETERS.length; i++)
+			PARAMETER_IDS.put(PARAMETERS[i], i);
+	}
+	
+	private final File file;
+	private final DataOutputStream out;
+	private final AtomicInteger simTimeMS;
+	
+	// Inputs of the frame being recorded and of the previous frame
+	private int[]   ids    		 = new int[64];
+	private float[] values 		 = new float[64];
+	private int     count  		 = 0;
+	private int[]   previousIds    = new int[64];
+	private float[] previousValues = new float[64];
+	private int     previousCount  = 0;
+	private int     frameTimeMS;
+	
+	private long lastTerrainBits = Double.doubleToRawLongBits(Double.NaN);
+	
+	private long frames = 0;
+	private long framesWritten = 0;
+	private IOException failure;
+	private boolean closed = false;
+	
+	/**
+	 * Creates an input recording, replacing any existing file, and writes its header
+	 * 
+	 * @param file
+	 * @param configuration configuration of the simulation as it starts
+	 * @param simTimeMS simulation time of the runner whose inputs are recorded
+	 * @param stepBoundaries times (sec) the simulation's adaptive integration steps end on
+	 * @throws IOException if the recording cannot be created
+	 */
+	public InputRecorder(File file, SimulationConfiguration configuration, AtomicInteger simTimeMS, double[] stepBoundaries) throws IOException {
+		logger.debug("Creating input recording: " + file.getAbsolutePath() + "...");
+		
+		this.file = file;
+		this.simTimeMS = simTimeMS;
+		
+		byte[] json;
+		try {
+			json = new ObjectMapper().writeValueAsBytes(configuration);
+		} catch (JsonProcessingException e) {
+			throw new IOException("Could not serialize configuration into input recording", e);
+		}
+		
+		out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_BYTES), BUFFER_BYTES));
+		
+		try {
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(json.length);
+			out.write(json);
+			out.writeInt(simTimeMS.get());
+			
+			out.writeInt(stepBoundaries.length);
+			for (double stepBoundary : stepBoundaries)
+				out.writeDouble(stepBoundary);
+			
+			out.writeInt(PARAMETERS.length);
+			for (ControlParameter parameter : PARAMETERS)
+				out.writeUTF(parameterName(parameter));
+		} catch (IOException e) {
+			out.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Starts capturing the inputs of a frame
+	 * 
+	 * @param timeMS simulation time (ms) of the frame
+	 */
+	public void beginFrame(int timeMS) {
+		frameTimeMS = timeMS;
+		count = 0;
+	}
+	
+	/**
+	 * Captures an input of the current frame
+	 */
+	@Override
+	public void handleParameterChange(ControlParameter parameter, float value) {
+		Integer id = PARAMETER_IDS.get(parameter);
+		
+		if (id == null) {
+			logger.warn("Cannot record unknown control parameter: " + parameter);
+			return;
+		}
+		
+		if (count == ids.length) {
+			ids    = Arrays.copyOf(ids, count * 2);
+			values = Arrays.copyOf(values, count * 2);
+		}
+		
+		ids[count]    = id;
+		values[count] = value;
+		count++;
+	}
+	
+	/**
+	 * Writes the inputs of the current frame if they differ from those of the previous frame
+	 */
+	public void endFrame() {
+		frames++;
+		
+		if (closed || failure != null)
+			return;
+		
+		try {
+			boolean sameParameters = count == previousCount;
+			int changes = 0;
+			
+			for (int i = 0; sameParameters && i < count; i++) {
+				sameParameters = ids[i] == previousIds[i];
+				
+				if (Float.floatToRawIntBits(values[i]) != Float.floatToRawIntBits(previousValues[i]))
+					changes++;
+			}
+			
+			if (sameParameters && changes == 0)
+				return;
+			
+			if (sameParameters && changes < count) {
+				out.writeByte(CHANGES);
+				out.writeInt(frameTimeMS);
+				out.writeShort(changes);
+				
+				for (int i = 0; i < count; i++) {
+					if (Float.floatToRawIntBits(values[i]) != Float.floatToRawIntBits(previousValues[i])) {
+						out.writeShort(i);
+						out.writeFloat(values[i]);
+					}
+				}
+			} else {
+				out.writeByte(INPUTS);
+				out.writeInt(frameTimeMS);
+				out.writeShort(count);
+				
+				for (int i = 0; i < count; i++) {
+					out.writeShort(ids[i]);
+					out.writeFloat(values[i]);
+				}
+			}
+			
+			framesWritten++;
+		} catch (IOException e) {
+			fail(e);
+		} finally {
+			swapFrames();
+		}
+	}
+	
+	/**
+	 * Records the terrain height sent to the simulation, if it changed
+	 */
+	@Override
+	public void onEnvironmentDataReceived(EnvironmentData environmentData) {
+		Double terrainHeight = environmentData.getEnvironmentData().get(EnvironmentDataType.TERRAIN_HEIGHT);
+		
+		if (terrainHeight == null || closed || failure != null)
+			return;
+		
+		long terrainBits = Double.doubleToRawLongBits(terrainHeight);
+		if (terrainBits == lastTerrainBits)
+			return;
+		
+		try {
+			out.writeByte(TERRAIN);
+			out.writeInt(simTimeMS.get());
+			out.writeDouble(terrainHeight);
+			
+			lastTerrainBits = terrainBits;
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * Marks the current simulation time as the end of the recording and closes it
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		
+		closed = true;
+		
+		try {
+			if (failure == null) {
+				out.writeByte(END);
+				out.writeInt(simTimeMS.get());
+			}
+		} finally {
+			out.close();
+		}
+		
+		logger.debug(String.format("Closed input recording: %d frames, %d written", frames, framesWritten));
+		
+		if (failure != null)
+			throw failure;
+	}
+	
+	/**
+	 * @return recording written to
+	 */
+	public File getFile() { return file; }
+	
+	/**
+	 * @return frames captured
+	 */
+	public long getFrames() { return frames; }
+	
+	/**
+	 * @return frames whose inputs differed from the previous frame and were written
+	 */
+	public long getFramesWritten() { return framesWritten; }
+	
+	static String parameterName(ControlParameter parameter) {
+		return parameter.getClass().getSimpleName() + "." + ((Enum<?>) parameter).name();
+	}
+	
+	private void swapFrames() {
+		int[] swapIds = previousIds;
+		float[] swapValues = previousValues;
+		
+		previousIds    = ids;
+		previousValues = values;
+		previousCount  = count;
+		
+		// Arrays may have grown during the frame
+		ids    = swapIds.length >= previousIds.length ? swapIds : new int[previousIds.length];
+		values = swapValues.length >= previousValues.length ? swapValues : new float[previousValues.length];
+		count  = 0;
+	}
+	
+	private void fail(IOException e) {
+		logger.error("Could not write to input recording: " + file.getAbsolutePath() + "; inputs will no longer be recorded!", e);
+		failure = e;
+	}
+}
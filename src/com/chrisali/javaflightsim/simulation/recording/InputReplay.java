@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.recording;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentData;
+import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameter;
+import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameterActuator;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads an input recording made by {@link InputRecorder} and feeds its inputs back to a simulation frame by frame, so that 
+ * the recorded flight is regenerated exactly. The header is read when the replay is opened; records are streamed from the 
+ * file as the replay advances, so recordings of any length can be replayed in constant memory.
+ * <p>Each frame, {@link InputReplay#replayControls(int, ControlParameterActuator)} must be called before the simulation is 
+ * stepped and {@link InputReplay#replayEnvironment(int, EnvironmentData)} after it, matching the order in which 
+ * {@link com.chrisali.javaflightsim.simulation.SimulationRunner} steps its components</p>
+ * 
+ * @author Christopher Ali
+ * @see InputRecorder
+ */
+public class InputReplay implements Closeable {
+	
+	private static final Logger logger = LogManager.getLogger(InputReplay.class);
+	
+	private final DataInputStream in;
+	private final SimulationConfiguration configuration;
+	private final int startTimeMS;
+	private final double[] stepBoundaries;
+	private final ControlParameter[] parameters;
+	
+	// Inputs repeated each frame until the next INPUTS or CHANGES record
+	private ControlParameter[] inputs = new ControlParameter[0];
+	private float[] values = new float[0];
+	
+	// Next record, read ahead of the frame being replayed
+	private byte nextType;
+	private int nextTimeMS;
+	
+	private boolean finished = false;
+	
+	/**
+	 * Opens an input recording and reads its header
+	 * 
+	 * @param file
+	 * @throws IOException if the file cannot be read or is not an input recording
+	 */
+	public InputReplay(File file) throws IOException {
+		logger.debug("Opening input recording: " + file.getAbsolutePath() + "...");
+		
+		in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+		
+		try {
+			byte[] magic = new byte[InputRecorder.MAGIC.length];
+			in.readFully(magic);
+			if (!Arrays.equals(magic, InputRecorder.MAGIC))
+				throw new IOException(file.getName() + " is not an input recording");
+			
+			int version = in.readInt();
+			if (version != InputRecorder.VERSION)
+				throw new IOException("Unsupported input recording version: " + version);
+			
+			byte[] json = new byte[in.readInt()];
+			in.readFully(json);
+			configuration = new ObjectMapper().readValue(json, SimulationConfiguration.class);
+			
+			startTimeMS = in.readInt();
+			
+			stepBoundaries = new double[in.readInt()];
+			for (int i = 0; i < stepBoundaries.length; i++)
+				stepBoundaries[i] = in.readDouble();
+			
+			Map<String, ControlParameter> parametersByName = new HashMap<>();
+			for (ControlParameter parameter : InputRecorder.PARAMETERS)
+				parametersByName.put(InputRecorder.parameterName(parameter), parameter);
+			
+			// Parameters no longer defined are ignored when replayed
+			parameters = new ControlParameter[in.readInt()];
+			for (int i = 0; i < parameters.length; i++)
+				parameters[i] = parametersByName.get(in.readUTF());
+			
+			readNextRecordHeader();
+		} catch (IOException | RuntimeException e) {
+			in.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Applies the control inputs recorded up to the frame at timeMS, then actuates that frame's inputs
+	 * 
+	 * @param timeMS simulation time (ms) of the frame
+	 * @param actuator
+	 */
+	public void replayControls(int timeMS, ControlParameterActuator actuator) {
+		try {
+			while (!finished && nextTimeMS <= timeMS && (nextType == InputRecorder.INPUTS || nextType == InputRecorder.CHANGES)) {
+				if (nextType == InputRecorder.INPUTS)
+					readInputs();
+				else
+					readChanges();
+				
+				readNextRecordHeader();
+			}
+		} catch (IOException e) {
+			fail(e);
+		}
+		
+		for (int i = 0; i < inputs.length; i++) {
+			if (inputs[i] != null)
+				actuator.handleParameterChange(inputs[i], values[i]);
+		}
+	}
+	
+	/**
+	 * Sends the terrain heights recorded up to the frame at timeMS to the simulation through environmentData
+	 * 
+	 * @param timeMS simulation time (ms) of the frame
+	 * @param environmentData
+	 */
+	public void replayEnvironment(int timeMS, EnvironmentData environmentData) {
+		try {
+			while (!finished && nextTimeMS <= timeMS && nextType == InputRecorder.TERRAIN) {
+				environmentData.updateData((float) in.readDouble());
+				
+				readNextRecordHeader();
+			}
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * @param timeMS simulation time (ms) of the next frame
+	 * @return if the frame at timeMS is past the end of the recording
+	 */
+	public boolean isFinished(int timeMS) {
+		return finished || (nextType == InputRecorder.END && timeMS >= nextTimeMS);
+	}
+	
+	/**
+	 * @return configuration the recorded simulation started with
+	 */
+	public SimulationConfiguration getConfiguration() { return configuration; }
+	
+	/**
+	 * @return simulation time (ms) of the first recorded frame
+	 */
+	public int getStartTimeMS() { return startTimeMS; }
+	
+	/**
+	 * @return times (sec) the recorded simulation's adaptive integration steps ended on
+	 */
+	public double[] getStepBoundaries() { return stepBoundaries.clone(); }
+	
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+	
+	private void readNextRecordHeader() throws IOException {
+		try {
+			nextType = in.readByte();
+			nextTimeMS = in.readInt();
+		} catch (EOFException e) {
+			// Recording was not closed; replay everything up to where it stops
+			logger.warn("Input recording ends without an end record; replaying it up to its last complete frame");
+			finished = true;
+		}
+	}
+	
+	private void readInputs() throws IOException {
+		int count = in.readUnsignedShort();
+		
+		inputs = new ControlParameter[count];
+		values = new float[count];
+		
+		for (int i = 0; i < count; i++) {
+			int id = in.readUnsignedShort();
+			
+			inputs[i] = id < parameters.length ? parameters[id] : null;
+			values[i] = in.readFloat();
+		}
+	}
+	
+	private void readChanges() throws IOException {
+		int count = in.readUnsignedShort();
+		
+		for (int i = 0; i < count; i++) {
+			int index = in.readUnsignedShort();
+			values[index] = in.readFloat();
+		}
+	}
+	
+	private void fail(IOException e) {
+		logger.error("Could not read input recording; replay stopped!", e);
+		finished = true;
+	}
+}
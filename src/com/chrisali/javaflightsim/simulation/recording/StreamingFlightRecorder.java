@@ -0,0 +1,341 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.recording;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+
+/**
+ * Streams every step of the simulation to a flight recording on disk while the simulation runs, so that a session of any 
+ * length can be recorded in full rather than only the retention window kept in memory by 
+ * {@link com.chrisali.javaflightsim.simulation.integration.FlightLog}.
+ * <p>The simulation thread publishes rows with {@link StreamingFlightRecorder#offer(double[])}, which copies the row into a 
+ * bounded, lock-free single producer/single consumer ring buffer and returns without touching the disk. A background writer 
+ * thread drains the buffer in batches into a {@link FlightRecordingWriter}. When the buffer fills up, rows are handled according 
+ * to the recorder's {@link BackpressurePolicy}; rows dropped or decimated are counted, as is the writer's lag behind the 
+ * simulation</p>
+ * <p>{@link StreamingFlightRecorder#offer(double[])} must only be called from one thread</p>
+ * 
+ * @author Christopher Ali
+ * @see FlightRecordingReader
+ */
+public class StreamingFlightRecorder implements Closeable {
+	
+	private static final Logger logger = LogManager.getLogger(StreamingFlightRecorder.class);
+	
+	/**
+	 * Rows buffered by default; over a minute of simulation at 120 Hz
+	 */
+	public static final int DEFAULT_CAPACITY = 8192;
+	
+	/**
+	 * Once the buffer is three quarters full, {@link BackpressurePolicy#DECIMATE} keeps one row in this many
+	 */
+	public static final int DECIMATION = 4;
+	
+	private static final int COLUMNS = SimOuts.values().length;
+	private static final int TIME = SimOuts.TIME.ordinal();
+	
+	// Writer thread sleeps this long when there is nothing to write; BLOCK waits this long for the writer to free space 
+	private static final long IDLE_PARK_NANOS = 1_000_000;
+	private static final long BLOCK_PARK_NANOS = 50_000;
+	
+	private final File file;
+	private final FlightRecordingWriter writer;
+	private final BackpressurePolicy policy;
+	
+	// Ring buffer of rows, indexed [slot * COLUMNS + column]; head is only advanced by the producer, tail by the writer thread
+	private final double[] buffer;
+	private final int capacity;
+	private final long mask;
+	private final int decimationThreshold;
+	private final int batchRows;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	
+	// Counters only written by the producer or by the writer thread, respectively
+	private volatile long offeredRows = 0;
+	private volatile long droppedRows = 0;
+	private volatile long decimatedRows = 0;
+	private volatile long writtenRows = 0;
+	
+	// Rows left unwritten in the buffer when the recorder closed after the writer failed
+	private volatile long abandonedRows = 0;
+	private volatile double lastOfferedTime = Double.NaN;
+	private volatile double lastWrittenTime = Double.NaN;
+	
+	private volatile boolean closed = false;
+	private volatile IOException failure;
+	private Thread writerThread;
+	
+	/**
+	 * Creates a recorder with a buffer of {@link StreamingFlightRecorder#DEFAULT_CAPACITY} rows
+	 * 
+	 * @param file recording to create, replacing any existing file
+	 * @param aircraftName name of the aircraft recorded
+	 * @param configuration configuration of the simulation recorded; may be null
+	 * @param policy what to do with rows published while the buffer is full
+	 * @throws IOException if the recording cannot be created
+	 */
+	public StreamingFlightRecorder(File file, String aircraftName, SimulationConfiguration configuration, 
+								   BackpressurePolicy policy) throws IOException {
+		this(file, aircraftName, configuration, policy, DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Creates a recorder and the recording it writes to. Rows can be offered immediately, but are not written until 
+	 * {@link StreamingFlightRecorder#start()} is called 
+	 * 
+	 * @param file recording to create, replacing any existing file
+	 * @param aircraftName name of the aircraft recorded
+	 * @param configuration configuration of the simulation recorded; may be null
+	 * @param policy what to do with rows published while the buffer is full
+	 * @param capacity rows buffered between the simulation and writer threads, rounded up to a power of two
+	 * @throws IOException if the recording cannot be created
+	 */
+	public StreamingFlightRecorder(File file, String aircraftName, SimulationConfiguration configuration, 
+								   BackpressurePolicy policy, int capacity) throws IOException {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Flight recorder capacity must be positive, was: " + capacity);
+		
+		this.file = file;
+		this.policy = policy;
+		
+		int slots = 1;
+		while (slots < capacity)
+			slots <<= 1;
+		
+		this.capacity = slots;
+		mask = slots - 1;
+		decimationThreshold = this.capacity - this.capacity / 4;
+		batchRows = Math.max(1, this.capacity / 4);
+		buffer = new double[this.capacity * COLUMNS];
+		
+		writer = new FlightRecordingWriter(file, aircraftName, configuration);
+	}
+	
+	/**
+	 * Starts the background thread that writes buffered rows to disk
+	 */
+	public synchronized void start() {
+		if (writerThread != null || closed)
+			return;
+		
+		logger.debug("Starting flight recorder: " + file.getAbsolutePath() + "...");
+		
+		writerThread = new Thread(this::drain, "Flight Recorder");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+	
+	/**
+	 * Publishes a row of simulation output to be written to the recording. Unless the policy is {@link BackpressurePolicy#BLOCK},
+	 * this never waits on the writer thread
+	 * 
+	 * @param row simulation output indexed by {@link SimOuts} ordinal
+	 * @return if the row was queued to be written; false if it was dropped or decimated 
+	 */
+	public boolean offer(double[] row) {
+		long offered = offeredRows++;
+		lastOfferedTime = row[TIME];
+		
+		if (closed || failure != null) {
+			droppedRows++;
+			return false;
+		}
+		
+		long slot = head.get();
+		long queued = slot - tail.get();
+		
+		switch (policy) {
+		case BLOCK:
+			while (queued >= capacity) {
+				if (closed || failure != null) {
+					droppedRows++;
+					return false;
+				}
+				
+				LockSupport.parkNanos(BLOCK_PARK_NANOS);
+				queued = slot - tail.get();
+			}
+			break;
+		case DECIMATE:
+			if (queued >= capacity) {
+				droppedRows++;
+				return false;
+			} else if (queued >= decimationThreshold && offered % DECIMATION != 0) {
+				decimatedRows++;
+				return false;
+			}
+			break;
+		case DROP:
+			if (queued >= capacity) {
+				droppedRows++;
+				return false;
+			}
+			break;
+		}
+		
+		System.arraycopy(row, 0, buffer, (int) (slot & mask) * COLUMNS, COLUMNS);
+		
+		// Publish the row to the writer thread after its data has been copied
+		head.lazySet(slot + 1);
+		
+		return true;
+	}
+	
+	/**
+	 * Stops accepting rows, waits for the writer thread to write all buffered rows and closes the recording. If the recorder
+	 * was never started, buffered rows are written on the calling thread
+	 */
+	@Override
+	public void close() throws IOException {
+		Thread thread;
+		
+		synchronized (this) {
+			if (closed)
+				return;
+			
+			closed = true;
+			thread = writerThread;
+		}
+		
+		if (thread != null) {
+			LockSupport.unpark(thread);
+			
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		// Writes rows of a recorder never started, and any offered after the writer thread last found the buffer empty
+		if (failure == null)
+			drain();
+		
+		if (failure != null) {
+			abandonedRows = head.get() - tail.get();
+			tail.lazySet(head.get());
+		}
+		
+		writer.close();
+		
+		logger.debug(String.format("Closed flight recorder: %d rows written, %d dropped, %d decimated", 
+								   writtenRows, getDroppedRows(), decimatedRows));
+		
+		if (failure != null)
+			throw failure;
+	}
+	
+	/**
+	 * Writes rows to disk as they are published until the recorder is closed and its buffer is empty
+	 */
+	private void drain() {
+		while (true) {
+			long first = tail.get();
+			long last = Math.min(head.get(), first + batchRows);
+			
+			if (first == last) {
+				if (closed)
+					return;
+				
+				LockSupport.parkNanos(IDLE_PARK_NANOS);
+				continue;
+			}
+			
+			try {
+				for (long slot = first; slot < last; slot++)
+					writer.append(buffer, (int) (slot & mask) * COLUMNS);
+			} catch (IOException e) {
+				logger.error("Could not write to flight recording: " + file.getAbsolutePath() + "!", e);
+				failure = e;
+				
+				return;
+			}
+			
+			// Read the time of the last row written before handing its slot back to the producer
+			lastWrittenTime = buffer[(int) ((last - 1) & mask) * COLUMNS + TIME];
+			writtenRows += last - first;
+			
+			tail.lazySet(last);
+		}
+	}
+	
+	/**
+	 * @return recording written to
+	 */
+	public File getFile() { return file; }
+	
+	public BackpressurePolicy getPolicy() { return policy; }
+	
+	/**
+	 * @return rows buffered between the simulation and writer threads
+	 */
+	public int getCapacity() { return capacity; }
+	
+	/**
+	 * @return rows published by the simulation
+	 */
+	public long getOfferedRows() { return offeredRows; }
+	
+	/**
+	 * @return rows written to the recording
+	 */
+	public long getWrittenRows() { return writtenRows; }
+	
+	/**
+	 * @return rows discarded because the buffer was full, or because the recorder was closed or failed
+	 */
+	public long getDroppedRows() { return droppedRows + abandonedRows; }
+	
+	/**
+	 * @return rows discarded by {@link BackpressurePolicy#DECIMATE}
+	 */
+	public long getDecimatedRows() { return decimatedRows; }
+	
+	/**
+	 * @return rows waiting to be written
+	 */
+	public long getQueuedRows() { return head.get() - tail.get(); }
+	
+	/**
+	 * @return simulation time (sec) between the latest row published and the latest row written; 0 if no rows have been written
+	 */
+	public double getLagSeconds() {
+		double lag = lastOfferedTime - lastWrittenTime;
+		
+		return Double.isNaN(lag) ? 0.0 : lag;
+	}
+	
+	/**
+	 * @return error that stopped the writer thread, or null if it has not failed
+	 */
+	public IOException getFailure() { return failure; }
+}
@@ -40,6 +40,8 @@ public class ControlsConfiguration implements Saveable {
 	 * Key is the lowecase name of the joystick
 	 */
 	private Map<String, JoystickAssignments> joystickAssignments;
+	
+	private NetworkControls networkControls;
 
 	public ControlsConfiguration() {}
 	
@@ -55,6 +57,10 @@ public class ControlsConfiguration implements Saveable {
 	public Map<String, JoystickAssignments> getJoystickAssignments() { return joystickAssignments; }
 
 	public void setJoystickAssignments(Map<String, JoystickAssignments> joystickAssignments) { this.joystickAssignments = joystickAssignments; }
+	
+	public NetworkControls getNetworkControls() { return networkControls; }
+
+	public void setNetworkControls(NetworkControls networkControls) { this.networkControls = networkControls; }
 
 	/**
 	 * Wrapper class to house axis, hat and button assignments for each controller connected to the computer
@@ -93,4 +99,36 @@ public class ControlsConfiguration implements Saveable {
 		
 		public void setHatAssignments(Map<Float, KeyCommand> joystickHatAssignments) { this.hatAssignments = joystickHatAssignments;	}
 	}
+	
+	/**
+	 * Port and stale timeout of the UDP control frames received from external software, such as autopilots or motion platform consoles
+	 * 
+	 * @author Christopher Ali
+	 *
+	 */
+	public static class NetworkControls {
+		
+		private boolean enabled = false;
+		
+		private int port = 49010;
+		
+		/**
+		 * Time (ms) without a control frame after which network controls are released
+		 */
+		private long staleTimeoutMS = 250;
+		
+		public NetworkControls() {}
+
+		public boolean isEnabled() { return enabled; }
+
+		public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+		public int getPort() { return port; }
+
+		public void setPort(int port) { this.port = port; }
+
+		public long getStaleTimeoutMS() { return staleTimeoutMS; }
+
+		public void setStaleTimeoutMS(long staleTimeoutMS) { this.staleTimeoutMS = staleTimeoutMS; }
+	}
 }
@@ -20,12 +20,17 @@
 package com.chrisali.javaflightsim.simulation.setup;
 
 /**
- *	Provides the keys for the integratorConfig EnumMap generated by {@link IntegrationSetup}
+ *	Provides the keys for the integratorConfig EnumMap generated by {@link IntegrationSetup}. ABSTOLERANCE and RELTOLERANCE
+ *  are only used by {@link IntegratorType#DORMAND_PRINCE_54}, and are optional. RETENTIONWINDOW is the number of seconds of 
+ *  flight data kept in the log when running with {@link Options#UNLIMITED_FLIGHT}, and is also optional
  */
 public enum IntegratorConfig {
-	STARTTIME 	("startTime"),
-	DT 	  		("dt"),
-	ENDTIME 	("endTime");
+	STARTTIME 	 ("startTime"),
+	DT 	  		 ("dt"),
+	ENDTIME 	 ("endTime"),
+	ABSTOLERANCE ("absTolerance"),
+	RELTOLERANCE ("relTolerance"),
+	RETENTIONWINDOW ("retentionWindow");
 	
 	private final String integratorConfig;
 	
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.setup;
+
+import com.chrisali.javaflightsim.simulation.integration.ClassicalRungeKuttaStepper;
+import com.chrisali.javaflightsim.simulation.integration.DormandPrince54Stepper;
+
+/**
+ *	Used by the SimulationConfiguration to select the numerical integration method used by the 6DOF model
+ *
+ *	<p>CLASSICAL_RUNGE_KUTTA - Fixed step 4th order Runge Kutta ({@link ClassicalRungeKuttaStepper}) with a step size of DT</p>
+ *	<p>DORMAND_PRINCE_54 - Error controlled Dormand-Prince 5(4) ({@link DormandPrince54Stepper}) that takes steps as large as 
+ *	ABSTOLERANCE and RELTOLERANCE allow, with outputs interpolated every DT; intended for ANALYSIS_MODE runs</p>
+ */
+public enum IntegratorType {
+	CLASSICAL_RUNGE_KUTTA ("Classical Runge Kutta"),
+	DORMAND_PRINCE_54 	  ("Dormand-Prince 5(4)");
+	
+	private String integratorType;
+	
+	private IntegratorType(String integratorType) {this.integratorType = integratorType;}
+	
+	public String toString() {return integratorType;}
+}
@@ -35,6 +35,12 @@ import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
  *	<p>CONSOLE_DISPLAY - Displays every piece of data in {@link Integrate6DOFEquations#getSimOut()} in the console for each step of integration</p>
  *	<p>USE_JOYSTICK - Uses JInput with a {@link Joystick} and {@link Keyboard} to allow pilot in the loop simulation</p>
  *	<p>USE_MOUSE - Uses JInput JInput with a {@link Mouse} and {@link Keyboard} to allow pilot in the loop simulation</p>
+ *	<p>RECORD_FLIGHT - Streams every step of the simulation to a flight recording in the Recordings directory while it runs, so that 
+ *	the whole session is kept regardless of the data logging limit of UNLIMITED_FLIGHT</p>
+ *	<p>RECORD_INPUTS - Records only the configuration, control inputs and terrain heights of the simulation to the Recordings directory,
+ *	from which the flight can be regenerated exactly with {@link com.chrisali.javaflightsim.RunHeadlessReplay}</p>
+ *	<p>INSTRUMENT_SIMULATION - Records the time taken by each step of each simulation component, loop jitter, deadline misses and GC pauses, 
+ *	viewable through JMX and logged periodically; see {@link com.chrisali.javaflightsim.simulation.metrics.SimulationMetrics}</p>
  */
 public enum Options {
 	ANALYSIS_MODE     ("Analysis Mode"),
@@ -43,7 +49,10 @@ public enum Options {
 	RESET			  ("Reset"),
 	CONSOLE_DISPLAY	  ("Console Display"),
 	USE_JOYSTICK	  ("Use Joystick"),
-	USE_MOUSE		  ("Use Mouse");
+	USE_MOUSE		  ("Use Mouse"),
+	RECORD_FLIGHT	  ("Record Flight"),
+	RECORD_INPUTS	  ("Record Inputs"),
+	INSTRUMENT_SIMULATION ("Instrument Simulation");
 	
 	private String option;
 	
@@ -28,6 +28,7 @@ public class SimulationConfiguration implements Saveable {
 	private EnumSet<Options> simulationOptions;
 	private EnumMap<InitialConditions, Double> initialConditions;
 	private EnumMap<IntegratorConfig, Double> integratorConfig;
+	private IntegratorType integratorType = IntegratorType.CLASSICAL_RUNGE_KUTTA;
 	private EnumMap<FlightControl, Double> initialControls; 
 	private String selectedAircraft;
 
@@ -36,6 +37,8 @@ public class SimulationConfiguration implements Saveable {
 	private AudioConfiguration audioConfiguration;
 	
 	private CameraConfiguration cameraConfiguration;
+	
+	private TelemetryConfiguration telemetryConfiguration;
 
 	public SimulationConfiguration() { }
 		
@@ -65,6 +68,10 @@ public class SimulationConfiguration implements Saveable {
 	
 	public void setIntegratorConfig(EnumMap<IntegratorConfig, Double> integratorConfig) { this.integratorConfig = integratorConfig;	}
 
+	public IntegratorType getIntegratorType() { return integratorType; }
+
+	public void setIntegratorType(IntegratorType integratorType) { this.integratorType = integratorType; }
+
 	@JsonIgnore
 	public int getSimulationRateHz() {
 		return (int)(1/integratorConfig.get(IntegratorConfig.DT));
@@ -85,6 +92,11 @@ public class SimulationConfiguration implements Saveable {
 	public AudioConfiguration getAudioConfiguration() { return audioConfiguration; }
 
 	public DisplayConfiguration getDisplayConfiguration() { return displayConfiguration; }
+	
+	/**
+	 * @return telemetry destinations, or null if none are configured
+	 */
+	public TelemetryConfiguration getTelemetryConfiguration() { return telemetryConfiguration; }
 
 	public EnumMap<FlightControl, Double> getInitialControls() { return initialControls; }
 
@@ -0,0 +1,78 @@
+/**
+ * 
+ */
+package com.chrisali.javaflightsim.simulation.setup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contains the destinations that flight data is published to as UDP telemetry while the simulation runs, see 
+ * {@link com.chrisali.javaflightsim.simulation.telemetry.TelemetryPublisher}, and the file simulation outputs are exported to in 
+ * shared memory, see {@link com.chrisali.javaflightsim.simulation.telemetry.SharedMemoryExporter}
+ */
+public class TelemetryConfiguration {
+	
+	private List<Destination> destinations = new ArrayList<>();
+	
+	/**
+	 * Path of the file to export to, such as /dev/shm/javaflightsim on Linux; not exported if null or empty
+	 */
+	private String sharedMemoryFile;
+	
+	private int sharedMemoryHistoryRows = 1024;
+	
+	public TelemetryConfiguration() {}
+
+	public List<Destination> getDestinations() { return destinations; }
+
+	public void setDestinations(List<Destination> destinations) { this.destinations = destinations; }
+	
+	public String getSharedMemoryFile() { return sharedMemoryFile; }
+
+	public void setSharedMemoryFile(String sharedMemoryFile) { this.sharedMemoryFile = sharedMemoryFile; }
+
+	public int getSharedMemoryHistoryRows() { return sharedMemoryHistoryRows; }
+
+	public void setSharedMemoryHistoryRows(int sharedMemoryHistoryRows) { this.sharedMemoryHistoryRows = sharedMemoryHistoryRows; }
+	
+	/**
+	 * Host and port of an external display to send telemetry to, the rate (Hz) to send at, and whether to include all simulation 
+	 * outputs as well as flight data
+	 */
+	public static class Destination {
+		
+		private String host;
+		
+		private int port;
+		
+		private double rateHz;
+		
+		private boolean includeSimOuts;
+		
+		public Destination() {}
+		
+		public Destination(String host, int port, double rateHz, boolean includeSimOuts) {
+			this.host = host;
+			this.port = port;
+			this.rateHz = rateHz;
+			this.includeSimOuts = includeSimOuts;
+		}
+
+		public String getHost() { return host; }
+
+		public void setHost(String host) { this.host = host; }
+
+		public int getPort() { return port; }
+
+		public void setPort(int port) { this.port = port; }
+
+		public double getRateHz() { return rateHz; }
+
+		public void setRateHz(double rateHz) { this.rateHz = rateHz; }
+
+		public boolean isIncludeSimOuts() { return includeSimOuts; }
+
+		public void setIncludeSimOuts(boolean includeSimOuts) { this.includeSimOuts = includeSimOuts; }
+	}
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.setup;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.chrisali.javaflightsim.interfaces.Saveable;
+import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
+import com.chrisali.javaflightsim.simulation.aircraft.MassProperties;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+import com.chrisali.javaflightsim.simulation.utilities.SimDirectories;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Persistent cache of {@link TrimPoint} solutions, keyed by aircraft name and revision, airspeed, altitude, flight path angle, 
+ * turn rate, flap and gear positions, fuel and payload weight fractions, and the mixture and propeller settings of each engine, 
+ * so that repeated starts at the same condition can skip trimming. The revision of an aircraft is the modification time and 
+ * size of its Aircraft.json file, so that solutions for an aircraft edited and saved under the same name are not reused. 
+ * Saved as TrimCache.json in the SimConfig directory, or the directory it was read from with 
+ * {@link FileUtilities#readTrimCache(String)}
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TrimCache implements Saveable {
+	
+	private static final FlightControl[] MIXTURES = {FlightControl.MIXTURE_1, FlightControl.MIXTURE_2, 
+													 FlightControl.MIXTURE_3, FlightControl.MIXTURE_4};
+	
+	private static final FlightControl[] PROPELLERS = {FlightControl.PROPELLER_1, FlightControl.PROPELLER_2, 
+													   FlightControl.PROPELLER_3, FlightControl.PROPELLER_4};
+	
+	@JsonIgnore
+	private String configDirectory = SimDirectories.SIM_CONFIG.toString();
+	
+	private Map<String, TrimPoint> trimPoints = new TreeMap<>();
+	
+	public TrimCache() { }
+	
+	/**
+	 * Creates the key of a trim condition for an aircraft configured with controls
+	 * 
+	 * @param aircraft
+	 * @param condition
+	 * @param controls
+	 * @return key to look up a {@link TrimPoint} in the cache with 
+	 */
+	public static String createKey(Aircraft aircraft, TrimCondition condition, Map<FlightControl, Double> controls) {
+		StringBuilder key = new StringBuilder(getAircraftPrefix(aircraft));
+		
+		key.append(String.format(Locale.US, "V%.2f|H%.1f|G%.5f|T%.5f|F%.4f|L%.3f|W%.4f|P%.4f", 
+								 condition.getAirspeed(),
+								 condition.getAltitude(),
+								 condition.getFlightPathAngle(),
+								 condition.getTurnRate(),
+								 controls.get(FlightControl.FLAPS),
+								 controls.get(FlightControl.GEAR),
+								 aircraft.getMassProperty(MassProperties.WEIGHT_FUEL),
+								 aircraft.getMassProperty(MassProperties.WEIGHT_PAYLOAD)));
+		
+		// Mixture and propeller change engine thrust, which trimming only solves throttle for
+		int engines = Math.min(aircraft.getEngines().size(), MIXTURES.length);
+		for (int i = 0; i < engines; i++)
+			key.append(String.format(Locale.US, "|M%.3f|N%.3f", controls.get(MIXTURES[i]), controls.get(PROPELLERS[i])));
+		
+		return key.toString();
+	}
+	
+	/**
+	 * @param aircraft
+	 * @return start of the keys of all trim points of the current revision of aircraft 
+	 */
+	private static String getAircraftPrefix(Aircraft aircraft) {
+		File file = FileUtilities.getAircraftConfigurationFile(aircraft.getName());
+		
+		return String.format(Locale.US, "%s|R%d-%d|", aircraft.getName(), file.lastModified(), file.length());
+	}
+	
+	/**
+	 * @param key
+	 * @return cached trim point, or null if none exists for key
+	 */
+	public TrimPoint get(String key) { return trimPoints.get(key); }
+	
+	/**
+	 * Adds a trim point to the cache, removing those of earlier revisions of the same aircraft, which can no longer be looked 
+	 * up; {@link TrimCache#save()} needs to be called for it to persist
+	 * 
+	 * @param key
+	 * @param trimPoint
+	 */
+	public void put(String key, TrimPoint trimPoint) {
+		String aircraftName = key.substring(0, key.indexOf('|') + 1);
+		String revision = key.substring(0, key.indexOf('|', aircraftName.length()) + 1);
+		
+		trimPoints.keySet().removeIf(existing -> existing.startsWith(aircraftName) && !existing.startsWith(revision));
+		trimPoints.put(key, trimPoint);
+	}
+	
+	/**
+	 * Saves all cached trim points to a JSON file via {@link FileUtilities#serializeJson(String, String, Object)}
+	 */
+	@Override
+	public void save() {
+		FileUtilities.serializeJson(configDirectory, this.getClass().getSimpleName(), this);
+	}
+
+	public Map<String, TrimPoint> getTrimPoints() { return trimPoints; }
+
+	public void setTrimPoints(Map<String, TrimPoint> trimPoints) { this.trimPoints = new TreeMap<>(trimPoints); }
+
+	@JsonIgnore
+	public String getConfigDirectory() { return configDirectory; }
+
+	@JsonIgnore
+	public void setConfigDirectory(String configDirectory) { this.configDirectory = configDirectory; }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.setup;
+
+/**
+ * Describes a steady flight condition to trim an aircraft in with {@link TrimSolver}: straight-and-level flight, a constant 
+ * flight path angle climb or descent, or a coordinated steady turn at constant altitude
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TrimCondition {
+	
+	private final double airspeed;
+	private final double altitude;
+	private final double heading;
+	private final double flightPathAngle;
+	private final double turnRate;
+	
+	/**
+	 * @param airspeed true airspeed (ft/sec)
+	 * @param altitude (ft)
+	 * @param heading (rad)
+	 * @param flightPathAngle positive for a climb (rad)
+	 * @param turnRate positive for a right turn (rad/sec)
+	 */
+	public TrimCondition(double airspeed, double altitude, double heading, double flightPathAngle, double turnRate) {
+		this.airspeed = airspeed;
+		this.altitude = altitude;
+		this.heading = heading;
+		this.flightPathAngle = flightPathAngle;
+		this.turnRate = turnRate;
+	}
+	
+	/**
+	 * @param airspeed true airspeed (ft/sec)
+	 * @param altitude (ft)
+	 * @param heading (rad)
+	 * @return straight-and-level trim condition
+	 */
+	public static TrimCondition straightAndLevel(double airspeed, double altitude, double heading) {
+		return new TrimCondition(airspeed, altitude, heading, 0.0, 0.0);
+	}
+	
+	/**
+	 * @param airspeed true airspeed (ft/sec)
+	 * @param altitude (ft)
+	 * @param heading (rad)
+	 * @param flightPathAngle positive for a climb (rad)
+	 * @return wings level, constant flight path angle trim condition
+	 */
+	public static TrimCondition climb(double airspeed, double altitude, double heading, double flightPathAngle) {
+		return new TrimCondition(airspeed, altitude, heading, flightPathAngle, 0.0);
+	}
+	
+	/**
+	 * @param airspeed true airspeed (ft/sec)
+	 * @param altitude (ft)
+	 * @param heading (rad)
+	 * @param turnRate positive for a right turn (rad/sec)
+	 * @return level, coordinated steady turn trim condition
+	 */
+	public static TrimCondition steadyTurn(double airspeed, double altitude, double heading, double turnRate) {
+		return new TrimCondition(airspeed, altitude, heading, 0.0, turnRate);
+	}
+
+	public double getAirspeed() { return airspeed; }
+
+	public double getAltitude() { return altitude; }
+
+	public double getHeading() { return heading; }
+
+	public double getFlightPathAngle() { return flightPathAngle; }
+
+	public double getTurnRate() { return turnRate; }
+	
+	@Override
+	public String toString() {
+		return String.format("Airspeed: %.2f ft/sec, Altitude: %.1f ft, Flight Path Angle: %.4f rad, Turn Rate: %.4f rad/sec", 
+							 airspeed, altitude, flightPathAngle, turnRate);
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.setup;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Solution of a trim found by {@link TrimSolver}: the aerodynamic angles and control deflections that zero all six force and 
+ * moment equations for a {@link TrimCondition}. Together with that condition, these values are all that is needed to rebuild
+ * the trimmed initial conditions and controls, so they are what {@link TrimCache} stores
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TrimPoint {
+	
+	private double alpha;
+	private double beta;
+	private double elevator;
+	private double aileron;
+	private double rudder;
+	private double throttle;
+	
+	@JsonIgnore
+	private boolean converged = true;
+	
+	public TrimPoint() { }
+	
+	/**
+	 * @param alpha angle of attack (rad)
+	 * @param beta sideslip angle (rad)
+	 * @param elevator (rad)
+	 * @param aileron (rad)
+	 * @param rudder (rad)
+	 * @param throttle applied to all engines (0.0 - 1.0)
+	 * @param converged if the trim solution zeroed all forces and moments within tolerance
+	 */
+	public TrimPoint(double alpha, double beta, double elevator, double aileron, double rudder, double throttle, boolean converged) {
+		this.alpha = alpha;
+		this.beta = beta;
+		this.elevator = elevator;
+		this.aileron = aileron;
+		this.rudder = rudder;
+		this.throttle = throttle;
+		this.converged = converged;
+	}
+
+	public double getAlpha() { return alpha; }
+
+	public void setAlpha(double alpha) { this.alpha = alpha; }
+
+	public double getBeta() { return beta; }
+
+	public void setBeta(double beta) { this.beta = beta; }
+
+	public double getElevator() { return elevator; }
+
+	public void setElevator(double elevator) { this.elevator = elevator; }
+
+	public double getAileron() { return aileron; }
+
+	public void setAileron(double aileron) { this.aileron = aileron; }
+
+	public double getRudder() { return rudder; }
+
+	public void setRudder(double rudder) { this.rudder = rudder; }
+
+	public double getThrottle() { return throttle; }
+
+	public void setThrottle(double throttle) { this.throttle = throttle; }
+
+	@JsonIgnore
+	public boolean isConverged() { return converged; }
+	
+	@Override
+	public String toString() {
+		return String.format("Alpha: %.5f rad\nBeta: %.5f rad\nElevator: %.5f rad\nAileron: %.5f rad\nRudder: %.5f rad\nThrottle: %.5f", 
+							 alpha, beta, elevator, aileron, rudder, throttle);
+	}
+}
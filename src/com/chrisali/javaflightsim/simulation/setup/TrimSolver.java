@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.setup;
+
+import java.util.Map;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.SimulationContext;
+import com.chrisali.javaflightsim.simulation.enviroment.Environment;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+
+/**
+ * Trims an aircraft by solving for angle of attack, sideslip angle, elevator, aileron, rudder and throttle that together zero
+ * all six force and moment equations of the 6DOF model, including engine forces and moments, using the Newton-Raphson method.
+ * The Jacobian of the body accelerations with respect to these unknowns is calculated by central finite differences of
+ * {@link Integrate6DOFEquations#computeDerivatives(double[], double[])}.
+ * <p>Pitch and bank angles are not unknowns; for a {@link TrimCondition} they follow from the rate of climb and coordinated 
+ * turn constraints, as do the body angular rates of a steady turn</p>
+ * 
+ * @author Christopher Ali
+ * @see Aircraft Control and Simulation - Stevens and Lewis (pp 190-6)
+ */
+public class TrimSolver {
+	
+	private static final Logger logger = LogManager.getLogger(TrimSolver.class);
+	
+	private static final int MAX_ITERATIONS = 50;
+	
+	// Largest acceptable linear (ft/sec^2) and angular (rad/sec^2) acceleration at trim
+	private static final double TOLERANCE = 1e-6;
+	
+	private static final double PERTURBATION = 1e-6;
+	
+	private static final double MAX_ANGLE = 0.5;
+	
+	// Indices of the unknowns
+	private static final int ALPHA = 0, BETA = 1, ELEVATOR = 2, AILERON = 3, RUDDER = 4, THROTTLE = 5;
+	private static final int UNKNOWNS = 6;
+	
+	// Indices of the body accelerations to zero in the 14 state derivatives
+	private static final int[] RESIDUALS = {InitialConditions.INITU.ordinal(), InitialConditions.INITV.ordinal(), 
+											InitialConditions.INITW.ordinal(), InitialConditions.INITP.ordinal(), 
+											InitialConditions.INITQ.ordinal(), InitialConditions.INITR.ordinal()};
+	
+	private static final FlightControl[] THROTTLES = {FlightControl.THROTTLE_1, FlightControl.THROTTLE_2, 
+													  FlightControl.THROTTLE_3, FlightControl.THROTTLE_4};
+	
+	private FlightControlsState controlsState;
+	private Integrate6DOFEquations equations;
+	
+	private double[] state = new double[InitialConditions.values().length];
+	private double[] derivatives = new double[InitialConditions.values().length];
+	
+	private int evaluations;
+	
+	/**
+	 * Creates a trim solver that evaluates the 6DOF equations of the aircraft in context, starting from the initial conditions
+	 * and initial controls of its configuration
+	 * 
+	 * @param context
+	 */
+	public TrimSolver(SimulationContext context) {
+		controlsState = new FlightControlsState(context.getConfiguration());
+		equations = new Integrate6DOFEquations(controlsState, context);
+	}
+	
+	/**
+	 * Solves for a trim point of condition, using the angles and controls in initialConditions and initialControls as the first guess
+	 * 
+	 * @param condition
+	 * @param initialConditions
+	 * @param initialControls
+	 * @return trim point; if {@link TrimPoint#isConverged()} is false, this is the closest point that could be found
+	 */
+	public TrimPoint solve(TrimCondition condition, Map<InitialConditions, Double> initialConditions, 
+						   Map<FlightControl, Double> initialControls) {
+		for (Map.Entry<FlightControl, Double> entry : initialControls.entrySet())
+			controlsState.set(entry.getKey(), entry.getValue());
+		
+		for (InitialConditions initialCondition : InitialConditions.values())
+			state[initialCondition.ordinal()] = initialConditions.get(initialCondition);
+		
+		double u = initialConditions.get(InitialConditions.INITU);
+		double v = initialConditions.get(InitialConditions.INITV);
+		double w = initialConditions.get(InitialConditions.INITW);
+		double speed = Math.sqrt(u*u + v*v + w*w);
+		
+		double[] x = new double[UNKNOWNS];
+		x[ALPHA]    = limit(Math.atan2(w, u), -MAX_ANGLE, MAX_ANGLE);
+		x[BETA]     = speed > 0 ? limit(Math.asin(v/speed), -MAX_ANGLE, MAX_ANGLE) : 0.0;
+		x[ELEVATOR] = initialControls.get(FlightControl.ELEVATOR);
+		x[AILERON]  = initialControls.get(FlightControl.AILERON);
+		x[RUDDER]   = initialControls.get(FlightControl.RUDDER);
+		x[THROTTLE] = initialControls.get(FlightControl.THROTTLE_1);
+		limit(x);
+		
+		evaluations = 0;
+		
+		double[] residual = residual(condition, x, new double[UNKNOWNS]);
+		double[] trial = new double[UNKNOWNS];
+		double[] trialResidual = new double[UNKNOWNS];
+		double[] positive = new double[UNKNOWNS];
+		double[] negative = new double[UNKNOWNS];
+		double[][] jacobian = new double[UNKNOWNS][UNKNOWNS];
+		
+		boolean converged = maxAbs(residual) < TOLERANCE;
+		boolean stalled = false;
+		int iteration = 0;
+		
+		for (; !converged && iteration < MAX_ITERATIONS; iteration++) {
+			// Central difference Jacobian, one column per unknown
+			for (int j = 0; j < UNKNOWNS; j++) {
+				double step = PERTURBATION * Math.max(1.0, Math.abs(x[j]));
+				System.arraycopy(x, 0, trial, 0, UNKNOWNS);
+				
+				trial[j] = x[j] + step;
+				residual(condition, trial, positive);
+				trial[j] = x[j] - step;
+				residual(condition, trial, negative);
+				
+				for (int i = 0; i < UNKNOWNS; i++)
+					jacobian[i][j] = (positive[i] - negative[i]) / (2 * step);
+			}
+			
+			DecompositionSolver solver = new LUDecomposition(new Array2DRowRealMatrix(jacobian, false)).getSolver();
+			if (!solver.isNonSingular()) {
+				logger.error("Trim Jacobian is singular; unable to trim for: " + condition);
+				stalled = true;
+				break;
+			}
+			
+			double[] dx = solver.solve(new ArrayRealVector(residual, false)).mapMultiply(-1).toArray();
+			
+			// Halve the Newton step until it reduces the residual, so that poor first guesses do not diverge
+			double normResidual = norm(residual);
+			double lambda = 1.0;
+			boolean reduced;
+			
+			do {
+				for (int i = 0; i < UNKNOWNS; i++)
+					trial[i] = x[i] + lambda * dx[i];
+				limit(trial);
+				residual(condition, trial, trialResidual);
+				reduced = norm(trialResidual) < normResidual;
+				lambda /= 2;
+			} while (!reduced && lambda > 1.0/64);
+			
+			// Keep the closest point found rather than step to one further from trim
+			if (!reduced) {
+				logger.error("Trim line search could not reduce the residual; unable to trim for: " + condition);
+				stalled = true;
+				break;
+			}
+			
+			System.arraycopy(trial, 0, x, 0, UNKNOWNS);
+			System.arraycopy(trialResidual, 0, residual, 0, UNKNOWNS);
+			
+			converged = maxAbs(residual) < TOLERANCE;
+		}
+		
+		if (converged)
+			logger.debug("Trimmed in " + iteration + " iterations and " + evaluations + " evaluations for: " + condition);
+		else if (!stalled)
+			logger.error("Unable to trim within " + MAX_ITERATIONS + " iterations for: " + condition);
+		
+		return new TrimPoint(x[ALPHA], x[BETA], x[ELEVATOR], x[AILERON], x[RUDDER], x[THROTTLE], converged);
+	}
+	
+	/**
+	 * @return number of 6DOF derivative evaluations made by the last call to {@link TrimSolver#solve(TrimCondition, Map, Map)}
+	 */
+	public int getEvaluations() { return evaluations; }
+	
+	/**
+	 * Writes the body velocities, Euler angles, body angular rates and altitude of a trim point in condition into state, which is 
+	 * indexed by {@link InitialConditions} ordinal; position and latitude/longitude are left as they are  
+	 * 
+	 * @param condition
+	 * @param alpha angle of attack (rad)
+	 * @param beta sideslip angle (rad)
+	 * @param state
+	 * @return state
+	 */
+	public static double[] calculateState(TrimCondition condition, double alpha, double beta, double[] state) {
+		double airspeed = condition.getAirspeed();
+		double turnRate = condition.getTurnRate();
+		double sinGamma = Math.sin(condition.getFlightPathAngle());
+		
+		double phi = 0.0;
+		
+		// Coordinated turn constraint
+		if (turnRate != 0.0) {
+			double g = turnRate * airspeed / Environment.getGravity();
+			double tanAlpha = Math.tan(alpha);
+			double a = 1 - g * tanAlpha * Math.sin(beta);
+			double b = sinGamma / Math.cos(beta);
+			double c = 1 + g * g * Math.pow(Math.cos(beta), 2);
+			
+			phi = Math.atan(g * (Math.cos(beta) / Math.cos(alpha)) 
+							* ((a - b * b) + b * tanAlpha * Math.sqrt(c * (1 - b * b) + g * g * Math.pow(Math.sin(beta), 2))) 
+							/ (a * a - b * b * (1 + c * tanAlpha * tanAlpha)));
+		}
+		
+		// Rate of climb constraint
+		double a = Math.cos(alpha) * Math.cos(beta);
+		double b = Math.sin(phi) * Math.sin(beta) + Math.cos(phi) * Math.sin(alpha) * Math.cos(beta);
+		double theta = Math.atan((a * b + sinGamma * Math.sqrt(a * a - sinGamma * sinGamma + b * b)) / (a * a - sinGamma * sinGamma));
+		
+		state[InitialConditions.INITU.ordinal()]     = airspeed * Math.cos(alpha) * Math.cos(beta);
+		state[InitialConditions.INITV.ordinal()]     = airspeed * Math.sin(beta);
+		state[InitialConditions.INITW.ordinal()]     = airspeed * Math.sin(alpha) * Math.cos(beta);
+		state[InitialConditions.INITD.ordinal()]     = condition.getAltitude();
+		state[InitialConditions.INITPHI.ordinal()]   = phi;
+		state[InitialConditions.INITTHETA.ordinal()] = theta;
+		state[InitialConditions.INITPSI.ordinal()]   = condition.getHeading();
+		state[InitialConditions.INITP.ordinal()]     = -turnRate * Math.sin(theta);
+		state[InitialConditions.INITQ.ordinal()]     = turnRate * Math.sin(phi) * Math.cos(theta);
+		state[InitialConditions.INITR.ordinal()]     = turnRate * Math.cos(phi) * Math.cos(theta);
+		
+		return state;
+	}
+	
+	/**
+	 * Writes the body linear and angular accelerations at the state and controls given by x into residual
+	 */
+	private double[] residual(TrimCondition condition, double[] x, double[] residual) {
+		calculateState(condition, x[ALPHA], x[BETA], state);
+		
+		controlsState.set(FlightControl.ELEVATOR, x[ELEVATOR]);
+		controlsState.set(FlightControl.AILERON,  x[AILERON]);
+		controlsState.set(FlightControl.RUDDER,   x[RUDDER]);
+		
+		for (FlightControl throttle : THROTTLES)
+			controlsState.set(throttle, x[THROTTLE]);
+		
+		equations.computeDerivatives(state, derivatives);
+		evaluations++;
+		
+		for (int i = 0; i < UNKNOWNS; i++)
+			residual[i] = derivatives[RESIDUALS[i]];
+		
+		return residual;
+	}
+	
+	/**
+	 * Keeps angles and controls within their physical limits
+	 */
+	private static void limit(double[] x) {
+		x[ALPHA]    = limit(x[ALPHA], -MAX_ANGLE, MAX_ANGLE);
+		x[BETA]     = limit(x[BETA],  -MAX_ANGLE, MAX_ANGLE);
+		x[ELEVATOR] = limit(x[ELEVATOR], FlightControl.ELEVATOR.getMinimum(), FlightControl.ELEVATOR.getMaximum());
+		x[AILERON]  = limit(x[AILERON],  FlightControl.AILERON.getMinimum(),  FlightControl.AILERON.getMaximum());
+		x[RUDDER]   = limit(x[RUDDER],   FlightControl.RUDDER.getMinimum(),   FlightControl.RUDDER.getMaximum());
+		x[THROTTLE] = limit(x[THROTTLE], FlightControl.THROTTLE_1.getMinimum(), FlightControl.THROTTLE_1.getMaximum());
+	}
+	
+	private static double limit(double value, double minimum, double maximum) {
+		return value > maximum ? maximum : value < minimum ? minimum : value;
+	}
+	
+	private static double maxAbs(double[] vector) {
+		double max = 0.0;
+		for (double value : vector)
+			max = Math.max(max, Math.abs(value));
+		
+		return max;
+	}
+	
+	private static double norm(double[] vector) {
+		double sum = 0.0;
+		for (double value : vector)
+			sum += value * value;
+		
+		return Math.sqrt(sum);
+	}
+}
@@ -20,194 +20,156 @@
 package com.chrisali.javaflightsim.simulation.setup;
 
 import java.util.EnumMap;
-import java.util.Map;
-import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.chrisali.javaflightsim.simulation.aircraft.Aerodynamics;
+import com.chrisali.javaflightsim.simulation.SimulationContext;
 import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
-import com.chrisali.javaflightsim.simulation.aircraft.MassProperties;
-import com.chrisali.javaflightsim.simulation.aircraft.StabilityDerivatives;
-import com.chrisali.javaflightsim.simulation.aircraft.WingGeometry;
-import com.chrisali.javaflightsim.simulation.enviroment.Environment;
-import com.chrisali.javaflightsim.simulation.enviroment.EnvironmentParameters;
 import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
-import com.chrisali.javaflightsim.simulation.propulsion.Engine;
-import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
 
 /**
- * Simple rudimentary method of longitudinally trimming an aircraft by statically equating forces and moments.
- * This calculates trim deflections of throttle and elevator needed for level flight. For trim pitch, flight path
- * angle and angle of attack are considered by using the following equation:
- * 
- *  <p>Angle of Attack = Pitch Angle + Flight Path Angle</p>
+ * Trims an aircraft for a {@link TrimCondition} with {@link TrimSolver}, which zeroes all six force and moment equations 
+ * of the 6DOF model by coupled Newton-Raphson iteration on angle of attack, sideslip angle, elevator, aileron, rudder 
+ * and throttle. The trimmed states and controls are written to the initial conditions and initial controls of the 
+ * simulation's configuration.
+ * <p>If a {@link TrimCache} is used, solutions are looked up in it before solving, and new solutions are added to it, so 
+ * that repeated starts at the same condition do not need to trim again</p>
  * 
  * @author Christopher Ali
- * @see Principles of Flight Simulation - David Allerton (pp 170-1)
+ * @see TrimSolver
  */
 public class Trimming {
 	
 	private static final Logger logger = LogManager.getLogger(Trimming.class);
 	
-	private static EnumMap<InitialConditions, Double> initialConditions;
-	private static EnumMap<FlightControl, Double> initialControls;
-	private static Map<EnvironmentParameters, Double> environmentParams;
-	private static Aircraft aircraft;
-	private static Aerodynamics aero;
+	private static final FlightControl[] THROTTLES = {FlightControl.THROTTLE_1, FlightControl.THROTTLE_2, 
+													  FlightControl.THROTTLE_3, FlightControl.THROTTLE_4};
+	
+	private SimulationConfiguration configuration;
+	private SimulationContext context;
+	private TrimCache trimCache;
+	private TrimSolver solver;
+	private EnumMap<InitialConditions, Double> initialConditions;
+	private EnumMap<FlightControl, Double> initialControls;
+	private Aircraft aircraft;
 	
 	/**
-	 * Trims an aircraft longitudinally for a forward velocity and altitude specified in 
+	 * Creates a trimming object for the aircraft and environment (weather) in context, whose configuration's initial 
+	 * conditions and controls will be updated when trimmed 
 	 * 
-	 * <p> SimConfig/InitialConditions.txt </p>
+	 * @param context
+	 * @param trimCache cache of trim solutions to look up and add to; may be null
+	 */
+	public Trimming(SimulationContext context, TrimCache trimCache) {
+		this.context = context;
+		this.trimCache = trimCache;
+		
+		configuration = context.getConfiguration();
+		aircraft = context.getAircraft();
+		
+		initialConditions = configuration.getInitialConditions();
+		initialControls = configuration.getInitialControls();
+	}
+	
+	/**
+	 * Trims the aircraft selected in configuration in a standard atmosphere with no wind; see {@link Trimming#trim(boolean)}
 	 * 
-	 * by setting the elevator, throttle and pitch attitude. These values are calculated by statically equating forces and moments.
-	 * If unable to reach a given trim condition, the method will return the maximum values for each control and pitch attitude.
-	 * These values are then saved to 
+	 * @param configuration
+	 * @param testMode
+	 */
+	public static void trimSim(SimulationConfiguration configuration, boolean testMode) {
+		trimSim(configuration, testMode, null);
+	}
+	
+	/**
+	 * Trims the aircraft selected in configuration in a standard atmosphere with no wind, using trimCache to skip trimming 
+	 * if the same condition has been trimmed before; see {@link Trimming#trim(boolean)}
+	 * 
+	 * @param configuration
+	 * @param testMode
+	 * @param trimCache cache of trim solutions to look up and add to; may be null
+	 */
+	public static void trimSim(SimulationConfiguration configuration, boolean testMode, TrimCache trimCache) {
+		new Trimming(new SimulationContext(configuration), trimCache).trim(testMode);
+	}
+	
+	/**
+	 * Trims an aircraft in straight-and-level flight for the airspeed, altitude and heading specified in 
 	 * 
-	 * <p> SimConfig/InitialConditions.txt </p>
-	 * and 
-	 * <p> SimConfig/InitialControls.txt </p>
+	 * <p> SimConfig/SimulationConfiguration.json </p>
 	 * 
-	 * as long as the test mode boolean flag is false; otherwise the results will be displayed in the console
+	 * see {@link Trimming#trim(TrimCondition, boolean)}
 	 * 
-	 * @param configuration
 	 * @param testMode
 	 */
-	public static void trimSim(SimulationConfiguration configuration, boolean testMode) {
-		Aircraft aircraft = FileUtilities.readAircraftConfiguration(configuration.getSelectedAircraft());
-		aero = new Aerodynamics(aircraft);
-		
-		initialConditions = configuration.getInitialConditions();
-		initialControls = configuration.getInitialControls();
-		
-		environmentParams = Environment.getAndUpdateEnvironmentParams(new double[]{0,0,initialConditions.get(InitialConditions.INITD)});
-		
-		double alphaMin = -0.18, alphaMax = 0.18, throttleMin = 0.0, throttleMax = 1.0,
-			   alphaTrim = 0.0, thetaTrim = 0.0, elevTrim = 0.0, throttleTrim = 0.0, wVelocityTrim = 0.0, 
-			   lift = 0.0, drag = 0.0, totalThrust = 0.0, zForce = 100.0;
-		
-		double trueAirspeed = Math.sqrt(Math.pow(initialConditions.get(InitialConditions.INITU), 2) +
-				  			  			Math.pow(initialConditions.get(InitialConditions.INITW), 2));
-		
-		double weight = aircraft.getMassProperty(MassProperties.TOTAL_MASS) * Environment.getGravity();
-		double q = environmentParams.get(EnvironmentParameters.RHO)*Math.pow(trueAirspeed, 2)/2;
-		double s = aircraft.getWingGeometry(WingGeometry.S_WING);
-		
-		int counter = 0;
-		
-		logger.debug("Finding trim pitch and elevator...");
-		
-		do {
-			alphaTrim = (alphaMin + alphaMax) / 2;
-			
-			// Break out of loop if trim condition not satisfied after 100 attempts
-			if(counter == 100) {
-				logger.error("Unable to trim elevator and pitch for given conditions!");
-				
-				break;
-			}
+	public void trim(boolean testMode) {
+		double u = initialConditions.get(InitialConditions.INITU);
+		double v = initialConditions.get(InitialConditions.INITV);
+		double w = initialConditions.get(InitialConditions.INITW);
+		
+		trim(TrimCondition.straightAndLevel(Math.sqrt(u*u + v*v + w*w), 
+											initialConditions.get(InitialConditions.INITD), 
+											initialConditions.get(InitialConditions.INITPSI)), testMode);
+	}
+	
+	/**
+	 * Trims an aircraft for condition by setting the body velocities, Euler angles, body angular rates, elevator, aileron, 
+	 * rudder and throttle. If unable to reach the trim condition, the closest solution found is used. These values are then 
+	 * saved to 
+	 * 
+	 * <p> SimConfig/SimulationConfiguration.json </p>
+	 * 
+	 * as long as the test mode boolean flag is false; otherwise the results will be displayed in the console. Converged 
+	 * solutions are added to the trim cache, which is saved unless in test mode
+	 * 
+	 * @param condition
+	 * @param testMode
+	 * @return trim point for condition
+	 */
+	public TrimPoint trim(TrimCondition condition, boolean testMode) {
+		String key = trimCache != null ? TrimCache.createKey(aircraft, condition, initialControls) : null;
+		TrimPoint trimPoint = trimCache != null ? trimCache.get(key) : null;
 		
-			//=============================================== Pitch ================================================================
-			
-			// Calculate trim pitch by using (theta = alpha + FPA)
-			thetaTrim = alphaTrim + 0; // FPA is zero in level flight
-			
-			double[] windParameters = new double[] {trueAirspeed, 0, alphaTrim};
-			
-			double CL_alpha = aero.calculateInterpStabDer(windParameters, initialControls, StabilityDerivatives.CL_ALPHA);
-			double CL_0 = aero.calculateInterpStabDer(windParameters, initialControls, StabilityDerivatives.CL_0);
-			
-			lift = q * s * ((CL_alpha * alphaTrim) + CL_0);
-			
-			double CD_alpha = aero.calculateInterpStabDer(windParameters, initialControls, StabilityDerivatives.CD_ALPHA);
-			double CD_0 = aero.calculateInterpStabDer(windParameters, initialControls, StabilityDerivatives.CD_0);
-			
-			drag = q * s * ((CD_alpha * alphaTrim) + CD_0);
-			
-			// Calculate zForce to find trim alpha to zero forces
-			zForce = (-lift * Math.cos(alphaTrim)) - (drag * Math.sin(alphaTrim)) + (weight * Math.cos(thetaTrim));
-			
-			if (zForce  > 0)
-				alphaMin = alphaTrim;
-			else
-				alphaMax = alphaTrim;
-					
-			// Recalculate w velocity for new angle of attack
-			wVelocityTrim = windParameters[0] * Math.sin(alphaTrim);
+		if (trimPoint != null) {
+			logger.debug("Using cached trim for: " + key);
+		} else {
+			logger.debug("Trimming aircraft for: " + condition);
 			
-			//==================================================== Elevator ========================================================
+			if (solver == null)
+				solver = new TrimSolver(context);
 			
-			// Calculate trim elevator, limiting if necessary
-			double CM_alpha = aero.calculateInterpStabDer(windParameters, initialControls, StabilityDerivatives.CM_ALPHA);
-			double CM_d_elev = aircraft.getStabilityDerivative(StabilityDerivatives.CM_D_ELEV).getValue();
-			double CM_0 = aircraft.getStabilityDerivative(StabilityDerivatives.CM_0).getValue();
+			trimPoint = solver.solve(condition, initialConditions, initialControls);
 			
-			elevTrim = (CM_0 + (CM_alpha * alphaTrim)) / CM_d_elev;
-			elevTrim = elevTrim > FlightControl.ELEVATOR.getMaximum() ? FlightControl.ELEVATOR.getMaximum() : 
-					   elevTrim < FlightControl.ELEVATOR.getMinimum() ? FlightControl.ELEVATOR.getMinimum() : elevTrim;
-					   
-			counter++;
-					   
-		} while (Math.abs(zForce) > 1);
-		
-		logger.debug("...done!");
-
-		//==================================================== Throttle ============================================================
-		
-		Set<Engine> engines = aircraft.getEngines();
-		
-		drag = (drag * Math.cos(alphaTrim)) - (lift * Math.sin(alphaTrim)) + (weight * Math.sin(thetaTrim));
-		
-		counter = 0;
-		
-		logger.debug("Finding trim throttle...");
-		
-		do {
-			throttleTrim = (throttleMin + throttleMax) / 2;
-			
-			// Break out of loop if trim condition not satisfied after 100 attempts
-			if(counter == 100) {
-				logger.error("Unable to trim throttle for given conditions!");
+			if (trimCache != null && trimPoint.isConverged()) {
+				trimCache.put(key, trimPoint);
 				
-				break;
-			}
-			
-			initialControls.put(FlightControl.THROTTLE_1, throttleTrim);
-			initialControls.put(FlightControl.THROTTLE_2, throttleTrim);
-			initialControls.put(FlightControl.THROTTLE_3, throttleTrim);
-			initialControls.put(FlightControl.THROTTLE_4, throttleTrim);
-			
-			// Get total thrust, equate it with drag of aircraft to find trim throttle
-			totalThrust = 0.0;
-			for (Engine engine : engines) {
-				engine.updateEngineState(initialControls, environmentParams, new double[]{trueAirspeed,0,0});
-				totalThrust += engine.getEngineThrust()[0];
+				if (!testMode)
+					trimCache.save();
 			}
-			
-			if (totalThrust < drag)
-				throttleMin = throttleTrim;
-			else
-				throttleMax = throttleTrim;
-			
-			counter++;
-			
-		} while (Math.abs(totalThrust - drag) > 1);
-		
-		logger.debug("...done!");
+		}
 		
 		// Update initialControls and initialConditions
-		initialConditions.put(InitialConditions.INITTHETA, thetaTrim);
-		initialConditions.put(InitialConditions.INITW, wVelocityTrim);
+		double[] state = TrimSolver.calculateState(condition, trimPoint.getAlpha(), trimPoint.getBeta(), 
+												   new double[InitialConditions.values().length]);
+		
+		for (InitialConditions initialCondition : new InitialConditions[] {InitialConditions.INITU, InitialConditions.INITV, 
+																		   InitialConditions.INITW, InitialConditions.INITD,
+																		   InitialConditions.INITPHI, InitialConditions.INITTHETA, 
+																		   InitialConditions.INITPSI, InitialConditions.INITP, 
+																		   InitialConditions.INITQ, InitialConditions.INITR}) {
+			initialConditions.put(initialCondition, state[initialCondition.ordinal()]);
+		}
 		
-		initialControls.put(FlightControl.ELEVATOR, -elevTrim);
-		initialControls.put(FlightControl.AILERON, 0.0);
-		initialControls.put(FlightControl.RUDDER, 0.0);
+		initialControls.put(FlightControl.ELEVATOR, trimPoint.getElevator());
+		initialControls.put(FlightControl.AILERON,  trimPoint.getAileron());
+		initialControls.put(FlightControl.RUDDER,   trimPoint.getRudder());
+		
+		for (FlightControl throttle : THROTTLES)
+			initialControls.put(throttle, trimPoint.getThrottle());
 		
 		logger.debug("Finished trimming aircraft!");
-		logger.debug(String.format("Trim controls are: \nElevator: %.4f rad\nThrottle: %.4f", elevTrim, throttleTrim));
-		logger.debug(String.format("Trim states are: \nW Velocity: %3.4f ft/sec\nTheta: %.4f rad\nAlpha: %.4f rad", wVelocityTrim, thetaTrim, alphaTrim));
+		logger.debug("Trim values are: \n" + trimPoint);
 		
 		// In test mode do not write any config settings to files
 		if (!testMode) {
@@ -216,11 +178,13 @@ public class Trimming {
 			configuration.setInitialControls(initialControls);
 			configuration.save();
 		} else {
-			logger.debug(Trimming.outputTrimValues());
+			logger.debug(outputTrimValues());
 		}
+		
+		return trimPoint;
 	}
 	
-	public static String outputTrimValues() {
+	public String outputTrimValues() {
 		StringBuilder sb = new StringBuilder();
 		
 		sb.append("======================\n");
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+/**
+ * Memory fences ordering plain stores to and loads from a memory-mapped buffer shared with other processes, which the Java 8 memory 
+ * model has no other way of expressing. Each fence is a write and read of a volatile field; HotSpot follows every volatile write with 
+ * a full fence, which orders both the loads and stores around it. Readers already pay a volatile access per attempt, so this costs 
+ * little over dedicated load and store fences
+ * 
+ * @author Christopher Ali
+ *
+ */
+final class MemoryFences {
+	
+	private static volatile int fence;
+	
+	private MemoryFences() {}
+	
+	/**
+	 * Stores before the fence are not reordered with stores after it
+	 */
+	static void storeFence() {
+		fullFence();
+	}
+	
+	/**
+	 * Loads before the fence are not reordered with loads after it
+	 */
+	static void loadFence() {
+		fullFence();
+	}
+	
+	private static void fullFence() {
+		fence = 0;
+		int unused = fence;
+	}
+}
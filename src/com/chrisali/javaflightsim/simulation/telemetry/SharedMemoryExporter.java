@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exports the latest simulation outputs, and a ring of the most recent rows before them, to a memory-mapped file that external 
+ * processes on the same host can read without system calls or deserialization; see {@link SharedMemoryReader}. On Linux, placing the 
+ * file in /dev/shm keeps it in memory only. The file is little-endian:
+ * 
+ * <pre>
+ *  0  int    magic, "JFSM"
+ *  4  int    layout version
+ *  8  int    header length in bytes, where the rows start
+ * 12  int    columns per row, one per {@link SimOuts}
+ * 16  int    history rows in the ring
+ * 20  int    reserved
+ * 24  long   sequence; odd while a row is being written, otherwise twice the number of rows written
+ * 32         reserved up to the header length
+ * 64  double[history rows][columns] ring of rows, in SimOuts order; row n (counting from 0) is in slot n % history rows
+ * </pre>
+ * 
+ * The sequence is a seqlock: a reader reads it, then the rows it wants, then reads it again; the read is valid if the first read was 
+ * even and both match, or for history, if no row newer than the oldest read plus the history rows has been started. A schema of the 
+ * layout and columns generated from {@link SimOuts} is written next to the file with {@link #SCHEMA_EXTENSION}
+ * <p>Writing a row is a bulk copy into the ring and two stores of the sequence, so {@link Integrate6DOFEquations} writes each step 
+ * itself. An exporter is meant to be written by a single thread</p>
+ * 
+ * @author Christopher Ali
+ * @see SharedMemoryReader
+ */
+public class SharedMemoryExporter implements AutoCloseable {
+	
+	private static final Logger logger = LogManager.getLogger(SharedMemoryExporter.class);
+	
+	/**
+	 * Extension added to the file name of the schema generated next to the exported file 
+	 */
+	public static final String SCHEMA_EXTENSION = ".schema.json";
+	
+	static final int MAGIC = 0x4A46534D;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 64;
+	
+	static final int MAGIC_OFFSET = 0;
+	static final int VERSION_OFFSET = 4;
+	static final int HEADER_BYTES_OFFSET = 8;
+	static final int COLUMNS_OFFSET = 12;
+	static final int HISTORY_ROWS_OFFSET = 16;
+	static final int SEQUENCE_OFFSET = 24;
+	
+	private static final SimOuts[] SCHEMA = SimOuts.values();
+	
+	private final File file;
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final DoubleBuffer rows;
+	private final int historyRows;
+	
+	private long sequence = 0;
+	
+	/**
+	 * Creates file, replacing any existing file, maps it into memory and writes its header and schema
+	 * 
+	 * @param file
+	 * @param historyRows rows kept in the ring, including the latest
+	 * @throws IOException
+	 */
+	public SharedMemoryExporter(File file, int historyRows) throws IOException {
+		if (historyRows < 1)
+			throw new IllegalArgumentException("At least one row must be kept in shared memory");
+		
+		logger.debug("Exporting simulation outputs to shared memory: " + file.getAbsolutePath() + "...");
+		
+		this.file = file;
+		this.historyRows = historyRows;
+		
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, 
+								   StandardOpenOption.READ, StandardOpenOption.WRITE);
+		
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, getSize(historyRows));
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(VERSION_OFFSET, VERSION)
+			  .putInt(HEADER_BYTES_OFFSET, HEADER_BYTES)
+			  .putInt(COLUMNS_OFFSET, SCHEMA.length)
+			  .putInt(HISTORY_ROWS_OFFSET, historyRows)
+			  .putLong(SEQUENCE_OFFSET, 0);
+		
+		// Readers check the magic number last, so they never see a partly written header
+		MemoryFences.storeFence();
+		buffer.putInt(MAGIC_OFFSET, MAGIC);
+		
+		buffer.position(HEADER_BYTES);
+		rows = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+		
+		writeSchema(new File(file.getPath() + SCHEMA_EXTENSION), historyRows);
+	}
+	
+	/**
+	 * @param historyRows
+	 * @return size (bytes) of the exported file
+	 */
+	public static long getSize(int historyRows) {
+		return HEADER_BYTES + (long) historyRows * SCHEMA.length * Double.BYTES;
+	}
+	
+	/**
+	 * Writes row as the latest row of the ring
+	 * 
+	 * @param row simulation output indexed by {@link SimOuts} ordinal
+	 */
+	public void write(double[] row) {
+		long rowsWritten = sequence >>> 1;
+		
+		buffer.putLong(SEQUENCE_OFFSET, ++sequence);
+		MemoryFences.storeFence();
+		
+		rows.position((int) (rowsWritten % historyRows) * SCHEMA.length);
+		rows.put(row, 0, SCHEMA.length);
+		
+		MemoryFences.storeFence();
+		buffer.putLong(SEQUENCE_OFFSET, ++sequence);
+	}
+	
+	/**
+	 * @return rows written so far
+	 */
+	public long getRowsWritten() { return sequence >>> 1; }
+	
+	public int getHistoryRows() { return historyRows; }
+	
+	public File getFile() { return file; }
+	
+	/**
+	 * Closes the file; readers can go on reading the rows written, and the file is left in place for them
+	 */
+	@Override
+	public void close() throws IOException {
+		logger.debug("Exported " + getRowsWritten() + " rows to shared memory");
+		channel.close();
+	}
+	
+	/**
+	 * Generates a schema of the exported file's layout and columns from {@link SimOuts}, so that readers in other languages need not 
+	 * hard code it
+	 * 
+	 * @param historyRows
+	 * @return schema as nested maps and lists, ready to be serialized to JSON
+	 */
+	public static Map<String, Object> createSchema(int historyRows) {
+		Map<String, Object> schema = new LinkedHashMap<>();
+		schema.put("magic", "JFSM");
+		schema.put("version", VERSION);
+		schema.put("byteOrder", "little-endian");
+		schema.put("headerBytes", HEADER_BYTES);
+		
+		List<Map<String, Object>> header = new ArrayList<>();
+		header.add(field("magic", MAGIC_OFFSET, "int32", "0x4A46534D (\"JFSM\"); written last, so the header is complete once it is set"));
+		header.add(field("version", VERSION_OFFSET, "int32", "layout version"));
+		header.add(field("headerBytes", HEADER_BYTES_OFFSET, "int32", "offset of the first row"));
+		header.add(field("columns", COLUMNS_OFFSET, "int32", "doubles per row"));
+		header.add(field("historyRows", HISTORY_ROWS_OFFSET, "int32", "rows in the ring"));
+		header.add(field("sequence", SEQUENCE_OFFSET, "int64", "odd while a row is being written, otherwise twice the rows written"));
+		schema.put("header", header);
+		
+		schema.put("historyRows", historyRows);
+		schema.put("rowBytes", SCHEMA.length * Double.BYTES);
+		schema.put("rowOffset", "headerBytes + (n % historyRows) * rowBytes for row n, counting from 0");
+		
+		List<Map<String, Object>> columns = new ArrayList<>();
+		for (SimOuts simOut : SCHEMA) {
+			Map<String, Object> column = field(simOut.name(), simOut.ordinal() * Double.BYTES, "float64", simOut.toString());
+			column.put("index", simOut.ordinal());
+			columns.add(column);
+		}
+		schema.put("columns", columns);
+		
+		schema.put("readProtocol", "read sequence s1; retry if odd; latest row is n = s1 / 2 - 1; copy rows; read sequence s2; "
+								 + "latest row is valid if s1 == s2, and history back to row m is valid if (s2 + 1) / 2 - 1 < m + historyRows");
+		
+		return schema;
+	}
+	
+	private static Map<String, Object> field(String name, int offset, String type, String description) {
+		Map<String, Object> field = new LinkedHashMap<>();
+		field.put("name", name);
+		field.put("offset", offset);
+		field.put("type", type);
+		field.put("description", description);
+		
+		return field;
+	}
+	
+	private static void writeSchema(File schemaFile, int historyRows) {
+		try {
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(schemaFile, createSchema(historyRows));
+		} catch (IOException e) {
+			logger.error("Could not write shared memory schema to " + schemaFile.getPath() + "!", e);
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import static com.chrisali.javaflightsim.simulation.telemetry.SharedMemoryExporter.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+
+/**
+ * Reads simulation outputs exported to shared memory by a {@link SharedMemoryExporter}, possibly in another process, following the 
+ * seqlock protocol described there. Reads never block the writer; a read that overlaps a write is retried
+ * <p>A reader is meant to be used by a single thread</p>
+ * 
+ * @author Christopher Ali
+ * @see SharedMemoryExporter
+ */
+public class SharedMemoryReader implements AutoCloseable {
+	
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final DoubleBuffer rows;
+	private final int columns;
+	private final int historyRows;
+	
+	private long retries = 0;
+	
+	/**
+	 * Maps an exported file into memory and checks its header
+	 * 
+	 * @param file
+	 * @throws IOException if the file cannot be read, or is not an exported file of a known version
+	 */
+	public SharedMemoryReader(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			
+			if (buffer.limit() < HEADER_BYTES || buffer.getInt(MAGIC_OFFSET) != MAGIC)
+				throw new IOException(file.getPath() + " is not a shared memory export");
+			
+			MemoryFences.loadFence();
+			
+			if (buffer.getInt(VERSION_OFFSET) != VERSION)
+				throw new IOException("Unknown shared memory export version: " + buffer.getInt(VERSION_OFFSET));
+			
+			int headerBytes = buffer.getInt(HEADER_BYTES_OFFSET);
+			columns = buffer.getInt(COLUMNS_OFFSET);
+			historyRows = buffer.getInt(HISTORY_ROWS_OFFSET);
+			
+			if (buffer.limit() < headerBytes + (long) historyRows * columns * Double.BYTES)
+				throw new IOException(file.getPath() + " is shorter than its header describes");
+			
+			buffer.position(headerBytes);
+			rows = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Copies the latest row written into row
+	 * 
+	 * @param row array of at least {@link #getColumns()} values, in {@link SimOuts} order
+	 * @return number of rows written up to and including the one read, or 0 if none have been written yet
+	 */
+	public long readLatest(double[] row) {
+		while (true) {
+			long start = buffer.getLong(SEQUENCE_OFFSET);
+			MemoryFences.loadFence();
+			
+			if (start == 0)
+				return 0;
+			
+			if ((start & 1) == 0) {
+				long rowsWritten = start >>> 1;
+				copyRow(rowsWritten - 1, row, 0);
+				
+				MemoryFences.loadFence();
+				if (buffer.getLong(SEQUENCE_OFFSET) == start)
+					return rowsWritten;
+			}
+			
+			retries++;
+			Thread.yield();
+		}
+	}
+	
+	/**
+	 * Copies up to history.length of the latest rows written into history, oldest first
+	 * 
+	 * @param history arrays of at least {@link #getColumns()} values each, in {@link SimOuts} order
+	 * @return number of rows copied, which is less than history.length if fewer rows have been written or kept
+	 */
+	public int readHistory(double[][] history) {
+		while (true) {
+			long start = buffer.getLong(SEQUENCE_OFFSET);
+			MemoryFences.loadFence();
+			
+			long rowsWritten = start >>> 1;
+			int count = (int) Math.min(Math.min(history.length, historyRows), rowsWritten);
+			long oldest = rowsWritten - count;
+			
+			for (int i = 0; i < count; i++)
+				copyRow(oldest + i, history[i], 0);
+			
+			MemoryFences.loadFence();
+			long end = buffer.getLong(SEQUENCE_OFFSET);
+			
+			// Rows are overwritten by the row historyRows after them, so the copy is valid unless one of those has been started  
+			long newestStarted = (end + 1) / 2 - 1;
+			if (count == 0 || newestStarted < oldest + historyRows)
+				return count;
+			
+			retries++;
+			Thread.yield();
+		}
+	}
+	
+	private void copyRow(long row, double[] dest, int offset) {
+		rows.position((int) (row % historyRows) * columns);
+		rows.get(dest, offset, Math.min(columns, dest.length - offset));
+	}
+	
+	/**
+	 * @param row
+	 * @param simOut
+	 * @return value of simOut in a row read by this reader
+	 */
+	public static double get(double[] row, SimOuts simOut) { return row[simOut.ordinal()]; }
+	
+	/**
+	 * @return number of rows written so far
+	 */
+	public long getRowsWritten() { return buffer.getLong(SEQUENCE_OFFSET) >>> 1; }
+	
+	public int getColumns() { return columns; }
+	
+	public int getHistoryRows() { return historyRows; }
+	
+	/**
+	 * @return number of reads retried because they overlapped a write
+	 */
+	public long getRetries() { return retries; }
+	
+	@Override
+	public void close() throws IOException { channel.close(); }
+}
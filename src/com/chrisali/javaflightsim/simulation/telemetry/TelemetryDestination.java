@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataListener;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataSubscription;
+
+/**
+ * A destination of {@link TelemetryPublisher}, to which each {@link FlightDataFrame} delivered is encoded as a {@link TelemetryPacket}
+ * into a direct buffer allocated up front, and sent through a non-blocking {@link DatagramChannel} connected to the destination's 
+ * address, so that sending allocates nothing. A packet that the socket cannot take right away is dropped rather than waited for
+ * <p>As the {@link Executor} of its {@link FlightDataSubscription}, it hands each delivery to the publisher's sender thread rather 
+ * than running it, so the simulation thread only stores a reference and wakes the sender</p>
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TelemetryDestination implements FlightDataListener, Executor {
+	
+	private static final Logger logger = LogManager.getLogger(TelemetryDestination.class);
+	
+	private final InetSocketAddress address;
+	private final double rateHz;
+	private final boolean includeSimOuts;
+	
+	private final DatagramChannel channel;
+	private final ByteBuffer buffer;
+	
+	private final TelemetryPublisher publisher;
+	private final AtomicReference<Runnable> pendingDelivery = new AtomicReference<>();
+	
+	private long sequence = 0;
+	
+	private volatile long sentPackets = 0;
+	private volatile long droppedPackets = 0;
+	private volatile long failedPackets = 0;
+	
+	/**
+	 * Opens a non-blocking channel connected to address 
+	 * 
+	 * @param publisher publisher whose sender thread sends to this destination, or null to send on the thread delivering frames
+	 * @param address
+	 * @param rateHz rate (Hz of simulation time) to send at; if not positive, every step of the simulation is sent
+	 * @param includeSimOuts if packets should include all simulation outputs as well as flight data
+	 * @throws IOException if the channel cannot be opened
+	 */
+	TelemetryDestination(TelemetryPublisher publisher, InetSocketAddress address, double rateHz, boolean includeSimOuts) throws IOException {
+		this.publisher = publisher;
+		this.address = address;
+		this.rateHz = rateHz;
+		this.includeSimOuts = includeSimOuts;
+		
+		buffer = ByteBuffer.allocateDirect(TelemetryPacket.getSize(includeSimOuts));
+		
+		channel = DatagramChannel.open();
+		channel.configureBlocking(false);
+		channel.connect(address);
+	}
+	
+	/**
+	 * Encodes and sends frame, on the publisher's sender thread 
+	 */
+	@Override
+	public void onFlightDataReceived(FlightDataFrame frame) {
+		TelemetryPacket.encode(buffer, frame, ++sequence, includeSimOuts);
+		
+		try {
+			if (channel.write(buffer) > 0)
+				sentPackets++;
+			else
+				droppedPackets++;
+		} catch (IOException e) {
+			// Nothing listening at the destination yet is reported as an error on the next send
+			if (failedPackets++ == 0)
+				logger.warn("Could not send telemetry to " + address + ": " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Called by the simulation thread to hand delivery to the sender thread 
+	 */
+	@Override
+	public void execute(Runnable delivery) {
+		if (publisher == null) {
+			delivery.run();
+			return;
+		}
+		
+		pendingDelivery.set(delivery);
+		publisher.wakeSender();
+	}
+	
+	/**
+	 * Runs the delivery handed to this destination, if any, on the sender thread 
+	 * 
+	 * @return if a delivery was run
+	 */
+	boolean runPendingDelivery() {
+		Runnable delivery = pendingDelivery.getAndSet(null);
+		
+		if (delivery == null)
+			return false;
+		
+		delivery.run();
+		
+		return true;
+	}
+	
+	void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.error("Could not close telemetry channel to " + address, e);
+		}
+	}
+	
+	public InetSocketAddress getAddress() { return address; }
+	
+	public double getRateHz() { return rateHz; }
+	
+	public boolean isIncludeSimOuts() { return includeSimOuts; }
+	
+	/**
+	 * @return number of packets sent
+	 */
+	public long getSentPackets() { return sentPackets; }
+	
+	/**
+	 * @return number of packets dropped because the socket's send buffer was full
+	 */
+	public long getDroppedPackets() { return droppedPackets; }
+	
+	/**
+	 * @return number of packets that could not be sent because of an error, such as nothing listening at the destination
+	 */
+	public long getFailedPackets() { return failedPackets; }
+	
+	@Override
+	public String toString() {
+		return String.format("%s at %s: %d sent, %d dropped, %d failed", address, rateHz > 0 ? rateHz + " Hz" : "every step", 
+							 sentPackets, droppedPackets, failedPackets);
+	}
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import java.nio.ByteBuffer;
+
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+
+/**
+ * Fixed layout of the UDP telemetry packets sent by {@link TelemetryPublisher}, and a reusable decoded packet. All fields are 
+ * big-endian (network order):
+ * 
+ * <pre>
+ *  0  int    magic, "JFST"
+ *  4  short  layout version
+ *  6  short  flags; bit 0 set if the packet includes simulation outputs
+ *  8  long   packet sequence number, counting from 1 for each destination; gaps are packets lost or skipped
+ * 16  long   flight data frame sequence number, as numbered by FlightData
+ * 24  long   send time, milliseconds since the epoch
+ * 32  double simulation time (sec)
+ * 40  short  number of flight data values, n
+ * 42  short  number of simulation outputs, m; 0 if not included
+ * 44  double[n] flight data values, in FlightDataType order
+ *     double[m] simulation outputs, in SimOuts order
+ * </pre>
+ * 
+ * Receivers should use the counts in the packet rather than assuming those of their own {@link FlightDataType} and {@link SimOuts}, 
+ * so that packets from a build with more or fewer values can still be read
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TelemetryPacket {
+	
+	public static final int MAGIC = 0x4A465354;
+	public static final short VERSION = 1;
+	
+	public static final short FLAG_SIM_OUTS = 1;
+	
+	public static final int HEADER_BYTES = 44;
+	
+	// values() returns a new array on each call 
+	private static final FlightDataType[] FLIGHT_DATA_TYPES = FlightDataType.values();
+	private static final SimOuts[] SIM_OUTS = SimOuts.values();
+	
+	private static final int FLIGHT_DATA_COUNT = FLIGHT_DATA_TYPES.length;
+	private static final int SIM_OUTS_COUNT = SIM_OUTS.length;
+	
+	/**
+	 * Size (bytes) of the largest packet sent, which includes simulation outputs
+	 */
+	public static final int MAX_BYTES = getSize(true);
+	
+	private long sequence;
+	private long frameSequence;
+	private long sendTimeMillis;
+	private double time;
+	private int flightDataCount;
+	private int simOutCount;
+	private final double[] flightData = new double[FLIGHT_DATA_COUNT];
+	private final double[] simOut = new double[SIM_OUTS_COUNT];
+	
+	/**
+	 * @param includeSimOuts
+	 * @return size (bytes) of a packet
+	 */
+	public static int getSize(boolean includeSimOuts) {
+		return HEADER_BYTES + Double.BYTES * (FLIGHT_DATA_COUNT + (includeSimOuts ? SIM_OUTS_COUNT : 0));
+	}
+	
+	/**
+	 * Clears buffer and encodes frame into it, leaving it ready to be sent
+	 * 
+	 * @param buffer big-endian buffer of at least {@link #getSize(boolean)} bytes
+	 * @param frame
+	 * @param sequence packet sequence number
+	 * @param includeSimOuts
+	 */
+	public static void encode(ByteBuffer buffer, FlightDataFrame frame, long sequence, boolean includeSimOuts) {
+		buffer.clear();
+		
+		buffer.putInt(MAGIC)
+			  .putShort(VERSION)
+			  .putShort(includeSimOuts ? FLAG_SIM_OUTS : 0)
+			  .putLong(sequence)
+			  .putLong(frame.getSequence())
+			  .putLong(System.currentTimeMillis())
+			  .putDouble(frame.getTime())
+			  .putShort((short) FLIGHT_DATA_COUNT)
+			  .putShort((short) (includeSimOuts ? SIM_OUTS_COUNT : 0));
+		
+		for (FlightDataType type : FLIGHT_DATA_TYPES)
+			buffer.putDouble(frame.get(type));
+		
+		if (includeSimOuts) {
+			for (SimOuts simOut : SIM_OUTS)
+				buffer.putDouble(frame.getSimOut(simOut));
+		}
+		
+		buffer.flip();
+	}
+	
+	/**
+	 * Decodes a packet from buffer into this object. Values beyond those known to this build are skipped, and those missing 
+	 * from the packet are set to NaN
+	 * 
+	 * @param buffer big-endian buffer positioned at the start of a packet 
+	 * @return false if buffer does not hold a telemetry packet of a known version
+	 */
+	public boolean decode(ByteBuffer buffer) {
+		if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != VERSION)
+			return false;
+		
+		buffer.getShort();
+		sequence       = buffer.getLong();
+		frameSequence  = buffer.getLong();
+		sendTimeMillis = buffer.getLong();
+		time           = buffer.getDouble();
+		flightDataCount = buffer.getShort();
+		simOutCount     = buffer.getShort();
+		
+		if (buffer.remaining() < Double.BYTES * (flightDataCount + simOutCount))
+			return false;
+		
+		readValues(buffer, flightData, flightDataCount);
+		readValues(buffer, simOut, simOutCount);
+		
+		return true;
+	}
+	
+	private static void readValues(ByteBuffer buffer, double[] values, int count) {
+		for (int i = 0; i < count; i++) {
+			double value = buffer.getDouble();
+			if (i < values.length)
+				values[i] = value;
+		}
+		
+		for (int i = count; i < values.length; i++)
+			values[i] = Double.NaN;
+	}
+	
+	/**
+	 * Copies all fields of another packet into this packet
+	 * 
+	 * @param packet
+	 */
+	public void copy(TelemetryPacket packet) {
+		sequence = packet.sequence;
+		frameSequence = packet.frameSequence;
+		sendTimeMillis = packet.sendTimeMillis;
+		time = packet.time;
+		flightDataCount = packet.flightDataCount;
+		simOutCount = packet.simOutCount;
+		System.arraycopy(packet.flightData, 0, flightData, 0, flightData.length);
+		System.arraycopy(packet.simOut, 0, simOut, 0, simOut.length);
+	}
+	
+	public long getSequence() { return sequence; }
+
+	public long getFrameSequence() { return frameSequence; }
+
+	public long getSendTimeMillis() { return sendTimeMillis; }
+
+	/**
+	 * @return simulation time (sec) of the data
+	 */
+	public double getTime() { return time; }
+	
+	public double get(FlightDataType type) { return flightData[type.ordinal()]; }
+	
+	/**
+	 * @param simOut
+	 * @return simulation output, or NaN if the packet did not include simulation outputs
+	 */
+	public double getSimOut(SimOuts simOut) { return this.simOut[simOut.ordinal()]; }
+	
+	/**
+	 * @return if the packet included simulation outputs
+	 */
+	public boolean hasSimOuts() { return simOutCount > 0; }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataSubscription;
+
+/**
+ * Publishes {@link FlightData} as binary UDP {@link TelemetryPacket}s to external displays, such as a moving map or instructor station. 
+ * Each {@link TelemetryDestination} is subscribed to flight data at a rate of its own, and is sent to by a single sender thread owned by 
+ * the publisher, so the simulation thread never waits on the network. Once destinations have been added, publishing allocates nothing
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TelemetryPublisher implements AutoCloseable {
+	
+	private static final Logger logger = LogManager.getLogger(TelemetryPublisher.class);
+	
+	// Sender thread checks for a close this often when no data is coming
+	private static final long IDLE_PARK_NANOS = 100_000_000L;
+	
+	private final FlightData flightData;
+	
+	// Replaced rather than modified when destinations are added, so that the sender iterates without allocating
+	private volatile TelemetryDestination[] destinations = new TelemetryDestination[0];
+	private final List<FlightDataSubscription> subscriptions = new ArrayList<>();
+	
+	private final Thread senderThread;
+	private volatile boolean running = true;
+	
+	/**
+	 * Creates a publisher of flightData and starts its sender thread
+	 * 
+	 * @param flightData
+	 */
+	public TelemetryPublisher(FlightData flightData) {
+		this.flightData = flightData;
+		
+		senderThread = new Thread(this::send, "Telemetry Publisher");
+		senderThread.setDaemon(true);
+		senderThread.start();
+	}
+	
+	/**
+	 * Adds a destination to send telemetry to
+	 * 
+	 * @param address
+	 * @param rateHz rate (Hz of simulation time) to send at; if not positive, every step of the simulation is sent
+	 * @param includeSimOuts if packets should include all simulation outputs as well as flight data
+	 * @return destination added
+	 * @throws IOException if a channel to the destination cannot be opened
+	 */
+	public synchronized TelemetryDestination addDestination(InetSocketAddress address, double rateHz, boolean includeSimOuts) throws IOException {
+		logger.debug(String.format("Publishing telemetry to %s at %.1f Hz%s", address, rateHz, includeSimOuts ? " with simulation outputs" : ""));
+		
+		TelemetryDestination destination = new TelemetryDestination(this, address, rateHz, includeSimOuts);
+		
+		TelemetryDestination[] added = Arrays.copyOf(destinations, destinations.length + 1);
+		added[destinations.length] = destination;
+		destinations = added;
+		
+		subscriptions.add(flightData.addFlightDataListener(destination, rateHz, destination));
+		
+		return destination;
+	}
+	
+	/**
+	 * Called by the simulation thread when a delivery has been handed to a destination
+	 */
+	void wakeSender() {
+		LockSupport.unpark(senderThread);
+	}
+	
+	/**
+	 * Runs deliveries handed to destinations, parking when there are none, until closed
+	 */
+	private void send() {
+		while (running) {
+			boolean delivered = false;
+			
+			for (TelemetryDestination destination : destinations)
+				delivered |= destination.runPendingDelivery();
+			
+			if (!delivered)
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+		}
+	}
+	
+	/**
+	 * Unsubscribes all destinations from flight data, stops the sender thread and closes the channels to the destinations 
+	 */
+	@Override
+	public synchronized void close() {
+		subscriptions.forEach(flightData::unsubscribe);
+		subscriptions.clear();
+		
+		running = false;
+		LockSupport.unpark(senderThread);
+		
+		try {
+			senderThread.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		
+		for (TelemetryDestination destination : destinations) {
+			logger.info("Stopped publishing telemetry to " + destination);
+			destination.close();
+		}
+		
+		destinations = new TelemetryDestination[0];
+	}
+	
+	/**
+	 * @return destinations telemetry is published to
+	 */
+	public List<TelemetryDestination> getDestinations() { return Collections.unmodifiableList(Arrays.asList(destinations)); }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Receives {@link TelemetryPacket}s sent by {@link TelemetryPublisher} on a local port, counting packets received, lost and out of 
+ * order by their sequence numbers, and keeping the latest packet. Used to check a telemetry feed, and as an example of a receiver 
+ * for external displays; see {@link com.chrisali.javaflightsim.RunTelemetryReceiver}
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TelemetryReceiver implements Runnable, AutoCloseable {
+	
+	private static final Logger logger = LogManager.getLogger(TelemetryReceiver.class);
+	
+	// Large enough to hold bursts of packets sent at several kHz while the receiving thread is descheduled
+	private static final int RECEIVE_BUFFER_BYTES = 4 * 1024 * 1024;
+	
+	private final DatagramChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(TelemetryPacket.MAX_BYTES * 2);
+	
+	private final TelemetryPacket packet = new TelemetryPacket();
+	private final TelemetryPacket latestPacket = new TelemetryPacket();
+	
+	private long lastSequence = 0;
+	
+	private volatile long receivedPackets = 0;
+	private volatile long lostPackets = 0;
+	private volatile long outOfOrderPackets = 0;
+	private volatile long invalidPackets = 0;
+	
+	/**
+	 * Binds a channel to receive telemetry on port of all local addresses
+	 * 
+	 * @param port port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public TelemetryReceiver(int port) throws IOException {
+		channel = DatagramChannel.open();
+		channel.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_BYTES);
+		channel.bind(new InetSocketAddress(port));
+	}
+	
+	/**
+	 * Receives packets until closed
+	 */
+	@Override
+	public void run() {
+		try {
+			while (channel.isOpen()) {
+				buffer.clear();
+				channel.receive(buffer);
+				buffer.flip();
+				
+				if (!packet.decode(buffer)) {
+					invalidPackets++;
+					continue;
+				}
+				
+				onPacketReceived();
+			}
+		} catch (ClosedChannelException e) {
+			logger.debug("Telemetry receiver closed");
+		} catch (IOException e) {
+			logger.error("Error receiving telemetry!", e);
+		}
+	}
+	
+	private void onPacketReceived() {
+		long sequence = packet.getSequence();
+		
+		// A lower sequence from the start of a new run of the publisher starts counting again 
+		if (sequence == 1 || sequence > lastSequence) {
+			if (sequence > lastSequence + 1 && lastSequence > 0)
+				lostPackets += sequence - lastSequence - 1;
+			
+			lastSequence = sequence;
+			
+			synchronized (latestPacket) {
+				latestPacket.copy(packet);
+			}
+		} else {
+			outOfOrderPackets++;
+			lostPackets--;
+		}
+		
+		receivedPackets++;
+	}
+	
+	/**
+	 * Copies the latest packet received into packet
+	 * 
+	 * @param packet
+	 * @return false if no packet has been received yet
+	 */
+	public boolean getLatestPacket(TelemetryPacket packet) {
+		if (receivedPackets == 0)
+			return false;
+		
+		synchronized (latestPacket) {
+			packet.copy(latestPacket);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * @return local address packets are received on
+	 * @throws IOException
+	 */
+	public InetSocketAddress getLocalAddress() throws IOException { return (InetSocketAddress) channel.getLocalAddress(); }
+	
+	public long getReceivedPackets() { return receivedPackets; }
+	
+	/**
+	 * @return number of packets missing from the sequence received; packets that arrive late are counted as lost until they arrive
+	 */
+	public long getLostPackets() { return lostPackets; }
+	
+	public long getOutOfOrderPackets() { return outOfOrderPackets; }
+	
+	public long getInvalidPackets() { return invalidPackets; }
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%d received, %d lost, %d out of order, %d invalid", receivedPackets, lostPackets, outOfOrderPackets, 
+							 invalidPackets);
+	}
+}
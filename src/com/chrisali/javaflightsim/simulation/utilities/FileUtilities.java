@@ -26,8 +26,8 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -35,9 +35,15 @@ import org.apache.logging.log4j.Logger;
 import com.chrisali.javaflightsim.lwjgl.interfaces.gauges.InstrumentPanel;
 import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
 import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
 import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.linearization.LinearModel;
+import com.chrisali.javaflightsim.simulation.recording.FlightRecordingReader;
+import com.chrisali.javaflightsim.simulation.recording.FlightRecordingWriter;
+import com.chrisali.javaflightsim.simulation.recording.InputRecorder;
 import com.chrisali.javaflightsim.simulation.setup.ControlsConfiguration;
 import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.setup.TrimCache;
 import com.chrisali.javaflightsim.swing.plotting.PlotConfiguration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -72,6 +78,15 @@ public class FileUtilities {
 		return aircraft;
 	}
 	
+	/**
+	 * @param aircraftName
+	 * @return Aircraft.json file in the Aircraft/{aircraftName} directory
+	 */
+	public static File getAircraftConfigurationFile(String aircraftName) {
+		return new File(FILE_ROOT + SimDirectories.AIRCRAFT.toString() + File.separator + aircraftName 
+						+ File.separator + Aircraft.class.getSimpleName() + CONFIG_EXT);
+	}
+	
 	/**
 	 * Creates an {@link InstrumentPanel} object by deserializing a JSON file in the Aircraft/{aircraftName} directory 
 	 * called InstrumentPanel.json 
@@ -94,9 +109,20 @@ public class FileUtilities {
 	 * @return deserialized {@link SimulationConfiguration}
 	 */
 	public static SimulationConfiguration readSimulationConfiguration() {
+		return readSimulationConfiguration(SimDirectories.SIM_CONFIG.toString());
+	}
+	
+	/**
+	 * Creates a {@link SimulationConfiguration} object by deserializing a JSON file in configDirectory 
+	 * called SimulationConfiguration.json
+	 * 
+	 * @param configDirectory
+	 * @return deserialized {@link SimulationConfiguration}
+	 */
+	public static SimulationConfiguration readSimulationConfiguration(String configDirectory) {
 		SimulationConfiguration configuration = new SimulationConfiguration();
 		configuration = deserializeJson(SimulationConfiguration.class.getSimpleName(), 
-										SimDirectories.SIM_CONFIG.toString(), 
+										configDirectory, 
 										SimulationConfiguration.class);
 		
 		return configuration;
@@ -124,9 +150,20 @@ public class FileUtilities {
 	 * @return deserialized {@link AnalysisControls}
 	 */
 	public static AnalysisControls readAnalysisControls() {
+		return readAnalysisControls(SimDirectories.SIM_CONFIG.toString());
+	}
+	
+	/**
+	 * Creates a {@link AnalysisControls} object by deserializing a JSON file in configDirectory 
+	 * called AnalysisControls.json
+	 * 
+	 * @param configDirectory
+	 * @return deserialized {@link AnalysisControls}
+	 */
+	public static AnalysisControls readAnalysisControls(String configDirectory) {
 		AnalysisControls controls = new AnalysisControls();
 		controls = deserializeJson(AnalysisControls.class.getSimpleName(), 
-								   SimDirectories.SIM_CONFIG.toString(), 
+								   configDirectory, 
 								   AnalysisControls.class);
 		
 		return controls;
@@ -147,6 +184,35 @@ public class FileUtilities {
 		return configuration;
 	}
 	
+	/**
+	 * Creates a {@link TrimCache} object by deserializing a JSON file in the SimConfig directory called TrimCache.json,
+	 * or an empty cache if no trim points have been saved yet
+	 * 
+	 * @return deserialized {@link TrimCache}
+	 */
+	public static TrimCache readTrimCache() {
+		return readTrimCache(SimDirectories.SIM_CONFIG.toString());
+	}
+	
+	/**
+	 * Creates a {@link TrimCache} object by deserializing a JSON file in configDirectory called TrimCache.json,
+	 * or an empty cache if no trim points have been saved yet
+	 * 
+	 * @param configDirectory
+	 * @return deserialized {@link TrimCache}
+	 */
+	public static TrimCache readTrimCache(String configDirectory) {
+		File file = new File(FILE_ROOT + configDirectory + File.separator + TrimCache.class.getSimpleName() + CONFIG_EXT);
+		
+		TrimCache cache = file.exists() ? deserializeJson(TrimCache.class.getSimpleName(), configDirectory, TrimCache.class) : null;
+		if (cache == null)
+			cache = new TrimCache();
+		
+		cache.setConfigDirectory(configDirectory);
+		
+		return cache;
+	}
+	
 	/**
 	 * Deserializes an JSON file into a T object based on the file name, file path and class provided
 	 * 
@@ -224,35 +290,147 @@ public class FileUtilities {
 	}
 			
 	/**
-	 * Writes a CSV file from data contained within the logsOut ArrayList 
+	 * Writes a CSV file from data contained within the logsOut {@link FlightLog}, one row per logged step with columns 
+	 * in {@link SimOuts} order 
 	 * 
 	 * @param file
 	 * @param logsOut
 	 * @throws IOException
 	 */
-	public static void saveToCSVFile(File file, List<Map<SimOuts, Double>> logsOut) throws IOException {
-		
-		logger.debug("Saving configuration file to: " + file.getAbsolutePath());
-		
-		BufferedWriter bw = new BufferedWriter(new FileWriter(file.getPath()));
-		
-		// First line of CSV file should have the names of each parameter
-		StringBuilder sb_line1 = new StringBuilder();
-		for (SimOuts simOut : SimOuts.values()) {
-			sb_line1.append(simOut.toString()).append(",");
+	public static void saveToCSVFile(File file, FlightLog logsOut) throws IOException {
+		// Data comes from a consistent snapshot of the log
+		writeCSV(file, logsOut.getColumns(SimOuts.values()));
+	}
+	
+	/**
+	 * Converts a binary flight recording into a CSV file, one row per recorded step with columns in {@link SimOuts} order
+	 * 
+	 * @param recording flight recording written by {@link FlightRecordingWriter}
+	 * @param file CSV file to write
+	 * @throws IOException
+	 */
+	public static void convertRecordingToCSV(File recording, File file) throws IOException {
+		try (FlightRecordingReader reader = new FlightRecordingReader(recording)) {
+			SimOuts[] simOuts = SimOuts.values();
+			double[][] columns = new double[simOuts.length][];
+			
+			for (SimOuts simOut : simOuts)
+				columns[simOut.ordinal()] = reader.getColumn(simOut);
+			
+			writeCSV(file, columns);
 		}
-		bw.write(sb_line1.append("\n").toString());
+	}
+	
+	private static void writeCSV(File file, double[][] columns) throws IOException {
 		
-		// Subsequent lines contain data
-		for (Map<SimOuts, Double> simOut : logsOut) {
+		logger.debug("Saving CSV file to: " + file.getAbsolutePath());
+		
+		try (BufferedWriter bw = new BufferedWriter(new FileWriter(file.getPath()))) {
+			// First line of CSV file should have the names of each parameter
+			StringBuilder sb_line1 = new StringBuilder();
+			for (SimOuts simOut : SimOuts.values()) {
+				sb_line1.append(simOut.toString()).append(",");
+			}
+			bw.write(sb_line1.append("\n").toString());
+			
+			// Subsequent lines contain data
+			int rows = columns.length > 0 ? columns[0].length : 0;
 			StringBuilder sb = new StringBuilder();
-			for (Map.Entry<?,Double> entry : simOut.entrySet()) {
-				sb.append(entry.getValue().toString()).append(",");
+			
+			for (int row = 0; row < rows; row++) {
+				sb.setLength(0);
+				for (double[] column : columns) {
+					sb.append(column[row]).append(",");
+				}
+				bw.write(sb.append("\n").toString());
 			}
-			bw.write(sb.append("\n").toString());
 		}
 		
-		bw.close();
+		logger.debug(file.getName() + " saved successfully!");
+	}
+	
+	/**
+	 * Writes a binary flight recording from data contained within the logsOut {@link FlightLog}, along with the aircraft
+	 * and configuration of the simulation. This is the primary format for saving simulation output; recordings can be 
+	 * converted to CSV with {@link FileUtilities#convertRecordingToCSV(File, File)}
+	 * 
+	 * @param file
+	 * @param logsOut
+	 * @param configuration configuration of the simulation that produced logsOut
+	 * @throws IOException
+	 * @see FlightRecordingWriter
+	 */
+	public static void saveFlightRecording(File file, FlightLog logsOut, SimulationConfiguration configuration) throws IOException {
+		FlightRecordingWriter.write(file, logsOut, configuration.getSelectedAircraft(), configuration);
+		
+		logger.debug(file.getName() + " saved successfully!");
+	}
+	
+	/**
+	 * Creates a new file in the Recordings directory to record a flight of aircraftName to, named after the aircraft and the 
+	 * current date and time 
+	 * 
+	 * @param aircraftName
+	 * @return flight recording file, whose parent directory exists
+	 * @throws IOException if the Recordings directory cannot be created
+	 */
+	public static File createFlightRecordingFile(String aircraftName) throws IOException {
+		return createRecordingFile(aircraftName, FlightRecordingWriter.FILE_EXTENSION);
+	}
+	
+	/**
+	 * Creates a new file in the Recordings directory to record the inputs of a flight of aircraftName to, named after the 
+	 * aircraft and the current date and time 
+	 * 
+	 * @param aircraftName
+	 * @return input recording file, whose parent directory exists
+	 * @throws IOException if the Recordings directory cannot be created
+	 */
+	public static File createInputRecordingFile(String aircraftName) throws IOException {
+		return createRecordingFile(aircraftName, InputRecorder.FILE_EXTENSION);
+	}
+	
+	private static File createRecordingFile(String aircraftName, String extension) throws IOException {
+		File directory = new File(FILE_ROOT + SimDirectories.RECORDINGS.toString());
+		
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Could not create directory: " + directory.getAbsolutePath());
+		
+		String timeStamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+		
+		return new File(directory, aircraftName + "_" + timeStamp + "." + extension);
+	}
+	
+	/**
+	 * Reads a binary flight recording into a new {@link FlightLog}
+	 * 
+	 * @param file flight recording written by {@link FlightRecordingWriter}
+	 * @return {@link FlightLog} containing every row of the recording
+	 * @throws IOException
+	 * @see FlightRecordingReader
+	 */
+	public static FlightLog readFlightRecording(File file) throws IOException {
+		try (FlightRecordingReader reader = new FlightRecordingReader(file)) {
+			return reader.toFlightLog();
+		}
+	}
+	
+	/**
+	 * Writes a JSON file containing the A and B matrices, eigenvalues and identified dynamic modes of a {@link LinearModel}
+	 * 
+	 * @param file
+	 * @param linearModel
+	 * @throws IOException
+	 */
+	public static void saveLinearModel(File file, LinearModel linearModel) throws IOException {
+		logger.debug("Saving linear model to: " + file.getAbsolutePath());
+		
+		ObjectMapper mapper = new ObjectMapper();	
+		mapper.enable(SerializationFeature.INDENT_OUTPUT);
+		
+		try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+			mapper.writeValue(bw, linearModel);
+		}
 		
 		logger.debug(file.getName() + " saved successfully!");
 	}
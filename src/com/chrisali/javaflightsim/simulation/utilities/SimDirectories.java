@@ -11,7 +11,8 @@ package com.chrisali.javaflightsim.simulation.utilities;
  */
 public enum SimDirectories {
 	AIRCRAFT      ("Aircraft"),
-	SIM_CONFIG	  ("SimConfig");
+	SIM_CONFIG	  ("SimConfig"),
+	RECORDINGS	  ("Recordings");
 	
 	private String directory;
 	
@@ -38,8 +38,15 @@ public class SixDOFUtilities {
 	 * @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
 	 */
 	public static double[][] body2Ned(double[] eulerAngles) {
-		double body2NedDCM[][] = new double[3][3]; //[column][row]
-		
+		return body2Ned(eulerAngles, new double[3][3]);
+	}
+	
+	/**
+	 * Calculates the direction cosine matrix needed to convert from body to NED coordinate axes, writing the result into
+	 * a preallocated body2NedDCM ([column][row]) instead of creating a new array
+	 * @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
+	 */
+	public static double[][] body2Ned(double[] eulerAngles, double[][] body2NedDCM) {
 		body2NedDCM[0][0] =  Math.cos(eulerAngles[1])*Math.cos(eulerAngles[2]);
 		body2NedDCM[1][0] =  Math.cos(eulerAngles[1])*Math.sin(eulerAngles[2]);
 		body2NedDCM[2][0] = -Math.sin(eulerAngles[1]);
@@ -61,8 +68,16 @@ public class SixDOFUtilities {
 	 *  @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
 	 */
 	public static double[] calculateInertiaCoeffs(double[] inertiaVals) { //inertiaVals[]{Ix,Iy,Iz,Ixz}
-		double[] inertiaCoeffs = new double[9];
-		
+		return calculateInertiaCoeffs(inertiaVals, new double[9]);
+	}
+	
+	/**
+	 *  Calculates the inertia coefficients used in the calculation of p, q and r dot in {@link Integrate6DOFEquations}, 
+	 *  writing the result into a preallocated inertiaCoeffs array of length 9
+	 *  @see Aircraft
+	 *  @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
+	 */
+	public static double[] calculateInertiaCoeffs(double[] inertiaVals, double[] inertiaCoeffs) {
 		double gamma = (inertiaVals[0]*inertiaVals[2])-(Math.pow(inertiaVals[3], 2));
 		
 		inertiaCoeffs[0] = (((inertiaVals[1]-inertiaVals[2])*inertiaVals[2])-(Math.pow(inertiaVals[3], 2)))/gamma;
@@ -83,8 +98,15 @@ public class SixDOFUtilities {
 	 * @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
 	 */
 	public static double[][] wind2Body(double[] windParameters) {
-		double wind2BodyDCM[][] = new double[3][3]; //[row][column]
-		
+		return wind2Body(windParameters, new double[3][3]);
+	}
+	
+	/**
+	 * Calculates the direction cosine matrix needed to convert from wind to body coordinate axes, writing the result into
+	 * a preallocated wind2BodyDCM ([row][column]) instead of creating a new array
+	 * @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
+	 */
+	public static double[][] wind2Body(double[] windParameters, double[][] wind2BodyDCM) {
 		wind2BodyDCM[0][0] =  Math.cos(windParameters[1])*Math.cos(windParameters[2]);
 		wind2BodyDCM[1][0] =  Math.sin(windParameters[1]);  
 		wind2BodyDCM[2][0] =  Math.cos(windParameters[1])*Math.sin(windParameters[2]);
@@ -105,8 +127,15 @@ public class SixDOFUtilities {
 	 * @see Source: <i>G. Cai et al., Unmanned Rotorcraft Systems</i>
 	 */
 	public static double[] ned2LLA(double[] y) {
-		double[] ned2LLA = new double[2]; // Conversion factors for latitude (lambda), longitude (phi) and altitude (h)
-		
+		return ned2LLA(y, new double[2]);
+	}
+	
+	/**
+	 * Calculates the conversion factors needed to convert between lat/lon dot and N/E dot, writing the result into 
+	 * a preallocated ned2LLA array of length 2
+	 * @see Source: <i>G. Cai et al., Unmanned Rotorcraft Systems</i>
+	 */
+	public static double[] ned2LLA(double[] y, double[] ned2LLA) {
 		// WGS84 Parameters
 		double rEarth = 6378137; // Earth's radius [m]
 		double e = 0.08181919; // Earth's eccentricity (e)
@@ -127,11 +156,22 @@ public class SixDOFUtilities {
 	 * @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
 	 */
 	public static double[] calculateWindParameters(double[] linearVelocities) {
+		return calculateWindParameters(linearVelocities, new double[3]);
+	}
+	
+	/**
+	 * Calculates true airspeed, angle of sideslip and angle of attack, writing the result into a preallocated 
+	 * windParameters array of length 3 
+	 * @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
+	 */
+	public static double[] calculateWindParameters(double[] linearVelocities, double[] windParameters) {
 		double vTrue = Math.sqrt(Math.pow(linearVelocities[0],2) + Math.pow(linearVelocities[1],2) + Math.pow(linearVelocities[2],2));
-		double beta = Math.asin(linearVelocities[1]/vTrue);
-		double alpha = Math.atan(linearVelocities[2]/linearVelocities[0]);
 		
-		return SaturationUtilities.limitWindParameters(new double[] {vTrue,beta,alpha});
+		windParameters[0] = vTrue;
+		windParameters[1] = Math.asin(linearVelocities[1]/vTrue);
+		windParameters[2] = Math.atan(linearVelocities[2]/linearVelocities[0]);
+		
+		return SaturationUtilities.limitWindParameters(windParameters);
 	}
 	
 	/**
@@ -151,6 +191,14 @@ public class SixDOFUtilities {
 		return windParameters[0]/environmentParameters.get(EnvironmentParameters.A);
 	}
 	
+	/**
+	 * Calculates Mach number using an array of environment parameters indexed by {@link EnvironmentParameters} ordinal
+	 * @see <i>Source Small Unmanned Aircraft: Theory and Practice by Beard, R.W. and McLain, T.W.</i>
+	 */
+	public static double calculateMach(double[] windParameters, double[] environmentParameters) {
+		return windParameters[0]/environmentParameters[EnvironmentParameters.A.ordinal()];
+	}
+	
 	/**
 	 * @param knots
 	 * @return Airspeed converted from knots to ft/sec
@@ -26,6 +26,7 @@ import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.File;
 import java.io.IOException;
 
 import javax.swing.JFileChooser;
@@ -45,6 +46,8 @@ import org.apache.logging.log4j.Logger;
 import com.chrisali.javaflightsim.initializer.LWJGLSwingSimulationController;
 import com.chrisali.javaflightsim.simulation.SimulationRunner;
 import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentData;
+import com.chrisali.javaflightsim.simulation.recording.FlightRecordingWriter;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
 
 public class ConsoleTablePanel extends JFrame {
 
@@ -115,11 +118,39 @@ public class ConsoleTablePanel extends JFrame {
 		JMenu fileMenu = new JMenu("File");
 		fileMenu.setMnemonic(KeyEvent.VK_F);
 		
-		//------------------- File Chooser -------------------------------
+		//------------------- File Choosers -------------------------------
+		
+		JFileChooser recordingChooser = new JFileChooser();
+		recordingChooser.setFileFilter(new FlightRecordingFileFilter());
 		
 		JFileChooser fileChooser = new JFileChooser();
 		fileChooser.addChoosableFileFilter(new CSVFileFilter());
 		
+		//------------------- Save Item -------------------------------
+		
+		JMenuItem saveItem = new JMenuItem("Save Recording...");
+		saveItem.setMnemonic(KeyEvent.VK_S);
+		saveItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, ActionEvent.CTRL_MASK));
+		saveItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent ev) {
+				if (recordingChooser.showSaveDialog(ConsoleTablePanel.this) == JFileChooser.APPROVE_OPTION) {
+					File file = recordingChooser.getSelectedFile();
+					if (FileUtilities.getFileExtension(file.getName()).isEmpty())
+						file = new File(file.getPath() + "." + FlightRecordingWriter.FILE_EXTENSION);
+					
+					try {
+						controller.saveConsoleOutput(file);
+					} catch (IOException ex) {
+						JOptionPane.showMessageDialog(ConsoleTablePanel.this, 
+								"Could not save data to file", "Error", JOptionPane.ERROR_MESSAGE);
+						logger.error("Unable to save flight recording!", ex);
+					}
+				}
+			}
+		});
+		fileMenu.add(saveItem);
+		
 		//------------------- Export Item -------------------------------
 		
 		JMenuItem exportItem = new JMenuItem("Export as CSV...");
@@ -130,7 +161,7 @@ public class ConsoleTablePanel extends JFrame {
 			public void actionPerformed(ActionEvent ev) {
 				if (fileChooser.showSaveDialog(ConsoleTablePanel.this) == JFileChooser.APPROVE_OPTION) {
 					try {
-						controller.saveConsoleOutput(fileChooser.getSelectedFile());
+						controller.exportConsoleOutput(fileChooser.getSelectedFile());
 					} catch (IOException ex) {
 						JOptionPane.showMessageDialog(ConsoleTablePanel.this, 
 								"Could not save data to file", "Error", JOptionPane.ERROR_MESSAGE);
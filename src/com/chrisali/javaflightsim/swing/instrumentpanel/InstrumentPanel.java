@@ -23,7 +23,6 @@ import java.awt.Color;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.text.DecimalFormat;
-import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.JLabel;
@@ -31,6 +30,7 @@ import javax.swing.JPanel;
 import javax.swing.border.Border;
 
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataListener;
 import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
 import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
@@ -258,33 +258,30 @@ public class InstrumentPanel extends JPanel implements FlightDataListener {
 
 	/**
 	 * When the instrument panel receives the event that data was received, use the values stored
-	 * in {@link FlightData}'s EnumMap flightData to set gauge values
+	 * in the {@link FlightDataFrame} published by {@link FlightData} to set gauge values
 	 */
 	@Override
-	public void onFlightDataReceived(FlightData flightData) {
-		Map<FlightDataType, Double> receivedFlightData = flightData.getFlightData();
+	public void onFlightDataReceived(FlightDataFrame frame) {
 		DecimalFormat df = new DecimalFormat("#");
 		
-		if (!receivedFlightData.containsValue(null)) {
-			artificalHorizon.setPitch(receivedFlightData.get(FlightDataType.PITCH));
-			artificalHorizon.setRoll(receivedFlightData.get(FlightDataType.ROLL));
-			
-			altimeter.setValue(receivedFlightData.get(FlightDataType.ALTITUDE));
-			
-			airspeedIndicator.setValue(receivedFlightData.get(FlightDataType.IAS));
-			
-			directionalGyro.setValue(receivedFlightData.get(FlightDataType.HEADING));
-			
-			verticalSpeed.setValue(receivedFlightData.get(FlightDataType.VERT_SPEED));
-			
-			turnCoordinator.setInclinoValue(receivedFlightData.get(FlightDataType.TURN_RATE));
-			turnCoordinator.setCoordValue(receivedFlightData.get(FlightDataType.TURN_COORD));
-			
-			tachometer.setLeftValue(receivedFlightData.get(FlightDataType.RPM_1));
-			tachometer.setRightValue(receivedFlightData.get(FlightDataType.RPM_2));
-			
-			flapsIndicator.setText(String.valueOf(df.format(receivedFlightData.get(FlightDataType.FLAPS))));
-			gearIndicator.setLedOn(receivedFlightData.get(FlightDataType.GEAR) == 1.0);
-		}
+		artificalHorizon.setPitch(frame.get(FlightDataType.PITCH));
+		artificalHorizon.setRoll(frame.get(FlightDataType.ROLL));
+		
+		altimeter.setValue(frame.get(FlightDataType.ALTITUDE));
+		
+		airspeedIndicator.setValue(frame.get(FlightDataType.IAS));
+		
+		directionalGyro.setValue(frame.get(FlightDataType.HEADING));
+		
+		verticalSpeed.setValue(frame.get(FlightDataType.VERT_SPEED));
+		
+		turnCoordinator.setInclinoValue(frame.get(FlightDataType.TURN_RATE));
+		turnCoordinator.setCoordValue(frame.get(FlightDataType.TURN_COORD));
+		
+		tachometer.setLeftValue(frame.get(FlightDataType.RPM_1));
+		tachometer.setRightValue(frame.get(FlightDataType.RPM_2));
+		
+		flapsIndicator.setText(String.valueOf(df.format(frame.get(FlightDataType.FLAPS))));
+		gearIndicator.setLedOn(frame.get(FlightDataType.GEAR) == 1.0);
 	}
 }
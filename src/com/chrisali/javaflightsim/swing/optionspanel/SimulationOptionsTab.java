@@ -55,6 +55,9 @@ public class SimulationOptionsTab extends JPanel {
 	private JLabel headerLabel;
 	private JCheckBox analysisMode;
 	private JCheckBox consoleDisplay;
+	private JCheckBox recordFlight;
+	private JCheckBox recordInputs;
+	private JCheckBox instrumentSimulation;
 	private JList<String> controllers;
 	private JSpinner stepSizeSpinner;
 	private StepSizeValueChangedListener stepSizeValueChangedListener;
@@ -118,7 +121,8 @@ public class SimulationOptionsTab extends JPanel {
 			@Override
 			public void actionPerformed(ActionEvent e) {
 				if(((JCheckBox)e.getSource()).isSelected()) {
-					simulationOptions.removeIf(p -> (p != Options.CONSOLE_DISPLAY));
+					simulationOptions.removeIf(p -> (p != Options.CONSOLE_DISPLAY && p != Options.RECORD_FLIGHT && p != Options.RECORD_INPUTS 
+																		&& p != Options.INSTRUMENT_SIMULATION));
 					simulationOptions.add(Options.ANALYSIS_MODE);
 					controllers.setEnabled(false);
 				} else {
@@ -153,6 +157,72 @@ public class SimulationOptionsTab extends JPanel {
 		});
 		controlsPanel.add(consoleDisplay, gc);
 		
+		//---------- Record Flight Checkbox ------------------- 
+		gc.gridy++;
+		
+		gc.gridx = 0;
+		gc.anchor = GridBagConstraints.EAST;
+		controlsPanel.add(new JLabel("Record Flight:"), gc);
+		
+		gc.gridx = 1;
+		gc.anchor = GridBagConstraints.WEST;
+		recordFlight = new JCheckBox("Save Entire Flight to Recordings");
+		recordFlight.setToolTipText("Continuously saves all data output by the simulation to a flight recording in the Recordings directory");
+		recordFlight.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if(((JCheckBox)e.getSource()).isSelected())
+					simulationOptions.add(Options.RECORD_FLIGHT);
+				else
+					simulationOptions.remove(Options.RECORD_FLIGHT);
+			}
+		});
+		controlsPanel.add(recordFlight, gc);
+		
+		//---------- Record Inputs Checkbox ------------------- 
+		gc.gridy++;
+		
+		gc.gridx = 0;
+		gc.anchor = GridBagConstraints.EAST;
+		controlsPanel.add(new JLabel("Record Inputs:"), gc);
+		
+		gc.gridx = 1;
+		gc.anchor = GridBagConstraints.WEST;
+		recordInputs = new JCheckBox("Save Flight Inputs for Replay");
+		recordInputs.setToolTipText("Saves only the control inputs of the flight to the Recordings directory, from which the flight can be replayed exactly");
+		recordInputs.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if(((JCheckBox)e.getSource()).isSelected())
+					simulationOptions.add(Options.RECORD_INPUTS);
+				else
+					simulationOptions.remove(Options.RECORD_INPUTS);
+			}
+		});
+		controlsPanel.add(recordInputs, gc);
+		
+		//---------- Instrument Simulation Checkbox ------------------- 
+		gc.gridy++;
+		
+		gc.gridx = 0;
+		gc.anchor = GridBagConstraints.EAST;
+		controlsPanel.add(new JLabel("Instrument Simulation:"), gc);
+		
+		gc.gridx = 1;
+		gc.anchor = GridBagConstraints.WEST;
+		instrumentSimulation = new JCheckBox("Collect Timing Metrics");
+		instrumentSimulation.setToolTipText("Records how long each part of the simulation takes each step, viewable through JMX (e.g. JConsole) and in the log");
+		instrumentSimulation.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if(((JCheckBox)e.getSource()).isSelected())
+					simulationOptions.add(Options.INSTRUMENT_SIMULATION);
+				else
+					simulationOptions.remove(Options.INSTRUMENT_SIMULATION);
+			}
+		});
+		controlsPanel.add(instrumentSimulation, gc);
+		
 		//-------------- Controllers List  ------------------------ 
 		gc.gridy++;
 		
@@ -239,6 +309,9 @@ public class SimulationOptionsTab extends JPanel {
 		
 		analysisMode.setSelected(simulationOptions.contains(Options.ANALYSIS_MODE) ? true : false);
 		consoleDisplay.setSelected(simulationOptions.contains(Options.CONSOLE_DISPLAY) ? true : false);
+		recordFlight.setSelected(simulationOptions.contains(Options.RECORD_FLIGHT) ? true : false);
+		recordInputs.setSelected(simulationOptions.contains(Options.RECORD_INPUTS) ? true : false);
+		instrumentSimulation.setSelected(simulationOptions.contains(Options.INSTRUMENT_SIMULATION) ? true : false);
 		
 		if (simulationOptions.contains(Options.USE_MOUSE))
 			controllers.setSelectedIndex(1);
@@ -25,14 +25,17 @@ import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JTabbedPane;
 import javax.swing.KeyStroke;
 import javax.swing.SwingWorker;
@@ -41,9 +44,10 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import com.chrisali.javaflightsim.initializer.LWJGLSwingSimulationController;
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
 import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
-import com.chrisali.javaflightsim.simulation.integration.SimOuts;
 import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+import com.chrisali.javaflightsim.swing.consoletable.FlightRecordingFileFilter;
 import com.chrisali.javaflightsim.swing.plotting.PlotConfiguration.SubPlotBundle;
 
 /**
@@ -60,7 +64,7 @@ public class PlotWindow extends JFrame implements ProgressDialogListener {
 
 	private LWJGLSwingSimulationController controller;
 	private PlotConfiguration plotConfiguration;
-	private List<Map<SimOuts, Double>> logsOut;
+	private FlightLog logsOut;
 	
 	/**
 	 * Plots data from the simulation in a Swing window. It loops through 
@@ -126,6 +130,35 @@ public class PlotWindow extends JFrame implements ProgressDialogListener {
 		JMenu fileMenu = new JMenu("File");
 		fileMenu.setMnemonic(KeyEvent.VK_F);
 		
+		//------------------- Open Recording Item -------------------------------
+		
+		JFileChooser recordingChooser = new JFileChooser();
+		recordingChooser.setFileFilter(new FlightRecordingFileFilter());
+		
+		JMenuItem openItem = new JMenuItem("Open Recording...");
+		openItem.setMnemonic(KeyEvent.VK_O);
+		openItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_O, ActionEvent.CTRL_MASK));
+		openItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent ev) {
+				if (recordingChooser.showOpenDialog(PlotWindow.this) == JFileChooser.APPROVE_OPTION) {
+					File file = recordingChooser.getSelectedFile();
+					
+					try {
+						logsOut = FileUtilities.readFlightRecording(file);
+						setTitle(file.getName() + " Plots");
+						
+						if (plotConfiguration != null)
+							initializePlots();
+					} catch (IOException ex) {
+						JOptionPane.showMessageDialog(PlotWindow.this, 
+								"Could not open flight recording", "Error", JOptionPane.ERROR_MESSAGE);
+					}
+				}
+			}
+		});
+		fileMenu.add(openItem);
+		
 		//----------------------- Close Item -------------------------------
 		
 		JMenuItem closeItem = new JMenuItem("Close");
@@ -218,11 +251,8 @@ public class PlotWindow extends JFrame implements ProgressDialogListener {
 					
 					Map<String, SubPlotBundle> subPlotBundles = plotConfiguration.getSubPlotBundles();
 					
-					// Copy to thread-safe ArrayList
-					CopyOnWriteArrayList<Map<SimOuts, Double>> cowLogsOut = new CopyOnWriteArrayList<>(logsOut);
-					
 					for (Map.Entry<String, SubPlotBundle> entry : subPlotBundles.entrySet()) {
-						SimulationPlot plotObject = new SimulationPlot(cowLogsOut, entry.getValue());
+						SimulationPlot plotObject = new SimulationPlot(logsOut, entry.getValue());
 						
 						Thread.sleep(125);
 						
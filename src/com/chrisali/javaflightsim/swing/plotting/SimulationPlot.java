@@ -21,7 +21,6 @@ package com.chrisali.javaflightsim.swing.plotting;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -41,6 +40,7 @@ import org.jfree.chart.renderer.xy.StandardXYItemRenderer;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
 import com.chrisali.javaflightsim.simulation.integration.SimOuts;
 import com.chrisali.javaflightsim.swing.plotting.PlotConfiguration.SubPlotBundle;
 import com.chrisali.javaflightsim.swing.plotting.PlotConfiguration.SubPlotOptions;
@@ -69,13 +69,13 @@ public class SimulationPlot extends JComponent {
 	private CombinedDomainXYPlot combinedDomPlot;
 
 	/**
-	 * Creates plots for data contained in the logsOut List using configuration defined in
+	 * Creates plots for data contained in the logsOut {@link FlightLog} using configuration defined in
 	 * bundle 
 	 * 
 	 * @param logsOut
 	 * @param bundle
 	 */
-	public SimulationPlot(List<Map<SimOuts, Double>> logsOut, SubPlotBundle bundle) {
+	public SimulationPlot(FlightLog logsOut, SubPlotBundle bundle) {
 		logger.debug("Generating a subplot bundle for " + bundle.getTitle() + "...");
 				
 		plotList = new LinkedList<>();
@@ -119,7 +119,7 @@ public class SimulationPlot extends JComponent {
 	}
 	
 	/**
-	 * Populates the {@link plotLists} List with {@link XYPlot} objects created from the logsOut ArrayList 
+	 * Populates the {@link plotLists} List with {@link XYPlot} objects created from the logsOut {@link FlightLog} 
 	 * argument. It first creates {@link XYSeries} objects with data from logsOut, adds those to 
 	 * {@link XYSeriesCollection}, adds those series collections to {@link XYPlot} objects, and finally 
 	 * puts the XYPlot objects into {@link plotList}. The types of {@link XYPlot} objects generated 
@@ -128,7 +128,7 @@ public class SimulationPlot extends JComponent {
 	 * @param logsOut
 	 * @param bundle
 	 */
-	private void createPlots(List<Map<SimOuts, Double>> logsOut, SubPlotBundle bundle) {		
+	private void createPlots(FlightLog logsOut, SubPlotBundle bundle) {		
 		for (SubPlotOptions option : bundle.getSubPlots()) {
 			XYSeriesCollection collection = new XYSeriesCollection();
 			
@@ -161,26 +161,36 @@ public class SimulationPlot extends JComponent {
 	}
 	
 	/**
-	 * Update {@link XYSeries} objects with new data from a thread-safe logsOut list
+	 * Update {@link XYSeries} objects with new data from the logsOut {@link FlightLog}. The x and y columns are copied
+	 * in a single snapshot so that all series are plotted against the same rows
 	 * 
 	 * @param logsOut
 	 * @param bundle
 	 */
-	protected void updateXYSeriesData(List<Map<SimOuts, Double>> logsOut, SubPlotBundle bundle) {
+	protected void updateXYSeriesData(FlightLog logsOut, SubPlotBundle bundle) {
 		// Clear old XV series values 
 		for (Map.Entry<SimOuts, XYSeries> entry : xySeriesData.entrySet())
 			entry.getValue().clear();
 		
+		// Snapshot with the x column first, followed by each y column in the order of xySeriesData
+		SimOuts[] columns = new SimOuts[xySeriesData.size() + 1];
+		columns[0] = bundle.getSubPlots().get(0).getxData();
+		
+		int column = 1;
+		for (SimOuts yVal : xySeriesData.keySet())
+			columns[column++] = yVal;
+		
+		double[][] snapshot = logsOut.getColumns(columns);
+		double[] xData = snapshot[0];
+		
 		// Only notify of a SeriesChangeEvent at the end of the loop
-		for (Iterator<Map<SimOuts, Double>> logsOutItr = logsOut.iterator(); logsOutItr.hasNext();) {
-			Map<SimOuts, Double> simOut = logsOutItr.next();
-			
-			for (Map.Entry<SimOuts, XYSeries> entry : xySeriesData.entrySet()) {
-				SimOuts yVal = entry.getKey();
-				SimOuts xVal = bundle.getSubPlots().get(0).getxData();
+		column = 1;
+		for (Map.Entry<SimOuts, XYSeries> entry : xySeriesData.entrySet()) {
+			double[] yValues = snapshot[column++];
+			XYSeries series = entry.getValue();
 			
-				entry.getValue().add(simOut.get(xVal), simOut.get(yVal), !logsOutItr.hasNext());
-			}						
+			for (int i = 0; i < xData.length; i++)
+				series.add(xData[i], yValues[i], i == xData.length - 1);
 		}
 		
 		// Bound the minimum X Axis value to the first time value in the data series
@@ -0,0 +1,43 @@
+package com.chrisali.javaflightsim.initializer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+import com.chrisali.javaflightsim.simulation.utilities.SimDirectories;
+
+public class HeadlessSimulationControllerTest {
+	
+	@Test
+	public void TrimsRunsAndSavesWithoutChangingConfigTest() throws Exception {
+		Path configFile = Paths.get(SimDirectories.SIM_CONFIG.toString(), SimulationConfiguration.class.getSimpleName() + ".json");
+		byte[] savedConfig = Files.readAllBytes(configFile);
+		
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.getIntegratorConfig().put(IntegratorConfig.ENDTIME, 5.0);
+		
+		HeadlessSimulationController controller = new HeadlessSimulationController(configuration, FileUtilities.readAnalysisControls());
+		controller.startSimulation();
+		
+		File output = File.createTempFile("headless", ".csv");
+		output.deleteOnExit();
+		controller.saveOutput(output);
+		
+		long frames = Math.round(5.0 / configuration.getIntegratorConfig().get(IntegratorConfig.DT));
+		
+		assertEquals(frames, controller.getLogsOut().size());
+		assertEquals("Header and one line per frame", frames + 1, Files.lines(output.toPath()).count());
+		assertTrue(controller.getSetupTime() > 0);
+		assertArrayEquals("Trimming headless must not save the configuration", savedConfig, Files.readAllBytes(configFile));
+	}
+}
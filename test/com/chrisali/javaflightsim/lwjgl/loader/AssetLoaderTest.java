@@ -0,0 +1,97 @@
+package com.chrisali.javaflightsim.lwjgl.loader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class AssetLoaderTest {
+
+	@Test
+	public void PrepareOnWorkersAndUploadOnContextThreadTest() {
+		Thread contextThread = Thread.currentThread();
+		List<Thread> prepareThreads = new ArrayList<>();
+		List<Integer> progress = new ArrayList<>();
+		List<Asset<Integer>> assets = new ArrayList<>();
+		
+		try (AssetLoader assetLoader = new AssetLoader(2, (timing, loaded, total) -> {
+			assertEquals(contextThread, Thread.currentThread());
+			progress.add(loaded);
+		})) {
+			CompletableFuture<Integer> shared = assetLoader.prepare("shared", () -> 10);
+			
+			for (int i = 0; i < 20; i++) {
+				int value = i;
+				assets.add(assetLoader.load("asset " + i, () -> {
+					synchronized (prepareThreads) {
+						prepareThreads.add(Thread.currentThread());
+					}
+					return value + shared.join();
+				}, data -> {
+					assertEquals(contextThread, Thread.currentThread());
+					return data * 2;
+				}));
+			}
+			
+			Asset<Integer> fromShared = assetLoader.upload("from shared", shared, data -> data + 1);
+			
+			assetLoader.awaitAll();
+			
+			assertEquals(21, assetLoader.getTotalAssets());
+			assertEquals(21, assetLoader.getLoadedAssets());
+			assertEquals(22, assetLoader.getTimings().size());
+			assertEquals(Integer.valueOf(11), fromShared.get());
+		}
+		
+		for (int i = 0; i < 20; i++) {
+			assertTrue(assets.get(i).isLoaded());
+			assertEquals(Integer.valueOf((i + 10) * 2), assets.get(i).get());
+		}
+		
+		assertEquals(20, prepareThreads.size());
+		for (Thread thread : prepareThreads)
+			assertNotEquals(contextThread, thread);
+		
+		assertEquals(21, progress.size());
+		assertEquals(Integer.valueOf(21), progress.get(20));
+	}
+	
+	@Test
+	public void FailedAssetDoesNotStallLoadingTest() {
+		List<Integer> loadedValues = new ArrayList<>();
+		
+		try (AssetLoader assetLoader = new AssetLoader(1, null)) {
+			Asset<Integer> failed = assetLoader.load("failed", () -> { throw new IOException("Missing file"); }, data -> 1);
+			Asset<Integer> loaded = assetLoader.load("loaded", () -> 2, data -> data);
+			
+			failed.whenLoaded(loadedValues::add);
+			loaded.whenLoaded(loadedValues::add);
+			
+			assetLoader.awaitAll();
+			
+			assertFalse(failed.isLoaded());
+			assertTrue(failed.getTiming().isFailed());
+			assertTrue(loaded.isLoaded());
+			assertEquals(Integer.valueOf(2), loaded.get());
+			
+			// Actions are run immediately once loaded
+			loaded.whenLoaded(loadedValues::add);
+			assertEquals(2, loadedValues.size());
+			
+			try {
+				failed.get();
+				fail("Failed asset returned a value");
+			} catch (IllegalStateException e) {
+				assertTrue(e.getCause() instanceof IOException);
+			}
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.chrisali.javaflightsim.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class BatchSimulationRunnerTest {
+	
+	private static final String[] AIRCRAFT = {"Navion", "TwinNavion", "Navion", "TwinNavion"};
+
+	@Test
+	public void ParallelBatchMatchesSequentialRunsTest() {
+		AnalysisControls analysisControls = FileUtilities.readAnalysisControls();
+		
+		List<SimulationConfiguration> configurations = new ArrayList<>();
+		for (String aircraftName : AIRCRAFT)
+			configurations.add(createConfiguration(aircraftName));
+		
+		BatchSimulationRunner batchRunner = new BatchSimulationRunner(AIRCRAFT.length);
+		List<HeadlessSimulationRunner> batch = batchRunner.run(configurations, analysisControls);
+		batchRunner.shutdown();
+		
+		assertEquals(AIRCRAFT.length, batch.size());
+		
+		for (int i = 0; i < AIRCRAFT.length; i++) {
+			HeadlessSimulationRunner sequential = new HeadlessSimulationRunner(createConfiguration(AIRCRAFT[i]), analysisControls);
+			sequential.run();
+			
+			assertNotNull("Simulation " + i + " in batch should not fail", batch.get(i));
+			
+			Map<SimOuts, Double> expected = sequential.getSimulation().getSimOut();
+			Map<SimOuts, Double> actual   = batch.get(i).getSimulation().getSimOut();
+			
+			for (SimOuts simOut : SimOuts.values())
+				assertEquals(AIRCRAFT[i] + " " + simOut + " should match sequential run", expected.get(simOut), actual.get(simOut));
+		}
+	}
+	
+	private SimulationConfiguration createConfiguration(String aircraftName) {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.setSelectedAircraft(aircraftName);
+		configuration.getSimulationOptions().clear();
+		configuration.getIntegratorConfig().put(IntegratorConfig.ENDTIME, 15.0);
+		
+		return configuration;
+	}
+}
@@ -0,0 +1,47 @@
+package com.chrisali.javaflightsim.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class HeadlessSimulationRunnerTest {
+
+	@Test
+	public void HeadlessRunFasterThanRealTimeTest() {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		AnalysisControls analysisControls = FileUtilities.readAnalysisControls();
+		configuration.getSimulationOptions().clear();
+		configuration.getIntegratorConfig().put(IntegratorConfig.ENDTIME, 20.0);
+		
+		HeadlessSimulationRunner runner = new HeadlessSimulationRunner(configuration, analysisControls);
+		runner.run();
+		
+		// Time steps that are not whole milliseconds must not be truncated 
+		long frames = Math.round(20.0 / configuration.getIntegratorConfig().get(IntegratorConfig.DT));
+		
+		assertEquals("Simulation should step once per frame", frames, runner.getSimulation().getLogsOut().size());
+		assertTrue("Headless simulation should run faster than real time, ran at: " + runner.getRealTimeFactor(), 
+				   runner.getRealTimeFactor() > 1.0);
+	}
+	
+	@Test
+	public void RunsToFractionalEndTimeTest() {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.getSimulationOptions().clear();
+		configuration.getIntegratorConfig().put(IntegratorConfig.STARTTIME, 0.0);
+		configuration.getIntegratorConfig().put(IntegratorConfig.ENDTIME, 2.5);
+		
+		HeadlessSimulationRunner runner = new HeadlessSimulationRunner(configuration, null);
+		runner.run();
+		
+		long frames = Math.round(2.5 / configuration.getIntegratorConfig().get(IntegratorConfig.DT));
+		
+		assertEquals("End time must not be truncated to whole seconds", frames, runner.getSimulation().getLogsOut().size());
+	}
+}
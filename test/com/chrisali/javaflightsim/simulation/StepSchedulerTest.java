@@ -0,0 +1,166 @@
+package com.chrisali.javaflightsim.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.interfaces.Steppable;
+import com.chrisali.javaflightsim.simulation.metrics.SimulationMetrics;
+
+public class StepSchedulerTest {
+	
+	@Test
+	public void StepsEachComponentAtItsRateTest() {
+		AtomicInteger timeMS = new AtomicInteger(0);
+		StepScheduler scheduler = new StepScheduler(1 / (1.0 / 120.0), timeMS);
+		List<String> steps = new ArrayList<>();
+		
+		scheduler.add(() -> steps.add("controls " + timeMS.get()), 60);
+		scheduler.add(() -> steps.add("simulation " + timeMS.get()));
+		scheduler.add(() -> steps.add("environment " + timeMS.get()), 10);
+		
+		while (scheduler.getTimeMS() < 1000)
+			scheduler.tick();
+		
+		assertEquals("A 1/120 sec time step must not be truncated to 8 ms", 120, scheduler.getTicks());
+		assertEquals(1000, timeMS.get());
+		assertEquals(60, steps.stream().filter(step -> step.startsWith("controls")).count());
+		assertEquals(120, steps.stream().filter(step -> step.startsWith("simulation")).count());
+		assertEquals(10, steps.stream().filter(step -> step.startsWith("environment")).count());
+		
+		// Components due on the same tick step in the order they were added, at the time of the tick
+		assertEquals("controls 0", steps.get(0));
+		assertEquals("simulation 0", steps.get(1));
+		assertEquals("environment 0", steps.get(2));
+		assertEquals("simulation 8", steps.get(3));
+		assertEquals("controls 16", steps.get(4));
+		assertTrue(steps.contains("environment 500"));
+	}
+	
+	@Test
+	public void RealTimeScheduleDoesNotDriftTest() {
+		AtomicInteger timeMS = new AtomicInteger(0);
+		FakeClock clock = new FakeClock();
+		StepScheduler scheduler = new StepScheduler(200, timeMS, clock);
+		scheduler.setRealTime(true);
+		
+		// Frames take a varying part of the time step, which adds up to drift when sleeping a fixed time after each frame
+		scheduler.add(() -> clock.advance(timeMS.get() % 3 * 1_000_000L));
+		
+		long start = clock.nanoTime();
+		while (scheduler.getTimeMS() < 500)
+			scheduler.tick();
+		
+		assertEquals(100, scheduler.getTicks());
+		assertEquals("Last tick must start 99 time steps after the first", 495_000_000L, clock.nanoTime() - start);
+		assertEquals("Ran " + scheduler, 0, scheduler.getOverruns());
+		assertEquals("Ran " + scheduler, 0, scheduler.getCatchUpTicks());
+		assertTrue("Ran " + scheduler, scheduler.getDriftNanos() <= 0);
+	}
+	
+	@Test
+	public void CatchesUpLateTicksTest() {
+		AtomicInteger timeMS = new AtomicInteger(0);
+		FakeClock clock = new FakeClock();
+		StepScheduler scheduler = new StepScheduler(200, timeMS, clock);
+		scheduler.setRealTime(true);
+		
+		// One 12 ms frame puts the schedule 7 ms behind, which 1 ms frames catch up on over the next two ticks 
+		scheduler.add(() -> clock.advance(timeMS.get() == 100 ? 12_000_000L : 1_000_000L));
+		
+		while (scheduler.getTimeMS() < 500)
+			scheduler.tick();
+		
+		assertEquals(100, scheduler.getTicks());
+		assertEquals("Ran " + scheduler, 2, scheduler.getOverruns());
+		assertEquals("Ran " + scheduler, 2, scheduler.getCatchUpTicks());
+		assertEquals(7_000_000L, scheduler.getMaxLatenessNanos());
+		assertEquals("Catching up must not move the schedule back", 0, scheduler.getSlippedNanos());
+		assertEquals(-4_000_000L, scheduler.getDriftNanos());
+	}
+	
+	@Test
+	public void SlipsScheduleWhenTooFarBehindTest() {
+		AtomicInteger timeMS = new AtomicInteger(0);
+		FakeClock clock = new FakeClock();
+		StepScheduler scheduler = new StepScheduler(200, timeMS, clock);
+		scheduler.setRealTime(true);
+		scheduler.setOverrunPolicy(OverrunPolicy.SLIP, 2);
+		
+		// A 40 ms frame is 35 ms behind the next deadline, further than 2 ticks (10 ms) allows
+		scheduler.add(() -> clock.advance(timeMS.get() == 100 ? 40_000_000L : 1_000_000L));
+		
+		while (scheduler.getTimeMS() < 500)
+			scheduler.tick();
+		
+		assertEquals("Ran " + scheduler, 1, scheduler.getCatchUpTicks());
+		assertEquals(35_000_000L, scheduler.getSlippedNanos());
+		assertEquals("Slipping must put the schedule back on time", -4_000_000L, scheduler.getDriftNanos() - scheduler.getSlippedNanos());
+	}
+	
+	@Test
+	public void RecordsMetricsOfEachComponentTest() throws Exception {
+		AtomicInteger timeMS = new AtomicInteger(0);
+		StepScheduler scheduler = new StepScheduler(200, timeMS);
+		scheduler.setRealTime(true);
+		
+		try (SimulationMetrics metrics = new SimulationMetrics()) {
+			scheduler.add(() -> busyWait(100_000));
+			scheduler.setMetrics(metrics);
+			scheduler.add(() -> busyWait(timeMS.get() == 250 ? 12_000_000L : 0), 100);
+			metrics.register();
+			
+			while (scheduler.getTimeMS() < 500)
+				scheduler.tick();
+			
+			assertEquals(100, metrics.getTicks());
+			assertEquals(100, metrics.getJitter().getCount());
+			assertTrue("Ran " + scheduler, metrics.getDeadlineMisses() >= 1);
+			assertEquals(scheduler.getOverruns(), metrics.getDeadlineMisses());
+			assertTrue(metrics.getTickTimes().getMaxMicros() >= 12_000);
+			
+			Object[] names = metrics.getStepTimes().keySet().toArray();
+			assertEquals(2, names.length);
+			assertEquals(100, metrics.getStepTimes().get(names[0]).getCount());
+			assertEquals(50, metrics.getStepTimes().get(names[1]).getCount());
+			assertTrue(metrics.getStepTimes().get(names[0]).getP50Micros() >= 100);
+			
+			ObjectName name = new ObjectName(SimulationMetrics.OBJECT_NAME);
+			CompositeData tickTimes = (CompositeData) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "TickTimes");
+			assertEquals(100L, tickTimes.get("count"));
+			assertEquals(2, ((TabularData) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "StepTimes")).size());
+		}
+		
+		assertTrue(!ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(SimulationMetrics.OBJECT_NAME)));
+	}
+	
+	private static void busyWait(long nanos) {
+		long end = System.nanoTime() + nanos;
+		while (System.nanoTime() < end);
+	}
+	
+	/**
+	 * Clock that only moves when advanced by a component's step, or to a deadline being waited on
+	 */
+	private static class FakeClock implements StepScheduler.Clock {
+		private long nanos = 1_000_000_000L;
+		
+		@Override
+		public long nanoTime() { return nanos; }
+		
+		@Override
+		public void waitUntil(long deadlineNanos) { nanos = Math.max(nanos, deadlineNanos); }
+		
+		private void advance(long nanos) { this.nanos += nanos; }
+	}
+}
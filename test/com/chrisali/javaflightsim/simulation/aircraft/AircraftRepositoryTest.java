@@ -0,0 +1,61 @@
+package com.chrisali.javaflightsim.simulation.aircraft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.propulsion.Engine;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class AircraftRepositoryTest {
+
+	@Test
+	public void SharedPropertiesOwnEnginesTest() {
+		AircraftRepository repository = new AircraftRepository();
+		
+		Aircraft first = repository.get("TwinNavion");
+		Aircraft second = repository.get("TwinNavion");
+		
+		assertEquals("Aircraft should only be read once", 1, repository.getLoads());
+		assertSame("Stability derivatives should be shared", first.getStabDerivs(), second.getStabDerivs());
+		assertSame("Mass properties should be shared", first.getMassProps(), second.getMassProps());
+		assertEquals("Each aircraft should have all engines", first.getEngines().size(), second.getEngines().size());
+		
+		Iterator<Engine> secondEngines = second.getEngines().iterator();
+		for (Engine engine : first.getEngines())
+			assertNotSame("Each aircraft should have its own engines", engine, secondEngines.next());
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void SharedPropertiesUnmodifiableTest() {
+		new AircraftRepository().get("Navion").setMassProperty(MassProperties.TOTAL_MASS, 0.0);
+	}
+	
+	@Test
+	public void ReloadOnModificationTest() {
+		AircraftRepository repository = new AircraftRepository();
+		File file = FileUtilities.getAircraftConfigurationFile("Navion");
+		long lastModified = file.lastModified();
+		
+		try {
+			Aircraft original = repository.get("Navion");
+			repository.get("Navion");
+			assertEquals("Unchanged aircraft should not be read again", 1, repository.getLoads());
+			
+			assertTrue(file.setLastModified(lastModified - 60000));
+			
+			Aircraft reloaded = repository.get("Navion");
+			assertEquals("Modified aircraft should be read again", 2, repository.getLoads());
+			assertNotSame("Modified aircraft should not share properties with the original", 
+						  original.getStabDerivs(), reloaded.getStabDerivs());
+		} finally {
+			file.setLastModified(lastModified);
+		}
+	}
+}
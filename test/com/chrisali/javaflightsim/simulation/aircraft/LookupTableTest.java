@@ -0,0 +1,39 @@
+package com.chrisali.javaflightsim.simulation.aircraft;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class LookupTableTest {
+	
+	private static final StabilityDerivatives[] TABLE_DERIVATIVES = {StabilityDerivatives.CL_ALPHA, 
+																	  StabilityDerivatives.CD_ALPHA, 
+																	  StabilityDerivatives.CM_ALPHA};
+
+	@Test
+	public void EvaluateMatchesInterpolateNavionTest() {
+		assertEvaluateMatchesInterpolate("Navion");
+	}
+	
+	@Test
+	public void EvaluateMatchesInterpolateTwinNavionTest() {
+		assertEvaluateMatchesInterpolate("TwinNavion");
+	}
+	
+	private void assertEvaluateMatchesInterpolate(String aircraftName) {
+		Aircraft aircraft = FileUtilities.readAircraftConfiguration(aircraftName);
+		
+		for (StabilityDerivatives stabDer : TABLE_DERIVATIVES) {
+			LookupTable lookup = aircraft.getStabilityDerivative(stabDer);
+			
+			for (double alpha = -0.26; alpha <= 0.26; alpha += 0.0037) {
+				for (double flap = 0.0; flap <= 0.69; flap += 0.023) {
+					assertEquals(aircraftName + " " + stabDer + " at alpha: " + alpha + ", flap: " + flap, 
+								 lookup.interpolate(alpha, flap), lookup.evaluate(alpha, flap), 0.0);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.chrisali.javaflightsim.simulation.datatransfer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+
+public class FlightDataSubscriptionTest {
+
+	private static FlightDataFrame frameAt(double time, long sequence) {
+		double[] simOut = new double[SimOuts.values().length];
+		simOut[SimOuts.TIME.ordinal()] = time;
+
+		FlightDataFrame frame = new FlightDataFrame();
+		frame.update(simOut);
+		frame.markPublished(sequence);
+
+		return frame;
+	}
+
+	@Test
+	public void SubscriptionPublishesAtItsOwnRateTest() {
+		List<Long> received = new ArrayList<>();
+		FlightDataSubscription subscription = new FlightDataSubscription(f -> received.add(f.getSequence()), 60, null);
+
+		// One second of 120 Hz frames
+		for (int i = 0; i < 120; i++)
+			subscription.offer(frameAt(i / 120.0, i + 1));
+
+		assertEquals(60, subscription.getPublishedFrames());
+		assertEquals(60, received.size());
+		assertEquals(Long.valueOf(1), received.get(0));
+		assertEquals(Long.valueOf(3), received.get(1));
+
+		// Reset back to start of simulation
+		subscription.offer(frameAt(0, 121));
+		assertEquals(61, subscription.getPublishedFrames());
+	}
+
+	@Test
+	public void SlowListenerNeverBlocksSimulationTest() throws InterruptedException {
+		CountDownLatch firstDelivery = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Long> received = new ArrayList<>();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		FlightDataSubscription subscription = new FlightDataSubscription(f -> {
+			received.add(f.getSequence());
+			firstDelivery.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {}
+		}, 0, executor);
+
+		subscription.offer(frameAt(0, 1));
+		assertTrue(firstDelivery.await(5, TimeUnit.SECONDS));
+
+		// Listener is blocked, so none of these should wait for it
+		for (int i = 2; i <= 1000; i++)
+			subscription.offer(frameAt(i, i));
+
+		assertEquals(1000, subscription.getPublishedFrames());
+
+		release.countDown();
+		subscription.offer(frameAt(1001, 1001));
+
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+		assertTrue("Backlog of stale frames delivered", received.size() < 10);
+		assertEquals("Latest frame not delivered", Long.valueOf(1001), received.get(received.size() - 1));
+	}
+}
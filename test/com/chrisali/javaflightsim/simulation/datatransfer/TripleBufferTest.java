@@ -0,0 +1,84 @@
+package com.chrisali.javaflightsim.simulation.datatransfer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+
+public class TripleBufferTest {
+	
+	@Test
+	public void ConsumerTakesLatestPublishedTest() {
+		TripleBuffer<long[]> buffer = new TripleBuffer<>(() -> new long[1]);
+		
+		assertFalse("Nothing published yet", buffer.update());
+		
+		for (long i = 1; i <= 3; i++) {
+			buffer.getWriteBuffer()[0] = i;
+			buffer.publish();
+		}
+		
+		assertTrue(buffer.update());
+		assertEquals(3, buffer.getReadBuffer()[0]);
+		assertFalse("Latest already taken", buffer.update());
+		assertEquals(3, buffer.getReadBuffer()[0]);
+	}
+	
+	@Test
+	public void ConcurrentFramesAreNeverTornTest() throws InterruptedException {
+		final int length = 64;
+		final long count = 200_000;
+		TripleBuffer<long[]> buffer = new TripleBuffer<>(() -> new long[length]);
+		
+		Thread producer = new Thread(() -> {
+			for (long i = 1; i <= count; i++) {
+				long[] frame = buffer.getWriteBuffer();
+				for (int j = 0; j < length; j++)
+					frame[j] = i;
+				buffer.publish();
+			}
+		});
+		producer.start();
+		
+		long last = 0;
+		while (last < count) {
+			if (!buffer.update())
+				continue;
+			
+			long[] frame = buffer.getReadBuffer();
+			for (int j = 0; j < length; j++)
+				assertEquals("Frame was written while being read", frame[0], frame[j]);
+			
+			assertTrue("Frames must be taken in order", frame[0] > last);
+			last = frame[0];
+		}
+		
+		producer.join();
+	}
+	
+	@Test
+	public void InterpolatesPoseTheShortWayAroundTest() {
+		FlightDataFrame previous = new FlightDataFrame();
+		FlightDataFrame current = new FlightDataFrame();
+		FlightDataFrame render = new FlightDataFrame();
+		
+		double[] simOut = new double[SimOuts.values().length];
+		simOut[SimOuts.PSI.ordinal()] = Math.toRadians(350);
+		simOut[SimOuts.NORTH.ordinal()] = 100;
+		previous.update(simOut);
+		
+		simOut[SimOuts.TIME.ordinal()] = 0.01;
+		simOut[SimOuts.PSI.ordinal()] = Math.toRadians(10);
+		simOut[SimOuts.NORTH.ordinal()] = 200;
+		current.update(simOut);
+		
+		render.interpolate(previous, current, 0.25);
+		
+		assertEquals(355, render.get(FlightDataType.HEADING), 1e-9);
+		assertEquals(125, render.get(FlightDataType.NORTH), 1e-9);
+		assertEquals(0.0025, render.getTime(), 1e-12);
+	}
+}
@@ -0,0 +1,70 @@
+package com.chrisali.javaflightsim.simulation.enviroment;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AtmosphereModelTest {
+	
+	private static final double RELATIVE_TOLERANCE = 1e-9;
+	
+	@Test
+	public void TableMatchesAnalyticTest() {
+		assertTableMatchesAnalytic(new AtmosphereModel(), 0.0);
+	}
+	
+	@Test
+	public void TableRebuiltOnDeltaIsaChangeTest() {
+		AtmosphereModel atmosphere = new AtmosphereModel();
+		
+		atmosphere.setDeltaIsa(27.0);
+		assertTableMatchesAnalytic(atmosphere, 27.0);
+		
+		atmosphere.setDeltaIsa(-18.0);
+		assertTableMatchesAnalytic(atmosphere, -18.0);
+		
+		atmosphere.setDeltaIsa(0.0);
+		assertTableMatchesAnalytic(atmosphere, 0.0);
+	}
+	
+	@Test
+	public void WindCachedUntilChangedTest() {
+		Environment environment = new Environment();
+		EnvironmentState state = new EnvironmentState();
+		
+		environment.setWindSpeed(20);
+		environment.setWindDir(90);
+		environment.getAndUpdateEnvironmentParams(new double[] {0, 0, 5000}, state);
+		
+		assertEquals(0.0, state.getWindSpeedN(), 1e-9);
+		assertEquals(-33.76, state.getWindSpeedE(), 1e-2);
+		
+		environment.setWindDir(180);
+		environment.getAndUpdateEnvironmentParams(new double[] {0, 0, 5000}, state);
+		
+		assertEquals(33.76, state.getWindSpeedN(), 1e-2);
+		assertEquals(0.0, state.getWindSpeedE(), 1e-9);
+	}
+	
+	private void assertTableMatchesAnalytic(AtmosphereModel atmosphere, double deltaIsa) {
+		EnvironmentState tabulated = new EnvironmentState();
+		EnvironmentState analytic = new EnvironmentState();
+		
+		for (double height = -500; height <= AtmosphereModel.SERVICE_CEILING + 500; height += 7.3) {
+			atmosphere.calculate(height, tabulated);
+			AtmosphereModel.calculateAnalytic(height, deltaIsa, analytic);
+			
+			String message = "Height: " + height + " ft, delta ISA: " + deltaIsa;
+			
+			assertRelativeEquals(message, analytic.getTemperature(),  tabulated.getTemperature());
+			assertRelativeEquals(message, analytic.getPressure(),     tabulated.getPressure());
+			assertRelativeEquals(message, analytic.getDensity(),      tabulated.getDensity());
+			assertRelativeEquals(message, analytic.getSpeedOfSound(), tabulated.getSpeedOfSound());
+			assertRelativeEquals(message, analytic.getGravity(),      tabulated.getGravity());
+		}
+	}
+	
+	private void assertRelativeEquals(String message, double expected, double actual) {
+		assertEquals(message, expected, actual, Math.abs(expected)*RELATIVE_TOLERANCE);
+	}
+}
@@ -0,0 +1,128 @@
+package com.chrisali.javaflightsim.simulation.inputdevices;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameter;
+import com.chrisali.javaflightsim.simulation.flightcontrols.ControlParameterActuator;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.setup.KeyCommand;
+
+public class NetworkControlDeviceTest {
+	
+	private static final long STALE_TIMEOUT_MS = 100;
+	
+	private final Map<ControlParameter, Float> applied = new HashMap<>();
+	private final ControlParameterActuator actuator = applied::put;
+	
+	private final NetworkControlFrame frame = new NetworkControlFrame();
+	private final ByteBuffer buffer = ByteBuffer.allocate(NetworkControlFrame.BYTES);
+	
+	private void send(DatagramChannel client, long sequence) throws Exception {
+		frame.encode(buffer, sequence);
+		client.write(buffer);
+	}
+	
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		for (int i = 0; i < 500 && !condition.getAsBoolean(); i++)
+			Thread.sleep(10);
+		
+		assertTrue(condition.getAsBoolean());
+	}
+	
+	@Test
+	public void AppliesLatestFrameReceivedTest() throws Exception {
+		try (NetworkControlDevice device = new NetworkControlDevice(0, STALE_TIMEOUT_MS);
+			 DatagramChannel client = DatagramChannel.open()) {
+			client.connect(new InetSocketAddress("127.0.0.1", device.getLocalAddress().getPort()));
+			
+			// Nothing received yet
+			device.applyLatestFrame(actuator);
+			assertTrue(applied.isEmpty());
+			
+			frame.setButton(KeyCommand.GEAR_UP_DOWN, true);
+			for (int i = 1; i <= 3; i++) {
+				frame.setAxis(FlightControl.AILERON, i / 10.0f);
+				send(client, i);
+			}
+			waitFor(() -> device.getPublishedFrames() == 3);
+			
+			device.applyLatestFrame(actuator);
+			assertEquals(0.3f, applied.get(FlightControl.AILERON), 0);
+			assertEquals(1.0f, applied.get(KeyCommand.GEAR_UP_DOWN), 0);
+			assertFalse(applied.containsKey(FlightControl.ELEVATOR));
+			assertEquals(1, device.getAppliedFrames());
+			assertEquals(1, device.getLatency().getCount());
+			
+			// Late frame from before the latest is dropped
+			frame.setAxis(FlightControl.AILERON, -1.0f);
+			send(client, 2);
+			waitFor(() -> device.getOutOfOrderFrames() == 1);
+			assertEquals(3, device.getPublishedFrames());
+			
+			device.applyLatestFrame(actuator);
+			assertEquals(0.3f, applied.get(FlightControl.AILERON), 0);
+			assertEquals(1, device.getAppliedFrames());
+			
+			// Releasing the button is applied once
+			frame.setButton(KeyCommand.GEAR_UP_DOWN, false);
+			send(client, 4);
+			waitFor(() -> device.getPublishedFrames() == 4);
+			assertEquals(5, device.getReceivedFrames());
+			
+			device.applyLatestFrame(actuator);
+			assertEquals(-1.0f, applied.get(FlightControl.AILERON), 0);
+			assertEquals(0.0f, applied.get(KeyCommand.GEAR_UP_DOWN), 0);
+			
+			applied.clear();
+			device.applyLatestFrame(actuator);
+			assertFalse(applied.containsKey(KeyCommand.GEAR_UP_DOWN));
+			assertEquals(0, device.getInvalidFrames());
+		}
+	}
+	
+	@Test
+	public void ReleasesControlsWhenInputIsStaleTest() throws Exception {
+		try (NetworkControlDevice device = new NetworkControlDevice(0, STALE_TIMEOUT_MS);
+			 DatagramChannel client = DatagramChannel.open()) {
+			client.connect(new InetSocketAddress("127.0.0.1", device.getLocalAddress().getPort()));
+			
+			frame.setAxis(FlightControl.ELEVATOR, 0.5f);
+			frame.setButton(KeyCommand.BRAKES, true);
+			send(client, 1);
+			waitFor(() -> device.getPublishedFrames() == 1);
+			
+			device.applyLatestFrame(actuator);
+			assertEquals(1.0f, applied.get(KeyCommand.BRAKES), 0);
+			assertFalse(device.isStale());
+			
+			Thread.sleep(STALE_TIMEOUT_MS * 2);
+			
+			applied.clear();
+			device.applyLatestFrame(actuator);
+			assertTrue(device.isStale());
+			assertEquals(1, device.getStaleEvents());
+			assertEquals(0.0f, applied.get(KeyCommand.BRAKES), 0);
+			assertFalse(applied.containsKey(FlightControl.ELEVATOR));
+			
+			// Input resumes with the next frame
+			send(client, 2);
+			waitFor(() -> device.getPublishedFrames() == 2);
+			
+			device.applyLatestFrame(actuator);
+			assertFalse(device.isStale());
+			assertEquals(0.5f, applied.get(FlightControl.ELEVATOR), 0);
+			assertEquals(1, device.getStaleEvents());
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.chrisali.javaflightsim.simulation.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FlightLogTest {
+	
+	private static final int COLUMNS = SimOuts.values().length;
+	
+	private static double[] row(int index) {
+		double[] row = new double[COLUMNS];
+		for (int column = 0; column < COLUMNS; column++)
+			row[column] = index * 1000.0 + column;
+		
+		return row;
+	}
+
+	@Test
+	public void AppendAcrossBlocksTest() {
+		FlightLog log = new FlightLog();
+		int rows = FlightLog.BLOCK_SIZE * 2 + 10;
+		
+		for (int i = 0; i < rows; i++)
+			log.append(row(i));
+		
+		assertEquals(rows, log.size());
+		assertEquals(1000.0 * (FlightLog.BLOCK_SIZE + 3) + SimOuts.ALT.ordinal(), log.get(FlightLog.BLOCK_SIZE + 3, SimOuts.ALT), 0);
+		
+		double[] times = log.getColumn(SimOuts.TIME, FlightLog.BLOCK_SIZE - 5, FlightLog.BLOCK_SIZE + 5, null);
+		for (int i = 0; i < times.length; i++)
+			assertEquals(1000.0 * (FlightLog.BLOCK_SIZE - 5 + i), times[i], 0);
+		
+		double[] lastRow = log.getRow(rows - 1, null);
+		for (int column = 0; column < COLUMNS; column++)
+			assertEquals(1000.0 * (rows - 1) + column, lastRow[column], 0);
+	}
+	
+	@Test
+	public void RingBufferEvictionTest() {
+		FlightLog log = new FlightLog(100);
+		int rows = FlightLog.BLOCK_SIZE * 3 + 7;
+		
+		for (int i = 0; i < rows; i++)
+			log.append(row(i));
+		
+		assertEquals(100, log.size());
+		assertEquals(1000.0 * (rows - 100), log.get(0, SimOuts.TIME), 0);
+		assertEquals(1000.0 * (rows - 1), log.getColumn(SimOuts.TIME)[99], 0);
+		
+		log.clear();
+		assertTrue(log.isEmpty());
+		
+		log.append(row(rows));
+		assertEquals(1000.0 * rows, log.get(0, SimOuts.TIME), 0);
+	}
+	
+	@Test
+	public void ConsistentSnapshotWhileWritingTest() throws InterruptedException {
+		FlightLog log = new FlightLog(FlightLog.BLOCK_SIZE + 100);
+		int rows = FlightLog.BLOCK_SIZE * 50;
+		
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < rows; i++)
+				log.append(row(i));
+		});
+		writer.start();
+		
+		SimOuts[] columns = {SimOuts.TIME, SimOuts.ALT};
+		
+		while (writer.isAlive()) {
+			double[][] snapshot = log.getColumns(columns);
+			
+			for (int i = 0; i < snapshot[0].length; i++) {
+				assertEquals("Columns should come from the same row", snapshot[0][i] + SimOuts.ALT.ordinal(), snapshot[1][i], 0);
+				if (i > 0)
+					assertEquals("Rows should be contiguous", snapshot[0][i - 1] + 1000.0, snapshot[0][i], 0);
+			}
+		}
+		
+		writer.join();
+		assertEquals(FlightLog.BLOCK_SIZE + 100, log.size());
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void RowOutOfBoundsTest() {
+		FlightLog log = new FlightLog();
+		log.append(row(0));
+		log.get(1, SimOuts.TIME);
+	}
+}
@@ -0,0 +1,147 @@
+package com.chrisali.javaflightsim.simulation.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorType;
+import com.chrisali.javaflightsim.simulation.setup.Options;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class Integrate6DOFEquationsTest {
+	
+	private static final int WARMUP_STEPS   = 20000;
+	private static final int MEASURED_STEPS = 10000;
+
+	@Test
+	public void IntegrateStepNavionAllocationTest() {
+		assertStepDoesNotAllocate("Navion");
+	}
+	
+	@Test
+	public void IntegrateStepTwinNavionAllocationTest() {
+		assertStepDoesNotAllocate("TwinNavion");
+	}
+	
+	@Test
+	public void IntegrateStepAdaptiveAllocationTest() {
+		assertStepDoesNotAllocate("Navion", IntegratorType.DORMAND_PRINCE_54);
+	}
+	
+	@Test
+	public void IntegrateStepAdaptiveAccuracyTest() {
+		Integrate6DOFEquations fixed    = runSimulation("Navion", 1.0/120.0, 10.0, IntegratorType.CLASSICAL_RUNGE_KUTTA);
+		Integrate6DOFEquations adaptive = runSimulation("Navion", 1.0/120.0, 10.0, IntegratorType.DORMAND_PRINCE_54);
+		
+		assertTrue("Adaptive integration should match fixed step integration", 
+				   velocityError(velocity(adaptive), velocity(fixed)) < 1e-4);
+		
+		// Steady flight should need far fewer evaluations than four per output step 
+		assertTrue("Adaptive integration should evaluate derivatives less often, was: " + adaptive.getEvaluations(), 
+				   adaptive.getEvaluations() < fixed.getEvaluations()/3);
+	}
+	
+	@Test
+	public void IntegrateStepFourthOrderConvergenceTest() {
+		double[] reference = velocity(runSimulation("Navion", 1.0/480.0, 10.0, IntegratorType.CLASSICAL_RUNGE_KUTTA));
+		
+		double coarseError = velocityError(velocity(runSimulation("Navion", 1.0/15.0, 10.0, IntegratorType.CLASSICAL_RUNGE_KUTTA)), reference);
+		double fineError   = velocityError(velocity(runSimulation("Navion", 1.0/30.0, 10.0, IntegratorType.CLASSICAL_RUNGE_KUTTA)), reference);
+		
+		// Halving dt should reduce error by a factor close to 2^4 if all Runge Kutta stages are evaluated
+		assertTrue("Error should decrease with fourth order convergence, ratio was: " + (coarseError/fineError), 
+				   coarseError/fineError > 10);
+	}
+	
+	@Test
+	public void SinglePassAerodynamicsLookupTest() {
+		Integrate6DOFEquations integration = createIntegration("Navion", IntegratorType.CLASSICAL_RUNGE_KUTTA);
+		
+		long evaluations = integration.getEvaluations();
+		long lookups = integration.getLookupTableEvaluations();
+		
+		for (int i = 0; i < 100; i++)
+			integration.integrateStep();
+		
+		// CL_ALPHA, CD_ALPHA and CM_ALPHA should each be looked up once per evaluation of forces and moments
+		assertEquals("Aerodynamic lookups per evaluation", 3.0, 
+					 (double) (integration.getLookupTableEvaluations() - lookups) / (integration.getEvaluations() - evaluations), 0);
+	}
+	
+	private void assertStepDoesNotAllocate(String aircraftName) {
+		assertStepDoesNotAllocate(aircraftName, IntegratorType.CLASSICAL_RUNGE_KUTTA);
+	}
+	
+	private void assertStepDoesNotAllocate(String aircraftName, IntegratorType integratorType) {
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assertTrue("Thread allocation measurement should be supported", threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		
+		Integrate6DOFEquations integration = createIntegration(aircraftName, integratorType);
+		
+		for (int i = 0; i < WARMUP_STEPS; i++)
+			integration.integrateStep();
+		
+		long threadId = Thread.currentThread().getId();
+		
+		// Cost of the measurement itself, subtracted from the measured steps
+		long baselineStart = threadBean.getThreadAllocatedBytes(threadId);
+		long baselineEnd   = threadBean.getThreadAllocatedBytes(threadId);
+		
+		long start = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_STEPS; i++)
+			integration.integrateStep();
+		long end = threadBean.getThreadAllocatedBytes(threadId);
+		
+		assertEquals("Integration steps should not allocate memory for " + aircraftName, 
+					 0, (end - start) - (baselineEnd - baselineStart));
+	}
+	
+	private Integrate6DOFEquations runSimulation(String aircraftName, double dt, double simulationTime, IntegratorType integratorType) {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.setSelectedAircraft(aircraftName);
+		configuration.getSimulationOptions().clear();
+		configuration.getSimulationOptions().add(Options.ANALYSIS_MODE);
+		configuration.getIntegratorConfig().put(IntegratorConfig.DT, dt);
+		configuration.setIntegratorType(integratorType);
+		
+		Integrate6DOFEquations integration = new Integrate6DOFEquations(new FlightControlsState(configuration), configuration);
+		
+		long steps = Math.round(simulationTime/dt);
+		for (long i = 0; i < steps; i++)
+			integration.step();
+		
+		return integration;
+	}
+	
+	private double[] velocity(Integrate6DOFEquations integration) {
+		Map<SimOuts, Double> simOut = integration.getSimOut();
+		
+		return new double[] {simOut.get(SimOuts.U), simOut.get(SimOuts.V), simOut.get(SimOuts.W)};
+	}
+	
+	private double velocityError(double[] result, double[] reference) {
+		double sum = 0;
+		for (int i = 0; i < result.length; i++)
+			sum += (result[i]-reference[i])*(result[i]-reference[i]);
+		
+		return Math.sqrt(sum);
+	}
+	
+	private Integrate6DOFEquations createIntegration(String aircraftName, IntegratorType integratorType) {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.setSelectedAircraft(aircraftName);
+		configuration.getSimulationOptions().clear();
+		configuration.getSimulationOptions().add(Options.ANALYSIS_MODE);
+		configuration.setIntegratorType(integratorType);
+		
+		return new Integrate6DOFEquations(new FlightControlsState(configuration), configuration);
+	}
+}
@@ -0,0 +1,83 @@
+package com.chrisali.javaflightsim.simulation.linearization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.setup.Trimming;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class LinearizationServiceTest {
+
+	@Test
+	public void NavionModesTest() {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.setSelectedAircraft("Navion");
+		Trimming.trimSim(configuration, true);
+		
+		LinearizationService service = new LinearizationService(configuration, 4);
+		LinearModel model = service.linearize();
+		service.shutdown();
+		
+		assertEquals(LinearModel.STATES.length, model.getA().length);
+		assertEquals(4, model.getB()[0].length);
+		
+		ModeCharacteristics shortPeriod = model.getMode(DynamicMode.SHORT_PERIOD);
+		ModeCharacteristics phugoid 	= model.getMode(DynamicMode.PHUGOID);
+		
+		assertTrue("Short period should be a fast, well damped oscillation", 
+				   shortPeriod.isOscillatory() && shortPeriod.getDampingRatio() > 0.3);
+		assertTrue("Phugoid should be a slow, lightly damped oscillation", 
+				   phugoid.isOscillatory() && phugoid.getPeriod() > 10 && phugoid.getNaturalFrequency() < shortPeriod.getNaturalFrequency());
+		assertTrue("Dutch roll should be oscillatory", model.getMode(DynamicMode.DUTCH_ROLL).isOscillatory());
+		assertTrue("Roll subsidence should be faster than spiral", 
+				   Math.abs(model.getMode(DynamicMode.ROLL).getReal()) > Math.abs(model.getMode(DynamicMode.SPIRAL).getReal()));
+	}
+	
+	@Test
+	public void ExportLinearModelTest() throws IOException {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		Trimming.trimSim(configuration, true);
+		
+		LinearizationService service = new LinearizationService(configuration, 2);
+		LinearModel model = service.linearize();
+		service.shutdown();
+		
+		File file = File.createTempFile("LinearModel", ".json");
+		file.deleteOnExit();
+		FileUtilities.saveLinearModel(file, model);
+		
+		String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		for (DynamicMode mode : DynamicMode.values())
+			assertTrue("Exported model should contain " + mode.name(), json.contains(mode.name()));
+		assertTrue("Exported model should contain the A matrix", json.contains("\"a\""));
+	}
+	
+	@Test
+	public void ParallelMatchesSequentialTest() {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		Trimming.trimSim(configuration, true);
+		
+		LinearizationService sequential = new LinearizationService(configuration, 1);
+		LinearizationService parallel   = new LinearizationService(configuration, 4);
+		
+		LinearModel expected = sequential.linearize();
+		LinearModel actual   = parallel.linearize();
+		
+		sequential.shutdown();
+		parallel.shutdown();
+		
+		for (int i = 0; i < LinearModel.STATES.length; i++) {
+			assertArrayEquals(expected.getA()[i], actual.getA()[i], 0);
+			assertArrayEquals(expected.getB()[i], actual.getB()[i], 0);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.chrisali.javaflightsim.simulation.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+	
+	@Test
+	public void SmallValuesAreExactTest() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		
+		for (long i = 1; i <= LatencyHistogram.SUB_BUCKETS; i++)
+			histogram.record(i);
+		
+		assertEquals(LatencyHistogram.SUB_BUCKETS, histogram.getCount());
+		assertEquals(1, histogram.getMin());
+		assertEquals(LatencyHistogram.SUB_BUCKETS, histogram.getMax());
+		assertEquals(LatencyHistogram.SUB_BUCKETS / 2, histogram.getValueAtPercentile(50));
+		assertEquals((LatencyHistogram.SUB_BUCKETS + 1) / 2.0, histogram.getMean(), 1e-9);
+	}
+	
+	@Test
+	public void PercentilesAreWithinResolutionTest() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		
+		// 1 to 10 ms in 1 us steps, then one 250 ms outlier
+		for (long nanos = 1_000_000; nanos <= 10_000_000; nanos += 1000)
+			histogram.record(nanos);
+		histogram.record(250_000_000);
+		
+		assertEquals(5_500_000, histogram.getValueAtPercentile(50), 5_500_000 / 32.0);
+		assertEquals(9_910_000, histogram.getValueAtPercentile(99), 9_910_000 / 32.0);
+		assertEquals(250_000_000, histogram.getValueAtPercentile(100));
+		assertEquals(250_000_000, histogram.getMax());
+		
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+		assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+	}
+}
@@ -0,0 +1,122 @@
+package com.chrisali.javaflightsim.simulation.recording;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class FlightRecordingTest {
+	
+	private static final int COLUMNS = SimOuts.values().length;
+	private static final double DT = 0.05;
+	
+	private static FlightLog createLog(int rows) {
+		FlightLog log = new FlightLog();
+		double[] row = new double[COLUMNS];
+		
+		for (int i = 0; i < rows; i++) {
+			for (int column = 0; column < COLUMNS; column++)
+				row[column] = i * 1000.0 + column;
+			row[SimOuts.TIME.ordinal()] = i * DT;
+			
+			log.append(row);
+		}
+		
+		return log;
+	}
+	
+	private static File createRecording(FlightLog log) throws IOException {
+		File file = File.createTempFile("FlightRecording", "." + FlightRecordingWriter.FILE_EXTENSION);
+		file.deleteOnExit();
+		
+		SimulationConfiguration configuration = new SimulationConfiguration();
+		configuration.setSelectedAircraft("Navion");
+		FileUtilities.saveFlightRecording(file, log, configuration);
+		
+		return file;
+	}
+
+	@Test
+	public void RoundTripAcrossBlocksTest() throws IOException {
+		int rows = FlightRecordingWriter.BLOCK_ROWS * 2 + 17;
+		FlightLog log = createLog(rows);
+		File file = createRecording(log);
+		
+		try (FlightRecordingReader reader = new FlightRecordingReader(file)) {
+			assertEquals(rows, reader.size());
+			assertEquals(COLUMNS, reader.getColumnNames().size());
+			assertEquals("Navion", reader.getAircraftName());
+			
+			SimulationConfiguration configuration = reader.getConfiguration();
+			assertNotNull(configuration);
+			assertEquals("Navion", configuration.getSelectedAircraft());
+			
+			assertEquals(log.get(FlightRecordingWriter.BLOCK_ROWS + 3, SimOuts.ALT), 
+						 reader.get(FlightRecordingWriter.BLOCK_ROWS + 3, SimOuts.ALT), 0);
+			
+			double[] lastRow = reader.getRow(rows - 1, null);
+			double[] expected = log.getRow(rows - 1, null);
+			for (int column = 0; column < COLUMNS; column++)
+				assertEquals(expected[column], lastRow[column], 0);
+			
+			FlightLog readLog = reader.toFlightLog();
+			assertEquals(rows, readLog.size());
+			assertEquals(log.get(rows / 2, SimOuts.U), readLog.get(rows / 2, SimOuts.U), 0);
+		}
+		
+		// Unused part of the last mapped block is truncated on close
+		long headerLength = file.length() - (long) rows * COLUMNS * Double.BYTES;
+		assertEquals(0, headerLength % Double.BYTES);
+		assertTrue(headerLength > 0 && headerLength < COLUMNS * Double.BYTES * 4);
+	}
+	
+	@Test
+	public void FindRowByTimeTest() throws IOException {
+		int rows = 500;
+		File file = createRecording(createLog(rows));
+		
+		try (FlightRecordingReader reader = new FlightRecordingReader(file)) {
+			assertEquals(0, reader.findRow(-1.0));
+			assertEquals(200, reader.findRow(200 * DT));
+			assertEquals(200, reader.findRow(200 * DT + DT / 2));
+			assertEquals(rows - 1, reader.findRow(1000.0));
+			assertEquals(1000.0 * 321 + SimOuts.ALT.ordinal(), reader.getRowAtTime(321 * DT + DT / 4, null)[SimOuts.ALT.ordinal()], 0);
+		}
+	}
+	
+	@Test
+	public void ConvertToCSVTest() throws IOException {
+		int rows = 50;
+		File recording = createRecording(createLog(rows));
+		File csv = File.createTempFile("FlightRecording", ".csv");
+		csv.deleteOnExit();
+		
+		FileUtilities.convertRecordingToCSV(recording, csv);
+		
+		try (BufferedReader br = new BufferedReader(new FileReader(csv))) {
+			String[] header = br.readLine().split(",");
+			assertEquals(SimOuts.TIME.toString(), header[SimOuts.TIME.ordinal()]);
+			
+			int lines = 0;
+			String line, lastLine = null;
+			while ((line = br.readLine()) != null) {
+				lastLine = line;
+				lines++;
+			}
+			
+			assertEquals(rows, lines);
+			assertEquals((rows - 1) * DT, Double.parseDouble(lastLine.split(",")[SimOuts.TIME.ordinal()]), 1e-12);
+		}
+	}
+}
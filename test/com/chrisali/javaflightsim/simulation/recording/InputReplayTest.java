@@ -0,0 +1,137 @@
+package com.chrisali.javaflightsim.simulation.recording;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.HeadlessSimulationRunner;
+import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentData;
+import com.chrisali.javaflightsim.simulation.datatransfer.EnvironmentDataType;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.flightcontrols.analysis.AnalysisControls;
+import com.chrisali.javaflightsim.simulation.integration.FlightLog;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.KeyCommand;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class InputReplayTest {
+	
+	private static File createFile(String extension) throws IOException {
+		File file = File.createTempFile("InputReplay", "." + extension);
+		file.deleteOnExit();
+		
+		return file;
+	}
+
+	@Test
+	public void ReplayReproducesTrajectoryTest() throws IOException {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		AnalysisControls analysisControls = FileUtilities.readAnalysisControls();
+		configuration.getIntegratorConfig().put(IntegratorConfig.ENDTIME, 30.0);
+		
+		File inputs = createFile(InputRecorder.FILE_EXTENSION);
+		
+		HeadlessSimulationRunner recorded = new HeadlessSimulationRunner(configuration, analysisControls);
+		recorded.recordInputs(inputs);
+		recorded.run();
+		
+		FlightLog recordedLog = recorded.getSimulation().getLogsOut();
+		FlightLog replayedLog;
+		
+		try (InputReplay inputReplay = new InputReplay(inputs)) {
+			HeadlessSimulationRunner replayed = new HeadlessSimulationRunner(inputReplay);
+			replayed.run();
+			
+			replayedLog = replayed.getSimulation().getLogsOut();
+		}
+		
+		assertEquals(recordedLog.size(), replayedLog.size());
+		
+		double[][] expected = recordedLog.getColumns(SimOuts.values());
+		double[][] actual = replayedLog.getColumns(SimOuts.values());
+		
+		for (SimOuts simOut : SimOuts.values()) {
+			for (int row = 0; row < expected[simOut.ordinal()].length; row++) {
+				assertEquals(simOut + " differs at row " + row, Double.doubleToLongBits(expected[simOut.ordinal()][row]), 
+							 Double.doubleToLongBits(actual[simOut.ordinal()][row]));
+			}
+		}
+		
+		// Full state recording of the same flight is far larger
+		File states = createFile(FlightRecordingWriter.FILE_EXTENSION);
+		FileUtilities.saveFlightRecording(states, recordedLog, configuration);
+		
+		assertTrue("Input recording was " + inputs.length() + " bytes, state recording " + states.length(), 
+				   inputs.length() * 100 < states.length());
+	}
+	
+	@Test
+	public void ReplayedInputsMatchRecordedTest() throws IOException {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		File file = createFile(InputRecorder.FILE_EXTENSION);
+		AtomicInteger timeMS = new AtomicInteger(0);
+		int frameStepMS = 8, frames = 2000;
+		
+		List<String> recorded = new ArrayList<>();
+		EnvironmentData environmentData = new EnvironmentData(null);
+		
+		try (InputRecorder recorder = new InputRecorder(file, configuration, timeMS, new double[] {1.5})) {
+			environmentData.addEnvironmentDataListener(recorder);
+			
+			for (int frame = 0; frame < frames; frame++, timeMS.addAndGet(frameStepMS)) {
+				// Keys polled every frame, with an occasional press and a slowly moving stick
+				float elevator = (float) Math.sin(frame / 400);
+				float pressed = frame % 500 < 20 ? 1.0f : 0.0f;
+				
+				recorder.beginFrame(timeMS.get());
+				recorder.handleParameterChange(FlightControl.ELEVATOR, elevator);
+				recorder.handleParameterChange(KeyCommand.GEAR_UP_DOWN, pressed);
+				recorder.handleParameterChange(KeyCommand.BRAKES, 0.0f);
+				if (frame > 1000)
+					recorder.handleParameterChange(FlightControl.THROTTLE_1, 0.5f);
+				recorder.endFrame();
+				
+				recorded.add(timeMS.get() + " ELEVATOR " + elevator + " GEAR_UP_DOWN " + pressed + " BRAKES 0.0" 
+							 + (frame > 1000 ? " THROTTLE_1 0.5" : ""));
+				
+				if (frame % 300 == 0) {
+					environmentData.updateData(frame / 10.0f);
+					recorded.add(timeMS.get() + " terrain " + (double) (frame / 10.0f));
+				}
+			}
+			
+			assertTrue(recorder.getFramesWritten() < frames / 50);
+		}
+		
+		List<String> replayed = new ArrayList<>();
+		
+		try (InputReplay replay = new InputReplay(file)) {
+			assertEquals(0, replay.getStartTimeMS());
+			assertEquals(1.5, replay.getStepBoundaries()[0], 0);
+			
+			EnvironmentData replayedEnvironment = new EnvironmentData(null);
+			replayedEnvironment.addEnvironmentDataListener(data -> replayed.add(timeMS.get() + " terrain " 
+															+ data.getEnvironmentData().get(EnvironmentDataType.TERRAIN_HEIGHT)));
+			
+			for (timeMS.set(0); !replay.isFinished(timeMS.get()); timeMS.addAndGet(frameStepMS)) {
+				StringBuilder sb = new StringBuilder().append(timeMS.get());
+				replay.replayControls(timeMS.get(), (parameter, value) -> sb.append(" ").append(((Enum<?>) parameter).name())
+																		  .append(" ").append(value));
+				replayed.add(sb.toString());
+				
+				replay.replayEnvironment(timeMS.get(), replayedEnvironment);
+			}
+		}
+		
+		assertEquals(recorded, replayed);
+	}
+}
@@ -0,0 +1,121 @@
+package com.chrisali.javaflightsim.simulation.recording;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+
+public class StreamingFlightRecorderTest {
+	
+	private static final int COLUMNS = SimOuts.values().length;
+	private static final double DT = 0.01;
+	
+	private static File createFile() throws IOException {
+		File file = File.createTempFile("StreamingFlightRecorder", "." + FlightRecordingWriter.FILE_EXTENSION);
+		file.deleteOnExit();
+		
+		return file;
+	}
+	
+	private static double[] row(int index, double[] row) {
+		for (int column = 0; column < COLUMNS; column++)
+			row[column] = index * 1000.0 + column;
+		row[SimOuts.TIME.ordinal()] = index * DT;
+		
+		return row;
+	}
+
+	@Test
+	public void BlockingRecordsEveryRowTest() throws IOException {
+		File file = createFile();
+		int rows = 20_000;
+		double[] row = new double[COLUMNS];
+		
+		StreamingFlightRecorder recorder = new StreamingFlightRecorder(file, "Navion", null, BackpressurePolicy.BLOCK, 64);
+		recorder.start();
+		
+		for (int i = 0; i < rows; i++)
+			assertTrue(recorder.offer(row(i, row)));
+		
+		recorder.close();
+		
+		assertEquals(rows, recorder.getOfferedRows());
+		assertEquals(rows, recorder.getWrittenRows());
+		assertEquals(0, recorder.getDroppedRows());
+		assertEquals(0, recorder.getQueuedRows());
+		
+		try (FlightRecordingReader reader = new FlightRecordingReader(file)) {
+			assertEquals(rows, reader.size());
+			
+			for (int i = 0; i < rows; i += 997)
+				assertEquals(i * 1000.0 + SimOuts.ALT.ordinal(), reader.get(i, SimOuts.ALT), 0);
+			
+			assertEquals((rows - 1) * DT, reader.get(rows - 1, SimOuts.TIME), 0);
+		}
+	}
+	
+	@Test
+	public void DropAndDecimateWhenFullTest() throws IOException {
+		int capacity = 64;
+		double[] row = new double[COLUMNS];
+		
+		// Writer thread is not started, so the queue fills and stays full until closed
+		StreamingFlightRecorder dropping = new StreamingFlightRecorder(createFile(), "Navion", null, BackpressurePolicy.DROP, capacity);
+		for (int i = 0; i < capacity * 2; i++)
+			dropping.offer(row(i, row));
+		
+		assertEquals(capacity, dropping.getQueuedRows());
+		assertEquals(capacity, dropping.getDroppedRows());
+		assertFalse(dropping.offer(row(capacity * 2, row)));
+		
+		dropping.close();
+		assertEquals(capacity, dropping.getWrittenRows());
+		
+		StreamingFlightRecorder decimating = new StreamingFlightRecorder(createFile(), "Navion", null, BackpressurePolicy.DECIMATE, capacity);
+		int offered = 0;
+		while (decimating.getQueuedRows() < capacity)
+			decimating.offer(row(offered++, row));
+		
+		// The last quarter of the queue only takes one row in DECIMATION
+		int lastQuarter = capacity / 4;
+		assertEquals(lastQuarter * (StreamingFlightRecorder.DECIMATION - 1), decimating.getDecimatedRows(), StreamingFlightRecorder.DECIMATION);
+		assertEquals(0, decimating.getDroppedRows());
+		assertTrue(decimating.getLagSeconds() == 0.0);
+		
+		decimating.close();
+		assertEquals(capacity, decimating.getWrittenRows());
+	}
+	
+	@Test
+	public void AccountsForRowsOfferedWhileClosingTest() throws Exception {
+		File file = createFile();
+		
+		StreamingFlightRecorder recorder = new StreamingFlightRecorder(file, "Navion", null, BackpressurePolicy.DROP, 64);
+		recorder.start();
+		
+		// Keeps offering rows until well after the recorder has closed, so that some race the writer thread shutting down
+		Thread producer = new Thread(() -> {
+			double[] row = new double[COLUMNS];
+			for (int i = 0; recorder.getDroppedRows() < 1000 || i < 1000; i++)
+				recorder.offer(row(i, row));
+		});
+		producer.start();
+		
+		Thread.sleep(10);
+		recorder.close();
+		producer.join();
+		
+		assertEquals("Every row offered must be written or dropped", recorder.getOfferedRows(), 
+					 recorder.getWrittenRows() + recorder.getDroppedRows());
+		
+		try (FlightRecordingReader reader = new FlightRecordingReader(file)) {
+			assertEquals(recorder.getWrittenRows(), reader.size());
+		}
+	}
+}
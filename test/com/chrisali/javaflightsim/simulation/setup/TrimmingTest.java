@@ -0,0 +1,136 @@
+package com.chrisali.javaflightsim.simulation.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.SimulationContext;
+import com.chrisali.javaflightsim.simulation.aircraft.Aircraft;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControl;
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class TrimmingTest {
+	
+	private static final double SIMULATION_TIME = 10.0;
+
+	@Test
+	public void StraightAndLevelNavionTest() {
+		assertTrimHolds("Navion", TrimCondition.straightAndLevel(180, 5000, 0));
+	}
+	
+	@Test
+	public void ClimbTwinNavionTest() {
+		assertTrimHolds("TwinNavion", TrimCondition.climb(150, 5000, 0, Math.toRadians(3)));
+	}
+	
+	@Test
+	public void SteadyTurnNavionTest() {
+		assertTrimHolds("Navion", TrimCondition.steadyTurn(180, 5000, 0, Math.toRadians(6)));
+	}
+	
+	@Test
+	public void TrimCacheTest() throws IOException {
+		SimulationConfiguration configuration = createConfiguration("Navion");
+		TrimCondition condition = TrimCondition.straightAndLevel(180, 5000, 0);
+		TrimCache cache = new TrimCache();
+		
+		TrimPoint solved = new Trimming(new SimulationContext(configuration), cache).trim(condition, true);
+		assertTrue("Trim should converge", solved.isConverged());
+		
+		// A second start at the same condition should use the cached solution without solving
+		TrimPoint cached = new Trimming(new SimulationContext(configuration), cache).trim(condition, true);
+		assertSame("Trim should come from the cache", solved, cached);
+		
+		Path directory = Files.createTempDirectory("TrimCache");
+		cache.setConfigDirectory(directory.toString());
+		cache.save();
+		
+		TrimCache read = FileUtilities.readTrimCache(directory.toString());
+		String key = TrimCache.createKey(new SimulationContext(configuration).getAircraft(), condition, configuration.getInitialControls());
+		
+		assertNotNull("Saved trim cache should contain " + key, read.get(key));
+		assertEquals(solved.getElevator(), read.get(key).getElevator(), 0);
+		assertEquals(solved.getThrottle(), read.get(key).getThrottle(), 0);
+		
+		Files.delete(directory.resolve(TrimCache.class.getSimpleName() + FileUtilities.CONFIG_EXT));
+		Files.delete(directory);
+	}
+	
+	@Test
+	public void TrimCacheKeyTest() {
+		SimulationConfiguration configuration = createConfiguration("Navion");
+		TrimCondition condition = TrimCondition.straightAndLevel(180, 5000, 0);
+		Aircraft aircraft = new SimulationContext(configuration).getAircraft();
+		Map<FlightControl, Double> controls = new EnumMap<>(configuration.getInitialControls());
+		
+		String key = TrimCache.createKey(aircraft, condition, controls);
+		TrimCache cache = new TrimCache();
+		cache.put(key, new TrimPoint(0, 0, 0, 0, 0, 0.5, true));
+		
+		// Leaning the mixture changes thrust, so the throttle solved for no longer trims the aircraft
+		controls.put(FlightControl.MIXTURE_1, controls.get(FlightControl.MIXTURE_1) * 0.5);
+		assertNotEquals(key, TrimCache.createKey(aircraft, condition, controls));
+		controls.put(FlightControl.MIXTURE_1, configuration.getInitialControls().get(FlightControl.MIXTURE_1));
+		
+		// Saving the aircraft under the same name changes its file, and with it the revision in the key
+		File file = FileUtilities.getAircraftConfigurationFile("Navion");
+		long lastModified = file.lastModified();
+		
+		try {
+			assertTrue(file.setLastModified(lastModified + 2000));
+			
+			String editedKey = TrimCache.createKey(aircraft, condition, controls);
+			assertNull("Trim points of an edited aircraft should not be reused", cache.get(editedKey));
+			
+			cache.put(editedKey, new TrimPoint(0, 0, 0, 0, 0, 0.6, true));
+			assertNull("Trim points of earlier revisions should be removed", cache.get(key));
+			assertEquals(1, cache.getTrimPoints().size());
+		} finally {
+			file.setLastModified(lastModified);
+		}
+	}
+	
+	private void assertTrimHolds(String aircraftName, TrimCondition condition) {
+		SimulationConfiguration configuration = createConfiguration(aircraftName);
+		
+		TrimPoint trimPoint = new Trimming(new SimulationContext(configuration), null).trim(condition, true);
+		assertTrue(aircraftName + " trim should converge for: " + condition, trimPoint.isConverged());
+		
+		Integrate6DOFEquations integration = new Integrate6DOFEquations(new FlightControlsState(configuration), configuration);
+		
+		double dt = configuration.getIntegratorConfig().get(IntegratorConfig.DT);
+		for (long i = 0; i < Math.round(SIMULATION_TIME/dt); i++)
+			integration.step();
+		
+		Map<SimOuts, Double> simOut = integration.getSimOut();
+		double expectedAltitude = condition.getAltitude() + condition.getAirspeed()*Math.sin(condition.getFlightPathAngle())*SIMULATION_TIME;
+		
+		assertEquals(aircraftName + " airspeed", condition.getAirspeed(), simOut.get(SimOuts.TAS), 0.5);
+		assertEquals(aircraftName + " altitude", expectedAltitude, simOut.get(SimOuts.ALT), 5.0);
+		assertEquals(aircraftName + " turn rate", condition.getTurnRate(), simOut.get(SimOuts.PSI_DOT), 1e-3);
+	}
+	
+	private SimulationConfiguration createConfiguration(String aircraftName) {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.setSelectedAircraft(aircraftName);
+		configuration.getSimulationOptions().clear();
+		configuration.getSimulationOptions().add(Options.ANALYSIS_MODE);
+		
+		return configuration;
+	}
+}
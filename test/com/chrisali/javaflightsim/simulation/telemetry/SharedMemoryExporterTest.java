@@ -0,0 +1,116 @@
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class SharedMemoryExporterTest {
+	
+	private static final int COLUMNS = SimOuts.values().length;
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private static double[] rowOf(double value) {
+		double[] row = new double[COLUMNS];
+		for (int i = 0; i < COLUMNS; i++)
+			row[i] = value;
+		
+		return row;
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void ReadsLatestRowAndHistoryTest() throws Exception {
+		File file = folder.newFile("export");
+		
+		try (SharedMemoryExporter exporter = new SharedMemoryExporter(file, 4);
+			 SharedMemoryReader reader = new SharedMemoryReader(file)) {
+			double[] row = new double[COLUMNS];
+			double[][] history = new double[10][COLUMNS];
+			
+			assertEquals(0, reader.readLatest(row));
+			assertEquals(0, reader.readHistory(history));
+			
+			for (int i = 1; i <= 6; i++)
+				exporter.write(rowOf(i));
+			
+			assertEquals(6, reader.readLatest(row));
+			assertEquals(6.0, SharedMemoryReader.get(row, SimOuts.ALT), 0);
+			
+			// Only the last 4 rows are kept, oldest first
+			assertEquals(4, reader.readHistory(history));
+			for (int i = 0; i < 4; i++)
+				assertEquals(i + 3.0, history[i][SimOuts.TIME.ordinal()], 0);
+			
+			assertEquals(COLUMNS, reader.getColumns());
+			assertEquals(4, reader.getHistoryRows());
+		}
+		
+		// Schema describes the columns from SimOuts
+		Map<String, Object> schema = new ObjectMapper().readValue(new File(file.getPath() + SharedMemoryExporter.SCHEMA_EXTENSION), Map.class);
+		List<Map<String, Object>> columns = (List<Map<String, Object>>) schema.get("columns");
+		assertEquals(COLUMNS, columns.size());
+		assertEquals(SimOuts.ALT.name(), columns.get(SimOuts.ALT.ordinal()).get("name"));
+		assertEquals(SimOuts.ALT.ordinal() * Double.BYTES, columns.get(SimOuts.ALT.ordinal()).get("offset"));
+	}
+	
+	@Test
+	public void NeverReadsTornRowsWhileWritingTest() throws Exception {
+		File file = folder.newFile("export");
+		AtomicBoolean writing = new AtomicBoolean(true);
+		
+		try (SharedMemoryExporter exporter = new SharedMemoryExporter(file, 8);
+			 SharedMemoryReader reader = new SharedMemoryReader(file)) {
+			Thread writer = new Thread(() -> {
+				double[] row = new double[COLUMNS];
+				for (int i = 1; i <= 200_000; i++) {
+					Arrays.fill(row, i);
+					exporter.write(row);
+				}
+				writing.set(false);
+			});
+			writer.start();
+			
+			double[] row = new double[COLUMNS];
+			double[][] history = new double[8][COLUMNS];
+			long reads = 0;
+			
+			while (writing.get() || reads == 0) {
+				long rowsWritten = reader.readLatest(row);
+				if (rowsWritten == 0)
+					continue;
+				
+				for (double value : row)
+					assertEquals(rowsWritten, value, 0);
+				
+				int count = reader.readHistory(history);
+				for (int i = 0; i < count; i++) {
+					for (double value : history[i])
+						assertEquals(history[i][0], value, 0);
+					
+					if (i > 0)
+						assertEquals(history[i - 1][0] + 1, history[i][0], 0);
+				}
+				
+				reads++;
+			}
+			
+			writer.join();
+			assertEquals(200_000, reader.readLatest(row));
+			assertTrue(reads > 0);
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package com.chrisali.javaflightsim.simulation.telemetry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import com.chrisali.javaflightsim.simulation.HeadlessSimulationRunner;
+import com.chrisali.javaflightsim.simulation.StepScheduler;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightData;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataFrame;
+import com.chrisali.javaflightsim.simulation.datatransfer.FlightDataType;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+public class TelemetryPublisherTest {
+	
+	private static InetSocketAddress loopback(TelemetryReceiver receiver) throws Exception {
+		return new InetSocketAddress("127.0.0.1", receiver.getLocalAddress().getPort());
+	}
+	
+	private static FlightDataFrame createFrame() {
+		double[] simOut = new double[SimOuts.values().length];
+		for (int i = 0; i < simOut.length; i++)
+			simOut[i] = i + 0.5;
+		
+		FlightDataFrame frame = new FlightDataFrame();
+		frame.update(simOut);
+		
+		return frame;
+	}
+	
+	@Test
+	public void EncodesAndDecodesPacketsTest() {
+		FlightDataFrame frame = createFrame();
+		ByteBuffer buffer = ByteBuffer.allocate(TelemetryPacket.MAX_BYTES);
+		TelemetryPacket packet = new TelemetryPacket();
+		
+		TelemetryPacket.encode(buffer, frame, 3, true);
+		assertEquals(TelemetryPacket.getSize(true), buffer.remaining());
+		assertTrue(packet.decode(buffer));
+		
+		assertEquals(3, packet.getSequence());
+		assertEquals(frame.getTime(), packet.getTime(), 0);
+		assertTrue(packet.hasSimOuts());
+		for (FlightDataType type : FlightDataType.values())
+			assertEquals(type.toString(), frame.get(type), packet.get(type), 0);
+		for (SimOuts simOut : SimOuts.values())
+			assertEquals(simOut.toString(), frame.getSimOut(simOut), packet.getSimOut(simOut), 0);
+		
+		// Without simulation outputs, those of the last packet decoded must not be left behind
+		TelemetryPacket.encode(buffer, frame, 4, false);
+		assertEquals(TelemetryPacket.getSize(false), buffer.remaining());
+		assertTrue(packet.decode(buffer));
+		assertEquals(4, packet.getSequence());
+		assertFalse(packet.hasSimOuts());
+		assertTrue(Double.isNaN(packet.getSimOut(SimOuts.RPM_1)));
+		assertEquals(frame.get(FlightDataType.ALTITUDE), packet.get(FlightDataType.ALTITUDE), 0);
+		
+		buffer.clear();
+		buffer.putInt(0x12345678).putLong(0).putLong(0).putLong(0).putLong(0).putLong(0).flip();
+		assertFalse("Packet without the magic number must not be decoded", packet.decode(buffer));
+	}
+	
+	@Test
+	public void SendsPacketsInSequenceTest() throws Exception {
+		final int packets = 100;
+		
+		try (TelemetryReceiver receiver = new TelemetryReceiver(0)) {
+			new Thread(receiver).start();
+			
+			TelemetryDestination destination = new TelemetryDestination(null, loopback(receiver), 0, true);
+			
+			FlightDataFrame frame = createFrame();
+			
+			for (int i = 1; i <= packets; i++) {
+				destination.onFlightDataReceived(frame);
+				
+				final long sent = i;
+				await(() -> receiver.getReceivedPackets() == sent);
+			}
+			
+			destination.close();
+			
+			TelemetryPacket packet = new TelemetryPacket();
+			assertTrue(receiver.getLatestPacket(packet));
+			assertEquals(packets, packet.getSequence());
+			assertEquals(packets, destination.getSentPackets());
+			assertEquals(0, receiver.getLostPackets());
+			assertEquals(0, receiver.getOutOfOrderPackets());
+			assertEquals(0, receiver.getInvalidPackets());
+		}
+	}
+	
+	@Test
+	public void SendsPacketsWithoutAllocatingTest() throws Exception {
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assertTrue("Thread allocation measurement should be supported", threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		
+		final int packets = 20_000;
+		
+		try (TelemetryReceiver receiver = new TelemetryReceiver(0)) {
+			new Thread(receiver).start();
+			
+			TelemetryDestination destination = new TelemetryDestination(null, loopback(receiver), 0, true);
+			FlightDataFrame frame = createFrame();
+			
+			for (int i = 0; i < packets; i++)
+				destination.onFlightDataReceived(frame);
+			
+			long threadId = Thread.currentThread().getId();
+			
+			// Cost of the measurement itself, subtracted from the measured sends
+			long baselineStart = threadBean.getThreadAllocatedBytes(threadId);
+			long baselineEnd   = threadBean.getThreadAllocatedBytes(threadId);
+			
+			long start = threadBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < packets; i++)
+				destination.onFlightDataReceived(frame);
+			long allocated = threadBean.getThreadAllocatedBytes(threadId) - start - (baselineEnd - baselineStart);
+			
+			destination.close();
+			
+			// Less than a byte per packet leaves room for one-off JIT and class loading costs only
+			assertTrue("Allocated " + allocated + " bytes sending " + packets + " packets", allocated < packets);
+			assertEquals(2 * packets, destination.getSentPackets() + destination.getDroppedPackets());
+			assertEquals(0, destination.getFailedPackets());
+		}
+	}
+	
+	@Test
+	public void SplitsRateBetweenDestinationsTest() throws Exception {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.getSimulationOptions().clear();
+		
+		Integrate6DOFEquations simulation = new HeadlessSimulationRunner(configuration, null).getSimulation();
+		FlightData flightData = new FlightData(simulation);
+		
+		AtomicInteger timeMS = new AtomicInteger(0);
+		StepScheduler scheduler = new StepScheduler(simulation.getStepRateHz(), timeMS);
+		scheduler.add(simulation, 0);
+		scheduler.add(flightData, 0);
+		
+		final int frames = 240;
+		
+		try (TelemetryReceiver fullReceiver = new TelemetryReceiver(0);
+			 TelemetryReceiver slowReceiver = new TelemetryReceiver(0);
+			 TelemetryPublisher publisher = new TelemetryPublisher(flightData)) {
+			new Thread(fullReceiver).start();
+			new Thread(slowReceiver).start();
+			
+			// Every step, and at 60 Hz of simulation time, which is every other step as each steps 1/120 sec
+			TelemetryDestination full = publisher.addDestination(loopback(fullReceiver), 0, true);
+			TelemetryDestination slow = publisher.addDestination(loopback(slowReceiver), 60, false);
+			
+			// Waits for each frame to be sent, so that none are skipped by a sender that has fallen behind
+			while (flightData.getSequence() < frames) {
+				scheduler.tick();
+				
+				long published = flightData.getSequence();
+				await(() -> full.getSentPackets() == published && slow.getSentPackets() == (published + 1) / 2);
+			}
+			
+			await(() -> fullReceiver.getReceivedPackets() == frames && slowReceiver.getReceivedPackets() == frames / 2);
+			
+			TelemetryPacket packet = new TelemetryPacket();
+			
+			assertTrue(fullReceiver.getLatestPacket(packet));
+			assertEquals(frames, packet.getSequence());
+			assertEquals(frames, packet.getFrameSequence());
+			assertTrue(packet.hasSimOuts());
+			
+			assertTrue(slowReceiver.getLatestPacket(packet));
+			assertEquals(frames / 2, packet.getSequence());
+			assertEquals("60 Hz destination is sent every other frame, starting from the first", frames - 1, packet.getFrameSequence());
+			assertFalse(packet.hasSimOuts());
+			
+			assertEquals(0, fullReceiver.getLostPackets());
+			assertEquals(0, slowReceiver.getLostPackets());
+		}
+	}
+	
+	/**
+	 * Waits up to 5 seconds for condition to be true
+	 */
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		
+		while (!condition.getAsBoolean()) {
+			assertTrue("Timed out waiting for telemetry", System.nanoTime() < deadline);
+			Thread.sleep(1);
+		}
+	}
+}
@@ -51,7 +51,8 @@ public class TestEngine extends ApplicationFrame {
 		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
 		
 		EnumMap<FlightControl, Double> controls = configuration.getInitialControls();
-		Map<EnvironmentParameters, Double> environmentParameters = Environment.getAndUpdateEnvironmentParams(new double[] {0,0,0});
+		Environment environment = new Environment();
+		Map<EnvironmentParameters, Double> environmentParameters = environment.getAndUpdateEnvironmentParams(new double[] {0,0,0});
 		StringBuilder constraint = new StringBuilder();
 		
 		Engine defaultEngine  = new FixedPitchPropEngine();
@@ -135,7 +136,7 @@ public class TestEngine extends ApplicationFrame {
 							  .append(" ft/sec)");
 				
 				for (double altitude = 0; altitude < 20000; altitude += 10) {
-					environmentParameters = Environment.getAndUpdateEnvironmentParams(new double[] {0, 0, altitude});
+					environmentParameters = environment.getAndUpdateEnvironmentParams(new double[] {0, 0, altitude});
 					
 					defaultEngine.updateEngineState(controls, 
 													environmentParameters,
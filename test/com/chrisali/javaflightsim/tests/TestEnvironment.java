@@ -43,6 +43,7 @@ public class TestEnvironment extends ApplicationFrame {
 	public TestEnvironment() {
 		super("Environment Test");
 		
+		Environment environment = new Environment();
 		Map<EnvironmentParameters, Double> envData = new EnumMap<EnvironmentParameters, Double>(EnvironmentParameters.class);
 		
 		XYSeries tData       = new XYSeries("T");
@@ -64,9 +65,9 @@ public class TestEnvironment extends ApplicationFrame {
 		XYSeriesCollection windSeries = new XYSeriesCollection();
 		
 		for (double alt=0; alt<60000; alt+=10) {
-			Environment.setWindDir(alt*6/1000);
-			Environment.setWindSpeed(alt/6000);
-			envData = Environment.getAndUpdateEnvironmentParams(new double[] {0, 0, alt});
+			environment.setWindDir(alt*6/1000);
+			environment.setWindSpeed(alt/6000);
+			envData = environment.getAndUpdateEnvironmentParams(new double[] {0, 0, alt});
 			
 			// Add envData to each XYSeries
 			tData.add(alt,envData.get(EnvironmentParameters.T));
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2016-2018 Christopher Ali
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  If you have any questions about this project, you can visit
+ *  the project's GitHub repository at: http://github.com/chris-ali/j6dof-flight-sim/
+ ******************************************************************************/
+package com.chrisali.javaflightsim.tests;
+
+import java.util.Map;
+
+import com.chrisali.javaflightsim.simulation.flightcontrols.FlightControlsState;
+import com.chrisali.javaflightsim.simulation.integration.Integrate6DOFEquations;
+import com.chrisali.javaflightsim.simulation.integration.SimOuts;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorConfig;
+import com.chrisali.javaflightsim.simulation.setup.IntegratorType;
+import com.chrisali.javaflightsim.simulation.setup.Options;
+import com.chrisali.javaflightsim.simulation.setup.SimulationConfiguration;
+import com.chrisali.javaflightsim.simulation.utilities.FileUtilities;
+
+/**
+ * Convergence benchmark of {@link Integrate6DOFEquations}; runs the simulation in analysis mode for a fixed 
+ * length of time at several time steps, and compares the final position and velocity against a reference 
+ * run using a very small time step. Prints the error for each time step along with the wall clock time 
+ * needed to simulate one second of flight 
+ * 
+ * @author Christopher Ali
+ *
+ */
+public class TestIntegratorConvergence {
+	
+	private static final double SIMULATION_TIME = 20.0;
+	private static final double REFERENCE_DT    = 1.0/1920.0;
+	private static final double[] TEST_DTS      = {1.0/15.0, 1.0/30.0, 1.0/60.0, 1.0/120.0, 1.0/240.0};
+	private static final double ADAPTIVE_DT     = 1.0/120.0;
+	private static final double[] TOLERANCES    = {1e-4, 1e-6, 1e-8, 1e-10};
+	
+	private int evaluations;
+	
+	public static void main(String[] args) {
+		new TestIntegratorConvergence("Navion");
+		new TestIntegratorConvergence("TwinNavion");
+	}
+	
+	private TestIntegratorConvergence(String aircraftName) {
+		// Warm up JIT before timing any runs
+		runSimulation(aircraftName, TEST_DTS[TEST_DTS.length-1], IntegratorType.CLASSICAL_RUNGE_KUTTA, 0);
+		
+		double[] reference = runSimulation(aircraftName, REFERENCE_DT, IntegratorType.CLASSICAL_RUNGE_KUTTA, 0);
+		
+		System.out.println("============ " + aircraftName + " (" + SIMULATION_TIME + " sec, reference dt = 1/" 
+							+ Math.round(1/REFERENCE_DT) + " sec) ============");
+		System.out.println(String.format("%10s %18s %20s %12s %18s", "dt [sec]", "Position Err [ft]", "Velocity Err [ft/s]", 
+										 "Evaluations", "ns/sim sec"));
+		
+		for (double dt : TEST_DTS) {
+			long start = System.nanoTime();
+			double[] result = runSimulation(aircraftName, dt, IntegratorType.CLASSICAL_RUNGE_KUTTA, 0);
+			long elapsed = System.nanoTime() - start;
+			
+			System.out.println(String.format("%10s %18.6e %20.6e %12d %18d", "1/" + Math.round(1/dt), 
+											 distance(result, reference, 0), distance(result, reference, 3),
+											 evaluations, Math.round(elapsed/SIMULATION_TIME)));
+		}
+		
+		System.out.println();
+		System.out.println(String.format("%10s %18s %20s %12s %18s", "tolerance", "Position Err [ft]", "Velocity Err [ft/s]", 
+										 "Evaluations", "ns/sim sec"));
+		
+		for (double tolerance : TOLERANCES) {
+			long start = System.nanoTime();
+			double[] result = runSimulation(aircraftName, ADAPTIVE_DT, IntegratorType.DORMAND_PRINCE_54, tolerance);
+			long elapsed = System.nanoTime() - start;
+			
+			System.out.println(String.format("%10.0e %18.6e %20.6e %12d %18d", tolerance, 
+											 distance(result, reference, 0), distance(result, reference, 3),
+											 evaluations, Math.round(elapsed/SIMULATION_TIME)));
+		}
+		
+		System.out.println();
+	}
+	
+	/**
+	 * Runs the simulation for {@link TestIntegratorConvergence#SIMULATION_TIME} at a time step of dt
+	 * 
+	 * @param aircraftName
+	 * @param dt
+	 * @param integratorType
+	 * @param tolerance absolute and relative tolerance of adaptive integration
+	 * @return final {u, v, w, N, E, D} states
+	 */
+	private double[] runSimulation(String aircraftName, double dt, IntegratorType integratorType, double tolerance) {
+		SimulationConfiguration configuration = FileUtilities.readSimulationConfiguration();
+		configuration.setSelectedAircraft(aircraftName);
+		configuration.getSimulationOptions().clear();
+		configuration.getSimulationOptions().add(Options.ANALYSIS_MODE);
+		configuration.getIntegratorConfig().put(IntegratorConfig.DT, dt);
+		configuration.getIntegratorConfig().put(IntegratorConfig.ABSTOLERANCE, tolerance);
+		configuration.getIntegratorConfig().put(IntegratorConfig.RELTOLERANCE, tolerance);
+		configuration.setIntegratorType(integratorType);
+		
+		Integrate6DOFEquations integration = new Integrate6DOFEquations(new FlightControlsState(configuration), configuration);
+		
+		long steps = Math.round(SIMULATION_TIME/dt);
+		for (long i = 0; i < steps; i++)
+			integration.step();
+		
+		evaluations = integration.getEvaluations();
+		
+		Map<SimOuts, Double> simOut = integration.getSimOut();
+		
+		return new double[] {simOut.get(SimOuts.U), simOut.get(SimOuts.V), simOut.get(SimOuts.W),
+							 simOut.get(SimOuts.NORTH), simOut.get(SimOuts.EAST), simOut.get(SimOuts.ALT)};
+	}
+	
+	private static double distance(double[] a, double[] b, int offset) {
+		double sum = 0;
+		for (int i = offset; i < offset + 3; i++)
+			sum += (a[i]-b[i])*(a[i]-b[i]);
+		
+		return Math.sqrt(sum);
+	}
+}